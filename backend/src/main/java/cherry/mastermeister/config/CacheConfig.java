@@ -16,9 +16,23 @@
 
 package cherry.mastermeister.config;
 
+import cherry.mastermeister.service.PermissionEpochService;
+import cherry.mastermeister.service.PermissionMatrix;
+import cherry.mastermeister.service.PermissionService;
+import cherry.mastermeister.service.UserDetailsServiceImpl;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Configuration
 @EnableCaching
 public class CacheConfig {
@@ -27,8 +41,67 @@ public class CacheConfig {
      *
      * spring.cache.type=caffeine
      * spring.cache.caffeine.spec=maximumSize=1000,expireAfterWrite=5m,recordStats
-     * spring.cache.cache-names=tablePermissions,readPermissions,deletePermissions,readableColumns,writableColumns
+     * spring.cache.cache-names=tablePermissions,readPermissions,deletePermissions,readableColumns,writableColumns,recordCounts,sqlTemplates,permissionMatrices
      *
-     * This class only provides @EnableCaching annotation to activate caching functionality.
+     * Permission caches are keyed by permission epochs (see PermissionEpochService) and have their own size and TTL.
+     * Their entries also expire at the earliest expiration of the permission rows they were computed from
+     * (see PermissionCacheExpiry), so the TTL does not affect correctness.
+     */
+
+    /**
+     * Permission caches: entries are invalidated by epoch, so the TTL only bounds the lifetime of unreachable entries
      */
+    public static final List<String> PERMISSION_CACHES = List.of(
+            "tablePermissions", "readPermissions", "deletePermissions",
+            "readableColumns", "writableColumns", "permissionMatrices"
+    );
+
+    /**
+     * Authentication details of users: short TTL, evicted on approval and rejection
+     */
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> userDetailsCacheCustomizer(
+            @Value("${mm.security.user-details-cache.ttl:30s}") Duration ttl,
+            @Value("${mm.security.user-details-cache.max-entries:10000}") long maxEntries
+    ) {
+        return cacheManager -> cacheManager.registerCustomCache(UserDetailsServiceImpl.USER_DETAILS_CACHE,
+                Caffeine.newBuilder()
+                        .maximumSize(maxEntries)
+                        .expireAfterWrite(ttl)
+                        .recordStats()
+                        .build());
+    }
+
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> permissionCacheCustomizer(
+            @Value("${mm.app.permission.cache.ttl:1h}") Duration ttl,
+            @Value("${mm.app.permission.cache.max-entries:10000}") long maxEntries
+    ) {
+        return cacheManager -> {
+            // Matrices carry their own expiration
+            Cache<Object, Object> matrixCache = Caffeine.newBuilder()
+                    .maximumSize(maxEntries)
+                    .expireAfter(new PermissionCacheExpiry(ttl,
+                            (key, value) -> value instanceof PermissionMatrix matrix ? matrix.getExpiresAt() : null))
+                    .recordStats()
+                    .build();
+            cacheManager.registerCustomCache(PermissionService.PERMISSION_MATRICES_CACHE, matrixCache);
+
+            // Answers derived from a matrix expire with it; the matrix has just been used to compute them,
+            // and if it is no longer cached the answer is not kept either
+            PermissionCacheExpiry derivedExpiry = new PermissionCacheExpiry(ttl, (key, value) -> {
+                Object matrix = matrixCache.getIfPresent(PermissionEpochService.baseKey(key));
+                return matrix instanceof PermissionMatrix permissionMatrix
+                        ? permissionMatrix.getExpiresAt() : LocalDateTime.now();
+            });
+            PERMISSION_CACHES.stream()
+                    .filter(name -> !PermissionService.PERMISSION_MATRICES_CACHE.equals(name))
+                    .forEach(name -> cacheManager.registerCustomCache(name,
+                            Caffeine.newBuilder()
+                                    .maximumSize(maxEntries)
+                                    .expireAfter(derivedExpiry)
+                                    .recordStats()
+                                    .build()));
+        };
+    }
 }
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2025 agwlvssainokuni
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cherry.mastermeister.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class DataAccessConfig {
+
+    /**
+     * Executor for queries run alongside the page query (count queries and background counts).
+     * Kept separate from the request threads so that slow counts never block other requests.
+     * In virtual thread mode each task gets its own virtual thread, so a slow target database holds no
+     * platform thread; the concurrency limit only bounds runaway submissions, the connection pools bound the queries.
+     */
+    @Bean
+    public AsyncTaskExecutor dataAccessExecutor(
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${mm.app.data-access.executor.pool-size:8}") int poolSize,
+            @Value("${mm.app.data-access.executor.queue-capacity:100}") int queueCapacity,
+            @Value("${mm.app.data-access.executor.virtual-concurrency-limit:1000}") int virtualConcurrencyLimit
+    ) {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("data-access-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(virtualConcurrencyLimit);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("data-access-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2025 agwlvssainokuni
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cherry.mastermeister.config;
+
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.BiFunction;
+
+/**
+ * Per-entry expiration of permission caches.
+ * An entry expires at the earliest expiration of the permission rows it was computed from,
+ * and at the latest after the configured TTL.
+ */
+public class PermissionCacheExpiry implements Expiry<Object, Object> {
+
+    private final Duration ttl;
+    private final BiFunction<Object, Object, LocalDateTime> expiresAtResolver;
+
+    /**
+     * @param ttl               upper bound of the lifetime of an entry
+     * @param expiresAtResolver expiration of an entry from its key and value, or null if it does not expire
+     */
+    public PermissionCacheExpiry(Duration ttl, BiFunction<Object, Object, LocalDateTime> expiresAtResolver) {
+        this.ttl = ttl;
+        this.expiresAtResolver = expiresAtResolver;
+    }
+
+    @Override
+    public long expireAfterCreate(Object key, Object value, long currentTime) {
+        LocalDateTime expiresAt = expiresAtResolver.apply(key, value);
+        if (expiresAt == null) {
+            return ttl.toNanos();
+        }
+        Duration remaining = Duration.between(LocalDateTime.now(), expiresAt);
+        if (remaining.isNegative()) {
+            return 0L;
+        }
+        // Compared as durations: far future expirations do not fit in nanoseconds
+        return remaining.compareTo(ttl) < 0 ? remaining.toNanos() : ttl.toNanos();
+    }
+
+    @Override
+    public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+        return expireAfterCreate(key, value, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+        return currentDuration;
+    }
+}
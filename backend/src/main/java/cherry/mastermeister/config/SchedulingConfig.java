@@ -0,0 +1,38 @@
+/*
+ * Copyright 2025 agwlvssainokuni
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cherry.mastermeister.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+    /*
+     * Activates @Scheduled methods:
+     *
+     * - ConnectionPoolMaintenanceService: adaptive pool sizing and closing of retired pools
+     * - TokenRefreshService: write-behind of refresh token usage counts and cleanup of expired refresh tokens
+     * - CacheCoherenceService: polling of the cache change log
+     * - SchemaRefreshJobService: heartbeat of schema refresh claims held by this node
+     * - SchemaRefreshScheduler: fingerprint sweep of all connections (when enabled)
+     *
+     * Tasks share the scheduler pool (spring.task.scheduling.pool.size). Its size must cover all tasks:
+     * the fingerprint sweep connects to every target database and can wait for each connection timeout,
+     * and a heartbeat delayed past mm.app.schema.refresh.stale-timeout lets other nodes abort a running refresh.
+     */
+}
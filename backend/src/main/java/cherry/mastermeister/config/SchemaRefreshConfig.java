@@ -0,0 +1,63 @@
+/*
+ * Copyright 2025 agwlvssainokuni
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cherry.mastermeister.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class SchemaRefreshConfig {
+
+    /**
+     * Executor for background schema refresh jobs.
+     * A job reads the catalog on its own pooled connections, so a few threads cover many connections.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor schemaRefreshExecutor(
+            @Value("${mm.app.schema.refresh.executor.pool-size:2}") int poolSize,
+            @Value("${mm.app.schema.refresh.executor.queue-capacity:20}") int queueCapacity
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("schema-refresh-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
+    /**
+     * Executor for the workers that read the schemas of one refresh in parallel.
+     * Kept apart from the data access executor so that a refresh never delays count queries.
+     * There is no queue: a worker that finds no free thread is not started, and its schemas are read
+     * by the other workers or by the refresh thread itself.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor schemaIntrospectionExecutor(
+            @Value("${mm.app.schema.introspection.executor.pool-size:8}") int poolSize
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("schema-introspection-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+}
@@ -17,17 +17,18 @@
 package cherry.mastermeister.controller;
 
 import cherry.mastermeister.controller.dto.*;
+import cherry.mastermeister.exception.TooManyRequestsException;
 import cherry.mastermeister.model.TokenRefreshResult;
 import cherry.mastermeister.service.AuditLogService;
+import cherry.mastermeister.service.LoginAdmissionService;
 import cherry.mastermeister.service.TokenRefreshService;
 import cherry.mastermeister.service.UserDetailsServiceImpl;
 import cherry.mastermeister.util.JwtUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -40,20 +41,20 @@ import org.springframework.web.bind.annotation.RestController;
 @Tag(name = "Authentication", description = "User authentication operations")
 public class AuthController {
 
-    private final AuthenticationManager authenticationManager;
+    private final LoginAdmissionService loginAdmissionService;
     private final JwtUtil jwtUtil;
     private final UserDetailsServiceImpl userDetailsService;
     private final TokenRefreshService tokenRefreshService;
     private final AuditLogService auditLogService;
 
     public AuthController(
-            AuthenticationManager authenticationManager,
+            LoginAdmissionService loginAdmissionService,
             JwtUtil jwtUtil,
             UserDetailsServiceImpl userDetailsService,
             TokenRefreshService tokenRefreshService,
             AuditLogService auditLogService
     ) {
-        this.authenticationManager = authenticationManager;
+        this.loginAdmissionService = loginAdmissionService;
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
         this.tokenRefreshService = tokenRefreshService;
@@ -61,10 +62,13 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ApiResponse<LoginResponse> login(@Valid @RequestBody LoginRequest request) {
+    public ApiResponse<LoginResponse> login(
+            @Valid @RequestBody LoginRequest request,
+            HttpServletRequest httpRequest
+    ) {
         try {
-            Authentication authentication = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(request.email(), request.password())
+            Authentication authentication = loginAdmissionService.authenticate(
+                    request.email(), request.password(), httpRequest
             );
 
             UserDetails userDetails = (UserDetails) authentication.getPrincipal();
@@ -85,6 +89,9 @@ public class AuthController {
             auditLogService.logLoginSuccess(userDetails.getUsername());
 
             return ApiResponse.success(result);
+        } catch (TooManyRequestsException e) {
+            // 流量制限による拒否はそのまま429として返す（件数はメトリクスで記録し、監査ログには書かない）
+            throw e;
         } catch (Exception e) {
             // ログイン失敗のログ記録
             auditLogService.logLoginFailure(request.email(), e.getMessage());
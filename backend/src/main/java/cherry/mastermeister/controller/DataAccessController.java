@@ -17,8 +17,11 @@
 package cherry.mastermeister.controller;
 
 import cherry.mastermeister.controller.dto.*;
+import cherry.mastermeister.enums.CountMode;
+import cherry.mastermeister.enums.ExportFormat;
 import cherry.mastermeister.exception.UserNotFoundException;
 import cherry.mastermeister.model.*;
+import cherry.mastermeister.security.CustomUserDetails;
 import cherry.mastermeister.service.*;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -26,12 +29,17 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -51,6 +59,7 @@ public class DataAccessController {
     private final RecordCreateService recordCreateService;
     private final RecordUpdateService recordUpdateService;
     private final RecordDeleteService recordDeleteService;
+    private final RecordExportService recordExportService;
     private final RecordFilterConverterService recordFilterConverterService;
     private final DatabaseService databaseService;
     private final UserService userService;
@@ -61,6 +70,7 @@ public class DataAccessController {
             RecordCreateService recordCreateService,
             RecordUpdateService recordUpdateService,
             RecordDeleteService recordDeleteService,
+            RecordExportService recordExportService,
             RecordFilterConverterService recordFilterConverterService,
             DatabaseService databaseService,
             UserService userService
@@ -70,6 +80,7 @@ public class DataAccessController {
         this.recordCreateService = recordCreateService;
         this.recordUpdateService = recordUpdateService;
         this.recordDeleteService = recordDeleteService;
+        this.recordExportService = recordExportService;
         this.recordFilterConverterService = recordFilterConverterService;
         this.databaseService = databaseService;
         this.userService = userService;
@@ -151,7 +162,9 @@ public class DataAccessController {
     @GetMapping("/{connectionId}/tables/{schemaName}/{tableName}/records")
     @Operation(
             summary = "Get table records",
-            description = "Get records from table with column-level permission filtering"
+            description = "Get records from table with column-level permission filtering. "
+                    + "Set countMode=ESTIMATED to use catalog statistics or a cached count for the total. "
+                    + "Set compact=true to receive rows as positional arrays instead of one map per record"
     )
     public ApiResponse<RecordQueryResponse> getTableRecords(
             @PathVariable Long connectionId,
@@ -159,6 +172,8 @@ public class DataAccessController {
             @PathVariable String tableName,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "50") int pageSize,
+            @RequestParam(defaultValue = "EXACT") CountMode countMode,
+            @RequestParam(defaultValue = "false") boolean compact,
             Authentication authentication
     ) {
 
@@ -170,7 +185,9 @@ public class DataAccessController {
                 userId, connectionId,
                 schemaName, tableName,
                 RecordReadCommand.empty(),
-                page, pageSize
+                page, pageSize,
+                countMode,
+                compact
         );
 
         RecordQueryResponse dto = convertToRecordQueryResultDto(result);
@@ -180,7 +197,10 @@ public class DataAccessController {
     @PostMapping("/{connectionId}/tables/{schemaName}/{tableName}/records/filter")
     @Operation(
             summary = "Filter table records",
-            description = "Get filtered records from table with column-level permission filtering"
+            description = "Get filtered records from table with column-level permission filtering. "
+                    + "Set keyset=true (or pass a cursor) to use cursor-based pagination ordered by primary key. "
+                    + "Set countMode=ESTIMATED to use catalog statistics or a cached count for the total. "
+                    + "Set compact=true to receive rows as positional arrays instead of one map per record"
     )
     public ApiResponse<RecordQueryResponse> filterTableRecords(
             @PathVariable Long connectionId,
@@ -188,26 +208,84 @@ public class DataAccessController {
             @PathVariable String tableName,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "50") int pageSize,
+            @RequestParam(defaultValue = "false") boolean keyset,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "EXACT") CountMode countMode,
+            @RequestParam(defaultValue = "false") boolean compact,
             @RequestBody(required = false) RecordFilterRequest filterRequest,
             Authentication authentication
     ) {
 
-        logger.info("Filtering records for table {}.{} on connection: {}, page: {}, size: {}, filters: {}",
-                schemaName, tableName, connectionId, page, pageSize,
+        logger.info("Filtering records for table {}.{} on connection: {}, page: {}, size: {}, keyset: {}, filters: {}",
+                schemaName, tableName, connectionId, page, pageSize, keyset || cursor != null,
                 filterRequest != null ? "present" : "none");
 
         RecordReadCommand filter = recordFilterConverterService.convertFromRequest(filterRequest);
 
         Long userId = getUserId(authentication);
-        RecordReadResult result = recordReadService.getRecords(
+        RecordReadResult result;
+        if (keyset || cursor != null) {
+            // Cursor-based (keyset) pagination: page is ignored
+            result = recordReadService.getRecordsByCursor(
+                    userId, connectionId,
+                    schemaName, tableName,
+                    filter,
+                    cursor, pageSize,
+                    countMode,
+                    compact
+            );
+        } else {
+            result = recordReadService.getRecords(
+                    userId, connectionId,
+                    schemaName, tableName,
+                    filter,
+                    page, pageSize,
+                    countMode,
+                    compact
+            );
+        }
+
+        RecordQueryResponse dto = convertToRecordQueryResultDto(result);
+        return ApiResponse.success(dto);
+    }
+
+    @PostMapping("/{connectionId}/tables/{schemaName}/{tableName}/records:export")
+    @Operation(
+            summary = "Export table records",
+            description = "Stream all filtered records of table as CSV or NDJSON with column-level permission filtering"
+    )
+    public ResponseEntity<StreamingResponseBody> exportTableRecords(
+            @PathVariable Long connectionId,
+            @PathVariable String schemaName,
+            @PathVariable String tableName,
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @RequestBody(required = false) RecordFilterRequest filterRequest,
+            Authentication authentication
+    ) {
+
+        logger.info("Exporting records for table {}.{} on connection: {}, format: {}, filters: {}",
+                schemaName, tableName, connectionId, format,
+                filterRequest != null ? "present" : "none");
+
+        RecordReadCommand filter = recordFilterConverterService.convertFromRequest(filterRequest);
+
+        Long userId = getUserId(authentication);
+        // Permission check and query building happen before the response is committed
+        RecordExportService.ExportPlan plan = recordExportService.prepareExport(
                 userId, connectionId,
                 schemaName, tableName,
                 filter,
-                page, pageSize
+                format
         );
 
-        RecordQueryResponse dto = convertToRecordQueryResultDto(result);
-        return ApiResponse.success(dto);
+        StreamingResponseBody body = outputStream -> recordExportService.streamExport(plan, outputStream);
+        String filename = schemaName + "." + tableName + "." + format.getExtension();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(filename, StandardCharsets.UTF_8)
+                        .build().toString())
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .body(body);
     }
 
     @PostMapping("/{connectionId}/tables/{schemaName}/{tableName}/records")
@@ -338,8 +416,8 @@ public class DataAccessController {
     private RecordQueryResponse convertToRecordQueryResultDto(
             RecordReadResult model
     ) {
-        // Convert records to readable data only
-        List<Map<String, Object>> records = model.records().stream()
+        // Convert records to readable data only (compact rows are already restricted to readable columns)
+        List<Map<String, Object>> records = model.isCompact() ? null : model.records().stream()
                 .map(TableRecord::getReadableData)
                 .collect(Collectors.toList());
 
@@ -358,7 +436,11 @@ public class DataAccessController {
                 model.hasNextPage(),
                 model.hasPreviousPage(),
                 model.executionTimeMs(),
-                model.query()
+                model.query(),
+                model.nextCursor(),
+                model.totalEstimated(),
+                model.columnNames(),
+                model.rows()
         );
     }
 
@@ -431,7 +513,8 @@ public class DataAccessController {
                 connection.lastTestedAt(),
                 connection.testResult(),
                 connection.createdAt(),
-                connection.updatedAt()
+                connection.updatedAt(),
+                null // Pool settings are shown to administrators only
         );
     }
 
@@ -457,6 +540,9 @@ public class DataAccessController {
      * Get current authenticated user ID
      */
     private Long getUserId(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof CustomUserDetails userDetails) {
+            return userDetails.getUserId();
+        }
         return Optional.of(authentication)
                 .map(Authentication::getName)
                 .flatMap(userService::getUserIdByEmail)
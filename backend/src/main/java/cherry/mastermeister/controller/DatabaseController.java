@@ -17,9 +17,12 @@
 package cherry.mastermeister.controller;
 
 import cherry.mastermeister.controller.dto.ApiResponse;
+import cherry.mastermeister.controller.dto.ConnectionPoolSettingsRequest;
+import cherry.mastermeister.controller.dto.ConnectionPoolSettingsResponse;
 import cherry.mastermeister.controller.dto.DatabaseConnectionRequest;
 import cherry.mastermeister.controller.dto.DatabaseConnectionResponse;
 import cherry.mastermeister.controller.dto.ValidationGroups;
+import cherry.mastermeister.model.ConnectionPoolSettings;
 import cherry.mastermeister.model.DatabaseConnection;
 import cherry.mastermeister.service.DatabaseService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -149,7 +152,23 @@ public class DatabaseController {
                 null,
                 null,
                 null,
-                null
+                null,
+                toModel(request.poolSettings())
+        );
+    }
+
+    private ConnectionPoolSettings toModel(ConnectionPoolSettingsRequest request) {
+        if (request == null) {
+            return null;
+        }
+        return new ConnectionPoolSettings(
+                request.maximumPoolSize(),
+                request.minimumIdle(),
+                request.connectionTimeoutMs(),
+                request.idleTimeoutMs(),
+                request.maxLifetimeMs(),
+                request.leakDetectionThresholdMs(),
+                request.adaptive()
         );
     }
 
@@ -167,7 +186,23 @@ public class DatabaseController {
                 model.lastTestedAt(),
                 model.testResult(),
                 model.createdAt(),
-                model.updatedAt()
+                model.updatedAt(),
+                toResponse(model.poolSettings())
+        );
+    }
+
+    private ConnectionPoolSettingsResponse toResponse(ConnectionPoolSettings model) {
+        if (model == null) {
+            return null;
+        }
+        return new ConnectionPoolSettingsResponse(
+                model.maximumPoolSize(),
+                model.minimumIdle(),
+                model.connectionTimeoutMs(),
+                model.idleTimeoutMs(),
+                model.maxLifetimeMs(),
+                model.leakDetectionThresholdMs(),
+                model.adaptive()
         );
     }
 }
@@ -18,15 +18,20 @@ package cherry.mastermeister.controller;
 
 import cherry.mastermeister.controller.dto.*;
 import cherry.mastermeister.model.ColumnMetadata;
+import cherry.mastermeister.model.SchemaChangeCheck;
 import cherry.mastermeister.model.SchemaMetadata;
+import cherry.mastermeister.model.SchemaRefreshJob;
 import cherry.mastermeister.model.SchemaUpdateLog;
 import cherry.mastermeister.model.TableMetadata;
+import cherry.mastermeister.service.SchemaFingerprintService;
+import cherry.mastermeister.service.SchemaRefreshJobService;
 import cherry.mastermeister.service.SchemaUpdateService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -44,11 +49,17 @@ public class SchemaController {
 
     private final Logger logger = LoggerFactory.getLogger(getClass());
     private final SchemaUpdateService schemaUpdateService;
+    private final SchemaRefreshJobService schemaRefreshJobService;
+    private final SchemaFingerprintService schemaFingerprintService;
 
     public SchemaController(
-            SchemaUpdateService schemaUpdateService
+            SchemaUpdateService schemaUpdateService,
+            SchemaRefreshJobService schemaRefreshJobService,
+            SchemaFingerprintService schemaFingerprintService
     ) {
         this.schemaUpdateService = schemaUpdateService;
+        this.schemaRefreshJobService = schemaRefreshJobService;
+        this.schemaFingerprintService = schemaFingerprintService;
     }
 
     @GetMapping("/{connectionId}")
@@ -71,17 +82,58 @@ public class SchemaController {
         return ResponseEntity.ok(ApiResponse.success(result));
     }
 
+    @GetMapping("/{connectionId}/changes")
+    @Operation(summary = "Check schema changes", description = "Compare the catalog fingerprint of the database with the one stored by the last refresh")
+    public ApiResponse<SchemaChangeCheckResponse> checkSchemaChanges(
+            @PathVariable Long connectionId
+    ) {
+        logger.info("Checking schema changes for connection ID: {}", connectionId);
+
+        SchemaChangeCheck check = schemaFingerprintService.checkForChanges(connectionId);
+        SchemaChangeCheckResponse result = toDto(check);
+
+        return ApiResponse.success(result);
+    }
+
     @PostMapping("/{connectionId}/refresh")
-    @Operation(summary = "Refresh schema metadata", description = "Force refresh schema metadata from database")
-    public ApiResponse<SchemaMetadataResponse> refreshSchema(
+    @Operation(summary = "Refresh schema metadata", description = "Start a background job refreshing schema metadata from database. Returns the job already running for the connection, if any.")
+    public ResponseEntity<ApiResponse<SchemaRefreshJobResponse>> refreshSchema(
             @PathVariable Long connectionId,
             Authentication authentication
     ) {
         logger.info("Refreshing schema metadata for connection ID: {}", connectionId);
 
         String userEmail = getUserEmail(authentication);
-        SchemaMetadata schema = schemaUpdateService.refreshSchema(connectionId, userEmail);
-        SchemaMetadataResponse result = toDto(schema);
+        SchemaRefreshJob job = schemaRefreshJobService.startRefresh(connectionId, userEmail);
+        SchemaRefreshJobResponse result = toDto(job);
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponse.success(result));
+    }
+
+    @GetMapping("/{connectionId}/refresh/{jobId}")
+    @Operation(summary = "Get schema refresh job", description = "Get status and progress of a schema refresh job")
+    public ApiResponse<SchemaRefreshJobResponse> getRefreshJob(
+            @PathVariable Long connectionId,
+            @PathVariable String jobId
+    ) {
+        logger.debug("Getting schema refresh job {} for connection ID: {}", jobId, connectionId);
+
+        SchemaRefreshJob job = schemaRefreshJobService.getJob(connectionId, jobId);
+        SchemaRefreshJobResponse result = toDto(job);
+
+        return ApiResponse.success(result);
+    }
+
+    @DeleteMapping("/{connectionId}/refresh/{jobId}")
+    @Operation(summary = "Cancel schema refresh job", description = "Request cancellation of a running schema refresh job")
+    public ApiResponse<SchemaRefreshJobResponse> cancelRefreshJob(
+            @PathVariable Long connectionId,
+            @PathVariable String jobId
+    ) {
+        logger.info("Cancelling schema refresh job {} for connection ID: {}", jobId, connectionId);
+
+        SchemaRefreshJob job = schemaRefreshJobService.cancelJob(connectionId, jobId);
+        SchemaRefreshJobResponse result = toDto(job);
 
         return ApiResponse.success(result);
     }
@@ -147,17 +199,53 @@ public class SchemaController {
         );
     }
 
+    private SchemaChangeCheckResponse toDto(SchemaChangeCheck model) {
+        return new SchemaChangeCheckResponse(
+                model.connectionId(),
+                model.changed(),
+                model.storedFingerprint(),
+                model.currentFingerprint(),
+                model.lastUpdatedAt()
+        );
+    }
+
+    private SchemaRefreshJobResponse toDto(SchemaRefreshJob model) {
+        return new SchemaRefreshJobResponse(
+                model.jobId(),
+                model.connectionId(),
+                model.userEmail(),
+                model.status(),
+                model.schemasTotal(),
+                model.schemasDone(),
+                model.tablesDone(),
+                model.errorMessage(),
+                model.createdAt(),
+                model.finishedAt()
+        );
+    }
+
     private SchemaUpdateLogResponse toDto(SchemaUpdateLog model) {
         return new SchemaUpdateLogResponse(
                 model.id(),
                 model.connectionId(),
                 model.operation(),
                 model.userEmail(),
+                model.jobId(),
+                model.status(),
+                model.schemasTotal(),
+                model.schemasDone(),
+                model.tablesDone(),
                 model.executionTimeMs(),
                 model.success(),
                 model.errorMessage(),
                 model.tablesCount(),
                 model.columnsCount(),
+                model.tablesInserted(),
+                model.tablesUpdated(),
+                model.tablesDeleted(),
+                model.columnsInserted(),
+                model.columnsUpdated(),
+                model.columnsDeleted(),
                 model.details(),
                 model.createdAt()
         );
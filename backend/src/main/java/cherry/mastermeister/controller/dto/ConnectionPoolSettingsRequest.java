@@ -0,0 +1,44 @@
+/*
+ * Copyright 2025 agwlvssainokuni
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cherry.mastermeister.controller.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+
+public record ConnectionPoolSettingsRequest(
+        @Min(value = 1, message = "Maximum pool size must be greater than 0", groups = {ValidationGroups.Create.class, ValidationGroups.Update.class})
+        @Max(value = 200, message = "Maximum pool size must be at most 200", groups = {ValidationGroups.Create.class, ValidationGroups.Update.class})
+        Integer maximumPoolSize,
+
+        @Min(value = 0, message = "Minimum idle must not be negative", groups = {ValidationGroups.Create.class, ValidationGroups.Update.class})
+        Integer minimumIdle,
+
+        @Min(value = 250, message = "Connection timeout must be at least 250ms", groups = {ValidationGroups.Create.class, ValidationGroups.Update.class})
+        Long connectionTimeoutMs,
+
+        @Min(value = 0, message = "Idle timeout must not be negative", groups = {ValidationGroups.Create.class, ValidationGroups.Update.class})
+        Long idleTimeoutMs,
+
+        @Min(value = 0, message = "Max lifetime must not be negative", groups = {ValidationGroups.Create.class, ValidationGroups.Update.class})
+        Long maxLifetimeMs,
+
+        @Min(value = 0, message = "Leak detection threshold must not be negative", groups = {ValidationGroups.Create.class, ValidationGroups.Update.class})
+        Long leakDetectionThresholdMs,
+
+        boolean adaptive
+) {
+}
@@ -17,6 +17,7 @@
 package cherry.mastermeister.controller.dto;
 
 import cherry.mastermeister.enums.DatabaseType;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
@@ -48,6 +49,9 @@ public record DatabaseConnectionRequest(
 
         String connectionParams,
 
-        boolean active
+        boolean active,
+
+        @Valid
+        ConnectionPoolSettingsRequest poolSettings
 ) {
 }
@@ -33,6 +33,7 @@ public record DatabaseConnectionResponse(
         LocalDateTime lastTestedAt,
         Boolean testResult,
         LocalDateTime createdAt,
-        LocalDateTime updatedAt
+        LocalDateTime updatedAt,
+        ConnectionPoolSettingsResponse poolSettings
 ) {
 }
@@ -16,12 +16,17 @@
 
 package cherry.mastermeister.controller.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.List;
 import java.util.Map;
 
 /**
- * DTO for record query results with pagination and metadata
+ * DTO for record query results with pagination and metadata.
+ * In compact mode records is omitted and rows holds positional arrays ordered by columns;
+ * column types and permissions are given once by accessibleColumns.
  */
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public record RecordQueryResponse(
         List<Map<String, Object>> records,
         List<AccessibleColumnResponse> accessibleColumns,
@@ -32,6 +37,10 @@ public record RecordQueryResponse(
         boolean hasNextPage,
         boolean hasPreviousPage,
         long executionTimeMs,
-        String query
+        String query,
+        String nextCursor,
+        boolean totalEstimated,
+        List<String> columns,
+        List<Object[]> rows
 ) {
 }
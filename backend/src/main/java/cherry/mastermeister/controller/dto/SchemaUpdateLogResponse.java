@@ -16,6 +16,7 @@
 
 package cherry.mastermeister.controller.dto;
 
+import cherry.mastermeister.enums.SchemaRefreshStatus;
 import cherry.mastermeister.enums.SchemaUpdateOperation;
 
 import java.time.LocalDateTime;
@@ -25,11 +26,22 @@ public record SchemaUpdateLogResponse(
         Long connectionId,
         SchemaUpdateOperation operation,
         String userEmail,
+        String jobId,
+        SchemaRefreshStatus status,
+        Integer schemasTotal,
+        Integer schemasDone,
+        Integer tablesDone,
         Long executionTimeMs,
         Boolean success,
         String errorMessage,
         Integer tablesCount,
         Integer columnsCount,
+        Integer tablesInserted,
+        Integer tablesUpdated,
+        Integer tablesDeleted,
+        Integer columnsInserted,
+        Integer columnsUpdated,
+        Integer columnsDeleted,
         String details,
         LocalDateTime createdAt
 ) {
@@ -22,7 +22,9 @@ import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 
 @Entity
-@Table(name = "column_metadata")
+@Table(name = "column_metadata",
+        uniqueConstraints = @UniqueConstraint(name = "uk_column_metadata_name",
+                columnNames = {"table_metadata_id", "column_name"}))
 public class ColumnMetadataEntity {
 
     @Id
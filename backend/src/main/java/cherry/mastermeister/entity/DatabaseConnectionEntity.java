@@ -58,6 +58,28 @@ public class DatabaseConnectionEntity {
     @Column(name = "connection_params", columnDefinition = "TEXT")
     private String connectionParams;
 
+    @Column(name = "pool_maximum_size")
+    private Integer poolMaximumSize;
+
+    @Column(name = "pool_minimum_idle")
+    private Integer poolMinimumIdle;
+
+    @Column(name = "pool_connection_timeout_ms")
+    private Long poolConnectionTimeoutMs;
+
+    @Column(name = "pool_idle_timeout_ms")
+    private Long poolIdleTimeoutMs;
+
+    @Column(name = "pool_max_lifetime_ms")
+    private Long poolMaxLifetimeMs;
+
+    @Column(name = "pool_leak_detection_threshold_ms")
+    private Long poolLeakDetectionThresholdMs;
+
+    // Default lets schema update add the column to a table that already has rows
+    @Column(name = "pool_adaptive", nullable = false, columnDefinition = "BOOLEAN DEFAULT FALSE NOT NULL")
+    private boolean poolAdaptive = false;
+
     @Column(nullable = false)
     private boolean active = true;
 
@@ -145,6 +167,62 @@ public class DatabaseConnectionEntity {
         this.connectionParams = connectionParams;
     }
 
+    public Integer getPoolMaximumSize() {
+        return poolMaximumSize;
+    }
+
+    public void setPoolMaximumSize(Integer poolMaximumSize) {
+        this.poolMaximumSize = poolMaximumSize;
+    }
+
+    public Integer getPoolMinimumIdle() {
+        return poolMinimumIdle;
+    }
+
+    public void setPoolMinimumIdle(Integer poolMinimumIdle) {
+        this.poolMinimumIdle = poolMinimumIdle;
+    }
+
+    public Long getPoolConnectionTimeoutMs() {
+        return poolConnectionTimeoutMs;
+    }
+
+    public void setPoolConnectionTimeoutMs(Long poolConnectionTimeoutMs) {
+        this.poolConnectionTimeoutMs = poolConnectionTimeoutMs;
+    }
+
+    public Long getPoolIdleTimeoutMs() {
+        return poolIdleTimeoutMs;
+    }
+
+    public void setPoolIdleTimeoutMs(Long poolIdleTimeoutMs) {
+        this.poolIdleTimeoutMs = poolIdleTimeoutMs;
+    }
+
+    public Long getPoolMaxLifetimeMs() {
+        return poolMaxLifetimeMs;
+    }
+
+    public void setPoolMaxLifetimeMs(Long poolMaxLifetimeMs) {
+        this.poolMaxLifetimeMs = poolMaxLifetimeMs;
+    }
+
+    public Long getPoolLeakDetectionThresholdMs() {
+        return poolLeakDetectionThresholdMs;
+    }
+
+    public void setPoolLeakDetectionThresholdMs(Long poolLeakDetectionThresholdMs) {
+        this.poolLeakDetectionThresholdMs = poolLeakDetectionThresholdMs;
+    }
+
+    public boolean isPoolAdaptive() {
+        return poolAdaptive;
+    }
+
+    public void setPoolAdaptive(boolean poolAdaptive) {
+        this.poolAdaptive = poolAdaptive;
+    }
+
     public boolean isActive() {
         return active;
     }
@@ -224,6 +302,9 @@ public class DatabaseConnectionEntity {
                 .append("databaseName", databaseName)
                 .append("username", username)
                 .append("connectionParams", connectionParams)
+                .append("poolMaximumSize", poolMaximumSize)
+                .append("poolMinimumIdle", poolMinimumIdle)
+                .append("poolAdaptive", poolAdaptive)
                 .append("active", active)
                 .append("lastTestedAt", lastTestedAt)
                 .append("testResult", testResult)
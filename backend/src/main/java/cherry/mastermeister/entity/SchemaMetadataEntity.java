@@ -25,7 +25,8 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "schema_metadata")
+@Table(name = "schema_metadata",
+        uniqueConstraints = @UniqueConstraint(name = "uk_schema_metadata_connection", columnNames = "connection_id"))
 public class SchemaMetadataEntity {
 
     @Id
@@ -44,11 +45,15 @@ public class SchemaMetadataEntity {
     private List<String> schemas;
 
     @OneToMany(mappedBy = "schemaMetadata", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("schema ASC, tableName ASC")
     private List<TableMetadataEntity> tables;
 
     @Column(name = "last_updated_at", nullable = false)
     private LocalDateTime lastUpdatedAt;
 
+    @Column(name = "fingerprint", length = 64)
+    private String fingerprint;
+
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
@@ -123,6 +128,14 @@ public class SchemaMetadataEntity {
         this.lastUpdatedAt = lastUpdatedAt;
     }
 
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -167,6 +180,7 @@ public class SchemaMetadataEntity {
                 .append("connectionId", connectionId)
                 .append("databaseName", databaseName)
                 .append("lastUpdatedAt", lastUpdatedAt)
+                .append("fingerprint", fingerprint)
                 .toString();
     }
 }
@@ -16,6 +16,7 @@
 
 package cherry.mastermeister.entity;
 
+import cherry.mastermeister.enums.SchemaRefreshStatus;
 import cherry.mastermeister.enums.SchemaUpdateOperation;
 import jakarta.persistence.*;
 import org.apache.commons.lang3.builder.EqualsBuilder;
@@ -25,7 +26,8 @@ import org.apache.commons.lang3.builder.ToStringBuilder;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "schema_update_log")
+@Table(name = "schema_update_log",
+        uniqueConstraints = @UniqueConstraint(name = "uk_schema_update_log_running", columnNames = "running_connection_id"))
 public class SchemaUpdateLogEntity {
 
     @Id
@@ -42,6 +44,36 @@ public class SchemaUpdateLogEntity {
     @Column(name = "user_email", nullable = false, length = 100)
     private String userEmail;
 
+    @Column(name = "job_id", length = 36)
+    private String jobId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 20)
+    private SchemaRefreshStatus status;
+
+    // Connection ID while the refresh is running, NULL once it has ended: one running refresh per connection
+    @Column(name = "running_connection_id")
+    private Long runningConnectionId;
+
+    @Column(name = "node_id", length = 36)
+    private String nodeId;
+
+    @Column(name = "heartbeat_at")
+    private LocalDateTime heartbeatAt;
+
+    // Set by any node to stop the running refresh; the owning node reads it with the heartbeat
+    @Column(name = "cancel_requested")
+    private Boolean cancelRequested;
+
+    @Column(name = "schemas_total")
+    private Integer schemasTotal;
+
+    @Column(name = "schemas_done")
+    private Integer schemasDone;
+
+    @Column(name = "tables_done")
+    private Integer tablesDone;
+
     @Column(name = "execution_time_ms")
     private Long executionTimeMs;
 
@@ -57,6 +89,24 @@ public class SchemaUpdateLogEntity {
     @Column(name = "columns_count")
     private Integer columnsCount;
 
+    @Column(name = "tables_inserted")
+    private Integer tablesInserted;
+
+    @Column(name = "tables_updated")
+    private Integer tablesUpdated;
+
+    @Column(name = "tables_deleted")
+    private Integer tablesDeleted;
+
+    @Column(name = "columns_inserted")
+    private Integer columnsInserted;
+
+    @Column(name = "columns_updated")
+    private Integer columnsUpdated;
+
+    @Column(name = "columns_deleted")
+    private Integer columnsDeleted;
+
     @Column(name = "details", columnDefinition = "TEXT")
     private String details;
 
@@ -103,6 +153,78 @@ public class SchemaUpdateLogEntity {
         this.userEmail = userEmail;
     }
 
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public SchemaRefreshStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(SchemaRefreshStatus status) {
+        this.status = status;
+    }
+
+    public Long getRunningConnectionId() {
+        return runningConnectionId;
+    }
+
+    public void setRunningConnectionId(Long runningConnectionId) {
+        this.runningConnectionId = runningConnectionId;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public LocalDateTime getHeartbeatAt() {
+        return heartbeatAt;
+    }
+
+    public void setHeartbeatAt(LocalDateTime heartbeatAt) {
+        this.heartbeatAt = heartbeatAt;
+    }
+
+    public Boolean getCancelRequested() {
+        return cancelRequested;
+    }
+
+    public void setCancelRequested(Boolean cancelRequested) {
+        this.cancelRequested = cancelRequested;
+    }
+
+    public Integer getSchemasTotal() {
+        return schemasTotal;
+    }
+
+    public void setSchemasTotal(Integer schemasTotal) {
+        this.schemasTotal = schemasTotal;
+    }
+
+    public Integer getSchemasDone() {
+        return schemasDone;
+    }
+
+    public void setSchemasDone(Integer schemasDone) {
+        this.schemasDone = schemasDone;
+    }
+
+    public Integer getTablesDone() {
+        return tablesDone;
+    }
+
+    public void setTablesDone(Integer tablesDone) {
+        this.tablesDone = tablesDone;
+    }
+
     public Long getExecutionTimeMs() {
         return executionTimeMs;
     }
@@ -143,6 +265,54 @@ public class SchemaUpdateLogEntity {
         this.columnsCount = columnsCount;
     }
 
+    public Integer getTablesInserted() {
+        return tablesInserted;
+    }
+
+    public void setTablesInserted(Integer tablesInserted) {
+        this.tablesInserted = tablesInserted;
+    }
+
+    public Integer getTablesUpdated() {
+        return tablesUpdated;
+    }
+
+    public void setTablesUpdated(Integer tablesUpdated) {
+        this.tablesUpdated = tablesUpdated;
+    }
+
+    public Integer getTablesDeleted() {
+        return tablesDeleted;
+    }
+
+    public void setTablesDeleted(Integer tablesDeleted) {
+        this.tablesDeleted = tablesDeleted;
+    }
+
+    public Integer getColumnsInserted() {
+        return columnsInserted;
+    }
+
+    public void setColumnsInserted(Integer columnsInserted) {
+        this.columnsInserted = columnsInserted;
+    }
+
+    public Integer getColumnsUpdated() {
+        return columnsUpdated;
+    }
+
+    public void setColumnsUpdated(Integer columnsUpdated) {
+        this.columnsUpdated = columnsUpdated;
+    }
+
+    public Integer getColumnsDeleted() {
+        return columnsDeleted;
+    }
+
+    public void setColumnsDeleted(Integer columnsDeleted) {
+        this.columnsDeleted = columnsDeleted;
+    }
+
     public String getDetails() {
         return details;
     }
@@ -189,6 +359,9 @@ public class SchemaUpdateLogEntity {
                 .append("connectionId", connectionId)
                 .append("operation", operation)
                 .append("userEmail", userEmail)
+                .append("jobId", jobId)
+                .append("status", status)
+                .append("nodeId", nodeId)
                 .append("success", success)
                 .append("createdAt", createdAt)
                 .toString();
@@ -17,6 +17,7 @@
 package cherry.mastermeister.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.builder.ToStringBuilder;
@@ -24,7 +25,9 @@ import org.apache.commons.lang3.builder.ToStringBuilder;
 import java.util.List;
 
 @Entity
-@Table(name = "table_metadata")
+@Table(name = "table_metadata",
+        uniqueConstraints = @UniqueConstraint(name = "uk_table_metadata_name",
+                columnNames = {"schema_metadata_id", "schema_name", "table_name"}))
 public class TableMetadataEntity {
 
     @Id
@@ -47,6 +50,8 @@ public class TableMetadataEntity {
     @JoinColumn(name = "schema_metadata_id", nullable = false)
     private SchemaMetadataEntity schemaMetadata;
 
+    // Columns of many tables are loaded together when the whole schema is compared on refresh
+    @BatchSize(size = 500)
     @OneToMany(mappedBy = "tableMetadata", cascade = CascadeType.ALL, orphanRemoval = true)
     @OrderBy("ordinalPosition ASC")
     private List<ColumnMetadataEntity> columns;
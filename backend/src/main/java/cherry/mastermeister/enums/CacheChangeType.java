@@ -0,0 +1,33 @@
+/*
+ * Copyright 2025 agwlvssainokuni
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cherry.mastermeister.enums;
+
+/**
+ * Kind of change recorded in the cache change log, named after the cached state it invalidates
+ */
+public enum CacheChangeType {
+    /** Permissions of a user (target: user ID) */
+    USER_PERMISSIONS,
+    /** Permissions of all users on a connection (target: connection ID) */
+    CONNECTION_PERMISSIONS,
+    /** Connection settings and its connection pool (target: connection ID) */
+    CONNECTION_SETTINGS,
+    /** Authentication details of a user: role and status (target: user ID) */
+    USER_DETAILS,
+    /** Schema metadata snapshot of a connection (target: connection ID) */
+    SCHEMA_METADATA
+}
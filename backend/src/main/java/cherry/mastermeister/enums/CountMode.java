@@ -0,0 +1,33 @@
+/*
+ * Copyright 2025 agwlvssainokuni
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cherry.mastermeister.enums;
+
+/**
+ * How the total record count of a table query is determined
+ */
+public enum CountMode {
+    /**
+     * Exact COUNT(*) executed concurrently with the page query
+     */
+    EXACT,
+
+    /**
+     * Cached exact count if available, otherwise catalog statistics for unfiltered queries.
+     * The exact count is then computed in the background and cached for subsequent requests.
+     */
+    ESTIMATED
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2025 agwlvssainokuni
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cherry.mastermeister.enums;
+
+/**
+ * Kinds of queries run against target databases, used as metric tag
+ */
+public enum QueryOperation {
+    SELECT("select"),
+    COUNT("count"),
+    INSERT("insert"),
+    UPDATE("update"),
+    DELETE("delete"),
+
+    /**
+     * Check for records referencing a record to be deleted
+     */
+    REFERENCE_CHECK("reference-check"),
+
+    /**
+     * Streaming select of a table export
+     */
+    EXPORT("export");
+
+    private final String tagValue;
+
+    QueryOperation(String tagValue) {
+        this.tagValue = tagValue;
+    }
+
+    public String getTagValue() {
+        return tagValue;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2025 agwlvssainokuni
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cherry.mastermeister.model;
+
+import jakarta.annotation.Nullable;
+
+/**
+ * Connection pool settings of a database connection.
+ * Unset values fall back to the application defaults.
+ * In adaptive mode the pool size is adjusted between the minimum idle and the maximum pool size
+ * according to the observed connection wait time.
+ */
+public record ConnectionPoolSettings(
+        @Nullable Integer maximumPoolSize,
+        @Nullable Integer minimumIdle,
+        @Nullable Long connectionTimeoutMs,
+        @Nullable Long idleTimeoutMs,
+        @Nullable Long maxLifetimeMs,
+        @Nullable Long leakDetectionThresholdMs,
+        boolean adaptive
+) {
+
+    public static final int DEFAULT_MAXIMUM_POOL_SIZE = 10;
+    public static final int DEFAULT_MINIMUM_IDLE = 2;
+    public static final long DEFAULT_CONNECTION_TIMEOUT_MS = 30000;
+    public static final long DEFAULT_IDLE_TIMEOUT_MS = 600000;
+    public static final long DEFAULT_MAX_LIFETIME_MS = 1800000;
+    public static final long DEFAULT_LEAK_DETECTION_THRESHOLD_MS = 60000;
+
+    public static ConnectionPoolSettings defaults() {
+        return new ConnectionPoolSettings(null, null, null, null, null, null, false);
+    }
+
+    public int resolvedMaximumPoolSize() {
+        return maximumPoolSize != null ? maximumPoolSize : DEFAULT_MAXIMUM_POOL_SIZE;
+    }
+
+    public int resolvedMinimumIdle() {
+        return minimumIdle != null ? minimumIdle : Math.min(DEFAULT_MINIMUM_IDLE, resolvedMaximumPoolSize());
+    }
+
+    public long resolvedConnectionTimeoutMs() {
+        return connectionTimeoutMs != null ? connectionTimeoutMs : DEFAULT_CONNECTION_TIMEOUT_MS;
+    }
+
+    public long resolvedIdleTimeoutMs() {
+        return idleTimeoutMs != null ? idleTimeoutMs : DEFAULT_IDLE_TIMEOUT_MS;
+    }
+
+    public long resolvedMaxLifetimeMs() {
+        return maxLifetimeMs != null ? maxLifetimeMs : DEFAULT_MAX_LIFETIME_MS;
+    }
+
+    public long resolvedLeakDetectionThresholdMs() {
+        return leakDetectionThresholdMs != null ? leakDetectionThresholdMs : DEFAULT_LEAK_DETECTION_THRESHOLD_MS;
+    }
+
+    /**
+     * Smallest pool size used in adaptive mode
+     */
+    public int adaptiveLowerBound() {
+        return Math.max(1, resolvedMinimumIdle());
+    }
+}
@@ -36,6 +36,7 @@ public record DatabaseConnection(
         @Nullable LocalDateTime lastTestedAt,
         @Nullable Boolean testResult,
         @Nullable LocalDateTime createdAt,
-        @Nullable LocalDateTime updatedAt
+        @Nullable LocalDateTime updatedAt,
+        @Nullable ConnectionPoolSettings poolSettings
 ) {
 }
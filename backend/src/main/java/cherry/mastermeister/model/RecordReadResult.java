@@ -28,12 +28,34 @@ public record RecordReadResult(
         int currentPage,
         int pageSize,
         long executionTimeMs,
-        String query
+        String query,
+        boolean keyset,
+        String nextCursor,
+        boolean totalEstimated,
+        List<String> columnNames,
+        List<Object[]> rows
 ) {
+    /**
+     * Check if rows are in compact (positional array) form
+     */
+    public boolean isCompact() {
+        return rows != null;
+    }
+
+    /**
+     * Get number of records in this page
+     */
+    public int getRecordCount() {
+        return rows != null ? rows.size() : records.size();
+    }
+
     /**
      * Check if result has more pages
      */
     public boolean hasNextPage() {
+        if (keyset) {
+            return nextCursor != null;
+        }
         return (long) currentPage * pageSize < totalRecords;
     }
 
@@ -55,6 +77,6 @@ public record RecordReadResult(
      * Check if this is a large dataset (for audit logging)
      */
     public boolean isLargeDataset(int threshold) {
-        return records.size() >= threshold;
+        return getRecordCount() >= threshold;
     }
 }
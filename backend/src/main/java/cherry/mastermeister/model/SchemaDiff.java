@@ -0,0 +1,35 @@
+/*
+ * Copyright 2025 agwlvssainokuni
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cherry.mastermeister.model;
+
+/**
+ * Rows inserted, updated and deleted by a schema metadata refresh
+ */
+public record SchemaDiff(
+        int tablesInserted,
+        int tablesUpdated,
+        int tablesDeleted,
+        int columnsInserted,
+        int columnsUpdated,
+        int columnsDeleted
+) {
+
+    public boolean isEmpty() {
+        return tablesInserted == 0 && tablesUpdated == 0 && tablesDeleted == 0
+                && columnsInserted == 0 && columnsUpdated == 0 && columnsDeleted == 0;
+    }
+}
@@ -24,6 +24,7 @@ public record SchemaMetadata(
         String databaseName,
         List<String> schemas,
         List<TableMetadata> tables,
-        LocalDateTime lastUpdatedAt
+        LocalDateTime lastUpdatedAt,
+        String fingerprint
 ) {
 }
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2025 agwlvssainokuni
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cherry.mastermeister.model;
+
+import cherry.mastermeister.enums.SchemaRefreshStatus;
+
+import java.time.LocalDateTime;
+
+public record SchemaRefreshJob(
+        String jobId,
+        Long connectionId,
+        String userEmail,
+        SchemaRefreshStatus status,
+        Integer schemasTotal,
+        Integer schemasDone,
+        Integer tablesDone,
+        String errorMessage,
+        LocalDateTime createdAt,
+        LocalDateTime finishedAt
+) {
+}
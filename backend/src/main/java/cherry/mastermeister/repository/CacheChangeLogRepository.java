@@ -0,0 +1,46 @@
+/*
+ * Copyright 2025 agwlvssainokuni
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cherry.mastermeister.repository;
+
+import cherry.mastermeister.entity.CacheChangeLogEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CacheChangeLogRepository extends JpaRepository<CacheChangeLogEntity, Long> {
+
+    List<CacheChangeLogEntity> findByIdGreaterThanOrderByIdAsc(Long id);
+
+    List<CacheChangeLogEntity> findByIdInOrderByIdAsc(Collection<Long> ids);
+
+    @Query("SELECT COALESCE(MAX(c.id), 0) FROM CacheChangeLogEntity c")
+    Long findMaxId();
+
+    @Modifying
+    @Query("""
+            DELETE FROM CacheChangeLogEntity c
+            WHERE
+                c.createdAt < :threshold
+            """)
+    int deleteByCreatedAtBefore(LocalDateTime threshold);
+}
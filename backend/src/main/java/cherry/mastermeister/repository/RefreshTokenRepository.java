@@ -17,6 +17,7 @@
 package cherry.mastermeister.repository;
 
 import cherry.mastermeister.entity.RefreshTokenEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -41,9 +42,12 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshTokenEntity
     @Query("DELETE FROM RefreshTokenEntity rt WHERE rt.tokenId = :tokenId")
     int deleteByTokenId(String tokenId);
 
+    @Query("SELECT rt.id FROM RefreshTokenEntity rt WHERE rt.expiresAt < :cutoffTime ORDER BY rt.id")
+    List<Long> findExpiredTokenIds(LocalDateTime cutoffTime, Pageable pageable);
+
     @Modifying
-    @Query("DELETE FROM RefreshTokenEntity rt WHERE rt.expiresAt < :cutoffTime")
-    int deleteExpiredTokens(LocalDateTime cutoffTime);
+    @Query("UPDATE RefreshTokenEntity rt SET rt.usageCount = rt.usageCount + :uses, rt.lastUsedAt = :lastUsedAt, rt.updatedAt = :updatedAt WHERE rt.tokenId = :tokenId")
+    int incrementUsage(String tokenId, int uses, LocalDateTime lastUsedAt, LocalDateTime updatedAt);
 
     @Query("SELECT COUNT(rt) FROM RefreshTokenEntity rt WHERE rt.username = :username")
     long countTokensByUsername(String username);
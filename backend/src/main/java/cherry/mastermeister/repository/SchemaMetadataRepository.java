@@ -29,6 +29,12 @@ public interface SchemaMetadataRepository extends JpaRepository<SchemaMetadataEn
 
     Optional<SchemaMetadataEntity> findByConnectionId(Long connectionId);
 
+    /**
+     * Find schema metadata with its schema names, without tables
+     */
+    @Query("SELECT s FROM SchemaMetadataEntity s LEFT JOIN FETCH s.schemas WHERE s.connectionId = :connectionId")
+    Optional<SchemaMetadataEntity> findWithSchemasByConnectionId(Long connectionId);
+
     @Modifying
     @Query("DELETE FROM SchemaMetadataEntity s WHERE s.connectionId = :connectionId")
     void deleteByConnectionId(Long connectionId);
@@ -17,17 +17,111 @@
 package cherry.mastermeister.repository;
 
 import cherry.mastermeister.entity.SchemaUpdateLogEntity;
+import cherry.mastermeister.enums.SchemaRefreshStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface SchemaUpdateLogRepository extends JpaRepository<SchemaUpdateLogEntity, Long> {
 
     List<SchemaUpdateLogEntity> findByConnectionIdOrderByCreatedAtDesc(Long connectionId);
 
-    @Query("SELECT s FROM SchemaUpdateLogEntity s WHERE s.connectionId = :connectionId AND s.success = false ORDER BY s.createdAt DESC")
+    // Running jobs are logged with success = false until they finish
+    @Query("SELECT s FROM SchemaUpdateLogEntity s WHERE s.connectionId = :connectionId AND s.success = false"
+            + " AND (s.status IS NULL OR s.status <> cherry.mastermeister.enums.SchemaRefreshStatus.RUNNING)"
+            + " ORDER BY s.createdAt DESC")
     List<SchemaUpdateLogEntity> findFailedOperationsByConnection(Long connectionId);
+
+    Optional<SchemaUpdateLogEntity> findByJobId(String jobId);
+
+    Optional<SchemaUpdateLogEntity> findByRunningConnectionId(Long connectionId);
+
+    boolean existsByJobIdAndRunningConnectionIdIsNotNull(String jobId);
+
+    // Heartbeat of a running refresh carries its progress, so that any node can report it
+    @Modifying
+    @Query("""
+            UPDATE SchemaUpdateLogEntity s
+            SET s.heartbeatAt = :now,
+                s.schemasTotal = :schemasTotal,
+                s.schemasDone = :schemasDone,
+                s.tablesDone = :tablesDone
+            WHERE
+                s.jobId = :jobId
+                AND s.runningConnectionId IS NOT NULL
+            """)
+    int renewRunning(String jobId, LocalDateTime now, Integer schemasTotal, Integer schemasDone, Integer tablesDone);
+
+    @Query("""
+            SELECT s.jobId FROM SchemaUpdateLogEntity s
+            WHERE
+                s.jobId IN :jobIds
+                AND s.runningConnectionId IS NOT NULL
+                AND s.cancelRequested = true
+            """)
+    List<String> findCancelRequestedJobIds(Collection<String> jobIds);
+
+    @Modifying
+    @Query("""
+            UPDATE SchemaUpdateLogEntity s
+            SET s.cancelRequested = true
+            WHERE
+                s.jobId = :jobId
+                AND s.connectionId = :connectionId
+                AND s.runningConnectionId IS NOT NULL
+            """)
+    int requestCancel(String jobId, Long connectionId);
+
+    // Records the outcome only while the job still holds its claim: a refresh released as stale stays failed.
+    // Runs in its own transaction, as the refresh itself runs without one.
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE SchemaUpdateLogEntity s
+            SET s.status = :status,
+                s.success = :success,
+                s.runningConnectionId = NULL,
+                s.executionTimeMs = :executionTimeMs,
+                s.schemasTotal = :schemasTotal,
+                s.schemasDone = :schemasDone,
+                s.tablesDone = :tablesDone,
+                s.errorMessage = :errorMessage,
+                s.details = :details
+            WHERE
+                s.jobId = :jobId
+                AND s.runningConnectionId IS NOT NULL
+            """)
+    int finishRunning(
+            String jobId,
+            SchemaRefreshStatus status,
+            Boolean success,
+            Long executionTimeMs,
+            Integer schemasTotal,
+            Integer schemasDone,
+            Integer tablesDone,
+            String errorMessage,
+            String details
+    );
+
+    // Refreshes whose node stopped renewing the heartbeat (e.g. it crashed) end as failed
+    @Modifying
+    @Query("""
+            UPDATE SchemaUpdateLogEntity s
+            SET s.status = cherry.mastermeister.enums.SchemaRefreshStatus.FAILED,
+                s.runningConnectionId = NULL,
+                s.errorMessage = :errorMessage,
+                s.details = 'Operation abandoned'
+            WHERE
+                s.runningConnectionId IS NOT NULL
+                AND s.heartbeatAt < :threshold
+            """)
+    int releaseStale(LocalDateTime threshold, String errorMessage);
 }
@@ -17,6 +17,7 @@
 package cherry.mastermeister.repository;
 
 import cherry.mastermeister.entity.TableMetadataEntity;
+import cherry.mastermeister.model.TableColumnName;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -50,6 +51,19 @@ public interface TableMetadataRepository extends JpaRepository<TableMetadataEnti
             Long connectionId
     );
 
+    /**
+     * Find all tables for a specific connection with their columns, in one query
+     */
+    @Query("""
+            SELECT t FROM TableMetadataEntity t
+            LEFT JOIN FETCH t.columns
+            WHERE t.schemaMetadata.connectionId = :connectionId
+            ORDER BY t.schema, t.tableName
+            """)
+    List<TableMetadataEntity> findWithColumnsByConnectionId(
+            Long connectionId
+    );
+
     /**
      * Get all column names for a specific table
      */
@@ -64,4 +78,18 @@ public interface TableMetadataRepository extends JpaRepository<TableMetadataEnti
     List<String> findColumnNamesByTable(
             Long connectionId, String schema, String tableName
     );
+
+    /**
+     * Get column names of all tables for a specific connection
+     */
+    @Query("""
+            SELECT new cherry.mastermeister.model.TableColumnName(t.schema, t.tableName, c.columnName)
+            FROM TableMetadataEntity t
+            JOIN t.columns c
+            WHERE t.schemaMetadata.connectionId = :connectionId
+            ORDER BY t.schema, t.tableName, c.ordinalPosition
+            """)
+    List<TableColumnName> findColumnNamesByConnection(
+            Long connectionId
+    );
 }
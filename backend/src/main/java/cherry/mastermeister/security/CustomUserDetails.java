@@ -16,14 +16,22 @@
 
 package cherry.mastermeister.security;
 
+import cherry.mastermeister.enums.UserRole;
+import cherry.mastermeister.enums.UserStatus;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
+import java.util.Optional;
 
 public class CustomUserDetails implements UserDetails {
 
+    private final Long userId;
     private final String userUuid;
+    private final UserRole role;
+    private final UserStatus status;
     private final String username;
     private final String password;
     private final boolean enabled;
@@ -33,7 +41,10 @@ public class CustomUserDetails implements UserDetails {
     private final Collection<? extends GrantedAuthority> authorities;
 
     public CustomUserDetails(
+            Long userId,
             String userUuid,
+            UserRole role,
+            UserStatus status,
             String username,
             String password,
             boolean enabled,
@@ -42,7 +53,10 @@ public class CustomUserDetails implements UserDetails {
             boolean accountNonLocked,
             Collection<? extends GrantedAuthority> authorities
     ) {
+        this.userId = userId;
         this.userUuid = userUuid;
+        this.role = role;
+        this.status = status;
         this.username = username;
         this.password = password;
         this.enabled = enabled;
@@ -52,10 +66,37 @@ public class CustomUserDetails implements UserDetails {
         this.authorities = authorities;
     }
 
+    /**
+     * Get details of the authenticated user of the current request, if any
+     */
+    public static Optional<CustomUserDetails> current() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof CustomUserDetails userDetails) {
+            return Optional.of(userDetails);
+        }
+        return Optional.empty();
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
     public String getUserUuid() {
         return userUuid;
     }
 
+    public UserRole getRole() {
+        return role;
+    }
+
+    public UserStatus getStatus() {
+        return status;
+    }
+
+    public boolean isAdmin() {
+        return role == UserRole.ADMIN;
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return authorities;
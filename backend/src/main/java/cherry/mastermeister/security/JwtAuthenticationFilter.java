@@ -16,7 +16,6 @@
 package cherry.mastermeister.security;
 
 import cherry.mastermeister.service.UserDetailsServiceImpl;
-import cherry.mastermeister.util.JwtUtil;
 import jakarta.annotation.Nonnull;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -34,11 +33,11 @@ import java.io.IOException;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final JwtUtil jwtUtil;
+    private final JwtVerificationCache jwtVerificationCache;
     private final UserDetailsServiceImpl userDetailsService;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserDetailsServiceImpl userDetailsService) {
-        this.jwtUtil = jwtUtil;
+    public JwtAuthenticationFilter(JwtVerificationCache jwtVerificationCache, UserDetailsServiceImpl userDetailsService) {
+        this.jwtVerificationCache = jwtVerificationCache;
         this.userDetailsService = userDetailsService;
     }
 
@@ -51,22 +50,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String authorizationHeader = request.getHeader("Authorization");
 
-        String userUuid = null;
-        String jwt = null;
+        JwtVerificationCache.VerifiedToken verifiedToken = null;
 
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
-            try {
-                userUuid = jwtUtil.extractUserUuid(jwt);
-            } catch (Exception e) {
-                logger.debug("Invalid JWT token: " + e.getMessage());
+            // Signature is verified once per token; later requests are answered from the cache
+            verifiedToken = jwtVerificationCache.verify(authorizationHeader.substring(7));
+            if (verifiedToken == null) {
+                logger.debug("Invalid JWT token");
             }
         }
 
-        if (userUuid != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUserUuid(userUuid);
+        if (verifiedToken != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserDetails userDetails = userDetailsService.loadUserByUserUuid(verifiedToken.userUuid());
 
-            if (jwtUtil.validateToken(jwt, userDetails)) {
+            if (userDetails instanceof CustomUserDetails customUserDetails
+                    && verifiedToken.isIssuedFor(customUserDetails)) {
                 UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(
                                 userDetails,
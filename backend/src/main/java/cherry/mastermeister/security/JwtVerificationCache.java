@@ -0,0 +1,128 @@
+/*
+ * Copyright 2025 agwlvssainokuni
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cherry.mastermeister.security;
+
+import cherry.mastermeister.util.JwtUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+
+/**
+ * Cache of verified JWTs, keyed by the SHA-256 hash of the token so that raw bearer tokens are not retained.
+ * A token is parsed and its signature verified once; the entry expires when the token does.
+ * Invalid tokens are not cached.
+ */
+@Component
+public class JwtVerificationCache {
+
+    private final JwtUtil jwtUtil;
+    private final Cache<String, VerifiedToken> verifiedTokens;
+
+    public JwtVerificationCache(
+            JwtUtil jwtUtil,
+            MeterRegistry meterRegistry,
+            @Value("${mm.security.jwt.verification-cache.max-entries:10000}") long maxEntries
+    ) {
+        this.jwtUtil = jwtUtil;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+                        Duration remaining = Duration.between(Instant.now(), value.expiresAt());
+                        return remaining.isNegative() ? 0L : remaining.toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwtVerifications");
+    }
+
+    /**
+     * Verify token, or return null if it is malformed, has an invalid signature or has expired
+     */
+    public VerifiedToken verify(String token) {
+        String key = hash(token);
+        VerifiedToken verifiedToken = verifiedTokens.getIfPresent(key);
+        if (verifiedToken == null) {
+            try {
+                Claims claims = jwtUtil.parseClaims(token);
+                verifiedToken = new VerifiedToken(
+                        claims.getSubject(),
+                        claims.get("uid", Long.class),
+                        claims.getExpiration().toInstant());
+            } catch (JwtException | IllegalArgumentException e) {
+                return null;
+            }
+            verifiedTokens.put(key, verifiedToken);
+        }
+        return verifiedToken.expiresAt().isAfter(Instant.now()) ? verifiedToken : null;
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Claims of a verified token needed for authentication
+     *
+     * @param userUuid subject of the token
+     * @param userId   user ID claim, or null for tokens issued without it
+     */
+    public record VerifiedToken(
+            String userUuid,
+            Long userId,
+            Instant expiresAt
+    ) {
+
+        /**
+         * Whether the token was issued for the user
+         */
+        public boolean isIssuedFor(CustomUserDetails userDetails) {
+            return userUuid.equals(userDetails.getUserUuid())
+                    && (userId == null || userId.equals(userDetails.getUserId()));
+        }
+    }
+}
@@ -16,37 +16,36 @@
 
 package cherry.mastermeister.service;
 
-import cherry.mastermeister.entity.SchemaMetadataEntity;
-import cherry.mastermeister.entity.TableMetadataEntity;
 import cherry.mastermeister.enums.PermissionType;
 import cherry.mastermeister.exception.DatabaseNotFoundException;
 import cherry.mastermeister.exception.TableNotFoundException;
 import cherry.mastermeister.model.AccessibleColumn;
 import cherry.mastermeister.model.AccessibleTable;
-import cherry.mastermeister.repository.SchemaMetadataRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+/**
+ * Tables and columns of a connection with the user's permissions.
+ * Metadata is read from the in-memory schema catalog, so no transaction is needed here.
+ */
 @Service
-@Transactional(readOnly = true)
 public class AccessibleTableService {
 
     private final Logger logger = LoggerFactory.getLogger(getClass());
-    private final SchemaMetadataRepository schemaMetadataRepository;
+    private final SchemaCatalogService schemaCatalogService;
     private final PermissionService permissionService;
 
     public AccessibleTableService(
-            SchemaMetadataRepository schemaMetadataRepository,
+            SchemaCatalogService schemaCatalogService,
             PermissionService permissionService
     ) {
-        this.schemaMetadataRepository = schemaMetadataRepository;
+        this.schemaCatalogService = schemaCatalogService;
         this.permissionService = permissionService;
     }
 
@@ -59,12 +58,19 @@ public class AccessibleTableService {
     ) {
         logger.info("Retrieving all available tables for connection: {}", connectionId);
 
-        // Get schema metadata directly from repository
-        SchemaMetadataEntity schemaEntity = schemaMetadataRepository.findByConnectionId(connectionId)
+        // Get schema metadata from the in-memory catalog
+        SchemaCatalog catalog = schemaCatalogService.findCatalog(connectionId)
                 .orElseThrow(() -> new DatabaseNotFoundException("Schema metadata not found for connection: " + connectionId));
 
-        List<AccessibleTable> accessibleTables = schemaEntity.getTables().stream()
-                .map(tableEntity -> convertToAccessibleTable(tableEntity, userId, connectionId, false))
+        // Permissions of all tables in one pass
+        Map<String, Map<String, Set<PermissionType>>> allTablePermissions =
+                permissionService.getAllTablePermissions(userId, connectionId);
+
+        List<AccessibleTable> accessibleTables = catalog.getTables().stream()
+                .map(table -> toAccessibleTable(table, connectionId,
+                        allTablePermissions.getOrDefault(table.schema(), Map.of())
+                                .getOrDefault(table.tableName(), Set.of()),
+                        null))
                 .collect(Collectors.toList());
 
         logger.info("Found {} total accessible tables for connection: {}", accessibleTables.size(), connectionId);
@@ -81,64 +87,57 @@ public class AccessibleTableService {
         logger.debug("Getting accessible table with columns for {}.{} on connection {}",
                 schemaName, tableName, connectionId);
 
-        // Get table entity from repository
-        SchemaMetadataEntity schemaEntity = schemaMetadataRepository.findByConnectionId(connectionId)
+        // Get table from the in-memory catalog
+        SchemaCatalog catalog = schemaCatalogService.findCatalog(connectionId)
                 .orElseThrow(() -> new DatabaseNotFoundException("Schema metadata not found for connection: " + connectionId));
 
-        TableMetadataEntity tableEntity = schemaEntity.getTables().stream()
-                .filter(table -> schemaName.equals(table.getSchema()) && tableName.equals(table.getTableName()))
-                .findFirst()
+        SchemaCatalog.Table table = catalog.findTable(schemaName, tableName)
                 .orElseThrow(() -> new TableNotFoundException("Table not found: " + schemaName + "." + tableName));
 
         // Convert directly to AccessibleTable with columns
-        return convertToAccessibleTable(tableEntity, userId, connectionId, true);
+        return convertToAccessibleTable(table, userId, connectionId, true);
     }
 
     /**
-     * Convert TableMetadataEntity to AccessibleTable directly
+     * Convert catalog table to AccessibleTable, checking permissions of the table
      */
     private AccessibleTable convertToAccessibleTable(
-            TableMetadataEntity tableEntity,
+            SchemaCatalog.Table table,
             Long userId, Long connectionId,
             boolean includeColumns
     ) {
         // Get table permissions
         Set<PermissionType> tablePermissions = permissionService.getTablePermissions(
                 userId, connectionId,
-                tableEntity.getSchema(), tableEntity.getTableName()
+                table.schema(), table.tableName()
         );
 
         // Convert columns if requested
         List<AccessibleColumn> accessibleColumns = null;
         if (includeColumns) {
-            // Get all column names for bulk permission check
-            List<String> allColumnNames = tableEntity.getColumns().stream()
-                    .map(columnEntity -> columnEntity.getColumnName())
-                    .collect(Collectors.toList());
-
             // Get all column permissions in bulk (optimized)
             Map<String, Set<PermissionType>> bulkColumnPermissions = permissionService.getBulkColumnPermissions(
-                    userId, connectionId, tableEntity.getSchema(), tableEntity.getTableName(), allColumnNames
+                    userId, connectionId, table.schema(), table.tableName(), table.columnNames()
             );
 
-            accessibleColumns = tableEntity.getColumns().stream()
-                    .map(columnEntity -> {
-                        Set<PermissionType> columnPermissions = bulkColumnPermissions.get(columnEntity.getColumnName());
+            accessibleColumns = table.columns().stream()
+                    .map(column -> {
+                        Set<PermissionType> columnPermissions = bulkColumnPermissions.get(column.columnName());
                         if (columnPermissions == null) {
                             columnPermissions = Set.of();
                         }
 
                         return new AccessibleColumn(
-                                columnEntity.getColumnName(),
-                                columnEntity.getDataType(),
-                                columnEntity.getColumnSize(),
-                                columnEntity.getDecimalDigits(),
-                                columnEntity.getNullable(),
-                                columnEntity.getDefaultValue(),
-                                columnEntity.getComment(),
-                                columnEntity.getPrimaryKey(),
-                                columnEntity.getAutoIncrement(),
-                                columnEntity.getOrdinalPosition(),
+                                column.columnName(),
+                                column.dataType(),
+                                column.columnSize(),
+                                column.decimalDigits(),
+                                column.nullable(),
+                                column.defaultValue(),
+                                column.comment(),
+                                column.primaryKey(),
+                                column.autoIncrement(),
+                                column.ordinalPosition(),
                                 columnPermissions,
                                 columnPermissions.contains(PermissionType.READ),
                                 columnPermissions.contains(PermissionType.WRITE),
@@ -149,12 +148,20 @@ public class AccessibleTableService {
                     .collect(Collectors.toList());
         }
 
+        return toAccessibleTable(table, connectionId, tablePermissions, accessibleColumns);
+    }
+
+    private AccessibleTable toAccessibleTable(
+            SchemaCatalog.Table table, Long connectionId,
+            Set<PermissionType> tablePermissions,
+            List<AccessibleColumn> accessibleColumns
+    ) {
         return new AccessibleTable(
                 connectionId,
-                tableEntity.getSchema(),
-                tableEntity.getTableName(),
-                tableEntity.getTableType(),
-                tableEntity.getComment(),
+                table.schema(),
+                table.tableName(),
+                table.metadata().tableType(),
+                table.metadata().comment(),
                 tablePermissions,
                 tablePermissions.contains(PermissionType.READ),
                 tablePermissions.contains(PermissionType.WRITE),
@@ -20,6 +20,7 @@ import cherry.mastermeister.entity.AuditLogEntity;
 import cherry.mastermeister.entity.UserEntity;
 import cherry.mastermeister.repository.AuditLogRepository;
 import cherry.mastermeister.repository.UserRepository;
+import cherry.mastermeister.security.CustomUserDetails;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -310,6 +311,9 @@ public class AuditLogService {
      */
     private String getCurrentUsername() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof CustomUserDetails userDetails) {
+            return userDetails.getUsername();
+        }
         if (authentication != null && authentication.getName() != null) {
             String userUuid = authentication.getName(); // This is the UUID from JWT sub claim
             return userRepository.findByUserUuid(userUuid)
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2025 agwlvssainokuni
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cherry.mastermeister.service;
+
+import cherry.mastermeister.entity.CacheChangeLogEntity;
+import cherry.mastermeister.enums.CacheChangeType;
+import cherry.mastermeister.repository.CacheChangeLogRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Records changes of cached state in the cache change log, so that other nodes sharing the internal database
+ * evict their copies (see {@link CacheCoherenceService}).
+ * The log entry is written in the transaction of the change and becomes visible to other nodes when it commits.
+ */
+@Service
+public class CacheChangeLogService {
+
+    private final CacheChangeLogRepository cacheChangeLogRepository;
+    private final boolean enabled;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public CacheChangeLogService(
+            CacheChangeLogRepository cacheChangeLogRepository,
+            @Value("${mm.app.cache-coherence.enabled:true}") boolean enabled
+    ) {
+        this.cacheChangeLogRepository = cacheChangeLogRepository;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Identifier of this node, unique per application context
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Record a change for other nodes
+     *
+     * @param targetId user or connection ID depending on the change type, or null
+     */
+    @Transactional
+    public void record(CacheChangeType changeType, Long targetId) {
+        if (!enabled) {
+            return;
+        }
+        CacheChangeLogEntity entity = new CacheChangeLogEntity();
+        entity.setChangeType(changeType);
+        entity.setTargetId(targetId);
+        entity.setOriginNode(nodeId);
+        cacheChangeLogRepository.save(entity);
+    }
+
+    /**
+     * Delete log entries older than the threshold
+     */
+    @Transactional
+    public int purge(LocalDateTime threshold) {
+        return cacheChangeLogRepository.deleteByCreatedAtBefore(threshold);
+    }
+}
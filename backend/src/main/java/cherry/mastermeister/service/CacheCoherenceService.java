@@ -0,0 +1,150 @@
+/*
+ * Copyright 2025 agwlvssainokuni
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cherry.mastermeister.service;
+
+import cherry.mastermeister.entity.CacheChangeLogEntity;
+import cherry.mastermeister.repository.CacheChangeLogRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps the local caches of this node coherent with changes made on other nodes.
+ * Polls the cache change log for entries after the last one seen and evicts only the affected state:
+ * permission epochs of a user or connection, the connection pool of a connection, the cached
+ * authentication details of a user, or the schema catalog of a connection.
+ * <p>
+ * Log IDs are assigned before commit, so an ID skipped by a poll may still appear when its transaction commits;
+ * skipped IDs are looked up again until they show up or the gap timeout passes.
+ */
+@Service
+public class CacheCoherenceService {
+
+    private static final int MAX_PENDING_IDS = 1000;
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    private final CacheChangeLogRepository cacheChangeLogRepository;
+    private final CacheChangeLogService cacheChangeLogService;
+    private final PermissionEpochService permissionEpochService;
+    private final DatabaseService databaseService;
+    private final UserDetailsServiceImpl userDetailsService;
+    private final SchemaCatalogService schemaCatalogService;
+    private final long gapTimeoutMs;
+    private final Duration retention;
+    private final ReentrantLock pollLock = new ReentrantLock();
+    private final Map<Long, Long> pendingIds = new HashMap<>();
+    private long lastSeenId = -1;
+    private long lastPurgedAt = 0;
+
+    public CacheCoherenceService(
+            CacheChangeLogRepository cacheChangeLogRepository,
+            CacheChangeLogService cacheChangeLogService,
+            PermissionEpochService permissionEpochService,
+            DatabaseService databaseService,
+            UserDetailsServiceImpl userDetailsService,
+            SchemaCatalogService schemaCatalogService,
+            @Value("${mm.app.cache-coherence.gap-timeout-ms:60000}") long gapTimeoutMs,
+            @Value("${mm.app.cache-coherence.retention:1h}") Duration retention
+    ) {
+        this.cacheChangeLogRepository = cacheChangeLogRepository;
+        this.cacheChangeLogService = cacheChangeLogService;
+        this.permissionEpochService = permissionEpochService;
+        this.databaseService = databaseService;
+        this.userDetailsService = userDetailsService;
+        this.schemaCatalogService = schemaCatalogService;
+        this.gapTimeoutMs = gapTimeoutMs;
+        this.retention = retention;
+    }
+
+    /**
+     * Apply changes recorded by other nodes since the last poll
+     */
+    @Scheduled(fixedDelayString = "${mm.app.cache-coherence.poll-interval-ms:2000}")
+    public void poll() {
+        if (!cacheChangeLogService.isEnabled()) {
+            return;
+        }
+        // A lock rather than a monitor: the poll queries the database, which would pin a virtual thread
+        pollLock.lock();
+        try {
+            doPoll();
+        } finally {
+            pollLock.unlock();
+        }
+    }
+
+    private void doPoll() {
+        // Caches of this node are built after the changes logged so far
+        if (lastSeenId < 0) {
+            lastSeenId = cacheChangeLogRepository.findMaxId();
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        List<CacheChangeLogEntity> changes = new ArrayList<>();
+        if (!pendingIds.isEmpty()) {
+            for (CacheChangeLogEntity change : cacheChangeLogRepository.findByIdInOrderByIdAsc(pendingIds.keySet())) {
+                pendingIds.remove(change.getId());
+                changes.add(change);
+            }
+        }
+        for (CacheChangeLogEntity change : cacheChangeLogRepository.findByIdGreaterThanOrderByIdAsc(lastSeenId)) {
+            for (long id = lastSeenId + 1; id < change.getId() && pendingIds.size() < MAX_PENDING_IDS; id++) {
+                pendingIds.put(id, now);
+            }
+            lastSeenId = change.getId();
+            changes.add(change);
+        }
+        // Gaps left by rolled back transactions never fill
+        pendingIds.values().removeIf(seenAt -> now - seenAt > gapTimeoutMs);
+
+        String nodeId = cacheChangeLogService.getNodeId();
+        for (CacheChangeLogEntity change : changes) {
+            if (!nodeId.equals(change.getOriginNode())) {
+                apply(change);
+            }
+        }
+
+        if (now - lastPurgedAt > retention.toMillis()) {
+            int purged = cacheChangeLogService.purge(LocalDateTime.now().minus(retention));
+            logger.debug("Purged {} cache change log entries", purged);
+            lastPurgedAt = now;
+        }
+    }
+
+    private void apply(CacheChangeLogEntity change) {
+        logger.debug("Applying {} change of {} from node {}",
+                change.getChangeType(), change.getTargetId(), change.getOriginNode());
+        switch (change.getChangeType()) {
+            case USER_PERMISSIONS -> permissionEpochService.bumpUser(change.getTargetId());
+            case CONNECTION_PERMISSIONS -> permissionEpochService.bumpConnection(change.getTargetId());
+            case CONNECTION_SETTINGS -> databaseService.evictQueryExecutor(change.getTargetId());
+            case USER_DETAILS -> userDetailsService.evictUser(change.getTargetId());
+            case SCHEMA_METADATA -> schemaCatalogService.evict(change.getTargetId());
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2025 agwlvssainokuni
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cherry.mastermeister.service;
+
+import cherry.mastermeister.model.ConnectionPoolSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * Periodic maintenance of target database connection pools.
+ * Resizes pools in adaptive mode according to the connection wait time observed since the previous run,
+ * and closes pools retired by connection updates once their in-flight queries have finished.
+ */
+@Service
+public class ConnectionPoolMaintenanceService {
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    private final DatabaseService databaseService;
+    private final long growWaitThresholdMs;
+    private final long shrinkWaitThresholdMs;
+    private final long retireTimeoutMs;
+
+    public ConnectionPoolMaintenanceService(
+            DatabaseService databaseService,
+            @Value("${mm.app.data-access.pool.adaptive.grow-wait-threshold:20ms}") Duration growWaitThreshold,
+            @Value("${mm.app.data-access.pool.adaptive.shrink-wait-threshold:2ms}") Duration shrinkWaitThreshold,
+            @Value("${mm.app.data-access.pool.retire-timeout:5m}") Duration retireTimeout
+    ) {
+        this.databaseService = databaseService;
+        this.growWaitThresholdMs = growWaitThreshold.toMillis();
+        this.shrinkWaitThresholdMs = shrinkWaitThreshold.toMillis();
+        this.retireTimeoutMs = retireTimeout.toMillis();
+    }
+
+    @Scheduled(fixedDelayString = "${mm.app.data-access.pool.maintenance-interval-ms:10000}")
+    public void maintainPools() {
+        databaseService.closeDrainedExecutors(retireTimeoutMs);
+
+        for (QueryExecutor queryExecutor : databaseService.getOpenQueryExecutors()) {
+            // Drain the sample even when not adaptive, so that switching to adaptive starts from fresh values
+            ConnectionWaitTracker.WaitSample sample = queryExecutor.drainWaitSample();
+            if (queryExecutor.getPoolSettings().adaptive() && !queryExecutor.isClosed()) {
+                adjustPoolSize(queryExecutor, sample);
+            }
+        }
+    }
+
+    /**
+     * Grow the pool while threads wait for connections, shrink it slowly while connections are readily available
+     */
+    void adjustPoolSize(QueryExecutor queryExecutor, ConnectionWaitTracker.WaitSample sample) {
+        ConnectionPoolSettings settings = queryExecutor.getPoolSettings();
+        int currentSize = queryExecutor.getMaximumPoolSize();
+        int pendingThreads = queryExecutor.getThreadsAwaitingConnection();
+
+        int targetSize = currentSize;
+        if (pendingThreads > 0 || sample.timeouts() > 0 || sample.averageWaitMs() >= growWaitThresholdMs) {
+            targetSize = Math.min(settings.resolvedMaximumPoolSize(), currentSize + Math.max(1, currentSize / 2));
+        } else if (sample.averageWaitMs() < shrinkWaitThresholdMs
+                && queryExecutor.getActiveConnections() <= currentSize / 2) {
+            targetSize = Math.max(settings.adaptiveLowerBound(), currentSize - 1);
+        }
+
+        if (targetSize != currentSize) {
+            queryExecutor.resizePool(targetSize);
+            logger.info("Resized pool for connection ID: {} from {} to {} (average wait {}ms, pending threads {})",
+                    queryExecutor.getConnectionId(), currentSize, targetSize,
+                    String.format("%.1f", sample.averageWaitMs()), pendingThreads);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2025 agwlvssainokuni
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cherry.mastermeister.service;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hikari metrics tracker accumulating connection acquisition wait time.
+ * The accumulated values are drained periodically to drive adaptive pool sizing.
+ * All events are also forwarded to the tracker publishing the pool metrics.
+ */
+class ConnectionWaitTracker implements IMetricsTracker {
+
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder acquisitionNanos = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private volatile IMetricsTracker delegate = new IMetricsTracker() {
+    };
+
+    /**
+     * Set the tracker to forward events to (called by the pool's metrics tracker factory)
+     */
+    ConnectionWaitTracker forwardingTo(IMetricsTracker delegate) {
+        this.delegate = delegate;
+        return this;
+    }
+
+    @Override
+    public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+        delegate.recordConnectionCreatedMillis(connectionCreatedMillis);
+    }
+
+    @Override
+    public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+        acquisitions.increment();
+        acquisitionNanos.add(elapsedAcquiredNanos);
+        delegate.recordConnectionAcquiredNanos(elapsedAcquiredNanos);
+    }
+
+    @Override
+    public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+        delegate.recordConnectionUsageMillis(elapsedBorrowedMillis);
+    }
+
+    @Override
+    public void recordConnectionTimeout() {
+        timeouts.increment();
+        delegate.recordConnectionTimeout();
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    /**
+     * Return wait statistics since the previous call and reset them
+     */
+    WaitSample drain() {
+        long count = acquisitions.sumThenReset();
+        long nanos = acquisitionNanos.sumThenReset();
+        long timeoutCount = timeouts.sumThenReset();
+        double averageWaitMs = count > 0 ? nanos / (double) count / 1_000_000 : 0;
+        return new WaitSample(count, averageWaitMs, timeoutCount);
+    }
+
+    record WaitSample(
+            long acquisitions,
+            double averageWaitMs,
+            long timeouts
+    ) {
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2025 agwlvssainokuni
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cherry.mastermeister.service;
+
+import cherry.mastermeister.enums.QueryOperation;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.PoolStats;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Micrometer metrics of target databases: connection pools and queries run by the record services.
+ * All meters are tagged by connection ID; query meters also by table and operation.
+ */
+@Service
+public class DatabaseMetricsService {
+
+    static final String POOL_CONNECTIONS = "mm.target.pool.connections";
+    static final String POOL_ACQUIRE = "mm.target.pool.acquire";
+    static final String POOL_USAGE = "mm.target.pool.usage";
+    static final String POOL_TIMEOUTS = "mm.target.pool.timeouts";
+    static final String QUERY_DURATION = "mm.target.query";
+    static final String QUERY_ROWS = "mm.target.query.rows";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Long, PoolMetricsTracker> poolTrackers = new ConcurrentHashMap<>();
+
+    public DatabaseMetricsService(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Create Hikari metrics tracker for the pool of the connection.
+     * A pool replacing a retired one of the same connection takes over its meters.
+     */
+    public IMetricsTracker createPoolTracker(Long connectionId, PoolStats poolStats) {
+        PoolMetricsTracker tracker = new PoolMetricsTracker(connectionId, poolStats);
+        poolTrackers.put(connectionId, tracker);
+        return tracker;
+    }
+
+    /**
+     * Run a query and record its duration and the number of rows read or affected
+     */
+    public <T> T recordQuery(
+            Long connectionId, String schemaName, String tableName,
+            QueryOperation operation,
+            Supplier<T> query,
+            ToLongFunction<T> rowCount
+    ) {
+        Tags tags = Tags.of(
+                "connection", String.valueOf(connectionId),
+                "table", schemaName + "." + tableName,
+                "operation", operation.getTagValue()
+        );
+
+        long startTime = System.nanoTime();
+        T result;
+        try {
+            result = query.get();
+        } catch (RuntimeException e) {
+            queryTimer(tags, "error").record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        queryTimer(tags, "success").record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder(QUERY_ROWS)
+                .description("Rows read or affected by target database queries")
+                .baseUnit("rows")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(rowCount.applyAsLong(result));
+        return result;
+    }
+
+    private Timer queryTimer(Tags tags, String outcome) {
+        return Timer.builder(QUERY_DURATION)
+                .description("Execution time of target database queries")
+                .tags(tags)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private double poolStat(Long connectionId, ToIntFunction<PoolStats> stat) {
+        PoolMetricsTracker tracker = poolTrackers.get(connectionId);
+        return tracker != null ? stat.applyAsInt(tracker.poolStats) : Double.NaN;
+    }
+
+    /**
+     * Pool meters of one connection, removed when the pool is closed unless a newer pool has taken over
+     */
+    private class PoolMetricsTracker implements IMetricsTracker {
+
+        private final Long connectionId;
+        private final PoolStats poolStats;
+        private final List<Meter> meters = new ArrayList<>();
+        private final Timer acquireTimer;
+        private final Timer usageTimer;
+        private final Counter timeoutCounter;
+
+        PoolMetricsTracker(Long connectionId, PoolStats poolStats) {
+            this.connectionId = connectionId;
+            this.poolStats = poolStats;
+
+            Tags tags = Tags.of("connection", String.valueOf(connectionId));
+            registerGauge(tags, "active", PoolStats::getActiveConnections);
+            registerGauge(tags, "idle", PoolStats::getIdleConnections);
+            registerGauge(tags, "pending", PoolStats::getPendingThreads);
+            registerGauge(tags, "total", PoolStats::getTotalConnections);
+            registerGauge(tags, "max", PoolStats::getMaxConnections);
+
+            this.acquireTimer = register(Timer.builder(POOL_ACQUIRE)
+                    .description("Time waiting to acquire a connection from the pool")
+                    .tags(tags)
+                    .register(meterRegistry));
+            this.usageTimer = register(Timer.builder(POOL_USAGE)
+                    .description("Time connections are in use before being returned to the pool")
+                    .tags(tags)
+                    .register(meterRegistry));
+            this.timeoutCounter = register(Counter.builder(POOL_TIMEOUTS)
+                    .description("Connection acquisitions that timed out")
+                    .tags(tags)
+                    .register(meterRegistry));
+        }
+
+        private void registerGauge(Tags tags, String state, ToIntFunction<PoolStats> stat) {
+            register(Gauge.builder(POOL_CONNECTIONS, () -> poolStat(connectionId, stat))
+                    .description("Connections of the target database pool by state")
+                    .tags(tags)
+                    .tag("state", state)
+                    .register(meterRegistry));
+        }
+
+        private <M extends Meter> M register(M meter) {
+            meters.add(meter);
+            return meter;
+        }
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            acquireTimer.record(elapsedAcquiredNanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+            usageTimer.record(elapsedBorrowedMillis, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            timeoutCounter.increment();
+        }
+
+        @Override
+        public void close() {
+            if (poolTrackers.remove(connectionId, this)) {
+                meters.forEach(meterRegistry::remove);
+            }
+        }
+    }
+}
@@ -17,8 +17,10 @@
 package cherry.mastermeister.service;
 
 import cherry.mastermeister.entity.DatabaseConnectionEntity;
+import cherry.mastermeister.enums.CacheChangeType;
 import cherry.mastermeister.enums.DatabaseType;
 import cherry.mastermeister.exception.DatabaseNotFoundException;
+import cherry.mastermeister.model.ConnectionPoolSettings;
 import cherry.mastermeister.model.DatabaseConnection;
 import cherry.mastermeister.repository.DatabaseConnectionRepository;
 import com.zaxxer.hikari.HikariConfig;
@@ -31,23 +33,65 @@ import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
 
 @Service
 public class DatabaseService {
 
     private final Logger logger = LoggerFactory.getLogger(getClass());
     private final DatabaseConnectionRepository databaseConnectionRepository;
-    private final Map<Long, HikariDataSource> dataSourceCache = new ConcurrentHashMap<>();
-
-    public DatabaseService(DatabaseConnectionRepository databaseConnectionRepository) {
+    private final DatabaseMetricsService databaseMetricsService;
+    private final CacheChangeLogService cacheChangeLogService;
+    private final Map<Long, QueryExecutor> queryExecutorCache = new ConcurrentHashMap<>();
+    private final Queue<QueryExecutor> retiredExecutors = new ConcurrentLinkedQueue<>();
+    private final Map<Long, ReentrantLock> executorLocks = new ConcurrentHashMap<>();
+
+    public DatabaseService(
+            DatabaseConnectionRepository databaseConnectionRepository,
+            DatabaseMetricsService databaseMetricsService,
+            CacheChangeLogService cacheChangeLogService
+    ) {
         this.databaseConnectionRepository = databaseConnectionRepository;
+        this.databaseMetricsService = databaseMetricsService;
+        this.cacheChangeLogService = cacheChangeLogService;
     }
 
     public DataSource getDataSource(Long connectionId) {
-        return dataSourceCache.computeIfAbsent(connectionId, this::createDataSource);
+        return getQueryExecutor(connectionId).getDataSource();
+    }
+
+    /**
+     * Get long-lived query executor (connection pool and JDBC templates) for the connection
+     */
+    public QueryExecutor getQueryExecutor(Long connectionId) {
+        QueryExecutor queryExecutor = queryExecutorCache.get(connectionId);
+        if (queryExecutor != null) {
+            return queryExecutor;
+        }
+        // Pool creation reads the settings and opens connections; it runs under a per-connection lock
+        // rather than inside computeIfAbsent, whose monitor would pin virtual threads during the I/O
+        ReentrantLock lock = executorLock(connectionId);
+        lock.lock();
+        try {
+            queryExecutor = queryExecutorCache.get(connectionId);
+            if (queryExecutor == null) {
+                queryExecutor = createQueryExecutor(connectionId);
+                queryExecutorCache.put(connectionId, queryExecutor);
+            }
+            return queryExecutor;
+        } finally {
+            lock.unlock();
+        }
     }
 
     public boolean testConnection(Long connectionId) {
@@ -69,24 +113,85 @@ public class DatabaseService {
     }
 
     public void closeDataSource(Long connectionId) {
-        HikariDataSource dataSource = dataSourceCache.remove(connectionId);
-        if (dataSource != null && !dataSource.isClosed()) {
-            dataSource.close();
+        QueryExecutor queryExecutor = removeQueryExecutor(connectionId);
+        if (queryExecutor != null && !queryExecutor.isClosed()) {
+            queryExecutor.close();
             logger.info("Closed DataSource for connection ID: {}", connectionId);
         }
     }
 
     public void closeAllDataSources() {
-        dataSourceCache.forEach((id, dataSource) -> {
-            if (!dataSource.isClosed()) {
-                dataSource.close();
+        queryExecutorCache.forEach((id, queryExecutor) -> {
+            if (!queryExecutor.isClosed()) {
+                queryExecutor.close();
                 logger.info("Closed DataSource for connection ID: {}", id);
             }
         });
-        dataSourceCache.clear();
+        queryExecutorCache.clear();
+        retiredExecutors.forEach(QueryExecutor::close);
+        retiredExecutors.clear();
+    }
+
+    /**
+     * Get query executors with open connection pools
+     */
+    public List<QueryExecutor> getOpenQueryExecutors() {
+        return List.copyOf(queryExecutorCache.values());
+    }
+
+    /**
+     * Replace the query executor without interrupting queries running on it.
+     * The retired pool is closed by {@link #closeDrainedExecutors(long)} once its connections are returned.
+     */
+    private void retireQueryExecutor(Long connectionId) {
+        QueryExecutor queryExecutor = removeQueryExecutor(connectionId);
+        if (queryExecutor != null && !queryExecutor.isClosed()) {
+            queryExecutor.retire();
+            retiredExecutors.add(queryExecutor);
+            logger.info("Retired DataSource for connection ID: {}", connectionId);
+        }
+    }
+
+    /**
+     * Retire the pool of a connection changed on another node; the next use creates a pool with the new settings
+     */
+    public void evictQueryExecutor(Long connectionId) {
+        retireQueryExecutor(connectionId);
+    }
+
+    /**
+     * Close retired pools with no connections in use, or retired longer than the timeout
+     */
+    public void closeDrainedExecutors(long retireTimeoutMs) {
+        long now = System.currentTimeMillis();
+        retiredExecutors.removeIf(queryExecutor -> {
+            if (queryExecutor.getActiveConnections() > 0 && now - queryExecutor.getRetiredAt() < retireTimeoutMs) {
+                return false;
+            }
+            queryExecutor.close();
+            logger.info("Closed retired DataSource for connection ID: {}", queryExecutor.getConnectionId());
+            return true;
+        });
+    }
+
+    /**
+     * Remove the query executor, waiting for a pool being created with the old settings
+     */
+    private QueryExecutor removeQueryExecutor(Long connectionId) {
+        ReentrantLock lock = executorLock(connectionId);
+        lock.lock();
+        try {
+            return queryExecutorCache.remove(connectionId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReentrantLock executorLock(Long connectionId) {
+        return executorLocks.computeIfAbsent(connectionId, id -> new ReentrantLock());
     }
 
-    private HikariDataSource createDataSource(Long connectionId) {
+    private QueryExecutor createQueryExecutor(Long connectionId) {
         DatabaseConnectionEntity dbConnection = databaseConnectionRepository.findById(connectionId)
                 .orElseThrow(() -> new IllegalArgumentException("Database connection not found: " + connectionId));
 
@@ -100,23 +205,37 @@ public class DatabaseService {
         config.setPassword(dbConnection.getPassword());
         config.setDriverClassName(getDriverClassName(dbConnection.getDbType()));
 
-        // Connection pool settings
-        config.setMaximumPoolSize(10);
-        config.setMinimumIdle(2);
-        config.setConnectionTimeout(30000);
-        config.setIdleTimeout(600000);
-        config.setMaxLifetime(1800000);
-        config.setLeakDetectionThreshold(60000);
+        // Connection pool settings (adaptive pools start at the lower bound and grow on demand)
+        ConnectionPoolSettings poolSettings = toPoolSettings(dbConnection);
+        int maximumPoolSize = poolSettings.adaptive()
+                ? poolSettings.adaptiveLowerBound()
+                : poolSettings.resolvedMaximumPoolSize();
+        config.setMaximumPoolSize(maximumPoolSize);
+        config.setMinimumIdle(Math.min(poolSettings.resolvedMinimumIdle(), maximumPoolSize));
+        config.setConnectionTimeout(poolSettings.resolvedConnectionTimeoutMs());
+        config.setIdleTimeout(poolSettings.resolvedIdleTimeoutMs());
+        config.setMaxLifetime(poolSettings.resolvedMaxLifetimeMs());
+        config.setLeakDetectionThreshold(poolSettings.resolvedLeakDetectionThresholdMs());
+
+        // Connection wait time observed for adaptive pool sizing, and pool metrics tagged by connection
+        ConnectionWaitTracker waitTracker = new ConnectionWaitTracker();
+        config.setMetricsTrackerFactory((poolName, poolStats) ->
+                waitTracker.forwardingTo(databaseMetricsService.createPoolTracker(connectionId, poolStats)));
 
         // Connection validation
         config.setConnectionTestQuery(getValidationQuery(dbConnection.getDbType()));
         config.setValidationTimeout(5000);
 
+        // Driver-side prepared statement caching
+        getStatementCacheProperties(dbConnection.getDbType(), dbConnection.getConnectionParams())
+                .forEach(config::addDataSourceProperty);
+
         // Pool name for identification
         config.setPoolName("MasterMeister-" + dbConnection.getName() + "-" + connectionId);
 
         logger.info("Creating DataSource for connection: {} (ID: {})", dbConnection.getName(), connectionId);
-        return new HikariDataSource(config);
+        return new QueryExecutor(connectionId, dbConnection.getDbType(), new HikariDataSource(config),
+                poolSettings, waitTracker);
     }
 
     private String buildJdbcUrl(DatabaseConnectionEntity dbConnection) {
@@ -148,6 +267,53 @@ public class DatabaseService {
         };
     }
 
+    /**
+     * Driver properties enabling prepared statement caching, except those set in the connection parameters.
+     * Data source properties are not overridden by the URL in every driver (MySQL Connector/J applies them
+     * over URL parameters), so a property the user set in the URL is left out here.
+     */
+    static Map<String, String> getStatementCacheProperties(DatabaseType dbType, String connectionParams) {
+        Set<String> urlParamNames = getConnectionParamNames(connectionParams);
+        return getStatementCacheProperties(dbType).entrySet().stream()
+                .filter(property -> !urlParamNames.contains(property.getKey().toLowerCase(Locale.ROOT)))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
+    /**
+     * Lower-cased names of the parameters in a query string ("name=value&..."; ";" is accepted as well)
+     */
+    private static Set<String> getConnectionParamNames(String connectionParams) {
+        if (connectionParams == null || connectionParams.isBlank()) {
+            return Set.of();
+        }
+        return Arrays.stream(connectionParams.split("[&;]"))
+                .map(param -> param.split("=", 2)[0].trim().toLowerCase(Locale.ROOT))
+                .filter(name -> !name.isEmpty())
+                .collect(Collectors.toSet());
+    }
+
+    private static Map<String, String> getStatementCacheProperties(DatabaseType dbType) {
+        return switch (dbType) {
+            case MYSQL -> Map.of(
+                    "cachePrepStmts", "true",
+                    "prepStmtCacheSize", "250",
+                    "prepStmtCacheSqlLimit", "2048",
+                    "useServerPrepStmts", "true"
+            );
+            case MARIADB -> Map.of(
+                    "cachePrepStmts", "true",
+                    "prepStmtCacheSize", "250",
+                    "useServerPrepStmts", "true"
+            );
+            case POSTGRESQL -> Map.of(
+                    "prepareThreshold", "3",
+                    "preparedStatementCacheQueries", "256",
+                    "preparedStatementCacheSizeMiB", "5"
+            );
+            case H2 -> Map.of(); // H2 caches prepared statements per session by default
+        };
+    }
+
     private String getValidationQuery(DatabaseType dbType) {
         return switch (dbType) {
             case MYSQL, MARIADB -> "SELECT 1";
@@ -168,6 +334,7 @@ public class DatabaseService {
     }
 
     public DatabaseConnection createConnection(DatabaseConnection model) {
+        validatePoolSettings(model.poolSettings());
         DatabaseConnectionEntity entity = toEntity(model);
         entity.setId(null);
         DatabaseConnectionEntity saved = databaseConnectionRepository.save(entity);
@@ -175,6 +342,7 @@ public class DatabaseService {
     }
 
     public DatabaseConnection updateConnection(Long connectionId, DatabaseConnection model) {
+        validatePoolSettings(model.poolSettings());
         DatabaseConnectionEntity existingConnection = findEntityById(connectionId);
         DatabaseConnectionEntity entity = toEntity(model);
         entity.setId(connectionId);
@@ -185,15 +353,60 @@ public class DatabaseService {
             entity.setPassword(existingConnection.getPassword());
         }
 
-        closeDataSource(connectionId);
+        // Pool settings not given: keep the existing settings
+        if (model.poolSettings() == null) {
+            entity.setPoolMaximumSize(existingConnection.getPoolMaximumSize());
+            entity.setPoolMinimumIdle(existingConnection.getPoolMinimumIdle());
+            entity.setPoolConnectionTimeoutMs(existingConnection.getPoolConnectionTimeoutMs());
+            entity.setPoolIdleTimeoutMs(existingConnection.getPoolIdleTimeoutMs());
+            entity.setPoolMaxLifetimeMs(existingConnection.getPoolMaxLifetimeMs());
+            entity.setPoolLeakDetectionThresholdMs(existingConnection.getPoolLeakDetectionThresholdMs());
+            entity.setPoolAdaptive(existingConnection.isPoolAdaptive());
+        }
+
         DatabaseConnectionEntity updated = databaseConnectionRepository.save(entity);
+        cacheChangeLogService.record(CacheChangeType.CONNECTION_SETTINGS, connectionId);
+
+        // Pool settings are applied to the running pool; other changes need a new pool,
+        // while queries already running finish on the retired one
+        QueryExecutor queryExecutor = queryExecutorCache.get(connectionId);
+        if (queryExecutor != null && isSameTarget(existingConnection, updated)) {
+            queryExecutor.applyPoolSettings(toPoolSettings(updated));
+            logger.info("Applied pool settings to DataSource for connection ID: {}", connectionId);
+        } else {
+            retireQueryExecutor(connectionId);
+        }
         return toModel(updated);
     }
 
+    /**
+     * Whether both entities connect to the same database with the same credentials
+     */
+    private boolean isSameTarget(DatabaseConnectionEntity existing, DatabaseConnectionEntity updated) {
+        return existing.isActive() && updated.isActive()
+                && existing.getDbType() == updated.getDbType()
+                && Objects.equals(existing.getHost(), updated.getHost())
+                && Objects.equals(existing.getPort(), updated.getPort())
+                && Objects.equals(existing.getDatabaseName(), updated.getDatabaseName())
+                && Objects.equals(existing.getUsername(), updated.getUsername())
+                && Objects.equals(existing.getPassword(), updated.getPassword())
+                && Objects.equals(existing.getConnectionParams(), updated.getConnectionParams());
+    }
+
+    private void validatePoolSettings(ConnectionPoolSettings poolSettings) {
+        if (poolSettings == null) {
+            return;
+        }
+        if (poolSettings.resolvedMinimumIdle() > poolSettings.resolvedMaximumPoolSize()) {
+            throw new IllegalArgumentException("Minimum idle must not exceed maximum pool size");
+        }
+    }
+
     public void deleteConnection(Long connectionId) {
         DatabaseConnectionEntity connection = findEntityById(connectionId);
         closeDataSource(connectionId);
         databaseConnectionRepository.delete(connection);
+        cacheChangeLogService.record(CacheChangeType.CONNECTION_SETTINGS, connectionId);
     }
 
     public Map<String, Object> testConnectionWithDetails(Long connectionId) {
@@ -211,6 +424,7 @@ public class DatabaseService {
         DatabaseConnectionEntity connection = findEntityById(connectionId);
         connection.setActive(true);
         DatabaseConnectionEntity updated = databaseConnectionRepository.save(connection);
+        cacheChangeLogService.record(CacheChangeType.CONNECTION_SETTINGS, connectionId);
         return toModel(updated);
     }
 
@@ -219,6 +433,7 @@ public class DatabaseService {
         connection.setActive(false);
         closeDataSource(connectionId);
         DatabaseConnectionEntity updated = databaseConnectionRepository.save(connection);
+        cacheChangeLogService.record(CacheChangeType.CONNECTION_SETTINGS, connectionId);
         return toModel(updated);
     }
 
@@ -242,7 +457,20 @@ public class DatabaseService {
                 entity.getLastTestedAt(),
                 entity.getTestResult(),
                 entity.getCreatedAt(),
-                entity.getUpdatedAt()
+                entity.getUpdatedAt(),
+                toPoolSettings(entity)
+        );
+    }
+
+    private ConnectionPoolSettings toPoolSettings(DatabaseConnectionEntity entity) {
+        return new ConnectionPoolSettings(
+                entity.getPoolMaximumSize(),
+                entity.getPoolMinimumIdle(),
+                entity.getPoolConnectionTimeoutMs(),
+                entity.getPoolIdleTimeoutMs(),
+                entity.getPoolMaxLifetimeMs(),
+                entity.getPoolLeakDetectionThresholdMs(),
+                entity.isPoolAdaptive()
         );
     }
 
@@ -262,6 +490,15 @@ public class DatabaseService {
         entity.setTestResult(model.testResult());
         entity.setCreatedAt(model.createdAt());
         entity.setUpdatedAt(model.updatedAt());
+        ConnectionPoolSettings poolSettings = model.poolSettings() != null
+                ? model.poolSettings() : ConnectionPoolSettings.defaults();
+        entity.setPoolMaximumSize(poolSettings.maximumPoolSize());
+        entity.setPoolMinimumIdle(poolSettings.minimumIdle());
+        entity.setPoolConnectionTimeoutMs(poolSettings.connectionTimeoutMs());
+        entity.setPoolIdleTimeoutMs(poolSettings.idleTimeoutMs());
+        entity.setPoolMaxLifetimeMs(poolSettings.maxLifetimeMs());
+        entity.setPoolLeakDetectionThresholdMs(poolSettings.leakDetectionThresholdMs());
+        entity.setPoolAdaptive(poolSettings.adaptive());
         return entity;
     }
 
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2025 agwlvssainokuni
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cherry.mastermeister.service;
+
+import cherry.mastermeister.exception.TooManyRequestsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admission control for login.
+ * Attempts are throttled per client IP and failures per username, then the password is verified
+ * on the bounded password hashing executor. When its queue is full the attempt is rejected at once
+ * with 429 instead of holding a request thread.
+ * Throttled and rejected attempts are counted in metrics only, so that they cost no database write.
+ */
+@Service
+public class LoginAdmissionService {
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    private final AuthenticationManager authenticationManager;
+    private final ThreadPoolTaskExecutor passwordHashingExecutor;
+    private final Duration verificationTimeout;
+    private final int maxAttemptsPerIp;
+    private final Duration ipWindow;
+    private final int maxFailuresPerUsername;
+    private final Duration usernameWindow;
+    private final boolean trustForwardedFor;
+
+    // Fixed windows: counters are mutated in place, so an entry expires a window after the first attempt
+    private final Cache<String, AtomicInteger> ipAttempts;
+    private final Cache<String, AtomicInteger> usernameFailures;
+
+    private final Counter successCounter;
+    private final Counter failureCounter;
+    private final Counter throttledCounter;
+    private final Counter rejectedCounter;
+    private final Timer queueWaitTimer;
+    private final Timer verificationTimer;
+
+    public LoginAdmissionService(
+            AuthenticationManager authenticationManager,
+            @Qualifier("passwordHashingExecutor") ThreadPoolTaskExecutor passwordHashingExecutor,
+            MeterRegistry meterRegistry,
+            @Value("${mm.app.auth.password-executor.timeout:10s}") Duration verificationTimeout,
+            @Value("${mm.app.auth.throttle.ip.max-attempts:30}") int maxAttemptsPerIp,
+            @Value("${mm.app.auth.throttle.ip.window:1m}") Duration ipWindow,
+            @Value("${mm.app.auth.throttle.username.max-failures:5}") int maxFailuresPerUsername,
+            @Value("${mm.app.auth.throttle.username.window:5m}") Duration usernameWindow,
+            @Value("${mm.app.auth.throttle.trust-forwarded-for:false}") boolean trustForwardedFor,
+            @Value("${mm.app.auth.throttle.max-entries:100000}") long maxEntries
+    ) {
+        this.authenticationManager = authenticationManager;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.verificationTimeout = verificationTimeout;
+        this.maxAttemptsPerIp = maxAttemptsPerIp;
+        this.ipWindow = ipWindow;
+        this.maxFailuresPerUsername = maxFailuresPerUsername;
+        this.usernameWindow = usernameWindow;
+        this.trustForwardedFor = trustForwardedFor;
+
+        this.ipAttempts = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ipWindow)
+                .build();
+        this.usernameFailures = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(usernameWindow)
+                .build();
+
+        this.successCounter = loginCounter(meterRegistry, "success");
+        this.failureCounter = loginCounter(meterRegistry, "failure");
+        this.throttledCounter = loginCounter(meterRegistry, "throttled");
+        this.rejectedCounter = loginCounter(meterRegistry, "rejected");
+        this.queueWaitTimer = Timer.builder("mm.auth.password.queue-wait")
+                .description("Time login attempts wait for a password hashing thread")
+                .register(meterRegistry);
+        this.verificationTimer = Timer.builder("mm.auth.password.verification")
+                .description("Time spent verifying passwords")
+                .register(meterRegistry);
+        Gauge.builder("mm.auth.password.executor.queued", passwordHashingExecutor,
+                        executor -> executor.getThreadPoolExecutor().getQueue().size())
+                .description("Login attempts waiting for a password hashing thread")
+                .register(meterRegistry);
+        Gauge.builder("mm.auth.password.executor.active", passwordHashingExecutor,
+                        ThreadPoolTaskExecutor::getActiveCount)
+                .description("Password hashing threads in use")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Authenticate with email and password, subject to throttling and executor capacity
+     */
+    public Authentication authenticate(String email, String password, HttpServletRequest request) {
+        String usernameKey = email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+        String clientIp = resolveClientIp(request);
+
+        AtomicInteger attempts = ipAttempts.get(clientIp, key -> new AtomicInteger());
+        if (attempts.incrementAndGet() > maxAttemptsPerIp) {
+            throttledCounter.increment();
+            logger.warn("Login throttled for client: {}", clientIp);
+            throw new TooManyRequestsException("Too many login attempts", ipWindow.toSeconds());
+        }
+        AtomicInteger failures = usernameFailures.getIfPresent(usernameKey);
+        if (failures != null && failures.get() >= maxFailuresPerUsername) {
+            throttledCounter.increment();
+            logger.warn("Login throttled for user: {}", email);
+            throw new TooManyRequestsException("Too many login attempts", usernameWindow.toSeconds());
+        }
+
+        long queuedAt = System.nanoTime();
+        CompletableFuture<Authentication> future;
+        try {
+            future = CompletableFuture.supplyAsync(() -> {
+                queueWaitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                return verificationTimer.record(() -> authenticationManager.authenticate(
+                        new UsernamePasswordAuthenticationToken(email, password)));
+            }, passwordHashingExecutor);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            logger.warn("Login rejected: password hashing queue is full");
+            throw new TooManyRequestsException("Too many concurrent login attempts", 1);
+        }
+
+        try {
+            Authentication authentication = future.get(verificationTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            usernameFailures.invalidate(usernameKey);
+            successCounter.increment();
+            return authentication;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof AuthenticationException authenticationException) {
+                usernameFailures.get(usernameKey, key -> new AtomicInteger()).incrementAndGet();
+                failureCounter.increment();
+                throw authenticationException;
+            }
+            throw new IllegalStateException("Password verification failed", e.getCause());
+        } catch (TimeoutException e) {
+            // A cancelled attempt still queued is skipped when it reaches a thread. One already verifying
+            // keeps its thread until the hash completes (it does not respond to interruption), so the
+            // executor's pool size, not the number of answered requests, bounds hashing work.
+            future.cancel(false);
+            rejectedCounter.increment();
+            logger.warn("Login rejected: password verification did not complete within {}", verificationTimeout);
+            throw new TooManyRequestsException("Too many concurrent login attempts", 1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while verifying password", e);
+        }
+    }
+
+    /**
+     * Client address used as the throttling key.
+     * Forwarded headers can be set by the client, so they are used only behind a trusted proxy.
+     */
+    private String resolveClientIp(HttpServletRequest request) {
+        if (trustForwardedFor) {
+            String xForwardedFor = request.getHeader("X-Forwarded-For");
+            if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
+                return xForwardedFor.split(",")[0].trim();
+            }
+            String xRealIp = request.getHeader("X-Real-IP");
+            if (xRealIp != null && !xRealIp.isEmpty()) {
+                return xRealIp;
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private static Counter loginCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("mm.auth.login")
+                .description("Login attempts by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
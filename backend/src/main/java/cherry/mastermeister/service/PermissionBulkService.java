@@ -51,17 +51,20 @@ public class PermissionBulkService {
     private final UserPermissionRepository userPermissionRepository;
     private final DatabaseConnectionRepository databaseConnectionRepository;
     private final SchemaMetadataService schemaMetadataService;
+    private final PermissionEpochService permissionEpochService;
 
     public PermissionBulkService(
             UserRepository userRepository,
             UserPermissionRepository userPermissionRepository,
             DatabaseConnectionRepository databaseConnectionRepository,
-            SchemaMetadataService schemaMetadataService
+            SchemaMetadataService schemaMetadataService,
+            PermissionEpochService permissionEpochService
     ) {
         this.userRepository = userRepository;
         this.userPermissionRepository = userPermissionRepository;
         this.databaseConnectionRepository = databaseConnectionRepository;
         this.schemaMetadataService = schemaMetadataService;
+        this.permissionEpochService = permissionEpochService;
     }
 
     // ==============================================
@@ -100,6 +103,9 @@ public class PermissionBulkService {
             counts = grantTableLevelPermissions(targetUsers, connectionId, command.tableNames(), command.permissionTypes(), command.description(), currentUserEmail, errors);
         }
 
+        // Cached permissions of the connection are stale once the grant commits
+        permissionEpochService.invalidateConnection(connectionId);
+
         if (counts.processedItems() == 0 && !errors.isEmpty()) {
             return new PermissionBulkResult(targetUsers.size(), 0, 0, 0, 0, errors);
         }
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2025 agwlvssainokuni
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cherry.mastermeister.service;
+
+import cherry.mastermeister.enums.CacheChangeType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versioned invalidation of cached permission answers.
+ * Every permission cache key embeds the current epochs of its user and connection; bumping an epoch makes
+ * all entries cached under the previous one unreachable, and they age out of the caches on their own.
+ * Epochs are bumped after the mutating transaction commits, so that entries rebuilt under the new epoch
+ * never see the data before the change.
+ * Each invalidation is also recorded in the cache change log, and other nodes bump the same epochs
+ * when they poll it.
+ */
+@Service
+public class PermissionEpochService {
+
+    private final CacheChangeLogService cacheChangeLogService;
+    private final Map<Long, AtomicLong> userEpochs = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicLong> connectionEpochs = new ConcurrentHashMap<>();
+
+    public PermissionEpochService(CacheChangeLogService cacheChangeLogService) {
+        this.cacheChangeLogService = cacheChangeLogService;
+    }
+
+    /**
+     * Cache key prefix for permissions of a user on a connection, including the current epochs
+     */
+    public String cacheKey(Long userId, Long connectionId) {
+        return userId + ":" + connectionId
+                + "@" + epoch(userEpochs, userId)
+                + "." + epoch(connectionEpochs, connectionId);
+    }
+
+    /**
+     * Cache key prefix of a permission cache key, i.e. the key of the permission matrix it was computed from
+     */
+    public static String baseKey(Object cacheKey) {
+        String key = String.valueOf(cacheKey);
+        int separator = key.indexOf(':', key.indexOf('@'));
+        return separator >= 0 ? key.substring(0, separator) : key;
+    }
+
+    /**
+     * Invalidate cached permissions of a user on all connections
+     */
+    public void invalidateUser(Long userId) {
+        cacheChangeLogService.record(CacheChangeType.USER_PERMISSIONS, userId);
+        afterCommit(() -> bumpUser(userId));
+    }
+
+    /**
+     * Invalidate cached permissions of all users on a connection
+     */
+    public void invalidateConnection(Long connectionId) {
+        cacheChangeLogService.record(CacheChangeType.CONNECTION_PERMISSIONS, connectionId);
+        afterCommit(() -> bumpConnection(connectionId));
+    }
+
+    /**
+     * Bump epoch of a user immediately, for a change already committed
+     */
+    void bumpUser(Long userId) {
+        bump(userEpochs, userId);
+    }
+
+    /**
+     * Bump epoch of a connection immediately, for a change already committed
+     */
+    void bumpConnection(Long connectionId) {
+        bump(connectionEpochs, connectionId);
+    }
+
+    private long epoch(Map<Long, AtomicLong> epochs, Long id) {
+        AtomicLong epoch = epochs.get(id);
+        return epoch != null ? epoch.get() : 0;
+    }
+
+    private void bump(Map<Long, AtomicLong> epochs, Long id) {
+        epochs.computeIfAbsent(id, k -> new AtomicLong()).incrementAndGet();
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,334 @@
+/*
+ * Copyright 2025 agwlvssainokuni
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cherry.mastermeister.service;
+
+import cherry.mastermeister.entity.UserPermissionEntity;
+import cherry.mastermeister.enums.PermissionType;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Effective permissions of one user on one connection, compiled from the user's active permission rows.
+ * Grants are held as bit masks of permission types per connection, schema, table and column rule.
+ * Per table, the effective permissions are expanded into one bitset of columns for each permission type,
+ * built on first access from the table's column list.
+ * <p>
+ * Precedence: an explicit column-level setting (granted or denied) decides for the column;
+ * otherwise the column has a permission if it is granted at table, schema or connection level.
+ * <p>
+ * The matrix is valid until the earliest expiration among the rows it was compiled from.
+ */
+public final class PermissionMatrix {
+
+    private static final int ALL_TYPES = (1 << PermissionType.values().length) - 1;
+
+    private final boolean admin;
+    private final int connectionGrants;
+    private final Map<String, Integer> schemaGrants;
+    private final Map<TableName, Integer> tableGrants;
+    private final Map<TableName, Map<String, ColumnRule>> columnRules;
+    private final LocalDateTime expiresAt;
+    private final Map<TableName, TablePermissions> tables = new ConcurrentHashMap<>();
+
+    private PermissionMatrix(
+            boolean admin,
+            int connectionGrants,
+            Map<String, Integer> schemaGrants,
+            Map<TableName, Integer> tableGrants,
+            Map<TableName, Map<String, ColumnRule>> columnRules,
+            LocalDateTime expiresAt
+    ) {
+        this.admin = admin;
+        this.connectionGrants = connectionGrants;
+        this.schemaGrants = schemaGrants;
+        this.tableGrants = tableGrants;
+        this.columnRules = columnRules;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Matrix of an administrator: every permission on every column
+     */
+    public static PermissionMatrix forAdmin() {
+        return new PermissionMatrix(true, ALL_TYPES, Map.of(), Map.of(), Map.of(), null);
+    }
+
+    /**
+     * Compile matrix from active permission rows of a user and connection
+     */
+    public static PermissionMatrix compile(List<UserPermissionEntity> permissions) {
+        int connectionGrants = 0;
+        Map<String, Integer> schemaGrants = new HashMap<>();
+        Map<TableName, Integer> tableGrants = new HashMap<>();
+        Map<TableName, Map<String, ColumnRule>> columnRules = new HashMap<>();
+        LocalDateTime expiresAt = null;
+
+        for (UserPermissionEntity permission : permissions) {
+            // Expiring denials change the result as well as expiring grants
+            LocalDateTime rowExpiresAt = permission.getExpiresAt();
+            if (rowExpiresAt != null && (expiresAt == null || rowExpiresAt.isBefore(expiresAt))) {
+                expiresAt = rowExpiresAt;
+            }
+
+            int bit = bit(permission.getPermissionType());
+            boolean granted = Boolean.TRUE.equals(permission.getGranted());
+            String schemaName = permission.getSchemaName();
+            String tableName = permission.getTableName();
+            String columnName = permission.getColumnName();
+
+            switch (permission.getScope()) {
+                // Denials above column level have no effect
+                case CONNECTION -> {
+                    if (granted && schemaName == null && tableName == null && columnName == null) {
+                        connectionGrants |= bit;
+                    }
+                }
+                case SCHEMA -> {
+                    if (granted && schemaName != null && tableName == null && columnName == null) {
+                        schemaGrants.merge(schemaName, bit, (a, b) -> a | b);
+                    }
+                }
+                case TABLE -> {
+                    if (granted && schemaName != null && tableName != null && columnName == null) {
+                        tableGrants.merge(new TableName(schemaName, tableName), bit, (a, b) -> a | b);
+                    }
+                }
+                case COLUMN -> {
+                    if (schemaName != null && tableName != null && columnName != null) {
+                        columnRules.computeIfAbsent(new TableName(schemaName, tableName), k -> new HashMap<>())
+                                .merge(columnName, ColumnRule.of(bit, granted), ColumnRule::override);
+                    }
+                }
+            }
+        }
+
+        return new PermissionMatrix(false, connectionGrants, schemaGrants, tableGrants, columnRules, expiresAt);
+    }
+
+    /**
+     * Get effective permissions of a table, expanding them over its columns on first access
+     *
+     * @param columnLoader column names of the table in ordinal order
+     */
+    public TablePermissions getTable(String schemaName, String tableName, Supplier<List<String>> columnLoader) {
+        return tables.computeIfAbsent(new TableName(schemaName, tableName),
+                key -> expand(key, columnLoader.get()));
+    }
+
+    /**
+     * Get effective permissions of a single column, which need not exist in the table metadata
+     */
+    public Set<PermissionType> getColumnPermissions(String schemaName, String tableName, String columnName) {
+        TableName key = new TableName(schemaName, tableName);
+        return toPermissionTypes(columnMask(columnRulesOf(key).get(columnName), upperGrants(key)));
+    }
+
+    /**
+     * Whether the user is an administrator
+     */
+    public boolean isAdmin() {
+        return admin;
+    }
+
+    /**
+     * Earliest expiration among the compiled permission rows, or null if none of them expires
+     */
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    private TablePermissions expand(TableName key, List<String> columnNames) {
+        int upperGrants = upperGrants(key);
+        Map<String, ColumnRule> rules = columnRulesOf(key);
+
+        BitSet[] columnBits = new BitSet[PermissionType.values().length];
+        for (int i = 0; i < columnBits.length; i++) {
+            columnBits[i] = new BitSet(columnNames.size());
+        }
+        for (int index = 0; index < columnNames.size(); index++) {
+            int mask = columnMask(rules.get(columnNames.get(index)), upperGrants);
+            for (PermissionType permissionType : PermissionType.values()) {
+                if ((mask & bit(permissionType)) != 0) {
+                    columnBits[permissionType.ordinal()].set(index);
+                }
+            }
+        }
+        return new TablePermissions(List.copyOf(columnNames), columnBits);
+    }
+
+    /**
+     * Permission types granted at table, schema or connection level
+     */
+    private int upperGrants(TableName key) {
+        if (admin) {
+            return ALL_TYPES;
+        }
+        return connectionGrants
+                | schemaGrants.getOrDefault(key.schemaName(), 0)
+                | tableGrants.getOrDefault(key, 0);
+    }
+
+    private Map<String, ColumnRule> columnRulesOf(TableName key) {
+        return admin ? Map.of() : columnRules.getOrDefault(key, Map.of());
+    }
+
+    private static int columnMask(ColumnRule rule, int upperGrants) {
+        if (rule == null) {
+            return upperGrants;
+        }
+        // Explicit column settings replace the upper-level grants of their types
+        return (upperGrants & ~rule.explicit()) | rule.granted();
+    }
+
+    private static int bit(PermissionType permissionType) {
+        return 1 << permissionType.ordinal();
+    }
+
+    private static Set<PermissionType> toPermissionTypes(int mask) {
+        Set<PermissionType> permissions = EnumSet.noneOf(PermissionType.class);
+        for (PermissionType permissionType : PermissionType.values()) {
+            if ((mask & bit(permissionType)) != 0) {
+                permissions.add(permissionType);
+            }
+        }
+        return permissions;
+    }
+
+    /**
+     * Effective permissions of the columns of one table
+     */
+    public static final class TablePermissions {
+
+        private final List<String> columnNames;
+        private final BitSet[] columnBits;
+        private final Map<String, Integer> columnIndexes;
+
+        private TablePermissions(List<String> columnNames, BitSet[] columnBits) {
+            this.columnNames = columnNames;
+            this.columnBits = columnBits;
+            Map<String, Integer> indexes = new HashMap<>();
+            for (int index = 0; index < columnNames.size(); index++) {
+                indexes.putIfAbsent(columnNames.get(index), index);
+            }
+            this.columnIndexes = indexes;
+        }
+
+        public List<String> getColumnNames() {
+            return columnNames;
+        }
+
+        /**
+         * Whether at least one column has the permission
+         */
+        public boolean hasAnyColumn(PermissionType permissionType) {
+            return !columnBits[permissionType.ordinal()].isEmpty();
+        }
+
+        /**
+         * Whether the table has columns and all of them have the permission
+         */
+        public boolean hasAllColumns(PermissionType permissionType) {
+            return !columnNames.isEmpty()
+                    && columnBits[permissionType.ordinal()].cardinality() == columnNames.size();
+        }
+
+        /**
+         * Table-level permission: READ and WRITE need one permitted column, DELETE and ADMIN need all columns
+         */
+        public Set<PermissionType> getTablePermissions() {
+            Set<PermissionType> permissions = EnumSet.noneOf(PermissionType.class);
+            for (PermissionType permissionType : PermissionType.values()) {
+                boolean permitted = switch (permissionType) {
+                    case READ, WRITE -> hasAnyColumn(permissionType);
+                    case DELETE, ADMIN -> hasAllColumns(permissionType);
+                };
+                if (permitted) {
+                    permissions.add(permissionType);
+                }
+            }
+            return permissions;
+        }
+
+        /**
+         * Columns having the permission, in ordinal order
+         */
+        public List<String> getColumns(PermissionType permissionType) {
+            BitSet bits = columnBits[permissionType.ordinal()];
+            if (bits.isEmpty()) {
+                return Collections.emptyList();
+            }
+            List<String> columns = new ArrayList<>(bits.cardinality());
+            for (int index = bits.nextSetBit(0); index >= 0; index = bits.nextSetBit(index + 1)) {
+                columns.add(columnNames.get(index));
+            }
+            return columns;
+        }
+
+        /**
+         * Permissions of a column of the table, or null if the column is not in the table metadata
+         */
+        public Set<PermissionType> getColumnPermissions(String columnName) {
+            Integer index = columnIndexes.get(columnName);
+            if (index == null) {
+                return null;
+            }
+            Set<PermissionType> permissions = EnumSet.noneOf(PermissionType.class);
+            for (PermissionType permissionType : PermissionType.values()) {
+                if (columnBits[permissionType.ordinal()].get(index)) {
+                    permissions.add(permissionType);
+                }
+            }
+            return permissions;
+        }
+    }
+
+    private record TableName(
+            String schemaName,
+            String tableName
+    ) {
+    }
+
+    /**
+     * Column-level settings: types set explicitly and, among them, the granted ones
+     */
+    private record ColumnRule(
+            int explicit,
+            int granted
+    ) {
+
+        static ColumnRule of(int bit, boolean granted) {
+            return new ColumnRule(bit, granted ? bit : 0);
+        }
+
+        /**
+         * Later rows of the same type replace earlier ones
+         */
+        ColumnRule override(ColumnRule later) {
+            return new ColumnRule(explicit | later.explicit, (granted & ~later.explicit) | later.granted);
+        }
+    }
+}
@@ -23,37 +23,45 @@ import cherry.mastermeister.enums.PermissionType;
 import cherry.mastermeister.enums.UserRole;
 import cherry.mastermeister.exception.UserNotFoundException;
 import cherry.mastermeister.model.UserPermission;
-import cherry.mastermeister.repository.TableMetadataRepository;
 import cherry.mastermeister.repository.UserPermissionRepository;
 import cherry.mastermeister.repository.UserRepository;
+import cherry.mastermeister.security.CustomUserDetails;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 @Transactional(readOnly = true)
 public class PermissionService {
 
+    public static final String PERMISSION_MATRICES_CACHE = "permissionMatrices";
+
     private final Logger logger = LoggerFactory.getLogger(getClass());
     private final UserPermissionRepository userPermissionRepository;
     private final UserRepository userRepository;
-    private final TableMetadataRepository tableMetadataRepository;
+    private final SchemaCatalogService schemaCatalogService;
+    private final PermissionEpochService permissionEpochService;
+    private final Cache permissionMatrixCache;
 
     public PermissionService(
             UserPermissionRepository userPermissionRepository,
             UserRepository userRepository,
-            TableMetadataRepository tableMetadataRepository
+            SchemaCatalogService schemaCatalogService,
+            PermissionEpochService permissionEpochService,
+            CacheManager cacheManager
     ) {
         this.userPermissionRepository = userPermissionRepository;
         this.userRepository = userRepository;
-        this.tableMetadataRepository = tableMetadataRepository;
+        this.schemaCatalogService = schemaCatalogService;
+        this.permissionEpochService = permissionEpochService;
+        this.permissionMatrixCache = cacheManager.getCache(PERMISSION_MATRICES_CACHE);
     }
 
     // ========================================
@@ -64,9 +72,6 @@ public class PermissionService {
      * Create permission with granted/denied status
      */
     @Transactional
-    @CacheEvict(value = {"tablePermissions", "readPermissions", "deletePermissions", "readableColumns", "writableColumns"}, 
-                key = "#userId + ':' + #connectionId + ':' + #schemaName + ':' + #tableName", 
-                beforeInvocation = true)
     public UserPermission createPermission(
             Long userId, Long connectionId, PermissionScope scope,
             PermissionType permissionType,
@@ -93,6 +98,7 @@ public class PermissionService {
         entity.setComment(comment);
 
         UserPermissionEntity saved = userPermissionRepository.save(entity);
+        permissionEpochService.invalidateUser(userId);
 
         logger.info("Permission {} successfully with ID: {}", granted ? "granted" : "denied", saved.getId());
         return toModel(saved);
@@ -105,80 +111,68 @@ public class PermissionService {
     /**
      * Get all permission types that specified user has for a specific table
      */
-    @Cacheable(value = "tablePermissions", key = "#userId + ':' + #connectionId + ':' + #schemaName + ':' + #tableName")
+    @Cacheable(value = "tablePermissions", key = "@permissionEpochService.cacheKey(#userId, #connectionId) + ':' + #schemaName + ':' + #tableName")
     public Set<PermissionType> getTablePermissions(
             Long userId, Long connectionId,
             String schemaName, String tableName
     ) {
-        // Check if user is admin
-        if (isUserAdmin(userId)) {
-            return EnumSet.allOf(PermissionType.class);
+        PermissionMatrix.TablePermissions tablePermissions = getTablePermissionMatrix(
+                userId, connectionId, schemaName, tableName);
+        if (tablePermissions.getColumnNames().isEmpty()) {
+            logger.warn("No columns found for table {}.{}", schemaName, tableName);
         }
+        return tablePermissions.getTablePermissions();
+    }
 
-        Set<PermissionType> permissions = EnumSet.noneOf(PermissionType.class);
-
-        // Check each permission type
-        for (PermissionType permissionType : PermissionType.values()) {
-            boolean atLeastOne = switch (permissionType) {
-                case READ, WRITE -> true;   // at least one column must have permission (partial access)
-                case DELETE, ADMIN -> false; // all columns must have permission (complete access)
-            };
+    /**
+     * Get permission types of all tables of a connection (schema name -> table name -> permission types).
+     * Evaluated in one pass from the permission matrix and the column names in the schema catalog;
+     * tables without columns are omitted, as they have no permissions.
+     */
+    public Map<String, Map<String, Set<PermissionType>>> getAllTablePermissions(
+            Long userId, Long connectionId
+    ) {
+        PermissionMatrix permissionMatrix = getPermissionMatrix(userId, connectionId);
 
-            boolean hasPermission = checkColumnPermissions(
-                    userId, connectionId,
-                    permissionType,
-                    schemaName, tableName,
-                    atLeastOne
-            );
+        List<SchemaCatalog.Table> tables = schemaCatalogService.findCatalog(connectionId)
+                .map(SchemaCatalog::getTables)
+                .orElse(List.of());
 
-            if (hasPermission) {
-                permissions.add(permissionType);
+        Map<String, Map<String, Set<PermissionType>>> results = new HashMap<>();
+        for (SchemaCatalog.Table table : tables) {
+            if (table.columnNames().isEmpty()) {
+                continue;
             }
+            results.computeIfAbsent(table.schema(), k -> new HashMap<>())
+                    .put(table.tableName(), permissionMatrix.getTable(table.schema(), table.tableName(),
+                            table::columnNames).getTablePermissions());
         }
-
-        return permissions;
+        return results;
     }
 
     /**
      * Check if user has read permission for a table
      */
-    @Cacheable(value = "readPermissions", key = "#userId + ':' + #connectionId + ':' + #schemaName + ':' + #tableName")
+    @Cacheable(value = "readPermissions", key = "@permissionEpochService.cacheKey(#userId, #connectionId) + ':' + #schemaName + ':' + #tableName")
     public boolean hasReadPermission(
             Long userId, Long connectionId,
             String schemaName, String tableName
     ) {
-        // Check if user is admin
-        if (isUserAdmin(userId)) {
-            return true;
-        }
-
-        return checkColumnPermissions(
-                userId, connectionId,
-                PermissionType.READ,
-                schemaName, tableName,
-                true  // at least one column must have READ permission
-        );
+        // At least one column must have READ permission
+        return getTablePermissionMatrix(userId, connectionId, schemaName, tableName)
+                .hasAnyColumn(PermissionType.READ);
     }
 
     /**
      * Check if user can delete entire table (all columns must have DELETE permission)
      */
-    @Cacheable(value = "deletePermissions", key = "#userId + ':' + #connectionId + ':' + #schemaName + ':' + #tableName")
+    @Cacheable(value = "deletePermissions", key = "@permissionEpochService.cacheKey(#userId, #connectionId) + ':' + #schemaName + ':' + #tableName")
     public boolean hasDeletePermission(
             Long userId, Long connectionId,
             String schemaName, String tableName
     ) {
-        // Check if user is admin
-        if (isUserAdmin(userId)) {
-            return true;
-        }
-
-        return checkColumnPermissions(
-                userId, connectionId,
-                PermissionType.DELETE,
-                schemaName, tableName,
-                false  // all columns must have DELETE permission
-        );
+        return getTablePermissionMatrix(userId, connectionId, schemaName, tableName)
+                .hasAllColumns(PermissionType.DELETE);
     }
 
     // ========================================
@@ -192,279 +186,97 @@ public class PermissionService {
             Long userId, Long connectionId,
             String schemaName, String tableName, List<String> columnNames
     ) {
-        // Check if user is admin
-        if (isUserAdmin(userId)) {
-            Set<PermissionType> allPermissions = EnumSet.allOf(PermissionType.class);
-            return columnNames.stream()
-                    .collect(Collectors.toMap(
-                            columnName -> columnName,
-                            columnName -> allPermissions
-                    ));
+        PermissionMatrix permissionMatrix = getPermissionMatrix(userId, connectionId);
+        PermissionMatrix.TablePermissions tablePermissions = permissionMatrix.getTable(schemaName, tableName,
+                () -> schemaCatalogService.getColumnNames(connectionId, schemaName, tableName));
+
+        Map<String, Set<PermissionType>> results = new HashMap<>();
+        for (String columnName : columnNames) {
+            Set<PermissionType> permissions = tablePermissions.getColumnPermissions(columnName);
+            if (permissions == null) {
+                // Column not in metadata: evaluate the rules directly
+                permissions = permissionMatrix.getColumnPermissions(schemaName, tableName, columnName);
+            }
+            results.put(columnName, permissions);
         }
-
-        // Get upper-level permissions once for all columns
-        Map<PermissionType, Boolean> upperLevelPermissions = getUpperLevelPermissions(
-                userId, connectionId, schemaName, tableName);
-
-        // Get all column-level permissions for this table in one query
-        List<UserPermissionEntity> columnPermissions = userPermissionRepository
-                .findAllColumnPermissionsForTable(userId, connectionId, schemaName, tableName);
-
-        // Group column permissions by column name and permission type
-        Map<String, Map<PermissionType, Boolean>> columnPermissionMap = columnPermissions.stream()
-                .collect(Collectors.groupingBy(
-                        UserPermissionEntity::getColumnName,
-                        Collectors.toMap(
-                                UserPermissionEntity::getPermissionType,
-                                UserPermissionEntity::getGranted,
-                                (existing, replacement) -> replacement  // Handle duplicates
-                        )
-                ));
-
-        // Calculate final permissions for each column
-        return columnNames.stream()
-                .collect(Collectors.toMap(
-                        columnName -> columnName,
-                        columnName -> calculatePermissionsForColumn(
-                                columnPermissionMap.get(columnName), upperLevelPermissions)
-                ));
+        return results;
     }
 
     /**
      * Get list of columns that user can read from
      */
-    @Cacheable(value = "readableColumns", key = "#userId + ':' + #connectionId + ':' + #schemaName + ':' + #tableName")
+    @Cacheable(value = "readableColumns", key = "@permissionEpochService.cacheKey(#userId, #connectionId) + ':' + #schemaName + ':' + #tableName")
     public List<String> getReadableColumns(
             Long userId, Long connectionId,
             String schemaName, String tableName
     ) {
-        // Check if user is admin
-        if (isUserAdmin(userId)) {
-            return tableMetadataRepository.findColumnNamesByTable(
-                    connectionId, schemaName, tableName);
-        }
-
-        // Get all table columns from metadata
-        List<String> allTableColumns = tableMetadataRepository.findColumnNamesByTable(
-                connectionId, schemaName, tableName);
-
-        // Get all column permissions in bulk (optimized)
-        Map<String, Set<PermissionType>> bulkColumnPermissions = getBulkColumnPermissions(
-                userId, connectionId, schemaName, tableName, allTableColumns);
-
-        // Filter to only readable columns
-        return allTableColumns.stream()
-                .filter(columnName -> {
-                    Set<PermissionType> permissions = bulkColumnPermissions.get(columnName);
-                    return permissions != null && permissions.contains(PermissionType.READ);
-                })
-                .collect(Collectors.toList());
+        return getTablePermissionMatrix(userId, connectionId, schemaName, tableName)
+                .getColumns(PermissionType.READ);
     }
 
     /**
      * Get list of columns that user can write to
      */
-    @Cacheable(value = "writableColumns", key = "#userId + ':' + #connectionId + ':' + #schemaName + ':' + #tableName")
+    @Cacheable(value = "writableColumns", key = "@permissionEpochService.cacheKey(#userId, #connectionId) + ':' + #schemaName + ':' + #tableName")
     public List<String> getWritableColumns(
             Long userId, Long connectionId,
             String schemaName, String tableName
     ) {
-        // Check if user is admin
-        if (isUserAdmin(userId)) {
-            return tableMetadataRepository.findColumnNamesByTable(
-                    connectionId, schemaName, tableName);
-        }
-
-        // Get all table columns from metadata
-        List<String> allTableColumns = tableMetadataRepository.findColumnNamesByTable(
-                connectionId, schemaName, tableName);
-
-        // Get all column permissions in bulk (optimized)
-        Map<String, Set<PermissionType>> bulkColumnPermissions = getBulkColumnPermissions(
-                userId, connectionId, schemaName, tableName, allTableColumns);
-
-        // Filter to only writable columns
-        return allTableColumns.stream()
-                .filter(columnName -> {
-                    Set<PermissionType> permissions = bulkColumnPermissions.get(columnName);
-                    return permissions != null && permissions.contains(PermissionType.WRITE);
-                })
-                .collect(Collectors.toList());
-    }
-
-    // ========================================
-    // Permission Retrieval
-    // ========================================
-
-    /**
-     * Get all active permissions for a user and connection
-     */
-    public List<UserPermission> getUserPermissions(Long userId, Long connectionId) {
-        logger.debug("Retrieving permissions for user: {}, connection: {}", userId, connectionId);
-
-        List<UserPermissionEntity> entities = userPermissionRepository
-                .findActivePermissionsByUser(userId, connectionId);
-
-        return entities.stream()
-                .map(this::toModel)
-                .toList();
+        return getTablePermissionMatrix(userId, connectionId, schemaName, tableName)
+                .getColumns(PermissionType.WRITE);
     }
 
     // ========================================
-    // Private Helper Methods
+    // Permission Matrix
     // ========================================
 
     /**
-     * Common method to check column permissions with different strategies
-     *
-     * @param userId         User ID to check permissions for
-     * @param connectionId   Database connection ID
-     * @param permissionType Type of permission to check (READ, WRITE, DELETE, etc.)
-     * @param schemaName     Database schema name
-     * @param tableName      Database table name
-     * @param atLeastOne     true: AT LEAST ONE column must have permission, false: ALL columns must have permission
-     * @return true if permission check passes according to the specified strategy
+     * Get effective permission matrix of a user on a connection.
+     * Compiled from a single query of the user's active permissions and cached under the current epochs.
      */
-    private boolean checkColumnPermissions(
-            Long userId, Long connectionId,
-            PermissionType permissionType,
-            String schemaName, String tableName,
-            boolean atLeastOne
-    ) {
-        // Get direct table permissions as fallback for columns without explicit permissions
-        boolean directTablePermission = checkDirectTablePermissions(
-                userId, connectionId,
-                permissionType,
-                schemaName, tableName
-        );
-
-        // Get all table columns from metadata
-        List<String> allTableColumns = tableMetadataRepository.findColumnNamesByTable(
-                connectionId,
-                schemaName, tableName
-        );
-        if (allTableColumns.isEmpty()) {
-            logger.warn("No columns found for table {}.{}", schemaName, tableName);
-            return false;
+    public PermissionMatrix getPermissionMatrix(Long userId, Long connectionId) {
+        String key = permissionEpochService.cacheKey(userId, connectionId);
+        if (permissionMatrixCache == null) {
+            return buildPermissionMatrix(userId, connectionId);
         }
+        return permissionMatrixCache.get(key, () -> buildPermissionMatrix(userId, connectionId));
+    }
 
-        boolean foundPermittedColumn = false;
-
-        for (String columnName : allTableColumns) {
-            // Check column-level permission first
-            Optional<UserPermissionEntity> columnPerm = userPermissionRepository.findActivePermission(
-                    userId, connectionId, PermissionScope.COLUMN,
-                    permissionType,
-                    schemaName, tableName, columnName
-            );
-
-            boolean hasColumnPermission;
-            if (columnPerm.isPresent()) {
-                // Explicit column-level setting exists, use it
-                hasColumnPermission = columnPerm.get().getGranted();
-            } else {
-                // No column-level setting, use direct table permission
-                hasColumnPermission = directTablePermission;
-            }
-
-            if (atLeastOne) {
-                // For READ: if we find at least one permitted column, return true
-                if (hasColumnPermission) {
-                    return true;
-                }
-            } else {
-                // For DELETE: if we find any column without permission, return false
-                if (!hasColumnPermission) {
-                    return false;
-                }
-                foundPermittedColumn = true;
-            }
+    private PermissionMatrix buildPermissionMatrix(Long userId, Long connectionId) {
+        if (isUserAdmin(userId)) {
+            return PermissionMatrix.forAdmin();
         }
-
-        // For atLeastOne strategy: no permitted column found
-        // For requireAll strategy: all columns have permission
-        return atLeastOne ? false : foundPermittedColumn;
+        List<UserPermissionEntity> permissions = userPermissionRepository
+                .findActivePermissionsByUser(userId, connectionId);
+        logger.debug("Compiled permission matrix from {} permissions for user: {}, connection: {}",
+                permissions.size(), userId, connectionId);
+        return PermissionMatrix.compile(permissions);
     }
 
-    /**
-     * Check TABLE/SCHEMA/CONNECTION level permissions (excluding COLUMN scope)
-     */
-    private boolean checkDirectTablePermissions(
+    private PermissionMatrix.TablePermissions getTablePermissionMatrix(
             Long userId, Long connectionId,
-            PermissionType permissionType,
             String schemaName, String tableName
     ) {
-        // 1. Check table-level permission
-        var tablePerm = userPermissionRepository.findActivePermission(
-                userId, connectionId, PermissionScope.TABLE,
-                permissionType, schemaName, tableName, null
-        ).filter(UserPermissionEntity::getGranted);
-
-        if (tablePerm.isPresent()) {
-            return true;
-        }
-
-        // 2. Check schema-level permission
-        var schemaPerm = userPermissionRepository.findActivePermission(
-                userId, connectionId, PermissionScope.SCHEMA,
-                permissionType, schemaName, null, null
-        ).filter(UserPermissionEntity::getGranted);
-
-        if (schemaPerm.isPresent()) {
-            return true;
-        }
-
-        // 3. Check connection-level permission  
-        var connectionPerm = userPermissionRepository.findActivePermission(
-                userId, connectionId, PermissionScope.CONNECTION,
-                permissionType, null, null, null
-        ).filter(UserPermissionEntity::getGranted);
-
-        return connectionPerm.isPresent();
+        return getPermissionMatrix(userId, connectionId).getTable(schemaName, tableName,
+                () -> schemaCatalogService.getColumnNames(connectionId, schemaName, tableName));
     }
 
-    /**
-     * Get all upper-level permissions (TABLE/SCHEMA/CONNECTION) for all permission types
-     */
-    private Map<PermissionType, Boolean> getUpperLevelPermissions(
-            Long userId, Long connectionId, String schemaName, String tableName
-    ) {
-        Map<PermissionType, Boolean> results = new HashMap<>();
-
-        for (PermissionType permissionType : PermissionType.values()) {
-            results.put(permissionType, checkDirectTablePermissions(
-                    userId, connectionId, permissionType, schemaName, tableName));
-        }
-
-        return results;
-    }
+    // ========================================
+    // Permission Retrieval
+    // ========================================
 
     /**
-     * Calculate permissions for a single column using upper-level fallback
+     * Get all active permissions for a user and connection
      */
-    private Set<PermissionType> calculatePermissionsForColumn(
-            Map<PermissionType, Boolean> columnLevelPermissions,
-            Map<PermissionType, Boolean> upperLevelPermissions
-    ) {
-        Set<PermissionType> permissions = EnumSet.noneOf(PermissionType.class);
-
-        for (PermissionType permissionType : PermissionType.values()) {
-            boolean hasPermission;
-
-            // Check column-level permission first
-            if (columnLevelPermissions != null && columnLevelPermissions.containsKey(permissionType)) {
-                hasPermission = columnLevelPermissions.get(permissionType);
-            } else {
-                // No column-level setting, use upper-level permission
-                hasPermission = upperLevelPermissions.getOrDefault(permissionType, false);
-            }
+    public List<UserPermission> getUserPermissions(Long userId, Long connectionId) {
+        logger.debug("Retrieving permissions for user: {}, connection: {}", userId, connectionId);
 
-            if (hasPermission) {
-                permissions.add(permissionType);
-            }
-        }
+        List<UserPermissionEntity> entities = userPermissionRepository
+                .findActivePermissionsByUser(userId, connectionId);
 
-        return permissions;
+        return entities.stream()
+                .map(this::toModel)
+                .toList();
     }
 
     // ========================================
@@ -472,12 +284,16 @@ public class PermissionService {
     // ========================================
 
     /**
-     * Check if user is admin
+     * Check if user is admin.
+     * Answered from the authenticated principal for the current user; other users are looked up.
      */
-    private boolean isUserAdmin(Long userId) {
-        return userRepository.findById(userId)
-                .map(user -> user.getRole() == UserRole.ADMIN)
-                .orElse(false);
+    public boolean isUserAdmin(Long userId) {
+        return CustomUserDetails.current()
+                .filter(userDetails -> userId.equals(userDetails.getUserId()))
+                .map(CustomUserDetails::isAdmin)
+                .orElseGet(() -> userRepository.findById(userId)
+                        .map(user -> user.getRole() == UserRole.ADMIN)
+                        .orElse(false));
     }
 
     /**
@@ -55,6 +55,7 @@ public class PermissionYamlService {
     private final DatabaseService databaseService;
     private final UserRepository userRepository;
     private final UserPermissionRepository userPermissionRepository;
+    private final PermissionEpochService permissionEpochService;
     private final ObjectMapper yamlMapper;
 
     @PersistenceContext
@@ -65,13 +66,15 @@ public class PermissionYamlService {
             PermissionTemplateService permissionTemplateService,
             DatabaseService databaseService,
             UserRepository userRepository,
-            UserPermissionRepository userPermissionRepository
+            UserPermissionRepository userPermissionRepository,
+            PermissionEpochService permissionEpochService
     ) {
         this.permissionService = permissionService;
         this.permissionTemplateService = permissionTemplateService;
         this.databaseService = databaseService;
         this.userRepository = userRepository;
         this.userPermissionRepository = userPermissionRepository;
+        this.permissionEpochService = permissionEpochService;
 
         // Configure YAML mapper
         this.yamlMapper = new ObjectMapper(new YAMLFactory());
@@ -246,6 +249,9 @@ public class PermissionYamlService {
         int updatedPermissions = 0;
         int skippedDuplicates = 0;
 
+        // Cached permissions of the connection are stale once the import commits
+        permissionEpochService.invalidateConnection(targetConnectionId);
+
         // Clear existing permissions before import (if requested)
         if (options.clearExistingPermissions()) {
             logger.info("Clearing all existing permissions for connection: {}", targetConnectionId);
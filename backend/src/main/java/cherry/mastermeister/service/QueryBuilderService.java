@@ -22,18 +22,28 @@ import cherry.mastermeister.model.RecordReadCommand;
 import cherry.mastermeister.util.SqlEscapeUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
 public class QueryBuilderService {
 
+    public static final String SQL_TEMPLATES_CACHE = "sqlTemplates";
+
     private final Logger logger = LoggerFactory.getLogger(getClass());
+    private final Cache sqlTemplateCache;
+
+    public QueryBuilderService(CacheManager cacheManager) {
+        this.sqlTemplateCache = cacheManager.getCache(SQL_TEMPLATES_CACHE);
+    }
 
     /**
      * Build SELECT query with filtering, sorting, and pagination
@@ -46,39 +56,151 @@ public class QueryBuilderService {
             DatabaseType dbType
     ) {
 
-        StringBuilder query = new StringBuilder();
         Map<String, Object> parameters = new HashMap<>();
+        bindFilterParameters(filter, parameters);
+
+        // LIMIT and OFFSET are bound so that every page shares the same SQL template
+        parameters.put("limit", pageSize);
+        parameters.put("offset", page * pageSize);
+
+        SqlTemplateKey key = new SqlTemplateKey(QueryKind.SELECT, dbType, schemaName, tableName,
+                columnNames(columns), filterShape(filter), filter.customWhere(), filter.sortOrders(), false);
+        String query = getSqlTemplate(key, () -> {
+            StringBuilder sql = new StringBuilder();
+
+            // SELECT clause
+            sql.append("SELECT ").append(buildColumnList(columns, dbType)).append(" FROM ")
+                    .append(buildTableName(schemaName, tableName, dbType));
+
+            // WHERE clause
+            if (filter.hasFilters()) {
+                String whereClause = buildWhereClause(filter, dbType);
+                if (!whereClause.isEmpty()) {
+                    sql.append(" WHERE ").append(whereClause);
+                }
+            }
 
-        // SELECT clause
-        String columnList = columns.stream()
-                .map(col -> SqlEscapeUtil.escapeColumnName(col.columnName(), dbType))
-                .collect(Collectors.joining(", "));
+            // ORDER BY clause
+            if (filter.hasSorting()) {
+                String orderByClause = buildOrderByClause(filter.sortOrders(), dbType);
+                sql.append(" ORDER BY ").append(orderByClause);
+            }
+
+            // LIMIT and OFFSET for pagination
+            sql.append(" LIMIT :limit OFFSET :offset");
+            return sql.toString();
+        });
 
-        query.append("SELECT ").append(columnList).append(" FROM ")
-                .append(buildTableName(schemaName, tableName, dbType));
+        logger.debug("Generated query: {}", query);
+        logger.debug("Parameters: {}", parameters);
 
-        // WHERE clause
-        if (filter.hasFilters()) {
-            String whereClause = buildWhereClause(filter, parameters, dbType);
-            if (!whereClause.isEmpty()) {
-                query.append(" WHERE ").append(whereClause);
+        return new QueryResult(query, parameters);
+    }
+
+    /**
+     * Build SELECT query with filtering and sorting but without pagination (for streaming export)
+     */
+    public QueryResult buildStreamingSelectQuery(
+            String schemaName, String tableName,
+            List<AccessibleColumn> columns,
+            RecordReadCommand filter,
+            DatabaseType dbType
+    ) {
+
+        Map<String, Object> parameters = new HashMap<>();
+        bindFilterParameters(filter, parameters);
+
+        SqlTemplateKey key = new SqlTemplateKey(QueryKind.STREAMING_SELECT, dbType, schemaName, tableName,
+                columnNames(columns), filterShape(filter), filter.customWhere(), filter.sortOrders(), false);
+        String query = getSqlTemplate(key, () -> {
+            StringBuilder sql = new StringBuilder();
+
+            // SELECT clause
+            sql.append("SELECT ").append(buildColumnList(columns, dbType)).append(" FROM ")
+                    .append(buildTableName(schemaName, tableName, dbType));
+
+            // WHERE clause
+            if (filter.hasFilters()) {
+                String whereClause = buildWhereClause(filter, dbType);
+                if (!whereClause.isEmpty()) {
+                    sql.append(" WHERE ").append(whereClause);
+                }
             }
-        }
 
-        // ORDER BY clause
-        if (filter.hasSorting()) {
-            String orderByClause = buildOrderByClause(filter, dbType);
-            query.append(" ORDER BY ").append(orderByClause);
+            // ORDER BY clause
+            if (filter.hasSorting()) {
+                String orderByClause = buildOrderByClause(filter.sortOrders(), dbType);
+                sql.append(" ORDER BY ").append(orderByClause);
+            }
+            return sql.toString();
+        });
+
+        logger.debug("Generated streaming query: {}", query);
+        logger.debug("Parameters: {}", parameters);
+
+        return new QueryResult(query, parameters);
+    }
+
+    /**
+     * Build SELECT query for keyset (seek) pagination.
+     * Rows are ordered by the given key orders and only rows after the cursor position are returned,
+     * so the cost of a page does not depend on how deep it is.
+     */
+    public QueryResult buildKeysetSelectQuery(
+            String schemaName, String tableName,
+            List<AccessibleColumn> columns,
+            RecordReadCommand filter,
+            List<RecordReadCommand.SortOrder> keyOrders,
+            List<Object> afterValues,
+            int limit,
+            DatabaseType dbType
+    ) {
+
+        Map<String, Object> parameters = new HashMap<>();
+        bindFilterParameters(filter, parameters);
+        if (afterValues != null) {
+            for (int i = 0; i < keyOrders.size(); i++) {
+                parameters.put("cursor" + i, afterValues.get(i));
+            }
         }
+        parameters.put("limit", limit);
+
+        SqlTemplateKey key = new SqlTemplateKey(QueryKind.KEYSET_SELECT, dbType, schemaName, tableName,
+                columnNames(columns), filterShape(filter), filter.customWhere(), keyOrders, afterValues != null);
+        String query = getSqlTemplate(key, () -> {
+            StringBuilder sql = new StringBuilder();
+
+            // SELECT clause
+            sql.append("SELECT ").append(buildColumnList(columns, dbType)).append(" FROM ")
+                    .append(buildTableName(schemaName, tableName, dbType));
+
+            // WHERE clause (filters and seek predicate)
+            List<String> conditions = new ArrayList<>();
+            if (filter.hasFilters()) {
+                String whereClause = buildWhereClause(filter, dbType);
+                if (!whereClause.isEmpty()) {
+                    conditions.add(whereClause);
+                }
+            }
+            if (afterValues != null) {
+                conditions.add(buildSeekPredicate(keyOrders, dbType));
+            }
+            if (!conditions.isEmpty()) {
+                sql.append(" WHERE ").append(String.join(" AND ", conditions));
+            }
 
-        // LIMIT and OFFSET for pagination
-        int offset = page * pageSize;
-        query.append(" LIMIT ").append(pageSize).append(" OFFSET ").append(offset);
+            // ORDER BY clause (user sort followed by primary key)
+            sql.append(" ORDER BY ").append(buildOrderByClause(keyOrders, dbType));
 
-        logger.debug("Generated query: {}", query.toString());
+            // LIMIT only, no OFFSET
+            sql.append(" LIMIT :limit");
+            return sql.toString();
+        });
+
+        logger.debug("Generated keyset query: {}", query);
         logger.debug("Parameters: {}", parameters);
 
-        return new QueryResult(query.toString(), parameters);
+        return new QueryResult(query, parameters);
     }
 
     /**
@@ -89,20 +211,38 @@ public class QueryBuilderService {
             RecordReadCommand filter,
             DatabaseType dbType
     ) {
-        StringBuilder query = new StringBuilder();
         Map<String, Object> parameters = new HashMap<>();
+        bindFilterParameters(filter, parameters);
+
+        SqlTemplateKey key = new SqlTemplateKey(QueryKind.COUNT, dbType, schemaName, tableName,
+                List.of(), filterShape(filter), filter.customWhere(), List.of(), false);
+        String query = getSqlTemplate(key, () -> {
+            StringBuilder sql = new StringBuilder();
 
-        query.append("SELECT COUNT(*) FROM ").append(buildTableName(schemaName, tableName, dbType));
+            sql.append("SELECT COUNT(*) FROM ").append(buildTableName(schemaName, tableName, dbType));
 
-        // WHERE clause (same as SELECT query)
-        if (filter.hasFilters()) {
-            String whereClause = buildWhereClause(filter, parameters, dbType);
-            if (!whereClause.isEmpty()) {
-                query.append(" WHERE ").append(whereClause);
+            // WHERE clause (same as SELECT query)
+            if (filter.hasFilters()) {
+                String whereClause = buildWhereClause(filter, dbType);
+                if (!whereClause.isEmpty()) {
+                    sql.append(" WHERE ").append(whereClause);
+                }
             }
-        }
+            return sql.toString();
+        });
 
-        return new QueryResult(query.toString(), parameters);
+        return new QueryResult(query, parameters);
+    }
+
+    /**
+     * Get SQL template from cache, building it on a miss.
+     * Hit/miss statistics are exposed through the cache metrics of the sqlTemplates cache.
+     */
+    private String getSqlTemplate(SqlTemplateKey key, Supplier<String> builder) {
+        if (sqlTemplateCache == null) {
+            return builder.get();
+        }
+        return sqlTemplateCache.get(key, builder::get);
     }
 
     /**
@@ -110,7 +250,6 @@ public class QueryBuilderService {
      */
     private String buildWhereClause(
             RecordReadCommand filter,
-            Map<String, Object> parameters,
             DatabaseType dbType
     ) {
         List<String> conditions = new ArrayList<>();
@@ -119,7 +258,7 @@ public class QueryBuilderService {
         if (filter.columnFilters() != null) {
             for (int i = 0; i < filter.columnFilters().size(); i++) {
                 RecordReadCommand.ColumnFilter columnFilter = filter.columnFilters().get(i);
-                String condition = buildColumnCondition(columnFilter, parameters, i, dbType);
+                String condition = buildColumnCondition(columnFilter, i, dbType);
                 if (condition != null && !condition.isEmpty()) {
                     conditions.add(condition);
                 }
@@ -139,7 +278,6 @@ public class QueryBuilderService {
      */
     private String buildColumnCondition(
             RecordReadCommand.ColumnFilter columnFilter,
-            Map<String, Object> parameters,
             int index,
             DatabaseType dbType
     ) {
@@ -148,40 +286,30 @@ public class QueryBuilderService {
 
         switch (columnFilter.operator()) {
             case EQUALS:
-                parameters.put(paramName, columnFilter.value());
                 return columnName + " = :" + paramName;
 
             case NOT_EQUALS:
-                parameters.put(paramName, columnFilter.value());
                 return columnName + " != :" + paramName;
 
             case GREATER_THAN:
-                parameters.put(paramName, columnFilter.value());
                 return columnName + " > :" + paramName;
 
             case GREATER_EQUALS:
-                parameters.put(paramName, columnFilter.value());
                 return columnName + " >= :" + paramName;
 
             case LESS_THAN:
-                parameters.put(paramName, columnFilter.value());
                 return columnName + " < :" + paramName;
 
             case LESS_EQUALS:
-                parameters.put(paramName, columnFilter.value());
                 return columnName + " <= :" + paramName;
 
             case LIKE:
-                parameters.put(paramName, "%" + columnFilter.value() + "%");
                 return columnName + " LIKE :" + paramName;
 
             case NOT_LIKE:
-                parameters.put(paramName, "%" + columnFilter.value() + "%");
                 return columnName + " NOT LIKE :" + paramName;
 
             case BETWEEN:
-                parameters.put(paramName + "_1", columnFilter.value());
-                parameters.put(paramName + "_2", columnFilter.value2());
                 return columnName + " BETWEEN :" + paramName + "_1 AND :" + paramName + "_2";
 
             case IS_NULL:
@@ -191,15 +319,13 @@ public class QueryBuilderService {
                 return columnName + " IS NOT NULL";
 
             case IN:
-                if (columnFilter.value() instanceof List<?> list && !list.isEmpty()) {
-                    parameters.put(paramName, list);
+                if (hasListValue(columnFilter)) {
                     return columnName + " IN (:" + paramName + ")";
                 }
                 return null;
 
             case NOT_IN:
-                if (columnFilter.value() instanceof List<?> list && !list.isEmpty()) {
-                    parameters.put(paramName, list);
+                if (hasListValue(columnFilter)) {
                     return columnName + " NOT IN (:" + paramName + ")";
                 }
                 return null;
@@ -210,18 +336,91 @@ public class QueryBuilderService {
         }
     }
 
+    /**
+     * Bind filter values to the parameter names used by buildColumnCondition
+     */
+    private void bindFilterParameters(
+            RecordReadCommand filter,
+            Map<String, Object> parameters
+    ) {
+        if (filter.columnFilters() == null) {
+            return;
+        }
+
+        for (int i = 0; i < filter.columnFilters().size(); i++) {
+            RecordReadCommand.ColumnFilter columnFilter = filter.columnFilters().get(i);
+            String paramName = "param" + i;
+
+            switch (columnFilter.operator()) {
+                case EQUALS, NOT_EQUALS, GREATER_THAN, GREATER_EQUALS, LESS_THAN, LESS_EQUALS ->
+                        parameters.put(paramName, columnFilter.value());
+                case LIKE, NOT_LIKE -> parameters.put(paramName, "%" + columnFilter.value() + "%");
+                case BETWEEN -> {
+                    parameters.put(paramName + "_1", columnFilter.value());
+                    parameters.put(paramName + "_2", columnFilter.value2());
+                }
+                case IN, NOT_IN -> {
+                    if (hasListValue(columnFilter)) {
+                        parameters.put(paramName, columnFilter.value());
+                    }
+                }
+                default -> {
+                    // IS_NULL and IS_NOT_NULL have no parameters
+                }
+            }
+        }
+    }
+
+    /**
+     * Build seek predicate selecting rows strictly after the cursor position.
+     * Expanded form (c1 > v1) OR (c1 = v1 AND c2 > v2) ... is used instead of row value comparison
+     * so that mixed sort directions are supported on every database type.
+     */
+    private String buildSeekPredicate(
+            List<RecordReadCommand.SortOrder> keyOrders,
+            DatabaseType dbType
+    ) {
+        List<String> alternatives = new ArrayList<>();
+
+        for (int i = 0; i < keyOrders.size(); i++) {
+            List<String> terms = new ArrayList<>();
+            for (int j = 0; j < i; j++) {
+                terms.add(SqlEscapeUtil.escapeColumnName(keyOrders.get(j).columnName(), dbType) + " = :cursor" + j);
+            }
+            RecordReadCommand.SortOrder order = keyOrders.get(i);
+            String operator = order.direction() == RecordReadCommand.SortDirection.DESC ? " < " : " > ";
+            terms.add(SqlEscapeUtil.escapeColumnName(order.columnName(), dbType) + operator + ":cursor" + i);
+
+            alternatives.add("(" + String.join(" AND ", terms) + ")");
+        }
+
+        return "(" + String.join(" OR ", alternatives) + ")";
+    }
+
     /**
      * Build ORDER BY clause
      */
     private String buildOrderByClause(
-            RecordReadCommand filter,
+            List<RecordReadCommand.SortOrder> sortOrders,
             DatabaseType dbType
     ) {
-        return filter.sortOrders().stream()
+        return sortOrders.stream()
                 .map(order -> SqlEscapeUtil.escapeColumnName(order.columnName(), dbType) + " " + order.direction().name())
                 .collect(Collectors.joining(", "));
     }
 
+    /**
+     * Build escaped column list for SELECT clause
+     */
+    private String buildColumnList(
+            List<AccessibleColumn> columns,
+            DatabaseType dbType
+    ) {
+        return columns.stream()
+                .map(col -> SqlEscapeUtil.escapeColumnName(col.columnName(), dbType))
+                .collect(Collectors.joining(", "));
+    }
+
     /**
      * Build full table name with schema
      */
@@ -235,6 +434,32 @@ public class QueryBuilderService {
         return SqlEscapeUtil.escapeTableName(tableName, dbType);
     }
 
+    private boolean hasListValue(RecordReadCommand.ColumnFilter columnFilter) {
+        return columnFilter.value() instanceof List<?> list && !list.isEmpty();
+    }
+
+    private List<String> columnNames(List<AccessibleColumn> columns) {
+        List<String> names = new ArrayList<>(columns.size());
+        for (AccessibleColumn column : columns) {
+            names.add(column.columnName());
+        }
+        return names;
+    }
+
+    /**
+     * Filter shape: the parts of the filter that affect the SQL text (values are bound as parameters)
+     */
+    private List<FilterShape> filterShape(RecordReadCommand filter) {
+        if (filter.columnFilters() == null || filter.columnFilters().isEmpty()) {
+            return List.of();
+        }
+        List<FilterShape> shape = new ArrayList<>(filter.columnFilters().size());
+        for (RecordReadCommand.ColumnFilter columnFilter : filter.columnFilters()) {
+            shape.add(new FilterShape(columnFilter.columnName(), columnFilter.operator(), hasListValue(columnFilter)));
+        }
+        return shape;
+    }
+
 
     /**
      * Result containing generated query and parameters
@@ -244,4 +469,34 @@ public class QueryBuilderService {
             Map<String, Object> parameters
     ) {
     }
+
+    private enum QueryKind {
+        SELECT,
+        STREAMING_SELECT,
+        KEYSET_SELECT,
+        COUNT
+    }
+
+    /**
+     * Cache key of a SQL template: everything that determines the SQL text
+     */
+    private record SqlTemplateKey(
+            QueryKind kind,
+            DatabaseType dbType,
+            String schemaName,
+            String tableName,
+            List<String> columns,
+            List<FilterShape> filters,
+            String customWhere,
+            List<RecordReadCommand.SortOrder> sortOrders,
+            boolean seek
+    ) {
+    }
+
+    private record FilterShape(
+            String columnName,
+            RecordReadCommand.FilterOperator operator,
+            boolean listValue
+    ) {
+    }
 }
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2025 agwlvssainokuni
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cherry.mastermeister.service;
+
+import cherry.mastermeister.enums.DatabaseType;
+import cherry.mastermeister.model.ConnectionPoolSettings;
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import javax.sql.DataSource;
+
+/**
+ * Long-lived query executor for a single target database connection.
+ * Owns the connection pool and the JDBC templates built on it, so that the parsed named-parameter SQL
+ * cache of the template and the driver's prepared statement cache survive across requests.
+ * Obtained from {@link DatabaseService#getQueryExecutor(Long)} and closed by {@link DatabaseService#closeDataSource(Long)}.
+ * Pool settings can be changed while the pool is in use; a retired executor stops handing out idle connections
+ * and is closed once its in-flight queries have returned their connections.
+ */
+public class QueryExecutor implements AutoCloseable {
+
+    /**
+     * Number of parsed named-parameter SQL statements kept per connection
+     */
+    private static final int PARSED_SQL_CACHE_LIMIT = 512;
+
+    private final Long connectionId;
+    private final DatabaseType dbType;
+    private final HikariDataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final ConnectionWaitTracker waitTracker;
+    private volatile ConnectionPoolSettings poolSettings;
+    private volatile long retiredAt = 0;
+
+    QueryExecutor(
+            Long connectionId, DatabaseType dbType, HikariDataSource dataSource,
+            ConnectionPoolSettings poolSettings, ConnectionWaitTracker waitTracker
+    ) {
+        this.connectionId = connectionId;
+        this.dbType = dbType;
+        this.dataSource = dataSource;
+        this.poolSettings = poolSettings;
+        this.waitTracker = waitTracker;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.namedJdbcTemplate.setCacheLimit(PARSED_SQL_CACHE_LIMIT);
+    }
+
+    public Long getConnectionId() {
+        return connectionId;
+    }
+
+    public DatabaseType getDbType() {
+        return dbType;
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    public JdbcTemplate getJdbcTemplate() {
+        return jdbcTemplate;
+    }
+
+    public NamedParameterJdbcTemplate getNamedJdbcTemplate() {
+        return namedJdbcTemplate;
+    }
+
+    public ConnectionPoolSettings getPoolSettings() {
+        return poolSettings;
+    }
+
+    /**
+     * Apply pool settings to the running pool.
+     * Connections in use are not affected; a smaller pool shrinks as connections are returned and retired.
+     */
+    public synchronized void applyPoolSettings(ConnectionPoolSettings settings) {
+        HikariConfigMXBean config = dataSource.getHikariConfigMXBean();
+        int maximumPoolSize = settings.resolvedMaximumPoolSize();
+        if (settings.adaptive()) {
+            // Keep the current adaptive size as long as it is within the new bounds
+            maximumPoolSize = Math.max(settings.adaptiveLowerBound(),
+                    Math.min(config.getMaximumPoolSize(), maximumPoolSize));
+        }
+        config.setMaximumPoolSize(maximumPoolSize);
+        config.setMinimumIdle(Math.min(settings.resolvedMinimumIdle(), maximumPoolSize));
+        config.setConnectionTimeout(settings.resolvedConnectionTimeoutMs());
+        config.setIdleTimeout(settings.resolvedIdleTimeoutMs());
+        config.setMaxLifetime(settings.resolvedMaxLifetimeMs());
+        config.setLeakDetectionThreshold(settings.resolvedLeakDetectionThresholdMs());
+        this.poolSettings = settings;
+    }
+
+    /**
+     * Change the maximum pool size within the bounds of the current settings (adaptive mode)
+     */
+    synchronized void resizePool(int maximumPoolSize) {
+        ConnectionPoolSettings settings = poolSettings;
+        int size = Math.max(settings.adaptiveLowerBound(), Math.min(maximumPoolSize, settings.resolvedMaximumPoolSize()));
+        dataSource.getHikariConfigMXBean().setMaximumPoolSize(size);
+    }
+
+    int getMaximumPoolSize() {
+        return dataSource.getHikariConfigMXBean().getMaximumPoolSize();
+    }
+
+    int getActiveConnections() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        return pool != null ? pool.getActiveConnections() : 0;
+    }
+
+    int getThreadsAwaitingConnection() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        return pool != null ? pool.getThreadsAwaitingConnection() : 0;
+    }
+
+    ConnectionWaitTracker.WaitSample drainWaitSample() {
+        return waitTracker.drain();
+    }
+
+    /**
+     * Stop reusing pooled connections: idle connections are closed now, connections in use when they are returned
+     */
+    void retire() {
+        retiredAt = System.currentTimeMillis();
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        if (pool != null) {
+            pool.softEvictConnections();
+        }
+    }
+
+    long getRetiredAt() {
+        return retiredAt;
+    }
+
+    public boolean isClosed() {
+        return dataSource.isClosed();
+    }
+
+    /**
+     * Close the connection pool (prepared statements cached by the driver are released with their connections)
+     */
+    @Override
+    public void close() {
+        if (!dataSource.isClosed()) {
+            dataSource.close();
+        }
+    }
+}
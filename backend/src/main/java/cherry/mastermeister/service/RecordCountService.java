@@ -0,0 +1,285 @@
+/*
+ * Copyright 2025 agwlvssainokuni
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cherry.mastermeister.service;
+
+import cherry.mastermeister.enums.CountMode;
+import cherry.mastermeister.enums.DatabaseType;
+import cherry.mastermeister.enums.QueryOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Service for determining total record counts of table queries.
+ * Exact counts run on a separate pooled connection concurrently with the page query.
+ * Estimated counts come from catalog statistics and are refined by a background exact count,
+ * whose result is cached per connection, table and filter.
+ * Cached counts are keyed by table version, so that a write through MasterMeister makes them unreachable;
+ * the cache TTL covers changes made outside MasterMeister or on other nodes.
+ */
+@Service
+public class RecordCountService {
+
+    public static final String RECORD_COUNTS_CACHE = "recordCounts";
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    private final DatabaseService databaseService;
+    private final DatabaseMetricsService databaseMetricsService;
+    private final Executor executor;
+    private final Cache countCache;
+    private final Set<RecordCountKey> inFlightCounts = ConcurrentHashMap.newKeySet();
+    private final Map<TableKey, AtomicLong> tableVersions = new ConcurrentHashMap<>();
+
+    public RecordCountService(
+            DatabaseService databaseService,
+            DatabaseMetricsService databaseMetricsService,
+            @Qualifier("dataAccessExecutor") Executor executor,
+            CacheManager cacheManager
+    ) {
+        this.databaseService = databaseService;
+        this.databaseMetricsService = databaseMetricsService;
+        this.executor = executor;
+        this.countCache = cacheManager.getCache(RECORD_COUNTS_CACHE);
+    }
+
+    /**
+     * Start determining the total count for a query.
+     * The returned handle must be awaited after the page query has been executed.
+     */
+    public PendingCount startCount(
+            Long connectionId,
+            String schemaName, String tableName,
+            boolean filtered,
+            QueryBuilderService.QueryResult countQueryResult,
+            DatabaseType dbType,
+            CountMode countMode
+    ) {
+        NamedParameterJdbcTemplate namedJdbcTemplate = databaseService.getQueryExecutor(connectionId).getNamedJdbcTemplate();
+        TableKey tableKey = new TableKey(connectionId, schemaName, tableName);
+        long version = tableVersions.computeIfAbsent(tableKey, k -> new AtomicLong()).get();
+        RecordCountKey key = new RecordCountKey(
+                tableKey, version, countQueryResult.query(), countQueryResult.parameters());
+
+        if (countMode == CountMode.ESTIMATED) {
+            // Exact count computed by an earlier request
+            Long cachedCount = getCachedCount(key);
+            if (cachedCount != null) {
+                return new PendingCount(CompletableFuture.completedFuture(new TotalCount(cachedCount, false)));
+            }
+
+            // Catalog statistics only describe the whole table
+            if (!filtered) {
+                Long estimatedCount = estimateCount(namedJdbcTemplate, schemaName, tableName, dbType);
+                if (estimatedCount != null) {
+                    refreshInBackground(key, namedJdbcTemplate, countQueryResult);
+                    return new PendingCount(CompletableFuture.completedFuture(new TotalCount(estimatedCount, true)));
+                }
+            }
+        }
+
+        // Exact count on a separate connection, concurrently with the page query
+        Supplier<TotalCount> exactCount = () -> new TotalCount(countAndCache(key, namedJdbcTemplate, countQueryResult), false);
+        try {
+            return new PendingCount(CompletableFuture.supplyAsync(exactCount, executor));
+        } catch (RejectedExecutionException e) {
+            logger.debug("Count executor saturated, counting on request thread for {}.{}", schemaName, tableName);
+            return new PendingCount(CompletableFuture.completedFuture(exactCount.get()));
+        }
+    }
+
+    /**
+     * Execute exact count query and cache its result
+     */
+    private long countAndCache(
+            RecordCountKey key,
+            NamedParameterJdbcTemplate namedJdbcTemplate,
+            QueryBuilderService.QueryResult countQueryResult
+    ) {
+        // Row count distribution of count queries is the counted number of records
+        Long totalRecords = databaseMetricsService.recordQuery(
+                key.connectionId(), key.schemaName(), key.tableName(), QueryOperation.COUNT,
+                () -> namedJdbcTemplate.queryForObject(
+                        countQueryResult.query(), countQueryResult.parameters(), Long.class),
+                count -> count != null ? count : 0L);
+        long count = totalRecords != null ? totalRecords : 0L;
+        if (countCache != null) {
+            countCache.put(key, count);
+        }
+        return count;
+    }
+
+    /**
+     * Compute exact count in the background unless the same count is already running
+     */
+    private void refreshInBackground(
+            RecordCountKey key,
+            NamedParameterJdbcTemplate namedJdbcTemplate,
+            QueryBuilderService.QueryResult countQueryResult
+    ) {
+        if (!inFlightCounts.add(key)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    long count = countAndCache(key, namedJdbcTemplate, countQueryResult);
+                    logger.debug("Background count for {}.{} completed: {}", key.schemaName(), key.tableName(), count);
+                } catch (RuntimeException e) {
+                    logger.warn("Background count for {}.{} failed: {}", key.schemaName(), key.tableName(), e.getMessage());
+                } finally {
+                    inFlightCounts.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlightCounts.remove(key);
+            logger.debug("Count executor saturated, skipping background count for {}.{}",
+                    key.schemaName(), key.tableName());
+        }
+    }
+
+    /**
+     * Make cached counts of a table unreachable after a write
+     */
+    public void invalidateTable(Long connectionId, String schemaName, String tableName) {
+        TableKey tableKey = new TableKey(connectionId, schemaName, tableName);
+        tableVersions.computeIfAbsent(tableKey, key -> new AtomicLong()).incrementAndGet();
+        logger.debug("Invalidated cached counts of {}.{} on connection: {}", schemaName, tableName, connectionId);
+    }
+
+    private Long getCachedCount(RecordCountKey key) {
+        if (countCache == null) {
+            return null;
+        }
+        return countCache.get(key, Long.class);
+    }
+
+    /**
+     * Read approximate row count from catalog statistics, or null if not available
+     */
+    private Long estimateCount(
+            NamedParameterJdbcTemplate namedJdbcTemplate,
+            String schemaName, String tableName,
+            DatabaseType dbType
+    ) {
+        String query = switch (dbType) {
+            case MYSQL, MARIADB -> "SELECT TABLE_ROWS FROM information_schema.TABLES"
+                    + " WHERE TABLE_SCHEMA = :schemaName AND TABLE_NAME = :tableName";
+            case POSTGRESQL -> "SELECT CAST(c.reltuples AS BIGINT) FROM pg_catalog.pg_class c"
+                    + " JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace"
+                    + " WHERE n.nspname = :schemaName AND c.relname = :tableName";
+            case H2 -> "SELECT ROW_COUNT_ESTIMATE FROM INFORMATION_SCHEMA.TABLES"
+                    + " WHERE TABLE_SCHEMA = :schemaName AND TABLE_NAME = :tableName";
+        };
+
+        try {
+            List<Long> estimates = namedJdbcTemplate.queryForList(
+                    query, Map.of("schemaName", schemaName, "tableName", tableName), Long.class);
+            // PostgreSQL reports -1 for tables that have never been analyzed; views have no statistics
+            if (estimates.isEmpty() || estimates.get(0) == null || estimates.get(0) < 0) {
+                return null;
+            }
+            return estimates.get(0);
+        } catch (DataAccessException e) {
+            logger.debug("Catalog statistics not available for {}.{}: {}", schemaName, tableName, e.getMessage());
+            return null;
+        }
+    }
+
+    private record TableKey(
+            Long connectionId,
+            String schemaName,
+            String tableName
+    ) {
+    }
+
+    /**
+     * Cache key: table version, count query text and parameters identify the filter
+     */
+    private record RecordCountKey(
+            TableKey table,
+            long version,
+            String query,
+            Map<String, Object> parameters
+    ) {
+
+        Long connectionId() {
+            return table.connectionId();
+        }
+
+        String schemaName() {
+            return table.schemaName();
+        }
+
+        String tableName() {
+            return table.tableName();
+        }
+    }
+
+    /**
+     * Total record count and whether it is an estimate
+     */
+    public record TotalCount(
+            long value,
+            boolean estimated
+    ) {
+    }
+
+    /**
+     * Handle of a count that may still be running
+     */
+    public record PendingCount(
+            CompletableFuture<TotalCount> future
+    ) {
+
+        /**
+         * Wait for the count and rethrow its failure as is
+         */
+        public TotalCount await() {
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+
+        /**
+         * Give up waiting for the count (e.g. when the page query failed)
+         */
+        public void cancel() {
+            future.cancel(false);
+        }
+    }
+}
@@ -17,9 +17,9 @@
 package cherry.mastermeister.service;
 
 import cherry.mastermeister.enums.DatabaseType;
+import cherry.mastermeister.enums.QueryOperation;
 import cherry.mastermeister.exception.PermissionDeniedException;
 import cherry.mastermeister.model.ColumnMetadata;
-import cherry.mastermeister.model.DatabaseConnection;
 import cherry.mastermeister.model.RecordCreateResult;
 import cherry.mastermeister.model.TableMetadata;
 import cherry.mastermeister.util.SqlEscapeUtil;
@@ -33,7 +33,6 @@ import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import javax.sql.DataSource;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -45,20 +44,29 @@ public class RecordCreateService {
 
     private final Logger logger = LoggerFactory.getLogger(getClass());
     private final DatabaseService databaseService;
+    private final DatabaseMetricsService databaseMetricsService;
     private final SchemaMetadataService schemaMetadataService;
     private final PermissionService permissionService;
     private final AuditLogService auditLogService;
+    private final RecordPageCacheService recordPageCacheService;
+    private final RecordCountService recordCountService;
 
     public RecordCreateService(
             DatabaseService databaseService,
+            DatabaseMetricsService databaseMetricsService,
             SchemaMetadataService schemaMetadataService,
             PermissionService permissionService,
-            AuditLogService auditLogService
+            AuditLogService auditLogService,
+            RecordPageCacheService recordPageCacheService,
+            RecordCountService recordCountService
     ) {
         this.databaseService = databaseService;
+        this.databaseMetricsService = databaseMetricsService;
         this.schemaMetadataService = schemaMetadataService;
         this.permissionService = permissionService;
         this.auditLogService = auditLogService;
+        this.recordPageCacheService = recordPageCacheService;
+        this.recordCountService = recordCountService;
     }
 
     /**
@@ -89,12 +97,11 @@ public class RecordCreateService {
             Map<String, Object> validatedData = filterWritableData(recordData, writableColumnNames, tableMetadata);
 
             // Build and execute INSERT query
-            DataSource dataSource = databaseService.getDataSource(connectionId);
-            NamedParameterJdbcTemplate namedJdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+            QueryExecutor queryExecutor = databaseService.getQueryExecutor(connectionId);
+            NamedParameterJdbcTemplate namedJdbcTemplate = queryExecutor.getNamedJdbcTemplate();
 
             // Get database type for proper SQL escaping
-            DatabaseConnection dbConnection = databaseService.getConnection(connectionId);
-            DatabaseType dbType = dbConnection.dbType();
+            DatabaseType dbType = queryExecutor.getDbType();
 
             InsertQueryResult insertQuery = buildInsertQuery(schemaName, tableName, validatedData, dbType);
 
@@ -102,11 +109,18 @@ public class RecordCreateService {
             logger.debug("Query parameters: {}", insertQuery.parameters());
 
             KeyHolder keyHolder = new GeneratedKeyHolder();
-            int rowsAffected = namedJdbcTemplate.update(
-                    insertQuery.query(),
-                    insertQuery.parameterSource(),
-                    keyHolder
-            );
+            int rowsAffected = databaseMetricsService.recordQuery(
+                    connectionId, schemaName, tableName, QueryOperation.INSERT,
+                    () -> namedJdbcTemplate.update(
+                            insertQuery.query(),
+                            insertQuery.parameterSource(),
+                            keyHolder
+                    ),
+                    Integer::longValue);
+
+            // Cached pages and counts of this table are now stale
+            recordPageCacheService.invalidateTable(connectionId, schemaName, tableName);
+            recordCountService.invalidateTable(connectionId, schemaName, tableName);
 
             if (rowsAffected != 1) {
                 throw new RuntimeException("Expected 1 row to be inserted, but " + rowsAffected + " rows were affected");
@@ -17,6 +17,7 @@
 package cherry.mastermeister.service;
 
 import cherry.mastermeister.enums.DatabaseType;
+import cherry.mastermeister.enums.QueryOperation;
 import cherry.mastermeister.exception.PermissionDeniedException;
 import cherry.mastermeister.model.DatabaseConnection;
 import cherry.mastermeister.model.RecordDeleteResult;
@@ -47,20 +48,29 @@ public class RecordDeleteService {
 
     private final Logger logger = LoggerFactory.getLogger(getClass());
     private final DatabaseService databaseService;
+    private final DatabaseMetricsService databaseMetricsService;
     private final SchemaMetadataService schemaMetadataService;
     private final PermissionService permissionService;
     private final AuditLogService auditLogService;
+    private final RecordPageCacheService recordPageCacheService;
+    private final RecordCountService recordCountService;
 
     public RecordDeleteService(
             DatabaseService databaseService,
+            DatabaseMetricsService databaseMetricsService,
             SchemaMetadataService schemaMetadataService,
             PermissionService permissionService,
-            AuditLogService auditLogService
+            AuditLogService auditLogService,
+            RecordPageCacheService recordPageCacheService,
+            RecordCountService recordCountService
     ) {
         this.databaseService = databaseService;
+        this.databaseMetricsService = databaseMetricsService;
         this.schemaMetadataService = schemaMetadataService;
         this.permissionService = permissionService;
         this.auditLogService = auditLogService;
+        this.recordPageCacheService = recordPageCacheService;
+        this.recordCountService = recordCountService;
     }
 
     /**
@@ -98,15 +108,15 @@ public class RecordDeleteService {
                 throw new IllegalArgumentException("WHERE conditions are required for safe deletion");
             }
 
-            // Get data source for operations
-            DataSource dataSource = databaseService.getDataSource(connectionId);
-            NamedParameterJdbcTemplate namedJdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+            // Get query executor for operations
+            QueryExecutor queryExecutor = databaseService.getQueryExecutor(connectionId);
+            NamedParameterJdbcTemplate namedJdbcTemplate = queryExecutor.getNamedJdbcTemplate();
 
             // Perform referential integrity check if not skipped
             boolean integrityChecked = false;
             if (!skipReferentialIntegrityCheck) {
                 List<String> integrityWarnings = checkReferentialIntegrity(
-                        connectionId, dataSource, schemaName, tableName, validatedWhereConditions);
+                        connectionId, queryExecutor, schemaName, tableName, validatedWhereConditions);
                 warnings.addAll(integrityWarnings);
                 integrityChecked = true;
 
@@ -119,8 +129,7 @@ public class RecordDeleteService {
             }
 
             // Get database type for proper SQL escaping
-            DatabaseConnection dbConnection = databaseService.getConnection(connectionId);
-            DatabaseType dbType = dbConnection.dbType();
+            DatabaseType dbType = queryExecutor.getDbType();
 
             // Build and execute DELETE query
             DeleteQueryResult deleteQuery = buildDeleteQuery(schemaName, tableName, validatedWhereConditions, dbType);
@@ -128,7 +137,14 @@ public class RecordDeleteService {
             logger.debug("Executing DELETE query: {}", deleteQuery.query());
             logger.debug("Query parameters: {}", deleteQuery.parameters());
 
-            int rowsAffected = namedJdbcTemplate.update(deleteQuery.query(), deleteQuery.parameterSource());
+            int rowsAffected = databaseMetricsService.recordQuery(
+                    connectionId, schemaName, tableName, QueryOperation.DELETE,
+                    () -> namedJdbcTemplate.update(deleteQuery.query(), deleteQuery.parameterSource()),
+                    Integer::longValue);
+
+            // Cached pages and counts of this table are now stale
+            recordPageCacheService.invalidateTable(connectionId, schemaName, tableName);
+            recordCountService.invalidateTable(connectionId, schemaName, tableName);
 
             long executionTime = System.currentTimeMillis() - startTime;
 
@@ -220,7 +236,7 @@ public class RecordDeleteService {
      * Check referential integrity before deletion
      */
     private List<String> checkReferentialIntegrity(
-            Long connectionId, DataSource dataSource, String schemaName, String tableName,
+            Long connectionId, QueryExecutor queryExecutor, String schemaName, String tableName,
             Map<String, Object> whereConditions
     ) {
         List<String> warnings = new ArrayList<>();
@@ -228,13 +244,13 @@ public class RecordDeleteService {
         try {
             // Get foreign keys that reference this table
             List<ForeignKeyReference> incomingReferences = getIncomingForeignKeyReferences(
-                    dataSource, schemaName, tableName);
+                    queryExecutor.getDataSource(), schemaName, tableName);
 
             if (incomingReferences.isEmpty()) {
                 return warnings; // No references, safe to delete
             }
 
-            NamedParameterJdbcTemplate namedJdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+            NamedParameterJdbcTemplate namedJdbcTemplate = queryExecutor.getNamedJdbcTemplate();
 
             for (ForeignKeyReference reference : incomingReferences) {
                 // Build query to check for referencing records
@@ -246,8 +262,11 @@ public class RecordDeleteService {
 
                 logger.debug("Checking reference integrity: {}", checkQuery);
 
-                Integer referencingCount = namedJdbcTemplate.queryForObject(
-                        checkQuery, parameterSource, Integer.class);
+                Integer referencingCount = databaseMetricsService.recordQuery(
+                        connectionId, reference.referencingSchema(), reference.referencingTable(),
+                        QueryOperation.REFERENCE_CHECK,
+                        () -> namedJdbcTemplate.queryForObject(checkQuery, parameterSource, Integer.class),
+                        count -> count != null ? count : 0L);
 
                 if (referencingCount != null && referencingCount > 0) {
                     warnings.add(String.format(
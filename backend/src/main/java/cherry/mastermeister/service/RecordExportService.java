@@ -0,0 +1,343 @@
+/*
+ * Copyright 2025 agwlvssainokuni
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cherry.mastermeister.service;
+
+import cherry.mastermeister.enums.DatabaseType;
+import cherry.mastermeister.enums.ExportFormat;
+import cherry.mastermeister.enums.QueryOperation;
+import cherry.mastermeister.exception.PermissionDeniedException;
+import cherry.mastermeister.model.AccessibleColumn;
+import cherry.mastermeister.model.RecordReadCommand;
+import cherry.mastermeister.util.RowDecoder;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+@Transactional(readOnly = true)
+public class RecordExportService {
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    private final DatabaseService databaseService;
+    private final RecordReadService recordReadService;
+    private final PermissionService permissionService;
+    private final QueryBuilderService queryBuilderService;
+    private final AuditLogService auditLogService;
+    private final DatabaseMetricsService databaseMetricsService;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    public RecordExportService(
+            DatabaseService databaseService,
+            RecordReadService recordReadService,
+            PermissionService permissionService,
+            QueryBuilderService queryBuilderService,
+            AuditLogService auditLogService,
+            DatabaseMetricsService databaseMetricsService,
+            ObjectMapper objectMapper,
+            @Value("${mm.app.data-access.export-fetch-size:1000}") int fetchSize
+    ) {
+        this.databaseService = databaseService;
+        this.recordReadService = recordReadService;
+        this.permissionService = permissionService;
+        this.queryBuilderService = queryBuilderService;
+        this.auditLogService = auditLogService;
+        this.databaseMetricsService = databaseMetricsService;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Check permissions and build export query.
+     * Runs on the request thread so that permission and validation errors are reported before streaming starts.
+     */
+    public ExportPlan prepareExport(
+            Long userId, Long connectionId,
+            String schemaName, String tableName,
+            RecordReadCommand filter,
+            ExportFormat format
+    ) {
+        logger.info("Preparing {} export for table {}.{} on connection: {}", format, schemaName, tableName, connectionId);
+
+        // Check READ permission for the table
+        if (!permissionService.hasReadPermission(userId, connectionId, schemaName, tableName)) {
+            throw new PermissionDeniedException("READ permission required for table " + schemaName + "." + tableName, null);
+        }
+
+        // Only readable columns are projected
+        List<AccessibleColumn> readableColumns = recordReadService.getAccessibleColumns(
+                        userId, connectionId, schemaName, tableName).stream()
+                .filter(AccessibleColumn::canRead)
+                .collect(Collectors.toList());
+        if (readableColumns.isEmpty()) {
+            throw new PermissionDeniedException("No readable columns found for table " + schemaName + "." + tableName, null);
+        }
+
+        DatabaseType dbType = databaseService.getQueryExecutor(connectionId).getDbType();
+
+        QueryBuilderService.QueryResult queryResult = queryBuilderService.buildStreamingSelectQuery(
+                schemaName, tableName, readableColumns, filter, dbType);
+
+        return new ExportPlan(connectionId, schemaName, tableName, dbType, format,
+                readableColumns, queryResult);
+    }
+
+    /**
+     * Stream rows of the prepared query to the output stream.
+     * Rows are written as they are fetched from the ResultSet, so memory usage does not depend on table size.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long streamExport(ExportPlan plan, OutputStream outputStream) throws IOException {
+        long startTime = System.currentTimeMillis();
+        DataSource dataSource = databaseService.getDataSource(plan.connectionId());
+
+        logger.debug("Executing export query: {}", plan.queryResult().query());
+        logger.debug("Query parameters: {}", plan.queryResult().parameters());
+
+        RowWriter rowWriter = switch (plan.format()) {
+            case CSV -> new CsvRowWriter(outputStream, plan.columnNames());
+            case NDJSON -> new NdjsonRowWriter(objectMapper, outputStream, plan.columnNames());
+        };
+        List<AccessibleColumn> readableColumns = plan.readableColumns();
+
+        long rowCount;
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            // PostgreSQL only honours fetch size (server-side cursor) outside auto-commit mode
+            connection.setAutoCommit(false);
+            try {
+                JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+                jdbcTemplate.setFetchSize(getStreamingFetchSize(plan.dbType()));
+                NamedParameterJdbcTemplate namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+
+                rowWriter.writeHeader();
+                databaseMetricsService.recordQuery(
+                        plan.connectionId(), plan.schemaName(), plan.tableName(), QueryOperation.EXPORT,
+                        () -> namedJdbcTemplate.query(
+                                plan.queryResult().query(), plan.queryResult().parameters(),
+                                (ResultSetExtractor<Long>) rs -> {
+                                    RowDecoder decoder = RowDecoder.compile(rs.getMetaData(), readableColumns);
+                                    long count = 0;
+                                    try {
+                                        while (rs.next()) {
+                                            rowWriter.writeRow(decoder.decodeRow(rs));
+                                            count++;
+                                        }
+                                    } catch (IOException e) {
+                                        throw new UncheckedIOException(e);
+                                    }
+                                    return count;
+                                }),
+                        count -> count != null ? count : 0L);
+                rowCount = rowWriter.finish();
+            } finally {
+                connection.rollback();
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (UncheckedIOException e) {
+            // Client disconnected or output failed: stop reading rows
+            logger.warn("Export of {}.{} aborted: {}", plan.schemaName(), plan.tableName(), e.getCause().getMessage());
+            throw e.getCause();
+        } catch (SQLException e) {
+            logger.error("Failed to export records for table {}.{}: {}", plan.schemaName(), plan.tableName(), e.getMessage());
+            throw new RuntimeException("Failed to export table records", e);
+        }
+
+        long executionTime = System.currentTimeMillis() - startTime;
+        auditLogService.logDataAccess(plan.connectionId(), plan.schemaName(), plan.tableName(),
+                (int) Math.min(rowCount, Integer.MAX_VALUE), executionTime);
+
+        logger.info("Exported {} records from {}.{} as {} in {}ms",
+                rowCount, plan.schemaName(), plan.tableName(), plan.format(), executionTime);
+        return rowCount;
+    }
+
+    /**
+     * Fetch size that makes each driver stream rows instead of buffering the whole result
+     */
+    private int getStreamingFetchSize(DatabaseType dbType) {
+        return switch (dbType) {
+            // MySQL Connector/J streams row by row only with Integer.MIN_VALUE
+            case MYSQL -> Integer.MIN_VALUE;
+            case MARIADB, POSTGRESQL, H2 -> fetchSize;
+        };
+    }
+
+    /**
+     * Prepared export: target table, projected columns and query
+     */
+    public record ExportPlan(
+            Long connectionId,
+            String schemaName,
+            String tableName,
+            DatabaseType dbType,
+            ExportFormat format,
+            List<AccessibleColumn> readableColumns,
+            QueryBuilderService.QueryResult queryResult
+    ) {
+
+        public List<String> columnNames() {
+            return readableColumns.stream()
+                    .map(AccessibleColumn::columnName)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Writes rows to the output one at a time
+     */
+    interface RowWriter {
+
+        void writeHeader() throws IOException;
+
+        void writeRow(Object[] values) throws IOException;
+
+        long finish() throws IOException;
+    }
+
+    /**
+     * RFC 4180 CSV writer
+     */
+    static class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+        private final List<String> columnNames;
+        private long rowCount = 0;
+
+        CsvRowWriter(OutputStream outputStream, List<String> columnNames) {
+            this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            this.columnNames = columnNames;
+        }
+
+        @Override
+        public void writeHeader() throws IOException {
+            for (int i = 0; i < columnNames.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeField(columnNames.get(i));
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void writeRow(Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = values[i];
+                if (value instanceof byte[] bytes) {
+                    writeField(Base64.getEncoder().encodeToString(bytes));
+                } else if (value != null) {
+                    writeField(value.toString());
+                }
+            }
+            writer.write("\r\n");
+            rowCount++;
+        }
+
+        @Override
+        public long finish() throws IOException {
+            writer.flush();
+            return rowCount;
+        }
+
+        private void writeField(String value) throws IOException {
+            boolean needsQuote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\r') >= 0 || value.indexOf('\n') >= 0;
+            if (!needsQuote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+
+    /**
+     * Newline-delimited JSON writer using the application ObjectMapper for value serialization
+     */
+    static class NdjsonRowWriter implements RowWriter {
+
+        private final JsonGenerator generator;
+        private final List<String> columnNames;
+        private long rowCount = 0;
+
+        NdjsonRowWriter(ObjectMapper objectMapper, OutputStream outputStream, List<String> columnNames) {
+            try {
+                this.generator = objectMapper.createGenerator(outputStream, JsonEncoding.UTF8);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.generator.setRootValueSeparator(new SerializedString("\n"));
+            this.columnNames = columnNames;
+        }
+
+        @Override
+        public void writeHeader() {
+            // NDJSON has no header
+        }
+
+        @Override
+        public void writeRow(Object[] values) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < values.length; i++) {
+                generator.writeFieldName(columnNames.get(i));
+                generator.writeObject(values[i]);
+            }
+            generator.writeEndObject();
+            rowCount++;
+        }
+
+        @Override
+        public long finish() throws IOException {
+            if (rowCount > 0) {
+                generator.writeRaw('\n');
+            }
+            generator.flush();
+            return rowCount;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2025 agwlvssainokuni
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cherry.mastermeister.service;
+
+import cherry.mastermeister.model.RecordReadCommand;
+import cherry.mastermeister.model.TableRecord;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Cache of record pages for tables that opted in (typically small master tables).
+ * Entries are keyed by table version, so that a write through MasterMeister makes all cached pages
+ * of the table unreachable at once; the TTL covers changes made outside MasterMeister.
+ * Only data is cached: column permissions are always taken from the current user.
+ */
+@Service
+public class RecordPageCacheService {
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    private final Set<String> cachedTables;
+    private final int maxPageRows;
+    private final long maxTotalRecords;
+    private final Cache<PageKey, CachedPage> pageCache;
+    private final Map<TableKey, AtomicLong> tableVersions = new ConcurrentHashMap<>();
+
+    public RecordPageCacheService(
+            MeterRegistry meterRegistry,
+            @Value("${mm.app.data-access.page-cache.tables:}") List<String> cachedTables,
+            @Value("${mm.app.data-access.page-cache.ttl:60s}") Duration ttl,
+            @Value("${mm.app.data-access.page-cache.max-entries:1000}") long maxEntries,
+            @Value("${mm.app.data-access.page-cache.max-page-rows:200}") int maxPageRows,
+            @Value("${mm.app.data-access.page-cache.max-total-records:10000}") long maxTotalRecords
+    ) {
+        this.cachedTables = cachedTables.stream()
+                .map(String::trim)
+                .filter(entry -> !entry.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        this.maxPageRows = maxPageRows;
+        this.maxTotalRecords = maxTotalRecords;
+        this.pageCache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, pageCache, "recordPages");
+
+        if (!this.cachedTables.isEmpty()) {
+            logger.info("Record page cache enabled for tables: {} (ttl: {}, max entries: {})",
+                    this.cachedTables, ttl, maxEntries);
+        }
+    }
+
+    /**
+     * Check whether pages of the table may be cached.
+     * Tables are listed as "schema.table" (any connection) or "connectionId:schema.table".
+     */
+    public boolean isCacheable(Long connectionId, String schemaName, String tableName) {
+        if (cachedTables.isEmpty()) {
+            return false;
+        }
+        String qualifiedName = schemaName + "." + tableName;
+        return cachedTables.contains(qualifiedName) || cachedTables.contains(connectionId + ":" + qualifiedName);
+    }
+
+    /**
+     * Build page key for the current version of the table
+     */
+    public PageKey createKey(
+            Long connectionId,
+            String schemaName, String tableName,
+            List<String> readableColumns,
+            RecordReadCommand filter,
+            int page, int pageSize,
+            boolean compact
+    ) {
+        TableKey tableKey = new TableKey(connectionId, schemaName, tableName);
+        long version = tableVersions.computeIfAbsent(tableKey, key -> new AtomicLong()).get();
+        return new PageKey(tableKey, version, readableColumns,
+                filter.columnFilters(), filter.customWhere(), filter.sortOrders(),
+                page, pageSize, compact);
+    }
+
+    public CachedPage get(PageKey key) {
+        return pageCache.getIfPresent(key);
+    }
+
+    /**
+     * Store page unless it exceeds the size limits
+     */
+    public void put(PageKey key, CachedPage page) {
+        if (page.totalEstimated() || page.totalRecords() > maxTotalRecords || page.size() > maxPageRows) {
+            return;
+        }
+        pageCache.put(key, page);
+    }
+
+    /**
+     * Invalidate all cached pages of a table after a write
+     */
+    public void invalidateTable(Long connectionId, String schemaName, String tableName) {
+        if (!isCacheable(connectionId, schemaName, tableName)) {
+            return;
+        }
+        TableKey tableKey = new TableKey(connectionId, schemaName, tableName);
+        tableVersions.computeIfAbsent(tableKey, key -> new AtomicLong()).incrementAndGet();
+        pageCache.asMap().keySet().removeIf(key -> key.table().equals(tableKey));
+        logger.debug("Invalidated cached pages of {}.{} on connection: {}", schemaName, tableName, connectionId);
+    }
+
+    record TableKey(
+            Long connectionId,
+            String schemaName,
+            String tableName
+    ) {
+    }
+
+    /**
+     * Cache key: table version, projected (readable) columns, filter, sort and page
+     */
+    public record PageKey(
+            TableKey table,
+            long version,
+            List<String> readableColumns,
+            List<RecordReadCommand.ColumnFilter> columnFilters,
+            String customWhere,
+            List<RecordReadCommand.SortOrder> sortOrders,
+            int page,
+            int pageSize,
+            boolean compact
+    ) {
+    }
+
+    /**
+     * Cached page data
+     */
+    public record CachedPage(
+            List<TableRecord> records,
+            List<String> columnNames,
+            List<Object[]> rows,
+            long totalRecords,
+            boolean totalEstimated,
+            String query
+    ) {
+
+        int size() {
+            return rows != null ? rows.size() : records.size();
+        }
+    }
+}
@@ -16,29 +16,27 @@
 
 package cherry.mastermeister.service;
 
-import cherry.mastermeister.entity.ColumnMetadataEntity;
-import cherry.mastermeister.entity.SchemaMetadataEntity;
-import cherry.mastermeister.entity.TableMetadataEntity;
+import cherry.mastermeister.enums.CountMode;
 import cherry.mastermeister.enums.DatabaseType;
 import cherry.mastermeister.enums.PermissionType;
+import cherry.mastermeister.enums.QueryOperation;
 import cherry.mastermeister.exception.DatabaseNotFoundException;
 import cherry.mastermeister.exception.PermissionDeniedException;
 import cherry.mastermeister.exception.TableNotFoundException;
 import cherry.mastermeister.model.*;
-import cherry.mastermeister.repository.SchemaMetadataRepository;
+import cherry.mastermeister.util.RecordCursorCodec;
+import cherry.mastermeister.util.RowDecoder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import javax.sql.DataSource;
-import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
-import java.sql.SQLException;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -50,24 +48,33 @@ public class RecordReadService {
 
     private final Logger logger = LoggerFactory.getLogger(getClass());
     private final DatabaseService databaseService;
-    private final SchemaMetadataRepository schemaMetadataRepository;
+    private final SchemaCatalogService schemaCatalogService;
     private final PermissionService permissionService;
     private final QueryBuilderService queryBuilderService;
+    private final RecordCountService recordCountService;
+    private final RecordPageCacheService recordPageCacheService;
+    private final DatabaseMetricsService databaseMetricsService;
     private final AuditLogService auditLogService;
     private final int largeDatasetThreshold;
 
     public RecordReadService(
             DatabaseService databaseService,
-            SchemaMetadataRepository schemaMetadataRepository,
+            SchemaCatalogService schemaCatalogService,
             PermissionService permissionService,
             QueryBuilderService queryBuilderService,
+            RecordCountService recordCountService,
+            RecordPageCacheService recordPageCacheService,
+            DatabaseMetricsService databaseMetricsService,
             AuditLogService auditLogService,
             @Value("${mm.app.data-access.large-dataset-threshold:100}") int largeDatasetThreshold
     ) {
         this.databaseService = databaseService;
-        this.schemaMetadataRepository = schemaMetadataRepository;
+        this.schemaCatalogService = schemaCatalogService;
         this.permissionService = permissionService;
         this.queryBuilderService = queryBuilderService;
+        this.recordCountService = recordCountService;
+        this.recordPageCacheService = recordPageCacheService;
+        this.databaseMetricsService = databaseMetricsService;
         this.auditLogService = auditLogService;
         this.largeDatasetThreshold = largeDatasetThreshold;
     }
@@ -79,10 +86,12 @@ public class RecordReadService {
             Long userId, Long connectionId,
             String schemaName, String tableName,
             RecordReadCommand filter,
-            int page, int pageSize
+            int page, int pageSize,
+            CountMode countMode,
+            boolean compact
     ) {
-        logger.info("Getting records for table {}.{} on connection: {}, page: {}, size: {}",
-                schemaName, tableName, connectionId, page, pageSize);
+        logger.info("Getting records for table {}.{} on connection: {}, page: {}, size: {}, count: {}",
+                schemaName, tableName, connectionId, page, pageSize, countMode);
 
         long startTime = System.currentTimeMillis();
 
@@ -92,24 +101,52 @@ public class RecordReadService {
         }
 
         try {
-            // Get table entity directly from repository
-            TableMetadataEntity tableEntity = getTableEntity(connectionId, schemaName, tableName);
+            // Get table from the in-memory schema catalog
+            SchemaCatalog.Table table = getCatalogTable(connectionId, schemaName, tableName);
 
             // Get accessible columns with permissions
-            List<AccessibleColumn> accessibleColumns = getAccessibleColumns(userId, connectionId, tableEntity);
+            List<AccessibleColumn> accessibleColumns = getAccessibleColumns(userId, connectionId, table);
 
             if (accessibleColumns.isEmpty()) {
                 logger.warn("No accessible columns found for table {}.{}", schemaName, tableName);
-                return createEmptyResult(page, pageSize, System.currentTimeMillis() - startTime);
+                return createEmptyResult(page, pageSize, compact, System.currentTimeMillis() - startTime);
+            }
+
+            // Serve from page cache if the table opted in
+            RecordPageCacheService.PageKey pageKey = null;
+            if (recordPageCacheService.isCacheable(connectionId, schemaName, tableName)) {
+                List<String> readableColumns = accessibleColumns.stream()
+                        .filter(AccessibleColumn::canRead)
+                        .map(AccessibleColumn::columnName)
+                        .collect(Collectors.toList());
+                pageKey = recordPageCacheService.createKey(
+                        connectionId, schemaName, tableName, readableColumns, filter, page, pageSize, compact);
+                RecordPageCacheService.CachedPage cachedPage = recordPageCacheService.get(pageKey);
+                if (cachedPage != null) {
+                    long executionTime = System.currentTimeMillis() - startTime;
+                    RecordReadResult result = new RecordReadResult(
+                            cachedPage.records(), accessibleColumns, cachedPage.totalRecords(), page, pageSize,
+                            executionTime, cachedPage.query(), false, null, cachedPage.totalEstimated(),
+                            cachedPage.columnNames(), cachedPage.rows());
+
+                    // Log large dataset access
+                    if (result.isLargeDataset(largeDatasetThreshold)) {
+                        auditLogService.logDataAccess(connectionId, schemaName, tableName,
+                                result.getRecordCount(), executionTime);
+                    }
+
+                    logger.info("Retrieved {} cached records out of {} total for {}.{} in {}ms",
+                            result.getRecordCount(), cachedPage.totalRecords(), schemaName, tableName, executionTime);
+                    return result;
+                }
             }
 
             // Build and execute query
-            DataSource dataSource = databaseService.getDataSource(connectionId);
-            NamedParameterJdbcTemplate namedJdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+            QueryExecutor queryExecutor = databaseService.getQueryExecutor(connectionId);
+            NamedParameterJdbcTemplate namedJdbcTemplate = queryExecutor.getNamedJdbcTemplate();
 
             // Get database type for proper SQL escaping
-            DatabaseConnection dbConnection = databaseService.getConnection(connectionId);
-            DatabaseType dbType = dbConnection.dbType();
+            DatabaseType dbType = queryExecutor.getDbType();
 
             // Use QueryBuilderService for dynamic query generation
             QueryBuilderService.QueryResult selectQueryResult = queryBuilderService.buildSelectQuery(
@@ -120,30 +157,153 @@ public class RecordReadService {
             logger.debug("Executing query: {}", selectQueryResult.query());
             logger.debug("Query parameters: {}", selectQueryResult.parameters());
 
-            // Get total count
-            Long totalRecords = namedJdbcTemplate.queryForObject(
-                    countQueryResult.query(), countQueryResult.parameters(), Long.class);
-            if (totalRecords == null) {
-                totalRecords = 0L;
-            }
+            // Start total count on a separate connection
+            RecordCountService.PendingCount pendingCount = recordCountService.startCount(
+                    connectionId, schemaName, tableName, filter.hasFilters(), countQueryResult, dbType, countMode);
 
             // Execute main query
-            List<TableRecord> records = namedJdbcTemplate.query(
-                    selectQueryResult.query(), selectQueryResult.parameters(),
-                    (rs, rowNum) -> mapResultSetToRecord(rs, accessibleColumns, connectionId, schemaName, tableName));
+            PageRows pageRows;
+            try {
+                pageRows = fetchPageRows(connectionId, schemaName, tableName,
+                        namedJdbcTemplate, selectQueryResult, accessibleColumns, compact, List.of(), -1);
+            } catch (RuntimeException e) {
+                pendingCount.cancel();
+                throw e;
+            }
+
+            // Wait for total count
+            RecordCountService.TotalCount totalCount = pendingCount.await();
+            long totalRecords = totalCount.value();
 
             long executionTime = System.currentTimeMillis() - startTime;
 
             RecordReadResult result = new RecordReadResult(
-                    records, accessibleColumns, totalRecords, page, pageSize, executionTime, selectQueryResult.query());
+                    pageRows.records(), accessibleColumns, totalRecords, page, pageSize, executionTime,
+                    selectQueryResult.query(), false, null, totalCount.estimated(),
+                    pageRows.columnNames(), pageRows.rows());
+
+            if (pageKey != null) {
+                recordPageCacheService.put(pageKey, new RecordPageCacheService.CachedPage(
+                        pageRows.records(), pageRows.columnNames(), pageRows.rows(),
+                        totalRecords, totalCount.estimated(), selectQueryResult.query()));
+            }
 
             // Log large dataset access
             if (result.isLargeDataset(largeDatasetThreshold)) {
-                auditLogService.logDataAccess(connectionId, schemaName, tableName, records.size(), executionTime);
+                auditLogService.logDataAccess(connectionId, schemaName, tableName, pageRows.size(), executionTime);
             }
 
             logger.info("Retrieved {} records out of {} total for {}.{} in {}ms",
-                    records.size(), totalRecords, schemaName, tableName, executionTime);
+                    pageRows.size(), totalRecords, schemaName, tableName, executionTime);
+
+            return result;
+
+        } catch (DataAccessException e) {
+            logger.error("Failed to retrieve records for table {}.{}: {}", schemaName, tableName, e.getMessage());
+            throw new RuntimeException("Failed to retrieve table records", e);
+        }
+    }
+
+    /**
+     * Get records using keyset (seek) pagination.
+     * Rows are ordered by the user sort followed by the primary key columns, and the page starts
+     * right after the position encoded in the cursor (null cursor means first page).
+     */
+    public RecordReadResult getRecordsByCursor(
+            Long userId, Long connectionId,
+            String schemaName, String tableName,
+            RecordReadCommand filter,
+            String cursor,
+            int pageSize,
+            CountMode countMode,
+            boolean compact
+    ) {
+        logger.info("Getting records by cursor for table {}.{} on connection: {}, cursor: {}, size: {}, count: {}",
+                schemaName, tableName, connectionId, cursor != null ? "present" : "none", pageSize, countMode);
+
+        long startTime = System.currentTimeMillis();
+
+        // Check READ permission for the table
+        if (!permissionService.hasReadPermission(userId, connectionId, schemaName, tableName)) {
+            throw new PermissionDeniedException("READ permission required for table " + schemaName + "." + tableName, null);
+        }
+
+        try {
+            // Get table from the in-memory schema catalog
+            SchemaCatalog.Table table = getCatalogTable(connectionId, schemaName, tableName);
+
+            // Get accessible columns with permissions
+            List<AccessibleColumn> accessibleColumns = getAccessibleColumns(userId, connectionId, table);
+
+            if (accessibleColumns.isEmpty()) {
+                logger.warn("No accessible columns found for table {}.{}", schemaName, tableName);
+                return createEmptyResult(0, pageSize, compact, System.currentTimeMillis() - startTime);
+            }
+
+            // Determine key order and decode cursor position
+            List<RecordReadCommand.SortOrder> keyOrders = buildKeyOrders(filter, accessibleColumns, schemaName, tableName);
+            List<String> keyColumns = keyOrders.stream()
+                    .map(RecordReadCommand.SortOrder::columnName)
+                    .collect(Collectors.toList());
+            List<Object> afterValues = cursor != null && !cursor.isEmpty()
+                    ? RecordCursorCodec.decode(cursor, keyColumns)
+                    : null;
+
+            // Build and execute query
+            QueryExecutor queryExecutor = databaseService.getQueryExecutor(connectionId);
+            NamedParameterJdbcTemplate namedJdbcTemplate = queryExecutor.getNamedJdbcTemplate();
+
+            // Get database type for proper SQL escaping
+            DatabaseType dbType = queryExecutor.getDbType();
+
+            // Fetch one extra row to detect whether a next page exists
+            QueryBuilderService.QueryResult selectQueryResult = queryBuilderService.buildKeysetSelectQuery(
+                    schemaName, tableName, accessibleColumns, filter, keyOrders, afterValues, pageSize + 1, dbType);
+            QueryBuilderService.QueryResult countQueryResult = queryBuilderService.buildCountQuery(
+                    schemaName, tableName, filter, dbType);
+
+            logger.debug("Executing query: {}", selectQueryResult.query());
+            logger.debug("Query parameters: {}", selectQueryResult.parameters());
+
+            // Start total count on a separate connection
+            RecordCountService.PendingCount pendingCount = recordCountService.startCount(
+                    connectionId, schemaName, tableName, filter.hasFilters(), countQueryResult, dbType, countMode);
+
+            // Execute main query
+            PageRows pageRows;
+            try {
+                pageRows = fetchPageRows(connectionId, schemaName, tableName,
+                        namedJdbcTemplate, selectQueryResult, accessibleColumns, compact, keyColumns, pageSize - 1);
+            } catch (RuntimeException e) {
+                pendingCount.cancel();
+                throw e;
+            }
+
+            // Wait for total count
+            RecordCountService.TotalCount totalCount = pendingCount.await();
+            long totalRecords = totalCount.value();
+
+            // Trim extra row and build cursor from the key values of the last returned row
+            String nextCursor = null;
+            if (pageRows.size() > pageSize) {
+                pageRows = pageRows.limit(pageSize);
+                nextCursor = RecordCursorCodec.encode(keyColumns, pageRows.cursorValues());
+            }
+
+            long executionTime = System.currentTimeMillis() - startTime;
+
+            RecordReadResult result = new RecordReadResult(
+                    pageRows.records(), accessibleColumns, totalRecords, 0, pageSize, executionTime,
+                    selectQueryResult.query(), true, nextCursor, totalCount.estimated(),
+                    pageRows.columnNames(), pageRows.rows());
+
+            // Log large dataset access
+            if (result.isLargeDataset(largeDatasetThreshold)) {
+                auditLogService.logDataAccess(connectionId, schemaName, tableName, pageRows.size(), executionTime);
+            }
+
+            logger.info("Retrieved {} records by cursor out of {} total for {}.{} in {}ms",
+                    pageRows.size(), totalRecords, schemaName, tableName, executionTime);
 
             return result;
 
@@ -154,18 +314,82 @@ public class RecordReadService {
     }
 
     /**
-     * Get table entity from repository
+     * Build key order for keyset pagination: user sort orders followed by primary key columns.
+     * Key columns must be readable (their values are carried in the cursor) and non-nullable
+     * (NULL does not take part in the seek comparison).
      */
-    private TableMetadataEntity getTableEntity(
+    private List<RecordReadCommand.SortOrder> buildKeyOrders(
+            RecordReadCommand filter,
+            List<AccessibleColumn> accessibleColumns,
+            String schemaName, String tableName
+    ) {
+        Map<String, AccessibleColumn> columnMap = accessibleColumns.stream()
+                .collect(Collectors.toMap(AccessibleColumn::columnName, column -> column));
+
+        List<RecordReadCommand.SortOrder> keyOrders = new ArrayList<>();
+        Set<String> keyColumnNames = new HashSet<>();
+
+        if (filter.hasSorting()) {
+            for (RecordReadCommand.SortOrder order : filter.sortOrders()) {
+                if (keyColumnNames.add(order.columnName())) {
+                    keyOrders.add(order);
+                }
+            }
+        }
+
+        List<AccessibleColumn> primaryKeyColumns = accessibleColumns.stream()
+                .filter(column -> Boolean.TRUE.equals(column.primaryKey()))
+                .collect(Collectors.toList());
+        if (primaryKeyColumns.isEmpty()) {
+            throw new IllegalArgumentException(
+                    "Keyset pagination requires a primary key on table " + schemaName + "." + tableName);
+        }
+        for (AccessibleColumn column : primaryKeyColumns) {
+            if (keyColumnNames.add(column.columnName())) {
+                keyOrders.add(new RecordReadCommand.SortOrder(column.columnName(), RecordReadCommand.SortDirection.ASC));
+            }
+        }
+
+        for (RecordReadCommand.SortOrder order : keyOrders) {
+            AccessibleColumn column = columnMap.get(order.columnName());
+            if (column == null) {
+                throw new IllegalArgumentException("Sort column not found: " + order.columnName());
+            }
+            if (!column.canRead()) {
+                throw new PermissionDeniedException(
+                        "READ permission required on key column " + order.columnName() + " for keyset pagination", null);
+            }
+            if (!Boolean.TRUE.equals(column.primaryKey()) && !Boolean.FALSE.equals(column.nullable())) {
+                throw new IllegalArgumentException(
+                        "Keyset pagination does not support sorting by nullable column " + order.columnName());
+            }
+        }
+
+        return keyOrders;
+    }
+
+    /**
+     * Get columns of a table with the user's permission information
+     */
+    public List<AccessibleColumn> getAccessibleColumns(
+            Long userId, Long connectionId,
+            String schemaName, String tableName
+    ) {
+        SchemaCatalog.Table table = getCatalogTable(connectionId, schemaName, tableName);
+        return getAccessibleColumns(userId, connectionId, table);
+    }
+
+    /**
+     * Get table from the in-memory schema catalog
+     */
+    private SchemaCatalog.Table getCatalogTable(
             Long connectionId,
             String schemaName, String tableName
     ) {
-        SchemaMetadataEntity schemaEntity = schemaMetadataRepository.findByConnectionId(connectionId)
+        SchemaCatalog catalog = schemaCatalogService.findCatalog(connectionId)
                 .orElseThrow(() -> new DatabaseNotFoundException("Schema metadata not found for connection: " + connectionId));
 
-        return schemaEntity.getTables().stream()
-                .filter(table -> schemaName.equals(table.getSchema()) && tableName.equals(table.getTableName()))
-                .findFirst()
+        return catalog.findTable(schemaName, tableName)
                 .orElseThrow(() -> new TableNotFoundException("Table not found: " + schemaName + "." + tableName));
     }
 
@@ -174,37 +398,32 @@ public class RecordReadService {
      */
     private List<AccessibleColumn> getAccessibleColumns(
             Long userId, Long connectionId,
-            TableMetadataEntity tableEntity
+            SchemaCatalog.Table table
     ) {
-        // Get all column names for bulk permission check
-        List<String> allColumnNames = tableEntity.getColumns().stream()
-                .map(ColumnMetadataEntity::getColumnName)
-                .collect(Collectors.toList());
-
         // Get all column permissions in bulk (optimized - single query)
         Map<String, Set<PermissionType>> bulkColumnPermissions = permissionService.getBulkColumnPermissions(
-                userId, connectionId, tableEntity.getSchema(), tableEntity.getTableName(), allColumnNames
+                userId, connectionId, table.schema(), table.tableName(), table.columnNames()
         );
 
-        return tableEntity.getColumns().stream()
-                .map(columnEntity -> {
-                    Set<PermissionType> columnPermissions = bulkColumnPermissions.get(columnEntity.getColumnName());
+        return table.columns().stream()
+                .map(column -> {
+                    Set<PermissionType> columnPermissions = bulkColumnPermissions.get(column.columnName());
                     // Handle case where no permissions are found (default to empty set)
                     if (columnPermissions == null) {
                         columnPermissions = Set.of();
                     }
 
                     return new AccessibleColumn(
-                            columnEntity.getColumnName(),
-                            columnEntity.getDataType(),
-                            columnEntity.getColumnSize(),
-                            columnEntity.getDecimalDigits(),
-                            columnEntity.getNullable(),
-                            columnEntity.getDefaultValue(),
-                            columnEntity.getComment(),
-                            columnEntity.getPrimaryKey(),
-                            columnEntity.getAutoIncrement(),
-                            columnEntity.getOrdinalPosition(),
+                            column.columnName(),
+                            column.dataType(),
+                            column.columnSize(),
+                            column.decimalDigits(),
+                            column.nullable(),
+                            column.defaultValue(),
+                            column.comment(),
+                            column.primaryKey(),
+                            column.autoIncrement(),
+                            column.ordinalPosition(),
                             columnPermissions,
                             columnPermissions.contains(PermissionType.READ),
                             columnPermissions.contains(PermissionType.WRITE),
@@ -217,51 +436,82 @@ public class RecordReadService {
 
 
     /**
-     * Map ResultSet to TableRecord with column permissions
+     * Execute page query and decode rows either to TableRecord (map per row) or to positional arrays (compact).
+     * The row decoder is compiled once from the result set metadata and reused for every row.
+     * Key values for a keyset cursor are read from the row at cursorRowIndex (none if negative).
      */
-    private TableRecord mapResultSetToRecord(
-            ResultSet rs, List<AccessibleColumn> accessibleColumns,
-            Long connectionId, String schemaName, String tableName
-    ) throws SQLException {
-
-        ResultSetMetaData metaData = rs.getMetaData();
-        Map<String, Object> data = new HashMap<>();
-        Map<String, String> columnTypes = new HashMap<>();
-        Map<String, Boolean> columnPermissions = new HashMap<>();
-
-        // Process all columns in result set
-        for (int i = 1; i <= metaData.getColumnCount(); i++) {
-            String columnName = metaData.getColumnName(i);
-            String columnType = metaData.getColumnTypeName(i);
-            Object value = rs.getObject(i);
-
-            // Check if column has READ permission
-            boolean canRead = accessibleColumns.stream()
-                    .filter(col -> col.columnName().equals(columnName))
-                    .findFirst()
-                    .map(AccessibleColumn::canRead)
-                    .orElse(false);
-            columnPermissions.put(columnName, canRead);
-
-            // Only include data if user has READ permission
-            if (canRead) {
-                data.put(columnName, value);
-                columnTypes.put(columnName, columnType);
-            }
-        }
-
-        return new TableRecord(data, columnTypes, columnPermissions);
+    private PageRows fetchPageRows(
+            Long connectionId, String schemaName, String tableName,
+            NamedParameterJdbcTemplate namedJdbcTemplate,
+            QueryBuilderService.QueryResult selectQueryResult,
+            List<AccessibleColumn> accessibleColumns,
+            boolean compact,
+            List<String> cursorKeyColumns,
+            int cursorRowIndex
+    ) {
+        PageRows pageRows = databaseMetricsService.recordQuery(
+                connectionId, schemaName, tableName, QueryOperation.SELECT,
+                () -> namedJdbcTemplate.query(
+                        selectQueryResult.query(), selectQueryResult.parameters(),
+                        (ResultSetExtractor<PageRows>) rs -> {
+                            RowDecoder decoder = RowDecoder.compile(rs.getMetaData(), accessibleColumns);
+                            List<Object> cursorValues = null;
+                            if (compact) {
+                                List<Object[]> rows = new ArrayList<>();
+                                while (rs.next()) {
+                                    if (rows.size() == cursorRowIndex) {
+                                        cursorValues = decoder.readCursorValues(rs, cursorKeyColumns);
+                                    }
+                                    rows.add(decoder.decodeRow(rs));
+                                }
+                                return new PageRows(List.of(), decoder.getColumnNames(), rows, cursorValues);
+                            }
+                            List<TableRecord> records = new ArrayList<>();
+                            while (rs.next()) {
+                                if (records.size() == cursorRowIndex) {
+                                    cursorValues = decoder.readCursorValues(rs, cursorKeyColumns);
+                                }
+                                records.add(decoder.decodeRecord(rs));
+                            }
+                            return new PageRows(records, null, null, cursorValues);
+                        }),
+                rows -> rows != null ? rows.size() : 0);
+        return pageRows != null ? pageRows : new PageRows(List.of(), null, null, null);
     }
 
     /**
      * Create empty result for cases with no data or no permissions
      */
-    private RecordReadResult createEmptyResult(int page, int pageSize, long executionTime) {
+    private RecordReadResult createEmptyResult(int page, int pageSize, boolean compact, long executionTime) {
         return new RecordReadResult(
                 List.of(), List.of(),
                 0L, page, pageSize,
                 executionTime,
-                "-- No accessible columns --"
+                "-- No accessible columns --",
+                false, null, false,
+                compact ? List.of() : null, compact ? List.of() : null
         );
     }
+
+    /**
+     * Rows of a page in either representation, with the key values of the cursor row if requested
+     */
+    private record PageRows(
+            List<TableRecord> records,
+            List<String> columnNames,
+            List<Object[]> rows,
+            List<Object> cursorValues
+    ) {
+
+        int size() {
+            return rows != null ? rows.size() : records.size();
+        }
+
+        PageRows limit(int maxSize) {
+            if (rows != null) {
+                return new PageRows(records, columnNames, rows.subList(0, maxSize), cursorValues);
+            }
+            return new PageRows(records.subList(0, maxSize), columnNames, null, cursorValues);
+        }
+    }
 }
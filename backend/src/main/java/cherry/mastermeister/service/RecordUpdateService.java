@@ -17,9 +17,9 @@
 package cherry.mastermeister.service;
 
 import cherry.mastermeister.enums.DatabaseType;
+import cherry.mastermeister.enums.QueryOperation;
 import cherry.mastermeister.exception.PermissionDeniedException;
 import cherry.mastermeister.model.ColumnMetadata;
-import cherry.mastermeister.model.DatabaseConnection;
 import cherry.mastermeister.model.RecordUpdateResult;
 import cherry.mastermeister.model.TableMetadata;
 import cherry.mastermeister.util.SqlEscapeUtil;
@@ -31,7 +31,6 @@ import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import javax.sql.DataSource;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -43,20 +42,29 @@ public class RecordUpdateService {
 
     private final Logger logger = LoggerFactory.getLogger(getClass());
     private final DatabaseService databaseService;
+    private final DatabaseMetricsService databaseMetricsService;
     private final SchemaMetadataService schemaMetadataService;
     private final PermissionService permissionService;
     private final AuditLogService auditLogService;
+    private final RecordPageCacheService recordPageCacheService;
+    private final RecordCountService recordCountService;
 
     public RecordUpdateService(
             DatabaseService databaseService,
+            DatabaseMetricsService databaseMetricsService,
             SchemaMetadataService schemaMetadataService,
             PermissionService permissionService,
-            AuditLogService auditLogService
+            AuditLogService auditLogService,
+            RecordPageCacheService recordPageCacheService,
+            RecordCountService recordCountService
     ) {
         this.databaseService = databaseService;
+        this.databaseMetricsService = databaseMetricsService;
         this.schemaMetadataService = schemaMetadataService;
         this.permissionService = permissionService;
         this.auditLogService = auditLogService;
+        this.recordPageCacheService = recordPageCacheService;
+        this.recordCountService = recordCountService;
     }
 
     /**
@@ -101,12 +109,11 @@ public class RecordUpdateService {
             }
 
             // Build and execute UPDATE query
-            DataSource dataSource = databaseService.getDataSource(connectionId);
-            NamedParameterJdbcTemplate namedJdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+            QueryExecutor queryExecutor = databaseService.getQueryExecutor(connectionId);
+            NamedParameterJdbcTemplate namedJdbcTemplate = queryExecutor.getNamedJdbcTemplate();
 
             // Get database type for proper SQL escaping
-            DatabaseConnection dbConnection = databaseService.getConnection(connectionId);
-            DatabaseType dbType = dbConnection.dbType();
+            DatabaseType dbType = queryExecutor.getDbType();
 
             UpdateQueryResult updateQuery = buildUpdateQuery(schemaName, tableName,
                     validatedUpdateData, validatedWhereConditions, dbType);
@@ -114,7 +121,14 @@ public class RecordUpdateService {
             logger.debug("Executing UPDATE query: {}", updateQuery.query());
             logger.debug("Query parameters: {}", updateQuery.parameters());
 
-            int rowsAffected = namedJdbcTemplate.update(updateQuery.query(), updateQuery.parameterSource());
+            int rowsAffected = databaseMetricsService.recordQuery(
+                    connectionId, schemaName, tableName, QueryOperation.UPDATE,
+                    () -> namedJdbcTemplate.update(updateQuery.query(), updateQuery.parameterSource()),
+                    Integer::longValue);
+
+            // Cached pages and counts of this table are now stale
+            recordPageCacheService.invalidateTable(connectionId, schemaName, tableName);
+            recordCountService.invalidateTable(connectionId, schemaName, tableName);
 
             long executionTime = System.currentTimeMillis() - startTime;
 
@@ -0,0 +1,328 @@
+/*
+ * Copyright 2025 agwlvssainokuni
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cherry.mastermeister.service;
+
+import cherry.mastermeister.entity.RefreshTokenEntity;
+import cherry.mastermeister.repository.RefreshTokenRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Refresh token store: the refresh_tokens table fronted by an in-memory index sharded by token ID.
+ * <p>
+ * Validation is answered from the index; tokens created on other nodes or before a restart are loaded on first use,
+ * and indexed tokens are re-read after the revalidation interval to pick up deletions and uses on other nodes.
+ * New tokens are inserted immediately, while usage counts are written behind in batches ({@link #flushUsage()}).
+ * Revoked tokens stay in the index as tombstones until swept, so that revocation takes effect on this node
+ * at once, even before the deletion commits. Revoking all tokens of a user also records the time per user,
+ * which covers tokens of the user that are not indexed yet.
+ */
+@Service
+public class RefreshTokenStore {
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final Shard[] shards;
+    private final Cache<String, LocalDateTime> userRevocations;
+    private final long revalidateIntervalMs;
+    private final int sweepBatchSize;
+
+    public RefreshTokenStore(
+            RefreshTokenRepository refreshTokenRepository,
+            @Value("${mm.security.jwt.refresh-token.store.shards:16}") int shardCount,
+            @Value("${mm.security.jwt.refresh-token.store.revalidate-interval:60s}") Duration revalidateInterval,
+            @Value("${mm.security.jwt.refresh-token.store.sweep-batch-size:500}") int sweepBatchSize
+    ) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.shards = new Shard[Math.max(1, shardCount)];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new Shard();
+        }
+        this.revalidateIntervalMs = revalidateInterval.toMillis();
+        // Like a token tombstone, a user revocation only has to outlive the commit of the deletion
+        this.userRevocations = Caffeine.newBuilder()
+                .expireAfterWrite(revalidateInterval)
+                .build();
+        this.sweepBatchSize = sweepBatchSize;
+    }
+
+    /**
+     * Persist and index a new token
+     */
+    @Transactional
+    public void create(String tokenId, String username, LocalDateTime expiresAt) {
+        RefreshTokenEntity refreshToken = new RefreshTokenEntity();
+        refreshToken.setTokenId(tokenId);
+        refreshToken.setUsername(username);
+        refreshToken.setExpiresAt(expiresAt);
+        refreshTokenRepository.save(refreshToken);
+
+        shardOf(tokenId).tokens.put(tokenId, new TokenState(tokenId, username, expiresAt, LocalDateTime.now(), 0));
+    }
+
+    /**
+     * Find token, or empty if it is unknown, revoked or swept
+     */
+    public Optional<TokenState> find(String tokenId) {
+        Shard shard = shardOf(tokenId);
+        TokenState state = shard.tokens.get(tokenId);
+        if (state != null && (state.revoked || System.currentTimeMillis() - state.loadedAt < revalidateIntervalMs)) {
+            return state.revoked || isRevokedForUser(state) ? Optional.empty() : Optional.of(state);
+        }
+
+        Optional<RefreshTokenEntity> entity = refreshTokenRepository.findByTokenId(tokenId);
+        if (entity.isEmpty()) {
+            shard.tokens.computeIfPresent(tokenId, (key, current) -> current.revoke());
+            return Optional.empty();
+        }
+        TokenState loaded = shard.tokens.compute(tokenId, (key, current) -> {
+            if (current == null) {
+                return new TokenState(tokenId, entity.get().getUsername(), entity.get().getExpiresAt(),
+                        entity.get().getCreatedAt(), entity.get().getUsageCount());
+            }
+            return current.revoked ? current : current.revalidate(entity.get().getUsageCount());
+        });
+        return loaded.revoked || isRevokedForUser(loaded) ? Optional.empty() : Optional.of(loaded);
+    }
+
+    /**
+     * Whether the token was created before all tokens of its user were revoked; marks it revoked if so
+     */
+    private boolean isRevokedForUser(TokenState state) {
+        LocalDateTime revokedAt = state.getUsername() != null ? userRevocations.getIfPresent(state.getUsername()) : null;
+        if (revokedAt == null || (state.createdAt != null && state.createdAt.isAfter(revokedAt))) {
+            return false;
+        }
+        state.revoke();
+        return true;
+    }
+
+    /**
+     * Count a use of the token unless it has reached the usage limit; the count is persisted by the next flush
+     */
+    public boolean use(TokenState state, int maxUsageCount) {
+        if (state.revoked || !state.tryUse(maxUsageCount)) {
+            return false;
+        }
+        shardOf(state.getTokenId()).dirty.add(state.getTokenId());
+        return true;
+    }
+
+    /**
+     * Revoke a token
+     */
+    @Transactional
+    public void revoke(String tokenId) {
+        // Tombstone of an unindexed token only has to outlive the commit of the deletion
+        LocalDateTime tombstoneExpiresAt = LocalDateTime.now().plus(Duration.ofMillis(revalidateIntervalMs));
+        shardOf(tokenId).tokens.compute(tokenId, (key, current) -> current != null
+                ? current.revoke()
+                : new TokenState(tokenId, null, tombstoneExpiresAt, null, 0).revoke());
+        refreshTokenRepository.deleteByTokenId(tokenId);
+    }
+
+    /**
+     * Revoke all tokens of a user, including tokens loaded from the database before the deletion commits
+     */
+    @Transactional
+    public void revokeAll(String username) {
+        userRevocations.put(username, LocalDateTime.now());
+        for (Shard shard : shards) {
+            shard.tokens.replaceAll((key, current) -> username.equals(current.getUsername()) ? current.revoke() : current);
+        }
+        refreshTokenRepository.deleteAllByUsername(username);
+    }
+
+    /**
+     * Write pending usage counts of all shards in one transaction
+     *
+     * @return number of tokens updated
+     */
+    @Transactional
+    public int flushUsage() {
+        List<PendingUse> pendingUses = new ArrayList<>();
+        for (Shard shard : shards) {
+            for (Iterator<String> it = shard.dirty.iterator(); it.hasNext(); ) {
+                String tokenId = it.next();
+                it.remove();
+                TokenState state = shard.tokens.get(tokenId);
+                if (state == null || state.revoked) {
+                    continue;
+                }
+                int uses = state.pendingUses.getAndSet(0);
+                if (uses > 0) {
+                    pendingUses.add(new PendingUse(state, uses));
+                }
+            }
+        }
+        if (pendingUses.isEmpty()) {
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            for (PendingUse pendingUse : pendingUses) {
+                refreshTokenRepository.incrementUsage(pendingUse.state().getTokenId(), pendingUse.uses(),
+                        pendingUse.state().getLastUsedAt(), now);
+            }
+        } catch (RuntimeException e) {
+            // Keep the uses for the next flush
+            for (PendingUse pendingUse : pendingUses) {
+                pendingUse.state().pendingUses.addAndGet(pendingUse.uses());
+                shardOf(pendingUse.state().getTokenId()).dirty.add(pendingUse.state().getTokenId());
+            }
+            throw e;
+        }
+        logger.debug("Flushed usage counts of {} refresh tokens", pendingUses.size());
+        return pendingUses.size();
+    }
+
+    /**
+     * Remove tokens expired before the cutoff time from the index and delete them in batches,
+     * each batch in its own transaction
+     *
+     * @return number of tokens deleted
+     */
+    public int sweepExpired(LocalDateTime cutoffTime) {
+        for (Shard shard : shards) {
+            shard.tokens.values().removeIf(state -> state.getExpiresAt().isBefore(cutoffTime));
+        }
+
+        int deletedCount = 0;
+        List<Long> ids;
+        do {
+            ids = refreshTokenRepository.findExpiredTokenIds(cutoffTime, PageRequest.of(0, sweepBatchSize));
+            if (!ids.isEmpty()) {
+                refreshTokenRepository.deleteAllByIdInBatch(ids);
+                deletedCount += ids.size();
+            }
+        } while (ids.size() == sweepBatchSize);
+        return deletedCount;
+    }
+
+    private Shard shardOf(String tokenId) {
+        return shards[Math.floorMod(tokenId.hashCode(), shards.length)];
+    }
+
+    /**
+     * Indexed tokens and tokens with uses not yet persisted
+     */
+    private static class Shard {
+        final Map<String, TokenState> tokens = new ConcurrentHashMap<>();
+        final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    }
+
+    private record PendingUse(
+            TokenState state,
+            int uses
+    ) {
+    }
+
+    /**
+     * In-memory state of a refresh token
+     */
+    public static final class TokenState {
+
+        private final String tokenId;
+        private final String username;
+        private final LocalDateTime expiresAt;
+        private final LocalDateTime createdAt;
+        private final AtomicInteger usageCount;
+        private final AtomicInteger pendingUses = new AtomicInteger();
+        private volatile LocalDateTime lastUsedAt;
+        private volatile long loadedAt = System.currentTimeMillis();
+        private volatile boolean revoked;
+
+        TokenState(String tokenId, String username, LocalDateTime expiresAt, LocalDateTime createdAt, int usageCount) {
+            this.tokenId = tokenId;
+            this.username = username;
+            this.expiresAt = expiresAt;
+            this.createdAt = createdAt;
+            this.usageCount = new AtomicInteger(usageCount);
+        }
+
+        public String getTokenId() {
+            return tokenId;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public LocalDateTime getExpiresAt() {
+            return expiresAt;
+        }
+
+        public int getUsageCount() {
+            return usageCount.get();
+        }
+
+        public LocalDateTime getLastUsedAt() {
+            return lastUsedAt;
+        }
+
+        public boolean isExpired() {
+            return LocalDateTime.now().isAfter(expiresAt);
+        }
+
+        public boolean hasExceededUsageLimit(int maxUsageCount) {
+            return usageCount.get() >= maxUsageCount;
+        }
+
+        private boolean tryUse(int maxUsageCount) {
+            int current;
+            do {
+                current = usageCount.get();
+                if (current >= maxUsageCount) {
+                    return false;
+                }
+            } while (!usageCount.compareAndSet(current, current + 1));
+            lastUsedAt = LocalDateTime.now();
+            pendingUses.incrementAndGet();
+            return true;
+        }
+
+        private TokenState revalidate(int persistedUsageCount) {
+            // Uses on other nodes are in the persisted count; uses of this node may not be flushed yet
+            usageCount.accumulateAndGet(persistedUsageCount + pendingUses.get(), Math::max);
+            loadedAt = System.currentTimeMillis();
+            return this;
+        }
+
+        private TokenState revoke() {
+            revoked = true;
+            return this;
+        }
+    }
+}
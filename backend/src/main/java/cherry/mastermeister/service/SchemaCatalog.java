@@ -0,0 +1,169 @@
+/*
+ * Copyright 2025 agwlvssainokuni
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cherry.mastermeister.service;
+
+import cherry.mastermeister.model.ColumnMetadata;
+import cherry.mastermeister.model.SchemaMetadata;
+import cherry.mastermeister.model.TableMetadata;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable snapshot of the schema metadata of one connection.
+ * Tables are indexed by schema and table name, and columns by name, so lookups do not scan the table list.
+ * Repeated strings (schema names, table types, data types) are shared within the snapshot.
+ * A snapshot is never modified; a refresh builds a new one and replaces it as a whole.
+ */
+public final class SchemaCatalog {
+
+    private final SchemaMetadata metadata;
+    private final List<Table> tables;
+    private final Map<String, Map<String, Table>> tablesBySchema;
+
+    private SchemaCatalog(SchemaMetadata metadata, List<Table> tables, Map<String, Map<String, Table>> tablesBySchema) {
+        this.metadata = metadata;
+        this.tables = tables;
+        this.tablesBySchema = tablesBySchema;
+    }
+
+    /**
+     * Build a snapshot of the metadata
+     */
+    public static SchemaCatalog of(SchemaMetadata metadata) {
+        Interner interner = new Interner();
+        List<Table> tables = new ArrayList<>(metadata.tables().size());
+        Map<String, Map<String, Table>> tablesBySchema = new HashMap<>();
+
+        for (TableMetadata tableMetadata : metadata.tables()) {
+            List<ColumnMetadata> columns = new ArrayList<>(tableMetadata.columns().size());
+            List<String> columnNames = new ArrayList<>(tableMetadata.columns().size());
+            Map<String, ColumnMetadata> columnsByName = HashMap.newHashMap(tableMetadata.columns().size());
+            for (ColumnMetadata column : tableMetadata.columns()) {
+                ColumnMetadata interned = new ColumnMetadata(
+                        column.columnName(),
+                        interner.intern(column.dataType()),
+                        column.columnSize(),
+                        column.decimalDigits(),
+                        column.nullable(),
+                        column.defaultValue(),
+                        column.comment(),
+                        column.primaryKey(),
+                        column.autoIncrement(),
+                        column.ordinalPosition()
+                );
+                columns.add(interned);
+                columnNames.add(interned.columnName());
+                columnsByName.putIfAbsent(interned.columnName(), interned);
+            }
+
+            Table table = new Table(
+                    new TableMetadata(
+                            interner.intern(tableMetadata.schema()),
+                            tableMetadata.tableName(),
+                            interner.intern(tableMetadata.tableType()),
+                            tableMetadata.comment(),
+                            Collections.unmodifiableList(columns)
+                    ),
+                    Collections.unmodifiableMap(columnsByName),
+                    Collections.unmodifiableList(columnNames)
+            );
+            tables.add(table);
+            tablesBySchema.computeIfAbsent(table.schema(), k -> new HashMap<>())
+                    .putIfAbsent(table.tableName(), table);
+        }
+        tablesBySchema.replaceAll((schema, schemaTables) -> Collections.unmodifiableMap(schemaTables));
+
+        SchemaMetadata snapshot = new SchemaMetadata(
+                metadata.connectionId(),
+                metadata.databaseName(),
+                metadata.schemas().stream().map(interner::intern).toList(),
+                tables.stream().map(Table::metadata).toList(),
+                metadata.lastUpdatedAt(),
+                metadata.fingerprint()
+        );
+        return new SchemaCatalog(snapshot, Collections.unmodifiableList(tables), tablesBySchema);
+    }
+
+    public Long getConnectionId() {
+        return metadata.connectionId();
+    }
+
+    /**
+     * Metadata of the snapshot; its lists are unmodifiable
+     */
+    public SchemaMetadata getMetadata() {
+        return metadata;
+    }
+
+    /**
+     * Tables in catalog order
+     */
+    public List<Table> getTables() {
+        return tables;
+    }
+
+    public Optional<Table> findTable(String schemaName, String tableName) {
+        Map<String, Table> schemaTables = tablesBySchema.get(schemaName);
+        return schemaTables != null ? Optional.ofNullable(schemaTables.get(tableName)) : Optional.empty();
+    }
+
+    /**
+     * Table with its columns indexed by name
+     */
+    public record Table(
+            TableMetadata metadata,
+            Map<String, ColumnMetadata> columnsByName,
+            List<String> columnNames
+    ) {
+
+        public String schema() {
+            return metadata.schema();
+        }
+
+        public String tableName() {
+            return metadata.tableName();
+        }
+
+        /**
+         * Columns in ordinal order
+         */
+        public List<ColumnMetadata> columns() {
+            return metadata.columns();
+        }
+
+        public Optional<ColumnMetadata> findColumn(String columnName) {
+            return Optional.ofNullable(columnsByName.get(columnName));
+        }
+    }
+
+    /**
+     * Shares equal strings within one snapshot
+     */
+    private static class Interner {
+
+        private final Map<String, String> strings = new HashMap<>();
+
+        String intern(String value) {
+            return value != null ? strings.computeIfAbsent(value, k -> k) : null;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2025 agwlvssainokuni
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cherry.mastermeister.service;
+
+import cherry.mastermeister.entity.ColumnMetadataEntity;
+import cherry.mastermeister.entity.SchemaMetadataEntity;
+import cherry.mastermeister.entity.TableMetadataEntity;
+import cherry.mastermeister.enums.CacheChangeType;
+import cherry.mastermeister.model.ColumnMetadata;
+import cherry.mastermeister.model.SchemaMetadata;
+import cherry.mastermeister.model.TableMetadata;
+import cherry.mastermeister.repository.SchemaMetadataRepository;
+import cherry.mastermeister.repository.TableMetadataRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory schema catalogs of the connections.
+ * A catalog is loaded from the stored metadata on first use, with one query for the tables and columns,
+ * and then served from memory until the metadata is saved or deleted. A save replaces the catalog
+ * with a snapshot of the saved metadata after the transaction commits; other nodes drop theirs when
+ * they poll the cache change log, and load it again on next use.
+ */
+@Service
+public class SchemaCatalogService {
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    private final SchemaMetadataRepository schemaMetadataRepository;
+    private final TableMetadataRepository tableMetadataRepository;
+    private final CacheChangeLogService cacheChangeLogService;
+    private final Map<Long, SchemaCatalog> catalogs = new ConcurrentHashMap<>();
+    // Bumped before every replacement or eviction, so that a load started earlier does not install older data
+    private final AtomicLong generation = new AtomicLong();
+
+    public SchemaCatalogService(
+            SchemaMetadataRepository schemaMetadataRepository,
+            TableMetadataRepository tableMetadataRepository,
+            CacheChangeLogService cacheChangeLogService
+    ) {
+        this.schemaMetadataRepository = schemaMetadataRepository;
+        this.tableMetadataRepository = tableMetadataRepository;
+        this.cacheChangeLogService = cacheChangeLogService;
+    }
+
+    /**
+     * Get catalog of a connection; empty if its schema has not been read
+     */
+    public Optional<SchemaCatalog> findCatalog(Long connectionId) {
+        SchemaCatalog catalog = catalogs.get(connectionId);
+        if (catalog != null) {
+            return Optional.of(catalog);
+        }
+        return Optional.ofNullable(load(connectionId));
+    }
+
+    /**
+     * Get table of a connection from its catalog
+     */
+    public Optional<SchemaCatalog.Table> findTable(Long connectionId, String schemaName, String tableName) {
+        return findCatalog(connectionId).flatMap(catalog -> catalog.findTable(schemaName, tableName));
+    }
+
+    /**
+     * Get column names of a table in ordinal order; empty if the table is not in the catalog
+     */
+    public List<String> getColumnNames(Long connectionId, String schemaName, String tableName) {
+        return findTable(connectionId, schemaName, tableName)
+                .map(SchemaCatalog.Table::columnNames)
+                .orElse(List.of());
+    }
+
+    /**
+     * Replace catalog of a connection with the saved metadata, once the saving transaction commits
+     */
+    public void replace(SchemaMetadata metadata) {
+        Long connectionId = metadata.connectionId();
+        SchemaCatalog catalog = SchemaCatalog.of(metadata);
+        cacheChangeLogService.record(CacheChangeType.SCHEMA_METADATA, connectionId);
+        afterCommit(() -> {
+            generation.incrementAndGet();
+            catalogs.put(connectionId, catalog);
+            logger.debug("Replaced schema catalog of connection ID: {} ({} tables)",
+                    connectionId, catalog.getTables().size());
+        });
+    }
+
+    /**
+     * Drop catalog of a connection whose metadata was deleted, once the deleting transaction commits
+     */
+    public void invalidate(Long connectionId) {
+        cacheChangeLogService.record(CacheChangeType.SCHEMA_METADATA, connectionId);
+        afterCommit(() -> evict(connectionId));
+    }
+
+    /**
+     * Drop catalog of a connection immediately, for a change already committed
+     */
+    void evict(Long connectionId) {
+        generation.incrementAndGet();
+        catalogs.remove(connectionId);
+    }
+
+    private SchemaCatalog load(Long connectionId) {
+        long loadGeneration = generation.get();
+
+        Optional<SchemaMetadataEntity> schemaEntity = schemaMetadataRepository.findWithSchemasByConnectionId(connectionId);
+        if (schemaEntity.isEmpty()) {
+            return null;
+        }
+        List<TableMetadata> tables = tableMetadataRepository.findWithColumnsByConnectionId(connectionId).stream()
+                .map(this::toModel)
+                .toList();
+        SchemaMetadataEntity entity = schemaEntity.get();
+        SchemaCatalog catalog = SchemaCatalog.of(new SchemaMetadata(
+                entity.getConnectionId(),
+                entity.getDatabaseName(),
+                new ArrayList<>(entity.getSchemas()),
+                tables,
+                entity.getLastUpdatedAt(),
+                entity.getFingerprint()
+        ));
+
+        SchemaCatalog existing = catalogs.putIfAbsent(connectionId, catalog);
+        if (existing != null) {
+            return existing;
+        }
+        if (generation.get() != loadGeneration) {
+            // Replaced or evicted while loading: the loaded data may predate the change
+            catalogs.remove(connectionId, catalog);
+        }
+        logger.debug("Loaded schema catalog of connection ID: {} ({} tables)", connectionId, tables.size());
+        return catalog;
+    }
+
+    private TableMetadata toModel(TableMetadataEntity entity) {
+        List<ColumnMetadata> columns = entity.getColumns().stream()
+                .sorted(Comparator.comparing(ColumnMetadataEntity::getOrdinalPosition,
+                        Comparator.nullsLast(Comparator.naturalOrder())))
+                .map(this::toModel)
+                .toList();
+
+        return new TableMetadata(
+                entity.getSchema(),
+                entity.getTableName(),
+                entity.getTableType(),
+                entity.getComment(),
+                columns
+        );
+    }
+
+    private ColumnMetadata toModel(ColumnMetadataEntity entity) {
+        return new ColumnMetadata(
+                entity.getColumnName(),
+                entity.getDataType(),
+                entity.getColumnSize(),
+                entity.getDecimalDigits(),
+                entity.getNullable(),
+                entity.getDefaultValue(),
+                entity.getComment(),
+                entity.getPrimaryKey(),
+                entity.getAutoIncrement(),
+                entity.getOrdinalPosition()
+        );
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
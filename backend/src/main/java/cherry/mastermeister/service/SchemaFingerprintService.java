@@ -0,0 +1,249 @@
+/*
+ * Copyright 2025 agwlvssainokuni
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cherry.mastermeister.service;
+
+import cherry.mastermeister.enums.DatabaseType;
+import cherry.mastermeister.model.DatabaseConnection;
+import cherry.mastermeister.model.SchemaChangeCheck;
+import cherry.mastermeister.repository.SchemaMetadataRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Detects schema changes without a full refresh.
+ * A fingerprint is a SHA-256 hash over a few catalog queries per database type, covering the schemas,
+ * tables, columns, primary keys and comments that a refresh stores. It is saved with the schema metadata,
+ * so a fingerprint that differs from the stored one means the catalog changed since the last refresh.
+ * A fingerprint may also change without a visible metadata change (e.g. a column default re-created
+ * with the same expression), which only costs an unnecessary refresh.
+ */
+@Service
+public class SchemaFingerprintService {
+
+    // MySQL and MariaDB: catalogs aggregated per schema on the server, so only a few rows are returned.
+    // TABLES.UPDATE_TIME and CREATE_TIME are not used: they change with data writes and table rebuilds.
+    private static final List<String> MYSQL_FINGERPRINT_SQL = List.of(
+            """
+            SELECT SCHEMA_NAME
+            FROM information_schema.SCHEMATA
+            WHERE SCHEMA_NAME NOT IN ('information_schema', 'performance_schema', 'mysql', 'sys')
+            ORDER BY SCHEMA_NAME
+            """,
+            """
+            SELECT TABLE_SCHEMA, COUNT(*),
+                   SUM(CRC32(CONCAT_WS('|', TABLE_NAME, TABLE_TYPE, TABLE_COMMENT)))
+            FROM information_schema.TABLES
+            WHERE TABLE_SCHEMA NOT IN ('information_schema', 'performance_schema', 'mysql', 'sys')
+            GROUP BY TABLE_SCHEMA
+            ORDER BY TABLE_SCHEMA
+            """,
+            """
+            SELECT TABLE_SCHEMA, COUNT(*),
+                   SUM(CRC32(CONCAT_WS('|', TABLE_NAME, ORDINAL_POSITION, COLUMN_NAME, COLUMN_TYPE, IS_NULLABLE,
+                                       COALESCE(COLUMN_DEFAULT, '<null>'), COLUMN_KEY, EXTRA, COLUMN_COMMENT)))
+            FROM information_schema.COLUMNS
+            WHERE TABLE_SCHEMA NOT IN ('information_schema', 'performance_schema', 'mysql', 'sys')
+            GROUP BY TABLE_SCHEMA
+            ORDER BY TABLE_SCHEMA
+            """
+    );
+
+    // PostgreSQL: catalogs aggregated per schema on the server, as for MySQL, with a sum of per-row hashes
+    // (60 bits of MD5). Comments come from one join of pg_description rather than a lookup per object.
+    // Relations and defaults are identified by OID: a re-created one changes the fingerprint even when its
+    // definition is unchanged.
+    private static final List<String> POSTGRESQL_FINGERPRINT_SQL = List.of(
+            """
+            SELECT n.nspname
+            FROM pg_catalog.pg_namespace n
+            WHERE n.nspname <> 'information_schema' AND n.nspname NOT LIKE 'pg\\_%'
+            ORDER BY n.nspname
+            """,
+            """
+            SELECT n.nspname, count(*),
+                   sum(('x' || substr(md5(concat_ws(':', c.oid, c.relname, c.relkind, i.indexrelid,
+                                                    d.description)), 1, 15))::bit(60)::bigint)
+            FROM pg_catalog.pg_class c
+            JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace
+            LEFT JOIN pg_catalog.pg_index i ON i.indrelid = c.oid AND i.indisprimary
+            LEFT JOIN pg_catalog.pg_description d
+              ON d.objoid = c.oid AND d.classoid = 'pg_catalog.pg_class'::regclass AND d.objsubid = 0
+            WHERE c.relkind IN ('r', 'p', 'v', 'm', 'f')
+              AND n.nspname <> 'information_schema' AND n.nspname NOT LIKE 'pg\\_%'
+            GROUP BY n.nspname
+            ORDER BY n.nspname
+            """,
+            """
+            SELECT n.nspname, count(*),
+                   sum(('x' || substr(md5(concat_ws(':', a.attrelid, a.attnum, a.attname, a.atttypid, a.atttypmod,
+                                                    a.attnotnull, ad.oid, d.description)), 1, 15))::bit(60)::bigint)
+            FROM pg_catalog.pg_attribute a
+            JOIN pg_catalog.pg_class c ON c.oid = a.attrelid
+            JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace
+            LEFT JOIN pg_catalog.pg_attrdef ad ON ad.adrelid = a.attrelid AND ad.adnum = a.attnum
+            LEFT JOIN pg_catalog.pg_description d
+              ON d.objoid = a.attrelid AND d.classoid = 'pg_catalog.pg_class'::regclass AND d.objsubid = a.attnum
+            WHERE a.attnum > 0 AND NOT a.attisdropped
+              AND c.relkind IN ('r', 'p', 'v', 'm', 'f')
+              AND n.nspname <> 'information_schema' AND n.nspname NOT LIKE 'pg\\_%'
+            GROUP BY n.nspname
+            ORDER BY n.nspname
+            """
+    );
+
+    // H2: standard information_schema views, hashed row by row
+    private static final List<String> H2_FINGERPRINT_SQL = List.of(
+            """
+            SELECT SCHEMA_NAME
+            FROM INFORMATION_SCHEMA.SCHEMATA
+            WHERE SCHEMA_NAME <> 'INFORMATION_SCHEMA'
+            ORDER BY SCHEMA_NAME
+            """,
+            """
+            SELECT TABLE_SCHEMA, TABLE_NAME, TABLE_TYPE, REMARKS
+            FROM INFORMATION_SCHEMA.TABLES
+            WHERE TABLE_SCHEMA <> 'INFORMATION_SCHEMA'
+            ORDER BY TABLE_SCHEMA, TABLE_NAME
+            """,
+            """
+            SELECT TABLE_SCHEMA, TABLE_NAME, ORDINAL_POSITION, COLUMN_NAME, DATA_TYPE,
+                   CHARACTER_MAXIMUM_LENGTH, NUMERIC_PRECISION, NUMERIC_SCALE, IS_NULLABLE,
+                   COLUMN_DEFAULT, IS_IDENTITY, REMARKS
+            FROM INFORMATION_SCHEMA.COLUMNS
+            WHERE TABLE_SCHEMA <> 'INFORMATION_SCHEMA'
+            ORDER BY TABLE_SCHEMA, TABLE_NAME, ORDINAL_POSITION
+            """,
+            """
+            SELECT kcu.TABLE_SCHEMA, kcu.TABLE_NAME, kcu.COLUMN_NAME
+            FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS tc
+            JOIN INFORMATION_SCHEMA.KEY_COLUMN_USAGE kcu
+              ON kcu.CONSTRAINT_SCHEMA = tc.CONSTRAINT_SCHEMA
+             AND kcu.CONSTRAINT_NAME = tc.CONSTRAINT_NAME
+            WHERE tc.CONSTRAINT_TYPE = 'PRIMARY KEY'
+              AND tc.TABLE_SCHEMA <> 'INFORMATION_SCHEMA'
+            ORDER BY kcu.TABLE_SCHEMA, kcu.TABLE_NAME, kcu.COLUMN_NAME
+            """
+    );
+
+    private static final char FIELD_SEPARATOR = '\u001F';
+    private static final char ROW_SEPARATOR = '\u001E';
+    private static final char NULL_MARKER = '\u0000';
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    private final DatabaseService databaseService;
+    private final SchemaMetadataRepository schemaMetadataRepository;
+
+    public SchemaFingerprintService(
+            DatabaseService databaseService,
+            SchemaMetadataRepository schemaMetadataRepository
+    ) {
+        this.databaseService = databaseService;
+        this.schemaMetadataRepository = schemaMetadataRepository;
+    }
+
+    /**
+     * Compare the current fingerprint of the connection with the one stored by the last refresh.
+     * Reported as changed when there is no stored metadata or either fingerprint is unavailable.
+     */
+    public SchemaChangeCheck checkForChanges(Long connectionId) {
+        String currentFingerprint = readFingerprint(connectionId).orElse(null);
+
+        return schemaMetadataRepository.findByConnectionId(connectionId)
+                .map(entity -> new SchemaChangeCheck(
+                        connectionId,
+                        currentFingerprint == null || !Objects.equals(currentFingerprint, entity.getFingerprint()),
+                        entity.getFingerprint(),
+                        currentFingerprint,
+                        entity.getLastUpdatedAt()
+                ))
+                .orElseGet(() -> new SchemaChangeCheck(connectionId, true, null, currentFingerprint, null));
+    }
+
+    /**
+     * Read the current fingerprint of the connection; empty if the catalog cannot be read
+     */
+    public Optional<String> readFingerprint(Long connectionId) {
+        DatabaseConnection connection = databaseService.getConnection(connectionId);
+        try (Connection conn = databaseService.getDataSource(connectionId).getConnection()) {
+            return Optional.ofNullable(readFingerprint(conn, connection.dbType()));
+        } catch (SQLException e) {
+            logger.warn("Failed to connect for schema fingerprint of connection ID: {}: {}", connectionId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Read the current fingerprint on an open connection; null if the catalog cannot be read
+     */
+    public String readFingerprint(Connection conn, DatabaseType dbType) {
+        List<String> queries = switch (dbType) {
+            case MYSQL, MARIADB -> MYSQL_FINGERPRINT_SQL;
+            case POSTGRESQL -> POSTGRESQL_FINGERPRINT_SQL;
+            case H2 -> H2_FINGERPRINT_SQL;
+        };
+
+        long startTime = System.currentTimeMillis();
+        MessageDigest digest = newDigest();
+        StringBuilder row = new StringBuilder();
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : queries) {
+                try (ResultSet rs = stmt.executeQuery(sql)) {
+                    int columnCount = rs.getMetaData().getColumnCount();
+                    while (rs.next()) {
+                        row.setLength(0);
+                        for (int i = 1; i <= columnCount; i++) {
+                            String value = rs.getString(i);
+                            row.append(value != null ? value : String.valueOf(NULL_MARKER)).append(FIELD_SEPARATOR);
+                        }
+                        row.append(ROW_SEPARATOR);
+                        digest.update(row.toString().getBytes(StandardCharsets.UTF_8));
+                    }
+                }
+                // Keeps rows of one query from being read as rows of the next
+                digest.update((byte) ROW_SEPARATOR);
+            }
+        } catch (SQLException e) {
+            logger.warn("Failed to read schema fingerprint for {}: {}", dbType, e.getMessage());
+            return null;
+        }
+
+        String fingerprint = HexFormat.of().formatHex(digest.digest());
+        logger.debug("Read schema fingerprint {} in {}ms", fingerprint, System.currentTimeMillis() - startTime);
+        return fingerprint;
+    }
+
+    private MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
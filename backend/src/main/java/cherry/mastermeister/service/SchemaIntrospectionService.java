@@ -0,0 +1,474 @@
+/*
+ * Copyright 2025 agwlvssainokuni
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cherry.mastermeister.service;
+
+import cherry.mastermeister.enums.DatabaseType;
+import cherry.mastermeister.model.ColumnMetadata;
+import cherry.mastermeister.model.DatabaseConnection;
+import cherry.mastermeister.model.SchemaMetadata;
+import cherry.mastermeister.model.TableMetadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Reads schema metadata from the target database in bulk.
+ * Columns and primary keys are fetched once per schema (one catalog call and one key query)
+ * instead of once per table, and schemas are spread across several workers, each borrowing a pooled
+ * connection per schema. The workers run on their own executor and leave part of the pool to other queries.
+ * Schemas, tables and columns are returned in the same order as the per-table reads.
+ */
+@Service
+public class SchemaIntrospectionService {
+
+    private static final String[] TABLE_TYPES = {"TABLE", "VIEW"};
+
+    // MySQL, MariaDB and H2: standard information_schema views
+    private static final String STANDARD_PRIMARY_KEYS_SQL = """
+            SELECT kcu.TABLE_NAME, kcu.COLUMN_NAME
+            FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS tc
+            JOIN INFORMATION_SCHEMA.KEY_COLUMN_USAGE kcu
+              ON kcu.CONSTRAINT_SCHEMA = tc.CONSTRAINT_SCHEMA
+             AND kcu.CONSTRAINT_NAME = tc.CONSTRAINT_NAME
+             AND kcu.TABLE_SCHEMA = tc.TABLE_SCHEMA
+             AND kcu.TABLE_NAME = tc.TABLE_NAME
+            WHERE tc.CONSTRAINT_TYPE = 'PRIMARY KEY'
+              AND tc.TABLE_SCHEMA = ?
+            """;
+
+    // PostgreSQL: pg_catalog, since information_schema hides constraints of tables the user can only SELECT
+    private static final String POSTGRESQL_PRIMARY_KEYS_SQL = """
+            SELECT c.relname AS TABLE_NAME, a.attname AS COLUMN_NAME
+            FROM pg_catalog.pg_index i
+            JOIN pg_catalog.pg_class c ON c.oid = i.indrelid
+            JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace
+            JOIN pg_catalog.pg_attribute a ON a.attrelid = c.oid AND a.attnum = ANY (i.indkey)
+            WHERE i.indisprimary
+              AND n.nspname = ?
+            """;
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    private final DatabaseService databaseService;
+    private final SchemaFingerprintService schemaFingerprintService;
+    private final Executor executor;
+    private final int parallelism;
+    private final int poolHeadroom;
+
+    public SchemaIntrospectionService(
+            DatabaseService databaseService,
+            SchemaFingerprintService schemaFingerprintService,
+            @Qualifier("schemaIntrospectionExecutor") Executor executor,
+            @Value("${mm.app.schema.introspection.parallelism:4}") int parallelism,
+            @Value("${mm.app.schema.introspection.pool-headroom:2}") int poolHeadroom
+    ) {
+        this.databaseService = databaseService;
+        this.schemaFingerprintService = schemaFingerprintService;
+        this.executor = executor;
+        this.parallelism = parallelism;
+        this.poolHeadroom = poolHeadroom;
+    }
+
+    /**
+     * Read schemas, tables and columns of the connection
+     */
+    public SchemaMetadata readSchemaMetadata(Long connectionId) {
+        return readSchemaMetadata(connectionId, new SchemaRefreshProgress());
+    }
+
+    /**
+     * Read schemas, tables and columns of the connection, reporting progress per schema.
+     * Cancellation is checked before each schema is read.
+     * The fingerprint is read first, so a change made while reading shows up at the next check.
+     */
+    public SchemaMetadata readSchemaMetadata(Long connectionId, SchemaRefreshProgress progress) {
+        DatabaseConnection connection = databaseService.getConnection(connectionId);
+        QueryExecutor queryExecutor = databaseService.getQueryExecutor(connectionId);
+        DataSource dataSource = queryExecutor.getDataSource();
+
+        String fingerprint;
+        List<String> schemas;
+        try (Connection conn = dataSource.getConnection()) {
+            fingerprint = schemaFingerprintService.readFingerprint(conn, connection.dbType());
+            schemas = readSchemas(conn.getMetaData(), connection.dbType());
+        } catch (SQLException e) {
+            logger.error("Failed to read schemas for connection ID: {}", connectionId, e);
+            throw new RuntimeException("Schema reading failed", e);
+        }
+        progress.schemasFound(schemas.size());
+
+        // Leave headroom in the pool's current (possibly adaptively shrunk) maximum size for other queries
+        int poolLimit = queryExecutor.getMaximumPoolSize() - poolHeadroom;
+        int workers = Math.max(1, Math.min(Math.min(parallelism, schemas.size()), poolLimit));
+
+        List<TableMetadata> tables = readTablesInParallel(dataSource, connection, schemas, workers, progress);
+
+        return new SchemaMetadata(
+                connectionId,
+                connection.databaseName(),
+                schemas,
+                tables,
+                LocalDateTime.now(),
+                fingerprint
+        );
+    }
+
+    /**
+     * Read tables of all schemas; each worker takes the next unread schema and borrows a connection for it.
+     * A worker that cannot borrow a connection puts the schema back and stops, and schemas left over when
+     * the workers are done are read on the calling thread, so a busy pool only reduces the parallelism.
+     */
+    private List<TableMetadata> readTablesInParallel(
+            DataSource dataSource,
+            DatabaseConnection connection,
+            List<String> schemas,
+            int workers,
+            SchemaRefreshProgress progress
+    ) {
+        AtomicReferenceArray<List<TableMetadata>> results = new AtomicReferenceArray<>(schemas.size());
+        Queue<Integer> pending = new ConcurrentLinkedQueue<>();
+        for (int i = 0; i < schemas.size(); i++) {
+            pending.add(i);
+        }
+        AtomicBoolean failed = new AtomicBoolean();
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>(workers);
+        try {
+            for (int i = 0; i < workers; i++) {
+                futures.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        Integer index;
+                        while (!failed.get() && (index = pending.poll()) != null) {
+                            progress.checkCancelled();
+                            Connection conn = tryGetConnection(dataSource, connection.id());
+                            if (conn == null) {
+                                pending.add(index);
+                                return;
+                            }
+                            try (conn) {
+                                readSchema(conn, connection, schemas, index, results, progress);
+                            }
+                        }
+                    } catch (SQLException e) {
+                        failed.set(true);
+                        throw new CompletionException(e);
+                    } catch (RuntimeException e) {
+                        failed.set(true);
+                        throw e;
+                    }
+                }, executor));
+            }
+        } catch (RejectedExecutionException e) {
+            logger.debug("Introspection executor is busy, reading with {} workers", futures.size());
+        }
+
+        Integer index = null;
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+            while ((index = pending.poll()) != null) {
+                progress.checkCancelled();
+                try (Connection conn = dataSource.getConnection()) {
+                    readSchema(conn, connection, schemas, index, results, progress);
+                }
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof CancellationException cancellation) {
+                throw cancellation;
+            }
+            logger.error("Failed to read schema metadata for connection ID: {}", connection.id(), e.getCause());
+            throw new RuntimeException("Schema reading failed", e.getCause());
+        } catch (SQLException e) {
+            logger.error("Failed to read schema {} for connection ID: {}", schemas.get(index), connection.id(), e);
+            throw new RuntimeException("Schema reading failed", e);
+        }
+
+        List<TableMetadata> tables = new ArrayList<>();
+        for (int i = 0; i < schemas.size(); i++) {
+            tables.addAll(results.get(i));
+        }
+        logger.debug("Read {} tables of {} schemas with {} workers", tables.size(), schemas.size(), futures.size());
+        return tables;
+    }
+
+    /**
+     * Read tables of one schema and store them at the position of the schema
+     */
+    private void readSchema(
+            Connection conn,
+            DatabaseConnection connection,
+            List<String> schemas,
+            int index,
+            AtomicReferenceArray<List<TableMetadata>> results,
+            SchemaRefreshProgress progress
+    ) throws SQLException {
+        List<TableMetadata> tables = readTables(conn, conn.getMetaData(), connection, schemas.get(index));
+        results.set(index, tables);
+        progress.schemaRead(tables.size());
+    }
+
+    /**
+     * Borrow a connection for a worker, or return null if the pool has none to spare within its timeout
+     */
+    private Connection tryGetConnection(DataSource dataSource, Long connectionId) {
+        try {
+            return dataSource.getConnection();
+        } catch (SQLException e) {
+            logger.debug("Introspection worker for connection ID {} got no connection: {}", connectionId, e.getMessage());
+            return null;
+        }
+    }
+
+    private List<String> readSchemas(
+            DatabaseMetaData metaData,
+            DatabaseType dbType
+    ) throws SQLException {
+        List<String> schemas = new ArrayList<>();
+
+        switch (dbType) {
+            case MYSQL, MARIADB -> {
+                // MySQL/MariaDB: schemas are databases
+                try (ResultSet rs = metaData.getCatalogs()) {
+                    while (rs.next()) {
+                        String schema = rs.getString("TABLE_CAT");
+                        if (!isSystemSchema(schema, dbType)) {
+                            schemas.add(schema);
+                        }
+                    }
+                }
+            }
+            case POSTGRESQL -> {
+                // PostgreSQL: use schemas within database
+                try (ResultSet rs = metaData.getSchemas()) {
+                    while (rs.next()) {
+                        String schema = rs.getString("TABLE_SCHEM");
+                        if (!isSystemSchema(schema, dbType)) {
+                            schemas.add(schema);
+                        }
+                    }
+                }
+            }
+            case H2 -> {
+                // H2: use schemas
+                try (ResultSet rs = metaData.getSchemas()) {
+                    while (rs.next()) {
+                        String schema = rs.getString("TABLE_SCHEM");
+                        if (!isSystemSchema(schema, dbType)) {
+                            schemas.add(schema);
+                        }
+                    }
+                }
+            }
+        }
+
+        return schemas;
+    }
+
+    /**
+     * Read tables of one schema with their columns
+     */
+    private List<TableMetadata> readTables(
+            Connection conn,
+            DatabaseMetaData metaData,
+            DatabaseConnection connection,
+            String schema
+    ) throws SQLException {
+        DatabaseType dbType = connection.dbType();
+        String catalog = getCatalogForSchema(dbType, schema, connection.databaseName());
+        String schemaParam = getSchemaParam(dbType, schema);
+
+        // Table name, type and comment in catalog order
+        List<String[]> tableRows = new ArrayList<>();
+        try (ResultSet rs = metaData.getTables(catalog, schemaParam, null, TABLE_TYPES)) {
+            while (rs.next()) {
+                tableRows.add(new String[]{
+                        rs.getString("TABLE_NAME"), rs.getString("TABLE_TYPE"), rs.getString("REMARKS")
+                });
+            }
+        }
+        if (tableRows.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, Set<String>> primaryKeys = readPrimaryKeys(conn, metaData, dbType, catalog, schemaParam, schema,
+                tableRows.stream().map(row -> row[0]).toList());
+        Map<String, List<ColumnMetadata>> columns = readColumns(metaData, dbType, catalog, schemaParam, schema,
+                primaryKeys);
+
+        List<TableMetadata> tables = new ArrayList<>(tableRows.size());
+        for (String[] row : tableRows) {
+            List<ColumnMetadata> tableColumns = columns.getOrDefault(row[0], List.of()).stream()
+                    .sorted(Comparator.comparing(ColumnMetadata::ordinalPosition))
+                    .toList();
+            tables.add(new TableMetadata(schema, row[0], row[1], row[2], tableColumns));
+        }
+        return tables;
+    }
+
+    /**
+     * Read columns of all tables of the schema in one catalog call, grouped by table name
+     */
+    private Map<String, List<ColumnMetadata>> readColumns(
+            DatabaseMetaData metaData,
+            DatabaseType dbType,
+            String catalog,
+            String schemaParam,
+            String schema,
+            Map<String, Set<String>> primaryKeys
+    ) throws SQLException {
+        Map<String, List<ColumnMetadata>> columns = new HashMap<>();
+
+        try (ResultSet rs = metaData.getColumns(catalog, schemaParam, null, null)) {
+            while (rs.next()) {
+                // Schema arguments are patterns: keep only the exact schema
+                String owner = switch (dbType) {
+                    case MYSQL, MARIADB -> rs.getString("TABLE_CAT");
+                    case POSTGRESQL, H2 -> rs.getString("TABLE_SCHEM");
+                };
+                if (!schema.equals(owner)) {
+                    continue;
+                }
+
+                String tableName = rs.getString("TABLE_NAME");
+                String columnName = rs.getString("COLUMN_NAME");
+                String dataType = rs.getString("TYPE_NAME");
+                Integer columnSize = rs.getInt("COLUMN_SIZE");
+                if (rs.wasNull()) columnSize = null;
+
+                Integer decimalDigits = rs.getInt("DECIMAL_DIGITS");
+                if (rs.wasNull()) decimalDigits = null;
+
+                boolean nullable = rs.getInt("NULLABLE") == DatabaseMetaData.columnNullable;
+                String defaultValue = rs.getString("COLUMN_DEF");
+                String comment = rs.getString("REMARKS");
+                boolean isPrimaryKey = primaryKeys.getOrDefault(tableName, Set.of()).contains(columnName);
+                boolean autoIncrement = "YES".equalsIgnoreCase(rs.getString("IS_AUTOINCREMENT"));
+                int ordinalPosition = rs.getInt("ORDINAL_POSITION");
+
+                columns.computeIfAbsent(tableName, k -> new ArrayList<>()).add(new ColumnMetadata(
+                        columnName, dataType, columnSize, decimalDigits, nullable,
+                        defaultValue, comment, isPrimaryKey, autoIncrement, ordinalPosition
+                ));
+            }
+        }
+
+        return columns;
+    }
+
+    /**
+     * Read primary key columns of all tables of the schema in one query.
+     * Falls back to per-table catalog calls if the query is not permitted.
+     */
+    private Map<String, Set<String>> readPrimaryKeys(
+            Connection conn,
+            DatabaseMetaData metaData,
+            DatabaseType dbType,
+            String catalog,
+            String schemaParam,
+            String schema,
+            List<String> tableNames
+    ) throws SQLException {
+        Map<String, Set<String>> primaryKeys = new HashMap<>();
+        String sql = switch (dbType) {
+            case MYSQL, MARIADB, H2 -> STANDARD_PRIMARY_KEYS_SQL;
+            case POSTGRESQL -> POSTGRESQL_PRIMARY_KEYS_SQL;
+        };
+
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, schema);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    primaryKeys.computeIfAbsent(rs.getString("TABLE_NAME"), k -> new HashSet<>())
+                            .add(rs.getString("COLUMN_NAME"));
+                }
+            }
+            return primaryKeys;
+        } catch (SQLException e) {
+            logger.warn("Bulk primary key query failed for schema {}, reading per table: {}", schema, e.getMessage());
+        }
+
+        primaryKeys.clear();
+        for (String tableName : tableNames) {
+            try (ResultSet rs = metaData.getPrimaryKeys(catalog, schemaParam, tableName)) {
+                while (rs.next()) {
+                    primaryKeys.computeIfAbsent(tableName, k -> new HashSet<>())
+                            .add(rs.getString("COLUMN_NAME"));
+                }
+            }
+        }
+        return primaryKeys;
+    }
+
+    private boolean isSystemSchema(
+            String schema,
+            DatabaseType dbType
+    ) {
+        if (schema == null) return true;
+
+        return switch (dbType) {
+            case MYSQL, MARIADB -> Set.of(
+                    "information_schema", "performance_schema", "mysql", "sys"
+            ).contains(schema.toLowerCase());
+
+            case POSTGRESQL -> Set.of(
+                    "information_schema", "pg_catalog", "pg_toast"
+            ).contains(schema.toLowerCase()) || schema.toLowerCase().startsWith("pg_");
+
+            case H2 -> Set.of(
+                    "INFORMATION_SCHEMA"
+            ).contains(schema.toUpperCase());
+        };
+    }
+
+    private String getCatalogForSchema(
+            DatabaseType dbType,
+            String schema,
+            String databaseName
+    ) {
+        return switch (dbType) {
+            case MYSQL, MARIADB -> schema; // schema IS catalog in MySQL/MariaDB
+            case POSTGRESQL, H2 -> databaseName; // use database name as catalog
+        };
+    }
+
+    private String getSchemaParam(
+            DatabaseType dbType,
+            String schema
+    ) {
+        return switch (dbType) {
+            case MYSQL, MARIADB -> null; // don't use schema parameter for MySQL/MariaDB
+            case POSTGRESQL, H2 -> schema; // use schema parameter
+        };
+    }
+}
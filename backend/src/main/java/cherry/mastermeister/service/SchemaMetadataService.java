@@ -20,7 +20,9 @@ import cherry.mastermeister.entity.ColumnMetadataEntity;
 import cherry.mastermeister.entity.SchemaMetadataEntity;
 import cherry.mastermeister.entity.TableMetadataEntity;
 import cherry.mastermeister.model.ColumnMetadata;
+import cherry.mastermeister.model.SchemaDiff;
 import cherry.mastermeister.model.SchemaMetadata;
+import cherry.mastermeister.model.SchemaRefreshResult;
 import cherry.mastermeister.model.TableMetadata;
 import cherry.mastermeister.repository.SchemaMetadataRepository;
 import org.slf4j.Logger;
@@ -28,48 +30,77 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 public class SchemaMetadataService {
 
     private final Logger logger = LoggerFactory.getLogger(getClass());
     private final SchemaMetadataRepository schemaMetadataRepository;
+    private final PermissionEpochService permissionEpochService;
+    private final SchemaCatalogService schemaCatalogService;
 
     public SchemaMetadataService(
-            SchemaMetadataRepository schemaMetadataRepository
+            SchemaMetadataRepository schemaMetadataRepository,
+            PermissionEpochService permissionEpochService,
+            SchemaCatalogService schemaCatalogService
     ) {
         this.schemaMetadataRepository = schemaMetadataRepository;
+        this.permissionEpochService = permissionEpochService;
+        this.schemaCatalogService = schemaCatalogService;
     }
 
+    /**
+     * Save schema metadata read from the database.
+     * Stored metadata is compared by (schema, table, column) and only the differences are written.
+     */
     @Transactional
-    public SchemaMetadata saveSchemaMetadata(SchemaMetadata metadata) {
+    public SchemaRefreshResult saveSchemaMetadata(SchemaMetadata metadata) {
         logger.info("Saving schema metadata for connection ID: {}", metadata.connectionId());
 
-        // Delete existing metadata for this connection by getting entity first
         Optional<SchemaMetadataEntity> existingEntity = schemaMetadataRepository.findByConnectionId(metadata.connectionId());
+        SchemaMetadataEntity saved;
+        SchemaDiff diff;
         if (existingEntity.isPresent()) {
-            logger.debug("Deleting existing schema metadata entity with ID: {}", existingEntity.get().getId());
-            schemaMetadataRepository.delete(existingEntity.get());
+            logger.debug("Updating existing schema metadata entity with ID: {}", existingEntity.get().getId());
+            saved = existingEntity.get();
+            diff = applyDiff(saved, metadata);
+        } else {
+            saved = schemaMetadataRepository.save(toEntity(metadata));
+            diff = new SchemaDiff(metadata.tables().size(), 0, 0,
+                    metadata.tables().stream().mapToInt(table -> table.columns().size()).sum(), 0, 0);
         }
 
-        // Create new entity
-        SchemaMetadataEntity entity = toEntity(metadata);
-        SchemaMetadataEntity saved = schemaMetadataRepository.save(entity);
+        // Cached permission matrices hold the column lists of the tables
+        if (!diff.isEmpty()) {
+            permissionEpochService.invalidateConnection(metadata.connectionId());
+        }
+
+        // The in-memory catalog is replaced by a snapshot of the saved graph after commit
+        SchemaMetadata savedMetadata = toModel(saved);
+        schemaCatalogService.replace(savedMetadata);
 
-        logger.info("Saved schema metadata with ID: {} for connection ID: {}",
-                saved.getId(), metadata.connectionId());
+        logger.info("Saved schema metadata with ID: {} for connection ID: {} ({})",
+                saved.getId(), metadata.connectionId(), diff);
 
-        return toModel(saved);
+        return new SchemaRefreshResult(savedMetadata, diff);
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Get schema metadata from the in-memory catalog
+     */
     public Optional<SchemaMetadata> getSchemaMetadata(Long connectionId) {
         logger.debug("Retrieving schema metadata for connection ID: {}", connectionId);
 
-        return schemaMetadataRepository.findByConnectionId(connectionId)
-                .map(this::toModel);
+        return schemaCatalogService.findCatalog(connectionId)
+                .map(SchemaCatalog::getMetadata);
     }
 
     @Transactional
@@ -80,6 +111,8 @@ public class SchemaMetadataService {
         if (existingEntity.isPresent()) {
             logger.debug("Deleting schema metadata entity with ID: {}", existingEntity.get().getId());
             schemaMetadataRepository.delete(existingEntity.get());
+            permissionEpochService.invalidateConnection(connectionId);
+            schemaCatalogService.invalidate(connectionId);
         } else {
             logger.debug("No schema metadata found to delete for connection ID: {}", connectionId);
         }
@@ -100,57 +133,122 @@ public class SchemaMetadataService {
     }
 
     /**
-     * Get all tables for a specific connection
+     * Get all tables for a specific connection from the in-memory catalog
      */
-    @Transactional(readOnly = true)
     public List<TableMetadata> getTablesForConnection(Long connectionId) {
         logger.debug("Retrieving tables for connection: {}", connectionId);
 
-        Optional<SchemaMetadataEntity> schemaEntity = schemaMetadataRepository.findByConnectionId(connectionId);
-        if (schemaEntity.isEmpty()) {
+        Optional<SchemaCatalog> catalog = schemaCatalogService.findCatalog(connectionId);
+        if (catalog.isEmpty()) {
             logger.warn("No schema metadata found for connection: {}", connectionId);
             return List.of();
         }
 
-        return schemaEntity.get().getTables().stream()
-                .map(this::toModel)
-                .toList();
+        return catalog.get().getMetadata().tables();
     }
 
     /**
-     * Get specific table metadata
+     * Get specific table metadata from the in-memory catalog
      */
-    @Transactional(readOnly = true)
     public TableMetadata getTableMetadata(Long connectionId, String schemaName, String tableName) {
         logger.debug("Getting table metadata for {}.{} on connection: {}", schemaName, tableName, connectionId);
 
-        Optional<SchemaMetadataEntity> schemaEntity = schemaMetadataRepository.findByConnectionId(connectionId);
-        if (schemaEntity.isEmpty()) {
-            throw new IllegalArgumentException("No schema metadata found for connection: " + connectionId);
-        }
+        SchemaCatalog catalog = schemaCatalogService.findCatalog(connectionId)
+                .orElseThrow(() -> new IllegalArgumentException("No schema metadata found for connection: " + connectionId));
 
-        return schemaEntity.get().getTables().stream()
-                .filter(table -> {
-                    boolean schemaMatches = (schemaName == null && table.getSchema() == null) ||
-                            (schemaName != null && schemaName.equals(table.getSchema()));
-                    return schemaMatches && tableName.equals(table.getTableName());
-                })
-                .findFirst()
-                .map(this::toModel)
+        return catalog.findTable(schemaName, tableName)
+                .map(SchemaCatalog.Table::metadata)
                 .orElseThrow(() -> new IllegalArgumentException(
                         String.format("Table %s.%s not found in connection %d", schemaName, tableName, connectionId)));
     }
 
+    /**
+     * Apply freshly read metadata to the stored entity graph.
+     * Unchanged rows are left alone; removed tables and columns are deleted by orphan removal.
+     */
+    private SchemaDiff applyDiff(SchemaMetadataEntity entity, SchemaMetadata metadata) {
+        DiffCounter counter = new DiffCounter();
+
+        entity.setDatabaseName(metadata.databaseName());
+        entity.setLastUpdatedAt(metadata.lastUpdatedAt());
+        entity.setFingerprint(metadata.fingerprint());
+        // Bags compare by identity; an element collection is rewritten only when it changed
+        if (!new ArrayList<>(entity.getSchemas()).equals(metadata.schemas())) {
+            entity.getSchemas().clear();
+            entity.getSchemas().addAll(metadata.schemas());
+        }
+
+        Map<TableKey, TableMetadataEntity> existingTables = new HashMap<>();
+        for (TableMetadataEntity tableEntity : entity.getTables()) {
+            existingTables.put(new TableKey(tableEntity.getSchema(), tableEntity.getTableName()), tableEntity);
+        }
+
+        List<TableMetadataEntity> tables = new ArrayList<>(metadata.tables().size());
+        for (TableMetadata table : metadata.tables()) {
+            TableMetadataEntity tableEntity = existingTables.remove(new TableKey(table.schema(), table.tableName()));
+            if (tableEntity == null) {
+                tableEntity = toEntity(table, entity);
+                counter.tablesInserted++;
+                counter.columnsInserted += table.columns().size();
+            } else {
+                if (!Objects.equals(tableEntity.getTableType(), table.tableType())
+                        || !Objects.equals(tableEntity.getComment(), table.comment())) {
+                    tableEntity.setTableType(table.tableType());
+                    tableEntity.setComment(table.comment());
+                    counter.tablesUpdated++;
+                }
+                applyColumnDiff(tableEntity, table.columns(), counter);
+            }
+            tables.add(tableEntity);
+        }
+        for (TableMetadataEntity removed : existingTables.values()) {
+            counter.tablesDeleted++;
+            counter.columnsDeleted += removed.getColumns().size();
+        }
+
+        // Same collection instance, so that orphan removal deletes the tables no longer present
+        entity.getTables().clear();
+        entity.getTables().addAll(tables);
+
+        return counter.toDiff();
+    }
+
+    private void applyColumnDiff(TableMetadataEntity tableEntity, List<ColumnMetadata> columns, DiffCounter counter) {
+        Map<String, ColumnMetadataEntity> existingColumns = new HashMap<>();
+        for (ColumnMetadataEntity columnEntity : tableEntity.getColumns()) {
+            existingColumns.put(columnEntity.getColumnName(), columnEntity);
+        }
+
+        List<ColumnMetadataEntity> result = new ArrayList<>(columns.size());
+        for (ColumnMetadata column : columns) {
+            ColumnMetadataEntity columnEntity = existingColumns.remove(column.columnName());
+            if (columnEntity == null) {
+                columnEntity = toEntity(column, tableEntity);
+                counter.columnsInserted++;
+            } else if (!column.equals(toModel(columnEntity))) {
+                copyColumn(column, columnEntity);
+                counter.columnsUpdated++;
+            }
+            result.add(columnEntity);
+        }
+        counter.columnsDeleted += existingColumns.size();
+
+        tableEntity.getColumns().clear();
+        tableEntity.getColumns().addAll(result);
+    }
+
     private SchemaMetadataEntity toEntity(SchemaMetadata model) {
         SchemaMetadataEntity entity = new SchemaMetadataEntity();
         entity.setConnectionId(model.connectionId());
         entity.setDatabaseName(model.databaseName());
-        entity.setSchemas(model.schemas());
+        entity.setSchemas(new ArrayList<>(model.schemas()));
         entity.setLastUpdatedAt(model.lastUpdatedAt());
+        entity.setFingerprint(model.fingerprint());
 
+        // Mutable: later refreshes update the graph in place
         List<TableMetadataEntity> tableEntities = model.tables().stream()
                 .map(table -> toEntity(table, entity))
-                .toList();
+                .collect(Collectors.toCollection(ArrayList::new));
         entity.setTables(tableEntities);
 
         return entity;
@@ -166,7 +264,7 @@ public class SchemaMetadataService {
 
         List<ColumnMetadataEntity> columnEntities = model.columns().stream()
                 .map(column -> toEntity(column, entity))
-                .toList();
+                .collect(Collectors.toCollection(ArrayList::new));
         entity.setColumns(columnEntities);
 
         return entity;
@@ -174,6 +272,13 @@ public class SchemaMetadataService {
 
     private ColumnMetadataEntity toEntity(ColumnMetadata model, TableMetadataEntity tableEntity) {
         ColumnMetadataEntity entity = new ColumnMetadataEntity();
+        copyColumn(model, entity);
+        entity.setTableMetadata(tableEntity);
+
+        return entity;
+    }
+
+    private void copyColumn(ColumnMetadata model, ColumnMetadataEntity entity) {
         entity.setColumnName(model.columnName());
         entity.setDataType(model.dataType());
         entity.setColumnSize(model.columnSize());
@@ -184,13 +289,13 @@ public class SchemaMetadataService {
         entity.setPrimaryKey(model.primaryKey());
         entity.setAutoIncrement(model.autoIncrement());
         entity.setOrdinalPosition(model.ordinalPosition());
-        entity.setTableMetadata(tableEntity);
-
-        return entity;
     }
 
     private SchemaMetadata toModel(SchemaMetadataEntity entity) {
+        // Tables added by a diff are appended to the loaded collection; keep the order of a reload (@OrderBy)
         List<TableMetadata> tables = entity.getTables().stream()
+                .sorted(Comparator.comparing(TableMetadataEntity::getSchema)
+                        .thenComparing(TableMetadataEntity::getTableName))
                 .map(this::toModel)
                 .toList();
 
@@ -199,7 +304,8 @@ public class SchemaMetadataService {
                 entity.getDatabaseName(),
                 entity.getSchemas(),
                 tables,
-                entity.getLastUpdatedAt()
+                entity.getLastUpdatedAt(),
+                entity.getFingerprint()
         );
     }
 
@@ -231,4 +337,22 @@ public class SchemaMetadataService {
                 entity.getOrdinalPosition()
         );
     }
+
+    private record TableKey(String schema, String tableName) {
+    }
+
+    private static class DiffCounter {
+
+        int tablesInserted;
+        int tablesUpdated;
+        int tablesDeleted;
+        int columnsInserted;
+        int columnsUpdated;
+        int columnsDeleted;
+
+        SchemaDiff toDiff() {
+            return new SchemaDiff(tablesInserted, tablesUpdated, tablesDeleted,
+                    columnsInserted, columnsUpdated, columnsDeleted);
+        }
+    }
 }
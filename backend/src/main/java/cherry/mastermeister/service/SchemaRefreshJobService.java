@@ -0,0 +1,256 @@
+/*
+ * Copyright 2025 agwlvssainokuni
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cherry.mastermeister.service;
+
+import cherry.mastermeister.enums.SchemaRefreshStatus;
+import cherry.mastermeister.exception.TooManyRequestsException;
+import cherry.mastermeister.model.SchemaRefreshJob;
+import cherry.mastermeister.model.SchemaUpdateLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * Runs schema refreshes as background jobs.
+ * At most one job runs per connection across all nodes; starting a refresh while one is pending or running
+ * returns that job. The job claims the connection with its RUNNING schema update log entry and renews the
+ * claim's heartbeat while it runs, so claims left by a stopped node are released after a timeout.
+ * The heartbeat also records the job's progress and picks up cancellations requested on other nodes.
+ * Jobs are tracked in memory while running and for a retention period afterwards;
+ * older jobs and jobs of other nodes are reported from their schema update log entry.
+ */
+@Service
+public class SchemaRefreshJobService {
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    private final SchemaUpdateService schemaUpdateService;
+    private final DatabaseService databaseService;
+    private final CacheChangeLogService cacheChangeLogService;
+    private final Executor executor;
+    private final Duration jobRetention;
+    private final Duration staleTimeout;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final Map<Long, Job> activeJobs = new ConcurrentHashMap<>();
+
+    public SchemaRefreshJobService(
+            SchemaUpdateService schemaUpdateService,
+            DatabaseService databaseService,
+            CacheChangeLogService cacheChangeLogService,
+            @Qualifier("schemaRefreshExecutor") Executor executor,
+            @Value("${mm.app.schema.refresh.job-retention:1h}") Duration jobRetention,
+            @Value("${mm.app.schema.refresh.stale-timeout:5m}") Duration staleTimeout
+    ) {
+        this.schemaUpdateService = schemaUpdateService;
+        this.databaseService = databaseService;
+        this.cacheChangeLogService = cacheChangeLogService;
+        this.executor = executor;
+        this.jobRetention = jobRetention;
+        this.staleTimeout = staleTimeout;
+    }
+
+    /**
+     * Start a refresh job for the connection, or return the job already pending or running for it
+     */
+    public SchemaRefreshJob startRefresh(Long connectionId, String userEmail) {
+        // Fails for unknown connections before a job is created
+        databaseService.getConnection(connectionId);
+        purgeFinishedJobs();
+
+        Job job = new Job(UUID.randomUUID().toString(), connectionId, userEmail);
+        Job existing = activeJobs.putIfAbsent(connectionId, job);
+        if (existing != null) {
+            logger.info("Schema refresh job {} already active for connection ID: {}", existing.jobId, connectionId);
+            return existing.toModel();
+        }
+
+        // Another node may be refreshing the connection
+        Optional<SchemaUpdateLog> running;
+        try {
+            running = schemaUpdateService.claimRefresh(
+                    connectionId, userEmail, job.jobId, cacheChangeLogService.getNodeId(), staleThreshold());
+        } catch (RuntimeException e) {
+            activeJobs.remove(connectionId, job);
+            throw e;
+        }
+        if (running.isPresent()) {
+            activeJobs.remove(connectionId, job);
+            logger.info("Schema refresh job {} already running for connection ID: {}", running.get().jobId(), connectionId);
+            return toModel(running.get());
+        }
+
+        jobs.put(job.jobId, job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.jobId);
+            activeJobs.remove(connectionId, job);
+            schemaUpdateService.releaseClaim(job.jobId);
+            throw new TooManyRequestsException("Too many schema refresh jobs", 10);
+        }
+
+        logger.info("Started schema refresh job {} for connection ID: {} by user: {}", job.jobId, connectionId, userEmail);
+        return job.toModel();
+    }
+
+    /**
+     * Get the state of a refresh job of the connection
+     */
+    public SchemaRefreshJob getJob(Long connectionId, String jobId) {
+        Job job = jobs.get(jobId);
+        if (job != null && job.connectionId.equals(connectionId)) {
+            return job.toModel();
+        }
+        return schemaUpdateService.getOperationByJobId(jobId)
+                .filter(log -> log.connectionId().equals(connectionId))
+                .map(this::toModel)
+                .orElseThrow(() -> new IllegalArgumentException("Schema refresh job not found: " + jobId));
+    }
+
+    /**
+     * Request cancellation; the job stops before reading the next schema, or before saving.
+     * A job of another node is cancelled through its schema update log entry and stops on its next heartbeat.
+     */
+    public SchemaRefreshJob cancelJob(Long connectionId, String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            if (schemaUpdateService.requestCancel(connectionId, jobId)) {
+                logger.info("Requested cancellation of schema refresh job {} for connection ID: {}", jobId, connectionId);
+            }
+            return getJob(connectionId, jobId);
+        }
+        if (!job.connectionId.equals(connectionId)) {
+            throw new IllegalArgumentException("Schema refresh job not found: " + jobId);
+        }
+        if (!job.status.isFinished()) {
+            logger.info("Cancelling schema refresh job {} for connection ID: {}", jobId, connectionId);
+            job.progress.cancel();
+        }
+        return job.toModel();
+    }
+
+    /**
+     * Renew the claims of the jobs of this node with their progress, stop jobs cancelled on other nodes
+     * or whose claim was lost, and release claims whose node stopped renewing them
+     */
+    @Scheduled(fixedDelayString = "${mm.app.schema.refresh.heartbeat-interval-ms:30000}")
+    public void renewClaims() {
+        Map<String, SchemaRefreshProgress> running = activeJobs.values().stream()
+                .collect(Collectors.toMap(job -> job.jobId, job -> job.progress));
+        Set<String> stopping = schemaUpdateService.renewClaims(running);
+        activeJobs.values().stream()
+                .filter(job -> stopping.contains(job.jobId))
+                .forEach(job -> {
+                    logger.info("Stopping schema refresh job {} for connection ID: {}", job.jobId, job.connectionId);
+                    job.progress.cancel();
+                });
+        schemaUpdateService.releaseStaleClaims(staleThreshold());
+    }
+
+    private LocalDateTime staleThreshold() {
+        return LocalDateTime.now().minus(staleTimeout);
+    }
+
+    private void run(Job job) {
+        job.status = SchemaRefreshStatus.RUNNING;
+        try {
+            schemaUpdateService.refreshSchema(job.connectionId, job.userEmail, job.jobId, job.progress);
+            job.finish(SchemaRefreshStatus.COMPLETED, null);
+        } catch (CancellationException e) {
+            job.finish(SchemaRefreshStatus.CANCELLED, e.getMessage());
+        } catch (RuntimeException e) {
+            job.finish(SchemaRefreshStatus.FAILED, e.getMessage());
+        } finally {
+            activeJobs.remove(job.connectionId, job);
+        }
+        logger.info("Schema refresh job {} for connection ID: {} finished: {}", job.jobId, job.connectionId, job.status);
+    }
+
+    private void purgeFinishedJobs() {
+        LocalDateTime threshold = LocalDateTime.now().minus(jobRetention);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(threshold));
+    }
+
+    private SchemaRefreshJob toModel(SchemaUpdateLog log) {
+        return new SchemaRefreshJob(
+                log.jobId(),
+                log.connectionId(),
+                log.userEmail(),
+                log.status(),
+                log.schemasTotal(),
+                log.schemasDone(),
+                log.tablesDone(),
+                log.errorMessage(),
+                log.createdAt(),
+                log.status() != null && log.status().isFinished() && log.executionTimeMs() != null
+                        ? log.createdAt().plus(Duration.ofMillis(log.executionTimeMs())) : null
+        );
+    }
+
+    private static class Job {
+
+        final String jobId;
+        final Long connectionId;
+        final String userEmail;
+        final LocalDateTime createdAt = LocalDateTime.now();
+        final SchemaRefreshProgress progress = new SchemaRefreshProgress();
+        volatile SchemaRefreshStatus status = SchemaRefreshStatus.PENDING;
+        volatile String errorMessage;
+        volatile LocalDateTime finishedAt;
+
+        Job(String jobId, Long connectionId, String userEmail) {
+            this.jobId = jobId;
+            this.connectionId = connectionId;
+            this.userEmail = userEmail;
+        }
+
+        void finish(SchemaRefreshStatus status, String errorMessage) {
+            this.errorMessage = errorMessage;
+            this.finishedAt = LocalDateTime.now();
+            this.status = status;
+        }
+
+        SchemaRefreshJob toModel() {
+            return new SchemaRefreshJob(
+                    jobId,
+                    connectionId,
+                    userEmail,
+                    status,
+                    progress.getSchemasTotal(),
+                    progress.getSchemasDone(),
+                    progress.getTablesDone(),
+                    errorMessage,
+                    createdAt,
+                    finishedAt
+            );
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2025 agwlvssainokuni
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cherry.mastermeister.service;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Progress and cancellation flag of a schema refresh, shared between the job and the introspection workers
+ */
+public class SchemaRefreshProgress {
+
+    private final AtomicInteger schemasTotal = new AtomicInteger();
+    private final AtomicInteger schemasDone = new AtomicInteger();
+    private final AtomicInteger tablesDone = new AtomicInteger();
+    private volatile boolean cancelled;
+
+    void schemasFound(int count) {
+        schemasTotal.set(count);
+    }
+
+    void schemaRead(int tables) {
+        schemasDone.incrementAndGet();
+        tablesDone.addAndGet(tables);
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Stop the refresh at the next checkpoint if it has been cancelled
+     */
+    void checkCancelled() {
+        if (cancelled) {
+            throw new CancellationException("Schema refresh cancelled");
+        }
+    }
+
+    public int getSchemasTotal() {
+        return schemasTotal.get();
+    }
+
+    public int getSchemasDone() {
+        return schemasDone.get();
+    }
+
+    public int getTablesDone() {
+        return tablesDone.get();
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2025 agwlvssainokuni
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cherry.mastermeister.service;
+
+import cherry.mastermeister.model.DatabaseConnection;
+import cherry.mastermeister.model.SchemaChangeCheck;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Scheduled schema refresh.
+ * Compares the fingerprint of each active connection with the stored one, and starts a refresh job
+ * only for connections whose catalog changed. Connections whose schema has never been read are skipped.
+ * The scheduler runs on every node; refreshes go through the per-connection claim in the schema update log,
+ * so a connection is refreshed by one node at a time and connections being refreshed elsewhere are skipped.
+ */
+@Service
+@ConditionalOnProperty(name = "mm.app.schema.refresh.schedule.enabled", havingValue = "true")
+public class SchemaRefreshScheduler {
+
+    private static final String SCHEDULER_USER = "system";
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    private final DatabaseService databaseService;
+    private final SchemaFingerprintService schemaFingerprintService;
+    private final SchemaRefreshJobService schemaRefreshJobService;
+    private final SchemaUpdateService schemaUpdateService;
+
+    public SchemaRefreshScheduler(
+            DatabaseService databaseService,
+            SchemaFingerprintService schemaFingerprintService,
+            SchemaRefreshJobService schemaRefreshJobService,
+            SchemaUpdateService schemaUpdateService
+    ) {
+        this.databaseService = databaseService;
+        this.schemaFingerprintService = schemaFingerprintService;
+        this.schemaRefreshJobService = schemaRefreshJobService;
+        this.schemaUpdateService = schemaUpdateService;
+    }
+
+    @Scheduled(
+            initialDelayString = "${mm.app.schema.refresh.schedule.interval-ms:3600000}",
+            fixedDelayString = "${mm.app.schema.refresh.schedule.interval-ms:3600000}"
+    )
+    public void refreshChangedSchemas() {
+        int started = 0;
+        for (DatabaseConnection connection : databaseService.getAllConnections()) {
+            if (!connection.active()) {
+                continue;
+            }
+            try {
+                // Being refreshed here or on another node; its fingerprint is saved when it ends
+                if (schemaUpdateService.isRefreshRunning(connection.id())) {
+                    continue;
+                }
+                SchemaChangeCheck check = schemaFingerprintService.checkForChanges(connection.id());
+                if (check.lastUpdatedAt() == null || !check.changed()) {
+                    continue;
+                }
+                logger.info("Schema of connection ID: {} changed since {}, starting refresh",
+                        connection.id(), check.lastUpdatedAt());
+                // Returns the running job instead if another node claimed the connection meanwhile
+                schemaRefreshJobService.startRefresh(connection.id(), SCHEDULER_USER);
+                started++;
+            } catch (RuntimeException e) {
+                logger.warn("Scheduled schema check failed for connection ID: {}: {}", connection.id(), e.getMessage());
+            }
+        }
+        logger.debug("Scheduled schema check started {} refresh jobs", started);
+    }
+}
@@ -17,40 +17,43 @@
 package cherry.mastermeister.service;
 
 import cherry.mastermeister.entity.SchemaUpdateLogEntity;
-import cherry.mastermeister.enums.DatabaseType;
+import cherry.mastermeister.enums.SchemaRefreshStatus;
 import cherry.mastermeister.enums.SchemaUpdateOperation;
 import cherry.mastermeister.model.*;
 import cherry.mastermeister.repository.SchemaUpdateLogRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import javax.sql.DataSource;
-import java.sql.Connection;
-import java.sql.DatabaseMetaData;
-import java.sql.ResultSet;
-import java.sql.SQLException;
 import java.time.LocalDateTime;
-import java.util.*;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.function.Supplier;
 
 @Service
 public class SchemaUpdateService {
 
+    private static final int MAX_CLAIM_ATTEMPTS = 3;
+
     private final Logger logger = LoggerFactory.getLogger(getClass());
-    private final DatabaseService databaseService;
+    private final SchemaIntrospectionService schemaIntrospectionService;
     private final SchemaMetadataService schemaMetadataService;
     private final SchemaUpdateLogRepository schemaUpdateLogRepository;
     private final AuditLogService auditLogService;
 
     public SchemaUpdateService(
-            DatabaseService databaseService,
+            SchemaIntrospectionService schemaIntrospectionService,
             SchemaMetadataService schemaMetadataService,
             SchemaUpdateLogRepository schemaUpdateLogRepository,
             AuditLogService auditLogService
     ) {
-        this.databaseService = databaseService;
+        this.schemaIntrospectionService = schemaIntrospectionService;
         this.schemaMetadataService = schemaMetadataService;
         this.schemaUpdateLogRepository = schemaUpdateLogRepository;
         this.auditLogService = auditLogService;
@@ -71,44 +74,150 @@ public class SchemaUpdateService {
     }
 
     /**
-     * Refresh schema metadata from database, bypassing cache.
-     * Reads from database and caches the result.
+     * Claim the refresh of a connection for a job by writing its RUNNING log entry.
+     * The entry carries the connection ID in a uniquely constrained column until the refresh ends,
+     * so only one claim per connection succeeds across all nodes. A claim whose heartbeat is older
+     * than staleBefore was left by a node that stopped; it is released and the claim is retried.
+     *
+     * @return empty if the job now holds the claim, otherwise the log entry of the refresh already running
+     */
+    public Optional<SchemaUpdateLog> claimRefresh(
+            Long connectionId,
+            String userEmail,
+            String jobId,
+            String nodeId,
+            LocalDateTime staleBefore
+    ) {
+        for (int attempt = 0; attempt < MAX_CLAIM_ATTEMPTS; attempt++) {
+            LocalDateTime now = LocalDateTime.now();
+            SchemaUpdateLogEntity logEntity = new SchemaUpdateLogEntity();
+            logEntity.setConnectionId(connectionId);
+            logEntity.setOperation(SchemaUpdateOperation.REFRESH_SCHEMA);
+            logEntity.setUserEmail(userEmail);
+            logEntity.setCreatedAt(now);
+            logEntity.setJobId(jobId);
+            logEntity.setStatus(SchemaRefreshStatus.RUNNING);
+            logEntity.setRunningConnectionId(connectionId);
+            logEntity.setNodeId(nodeId);
+            logEntity.setHeartbeatAt(now);
+            logEntity.setSuccess(false);
+            try {
+                schemaUpdateLogRepository.saveAndFlush(logEntity);
+                return Optional.empty();
+            } catch (DataIntegrityViolationException e) {
+                logger.debug("Schema refresh of connection ID: {} is already claimed", connectionId);
+            }
+
+            Optional<SchemaUpdateLogEntity> running = schemaUpdateLogRepository.findByRunningConnectionId(connectionId);
+            if (running.isPresent() && !running.get().getHeartbeatAt().isBefore(staleBefore)) {
+                return running.map(this::toModel);
+            }
+            // Ended meanwhile, or abandoned by a stopped node
+            releaseStaleClaims(staleBefore);
+        }
+        throw new IllegalStateException("Failed to claim schema refresh for connection ID: " + connectionId);
+    }
+
+    /**
+     * Remove the claim of a job that was never started
+     */
+    public void releaseClaim(String jobId) {
+        schemaUpdateLogRepository.findByJobId(jobId)
+                .filter(logEntity -> logEntity.getStatus() == SchemaRefreshStatus.RUNNING)
+                .ifPresent(schemaUpdateLogRepository::delete);
+    }
+
+    /**
+     * Renew the heartbeat of claims held by running jobs and record their progress
+     *
+     * @return IDs of the jobs that should stop: cancellation was requested on some node, or the claim was lost
+     */
+    @Transactional
+    public Set<String> renewClaims(Map<String, SchemaRefreshProgress> runningJobs) {
+        if (runningJobs.isEmpty()) {
+            return Set.of();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Set<String> stopping = new HashSet<>();
+        runningJobs.forEach((jobId, progress) -> {
+            int renewed = schemaUpdateLogRepository.renewRunning(jobId, now,
+                    progress.getSchemasTotal(), progress.getSchemasDone(), progress.getTablesDone());
+            if (renewed == 0) {
+                stopping.add(jobId);
+            }
+        });
+        stopping.addAll(schemaUpdateLogRepository.findCancelRequestedJobIds(runningJobs.keySet()));
+        return stopping;
+    }
+
+    /**
+     * Request cancellation of a refresh running on any node; its node stops it on the next heartbeat
+     *
+     * @return false if the job is not running
      */
     @Transactional
+    public boolean requestCancel(Long connectionId, String jobId) {
+        return schemaUpdateLogRepository.requestCancel(jobId, connectionId) > 0;
+    }
+
+    /**
+     * Mark refreshes whose heartbeat is older than the threshold as failed and release their claims
+     */
+    @Transactional
+    public int releaseStaleClaims(LocalDateTime staleBefore) {
+        int released = schemaUpdateLogRepository.releaseStale(staleBefore,
+                "Abandoned: no heartbeat since " + staleBefore);
+        if (released > 0) {
+            logger.warn("Released {} schema refresh claims without heartbeat since {}", released, staleBefore);
+        }
+        return released;
+    }
+
+    /**
+     * Refresh schema metadata from database, bypassing cache.
+     * Runs without a surrounding transaction: the catalog is read first, then only the differences
+     * are saved in one short transaction. The job must hold the claim written by claimRefresh;
+     * its log entry is updated with the outcome and progress, and the claim is released,
+     * with a conditional update that leaves an entry released as stale meanwhile as it is.
+     */
     public SchemaMetadata refreshSchema(
             Long connectionId,
-            String userEmail
+            String userEmail,
+            String jobId,
+            SchemaRefreshProgress progress
     ) {
         logger.info("Refreshing schema metadata for connection ID: {}", connectionId);
         return executeWithLogging(
                 connectionId,
                 userEmail,
+                jobId,
+                progress,
                 () -> {
-                    DatabaseConnection connection = databaseService.getConnection(connectionId);
-                    DataSource dataSource = databaseService.getDataSource(connectionId);
-
-                    try (Connection conn = dataSource.getConnection()) {
-                        DatabaseMetaData metaData = conn.getMetaData();
-
-                        List<String> schemas = readSchemas(metaData, connection.dbType());
-                        List<TableMetadata> tables = readTables(metaData, connection, schemas);
-
-                        SchemaMetadata schemaMetadata = new SchemaMetadata(
-                                connectionId,
-                                connection.databaseName(),
-                                schemas,
-                                tables,
-                                LocalDateTime.now()
-                        );
-
-                        // Save the schema metadata to the database
-                        return schemaMetadataService.saveSchemaMetadata(schemaMetadata);
-                    } catch (SQLException e) {
-                        logger.error("Failed to read schema metadata for connection ID: {}", connectionId, e);
-                        throw new RuntimeException("Schema reading failed", e);
+                    progress.checkCancelled();
+                    SchemaMetadata schemaMetadata = schemaIntrospectionService.readSchemaMetadata(connectionId, progress);
+                    progress.checkCancelled();
+                    if (!schemaUpdateLogRepository.existsByJobIdAndRunningConnectionIdIsNotNull(jobId)) {
+                        throw new CancellationException("Claim released as stale before saving");
                     }
+
+                    // Save the schema metadata to the database
+                    return schemaMetadataService.saveSchemaMetadata(schemaMetadata);
                 }
-        );
+        ).metadata();
+    }
+
+    /**
+     * Whether a refresh of the connection is claimed, on this or any other node
+     */
+    @Transactional(readOnly = true)
+    public boolean isRefreshRunning(Long connectionId) {
+        return schemaUpdateLogRepository.findByRunningConnectionId(connectionId).isPresent();
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<SchemaUpdateLog> getOperationByJobId(String jobId) {
+        return schemaUpdateLogRepository.findByJobId(jobId)
+                .map(this::toModel);
     }
 
     @Transactional(readOnly = true)
@@ -134,16 +243,15 @@ public class SchemaUpdateService {
     private <T> T executeWithLogging(
             Long connectionId,
             String userEmail,
+            String jobId,
+            SchemaRefreshProgress progress,
             Supplier<T> schemaOperation
     ) {
-        LocalDateTime startTime = LocalDateTime.now();
         long startTimeMs = System.currentTimeMillis();
 
-        SchemaUpdateLogEntity logEntity = new SchemaUpdateLogEntity();
-        logEntity.setConnectionId(connectionId);
-        logEntity.setOperation(SchemaUpdateOperation.REFRESH_SCHEMA);
-        logEntity.setUserEmail(userEmail);
-        logEntity.setCreatedAt(startTime);
+        if (!schemaUpdateLogRepository.existsByJobIdAndRunningConnectionIdIsNotNull(jobId)) {
+            throw new IllegalStateException("Schema refresh job has no claim: " + jobId);
+        }
 
         try {
             logger.info("Executing {} for connection ID: {} by user: {}", SchemaUpdateOperation.REFRESH_SCHEMA, connectionId, userEmail);
@@ -152,26 +260,30 @@ public class SchemaUpdateService {
             long executionTime = System.currentTimeMillis() - startTimeMs;
 
             // Log success
-            logEntity.setExecutionTimeMs(executionTime);
-            logEntity.setSuccess(true);
-
-            if (result instanceof SchemaMetadata metadata) {
-                logEntity.setTablesCount(metadata.tables().size());
-                logEntity.setColumnsCount(metadata.tables().stream()
-                        .mapToInt(table -> table.columns().size())
-                        .sum());
-                logEntity.setDetails(String.format("Successfully processed %d schemas, %d tables, %d columns",
+            String details = null;
+            if (result instanceof SchemaRefreshResult refreshResult) {
+                SchemaMetadata metadata = refreshResult.metadata();
+                SchemaDiff diff = refreshResult.diff();
+                details = String.format("Successfully processed %d schemas, %d tables, %d columns"
+                                + " (tables: %d inserted, %d updated, %d deleted;"
+                                + " columns: %d inserted, %d updated, %d deleted)",
                         metadata.schemas().size(), metadata.tables().size(),
-                        metadata.tables().stream().mapToInt(table -> table.columns().size()).sum()));
+                        metadata.tables().stream().mapToInt(table -> table.columns().size()).sum(),
+                        diff.tablesInserted(), diff.tablesUpdated(), diff.tablesDeleted(),
+                        diff.columnsInserted(), diff.columnsUpdated(), diff.columnsDeleted());
             }
 
-            schemaUpdateLogRepository.save(logEntity);
+            if (finishClaim(jobId, SchemaRefreshStatus.COMPLETED, true, executionTime, progress, null, details)
+                    && result instanceof SchemaRefreshResult refreshResult) {
+                // The entry no longer holds the claim, so nothing else updates it
+                saveCounts(jobId, refreshResult);
+            }
             logger.info("Successfully executed {} for connection ID: {} in {}ms",
                     SchemaUpdateOperation.REFRESH_SCHEMA, connectionId, executionTime);
 
             // Log admin action
             auditLogService.logSchemaOperation(userEmail, SchemaUpdateOperation.REFRESH_SCHEMA.name(), connectionId, true,
-                    logEntity.getDetails(), null);
+                    details, null);
 
             return result;
 
@@ -179,191 +291,59 @@ public class SchemaUpdateService {
             long executionTime = System.currentTimeMillis() - startTimeMs;
 
             // Log failure
-            logEntity.setExecutionTimeMs(executionTime);
-            logEntity.setSuccess(false);
-            logEntity.setErrorMessage(e.getMessage());
-            logEntity.setDetails("Operation failed: " + e.getClass().getSimpleName());
-
-            schemaUpdateLogRepository.save(logEntity);
+            boolean cancelled = e instanceof CancellationException;
+            String details = cancelled ? "Operation cancelled" : "Operation failed: " + e.getClass().getSimpleName();
+            finishClaim(jobId, cancelled ? SchemaRefreshStatus.CANCELLED : SchemaRefreshStatus.FAILED, false,
+                    executionTime, progress, e.getMessage(), details);
             logger.error("Failed to execute {} for connection ID: {} in {}ms",
                     SchemaUpdateOperation.REFRESH_SCHEMA, connectionId, executionTime, e);
 
             // Log admin action failure
             auditLogService.logSchemaOperation(userEmail, SchemaUpdateOperation.REFRESH_SCHEMA.name(), connectionId, false,
-                    logEntity.getDetails(), e.getMessage());
+                    details, e.getMessage());
 
             throw e;
         }
     }
 
-    private List<String> readSchemas(
-            DatabaseMetaData metaData,
-            DatabaseType dbType
-    ) throws SQLException {
-        List<String> schemas = new ArrayList<>();
-
-        switch (dbType) {
-            case MYSQL, MARIADB -> {
-                // MySQL/MariaDB: schemas are databases
-                try (ResultSet rs = metaData.getCatalogs()) {
-                    while (rs.next()) {
-                        String schema = rs.getString("TABLE_CAT");
-                        if (!isSystemSchema(schema, dbType)) {
-                            schemas.add(schema);
-                        }
-                    }
-                }
-            }
-            case POSTGRESQL -> {
-                // PostgreSQL: use schemas within database
-                try (ResultSet rs = metaData.getSchemas()) {
-                    while (rs.next()) {
-                        String schema = rs.getString("TABLE_SCHEM");
-                        if (!isSystemSchema(schema, dbType)) {
-                            schemas.add(schema);
-                        }
-                    }
-                }
-            }
-            case H2 -> {
-                // H2: use schemas
-                try (ResultSet rs = metaData.getSchemas()) {
-                    while (rs.next()) {
-                        String schema = rs.getString("TABLE_SCHEM");
-                        if (!isSystemSchema(schema, dbType)) {
-                            schemas.add(schema);
-                        }
-                    }
-                }
-            }
-        }
-
-        return schemas;
-    }
-
-    private List<TableMetadata> readTables(
-            DatabaseMetaData metaData,
-            DatabaseConnection connection,
-            List<String> schemas
-    ) throws SQLException {
-        List<TableMetadata> tables = new ArrayList<>();
-        String[] tableTypes = {"TABLE", "VIEW"};
-
-        for (String schema : schemas) {
-            String catalog = getCatalogForSchema(connection.dbType(), schema, connection.databaseName());
-            String schemaParam = getSchemaParam(connection.dbType(), schema);
-
-            try (ResultSet rs = metaData.getTables(catalog, schemaParam, null, tableTypes)) {
-                while (rs.next()) {
-                    String tableName = rs.getString("TABLE_NAME");
-                    String tableType = rs.getString("TABLE_TYPE");
-                    String comment = rs.getString("REMARKS");
-
-                    List<ColumnMetadata> columns = readColumns(metaData, catalog, schemaParam, tableName);
-
-                    tables.add(new TableMetadata(schema, tableName, tableType, comment, columns));
-                }
-            }
-        }
-
-        return tables;
-    }
-
-    private List<ColumnMetadata> readColumns(
-            DatabaseMetaData metaData,
-            String catalog,
-            String schema,
-            String tableName
-    ) throws SQLException {
-        List<ColumnMetadata> columns = new ArrayList<>();
-        Set<String> primaryKeys = readPrimaryKeys(metaData, catalog, schema, tableName);
-
-        try (ResultSet rs = metaData.getColumns(catalog, schema, tableName, null)) {
-            while (rs.next()) {
-                String columnName = rs.getString("COLUMN_NAME");
-                String dataType = rs.getString("TYPE_NAME");
-                Integer columnSize = rs.getInt("COLUMN_SIZE");
-                if (rs.wasNull()) columnSize = null;
-
-                Integer decimalDigits = rs.getInt("DECIMAL_DIGITS");
-                if (rs.wasNull()) decimalDigits = null;
-
-                boolean nullable = rs.getInt("NULLABLE") == DatabaseMetaData.columnNullable;
-                String defaultValue = rs.getString("COLUMN_DEF");
-                String comment = rs.getString("REMARKS");
-                boolean isPrimaryKey = primaryKeys.contains(columnName);
-                boolean autoIncrement = "YES".equalsIgnoreCase(rs.getString("IS_AUTOINCREMENT"));
-                int ordinalPosition = rs.getInt("ORDINAL_POSITION");
-
-                columns.add(new ColumnMetadata(
-                        columnName, dataType, columnSize, decimalDigits, nullable,
-                        defaultValue, comment, isPrimaryKey, autoIncrement, ordinalPosition
-                ));
-            }
-        }
-
-        return columns.stream()
-                .sorted(Comparator.comparing(ColumnMetadata::ordinalPosition))
-                .toList();
-    }
-
-    private Set<String> readPrimaryKeys(
-            DatabaseMetaData metaData,
-            String catalog,
-            String schema,
-            String tableName
-    ) throws SQLException {
-        Set<String> primaryKeys = new HashSet<>();
-
-        try (ResultSet rs = metaData.getPrimaryKeys(catalog, schema, tableName)) {
-            while (rs.next()) {
-                primaryKeys.add(rs.getString("COLUMN_NAME"));
-            }
-        }
-
-        return primaryKeys;
-    }
-
-    private boolean isSystemSchema(
-            String schema,
-            DatabaseType dbType
-    ) {
-        if (schema == null) return true;
-
-        return switch (dbType) {
-            case MYSQL, MARIADB -> Set.of(
-                    "information_schema", "performance_schema", "mysql", "sys"
-            ).contains(schema.toLowerCase());
-
-            case POSTGRESQL -> Set.of(
-                    "information_schema", "pg_catalog", "pg_toast"
-            ).contains(schema.toLowerCase()) || schema.toLowerCase().startsWith("pg_");
-
-            case H2 -> Set.of(
-                    "INFORMATION_SCHEMA"
-            ).contains(schema.toUpperCase());
-        };
-    }
-
-    private String getCatalogForSchema(
-            DatabaseType dbType,
-            String schema,
-            String databaseName
+    /**
+     * Record the outcome and release the claim, unless the claim has been released as stale meanwhile
+     */
+    private boolean finishClaim(
+            String jobId,
+            SchemaRefreshStatus status,
+            boolean success,
+            long executionTime,
+            SchemaRefreshProgress progress,
+            String errorMessage,
+            String details
     ) {
-        return switch (dbType) {
-            case MYSQL, MARIADB -> schema; // schema IS catalog in MySQL/MariaDB
-            case POSTGRESQL, H2 -> databaseName; // use database name as catalog
-        };
+        int finished = schemaUpdateLogRepository.finishRunning(jobId, status, success, executionTime,
+                progress.getSchemasTotal(), progress.getSchemasDone(), progress.getTablesDone(),
+                errorMessage, details);
+        if (finished == 0) {
+            logger.warn("Schema refresh job {} lost its claim, outcome {} not recorded", jobId, status);
+            return false;
+        }
+        return true;
     }
 
-    private String getSchemaParam(
-            DatabaseType dbType,
-            String schema
-    ) {
-        return switch (dbType) {
-            case MYSQL, MARIADB -> null; // don't use schema parameter for MySQL/MariaDB
-            case POSTGRESQL, H2 -> schema; // use schema parameter
-        };
+    private void saveCounts(String jobId, SchemaRefreshResult refreshResult) {
+        SchemaMetadata metadata = refreshResult.metadata();
+        SchemaDiff diff = refreshResult.diff();
+        schemaUpdateLogRepository.findByJobId(jobId).ifPresent(logEntity -> {
+            logEntity.setTablesCount(metadata.tables().size());
+            logEntity.setColumnsCount(metadata.tables().stream()
+                    .mapToInt(table -> table.columns().size())
+                    .sum());
+            logEntity.setTablesInserted(diff.tablesInserted());
+            logEntity.setTablesUpdated(diff.tablesUpdated());
+            logEntity.setTablesDeleted(diff.tablesDeleted());
+            logEntity.setColumnsInserted(diff.columnsInserted());
+            logEntity.setColumnsUpdated(diff.columnsUpdated());
+            logEntity.setColumnsDeleted(diff.columnsDeleted());
+            schemaUpdateLogRepository.save(logEntity);
+        });
     }
 
     private SchemaUpdateLog toModel(SchemaUpdateLogEntity entity) {
@@ -372,11 +352,22 @@ public class SchemaUpdateService {
                 entity.getConnectionId(),
                 entity.getOperation(),
                 entity.getUserEmail(),
+                entity.getJobId(),
+                entity.getStatus(),
+                entity.getSchemasTotal(),
+                entity.getSchemasDone(),
+                entity.getTablesDone(),
                 entity.getExecutionTimeMs(),
                 entity.getSuccess(),
                 entity.getErrorMessage(),
                 entity.getTablesCount(),
                 entity.getColumnsCount(),
+                entity.getTablesInserted(),
+                entity.getTablesUpdated(),
+                entity.getTablesDeleted(),
+                entity.getColumnsInserted(),
+                entity.getColumnsUpdated(),
+                entity.getColumnsDeleted(),
                 entity.getDetails(),
                 entity.getCreatedAt()
         );
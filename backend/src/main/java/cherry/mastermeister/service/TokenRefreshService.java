@@ -16,14 +16,17 @@
 
 package cherry.mastermeister.service;
 
-import cherry.mastermeister.entity.RefreshTokenEntity;
 import cherry.mastermeister.model.TokenRefreshResult;
 import cherry.mastermeister.repository.RefreshTokenRepository;
 import cherry.mastermeister.util.JwtUtil;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
@@ -34,14 +37,18 @@ import java.util.UUID;
 @Transactional
 public class TokenRefreshService {
 
+    private final Logger logger = LoggerFactory.getLogger(getClass());
     private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenStore refreshTokenStore;
     private final JwtUtil jwtUtil;
     private final int maxUsageCount;
 
     public TokenRefreshService(RefreshTokenRepository refreshTokenRepository,
+                               RefreshTokenStore refreshTokenStore,
                                JwtUtil jwtUtil,
                                @Value("${mm.security.jwt.refresh-token.max-usage-count:10}") int maxUsageCount) {
         this.refreshTokenRepository = refreshTokenRepository;
+        this.refreshTokenStore = refreshTokenStore;
         this.jwtUtil = jwtUtil;
         this.maxUsageCount = maxUsageCount;
     }
@@ -50,84 +57,95 @@ public class TokenRefreshService {
         String tokenId = UUID.randomUUID().toString();
         String token = jwtUtil.generateRefreshToken(userDetails, tokenId);
 
-        RefreshTokenEntity refreshToken = new RefreshTokenEntity();
-        refreshToken.setTokenId(tokenId);
-        refreshToken.setUsername(userDetails.getUsername());
-        refreshToken.setExpiresAt(jwtUtil.extractExpirationAsLocalDateTime(token));
-
-        refreshTokenRepository.save(refreshToken);
+        refreshTokenStore.create(tokenId, userDetails.getUsername(), jwtUtil.extractExpirationAsLocalDateTime(token));
         return token;
     }
 
     public boolean validateRefreshToken(String token, UserDetails userDetails) {
+        return findValidRefreshToken(token, userDetails).isPresent();
+    }
+
+    public TokenRefreshResult refreshTokens(String refreshTokenString, UserDetails userDetails) {
+        RefreshTokenStore.TokenState oldRefreshToken = findValidRefreshToken(refreshTokenString, userDetails)
+                .orElseThrow(() -> new IllegalArgumentException("Invalid refresh token"));
+
+        // 古いリフレッシュトークンの使用回数をインクリメント（使用回数制限対応、永続化は後書き）
+        if (!refreshTokenStore.use(oldRefreshToken, maxUsageCount)) {
+            throw new IllegalArgumentException("Invalid refresh token");
+        }
+
+        // 新しいトークンペアを生成
+        String newAccessToken = jwtUtil.generateAccessToken(userDetails);
+        String newRefreshToken = createRefreshToken(userDetails);
+
+        return new TokenRefreshResult(newAccessToken, newRefreshToken);
+    }
+
+    private Optional<RefreshTokenStore.TokenState> findValidRefreshToken(String token, UserDetails userDetails) {
         if (!jwtUtil.isRefreshToken(token)) {
-            return false;
+            return Optional.empty();
         }
 
         String tokenId = jwtUtil.extractTokenId(token);
         if (tokenId == null) {
-            return false;
+            return Optional.empty();
         }
 
-        Optional<RefreshTokenEntity> refreshTokenOpt = refreshTokenRepository.findByTokenId(tokenId);
+        Optional<RefreshTokenStore.TokenState> refreshTokenOpt = refreshTokenStore.find(tokenId);
         if (refreshTokenOpt.isEmpty()) {
-            return false;
+            return Optional.empty();
         }
 
-        RefreshTokenEntity refreshToken = refreshTokenOpt.get();
+        RefreshTokenStore.TokenState refreshToken = refreshTokenOpt.get();
 
         // トークンの有効期限とユーザー名をチェック
         if (refreshToken.isExpired() || !refreshToken.getUsername().equals(userDetails.getUsername())) {
-            return false;
+            return Optional.empty();
         }
 
         // 使用回数制限をチェック
         if (refreshToken.hasExceededUsageLimit(maxUsageCount)) {
-            return false;
+            return Optional.empty();
         }
 
         // JWT自体の妥当性もチェック
-        return jwtUtil.validateToken(token, userDetails);
-    }
-
-    public TokenRefreshResult refreshTokens(String refreshTokenString, UserDetails userDetails) {
-        if (!validateRefreshToken(refreshTokenString, userDetails)) {
-            throw new IllegalArgumentException("Invalid refresh token");
-        }
-
-        String oldTokenId = jwtUtil.extractTokenId(refreshTokenString);
-        RefreshTokenEntity oldRefreshToken = refreshTokenRepository.findByTokenId(oldTokenId)
-                .orElseThrow(() -> new IllegalArgumentException("Refresh token not found"));
-
-        // 古いリフレッシュトークンの使用回数をインクリメント（使用回数制限対応）
-        oldRefreshToken.markAsUsed();
-        refreshTokenRepository.save(oldRefreshToken);
-
-        // 新しいトークンペアを生成
-        String newAccessToken = jwtUtil.generateAccessToken(userDetails);
-        String newRefreshToken = createRefreshToken(userDetails);
-
-        return new TokenRefreshResult(newAccessToken, newRefreshToken);
+        return jwtUtil.validateToken(token, userDetails) ? refreshTokenOpt : Optional.empty();
     }
 
     public void revokeRefreshToken(String tokenId) {
-        refreshTokenRepository.deleteByTokenId(tokenId);
+        refreshTokenStore.revoke(tokenId);
     }
 
     public void revokeAllUserRefreshTokens(String username) {
-        refreshTokenRepository.deleteAllByUsername(username);
+        refreshTokenStore.revokeAll(username);
     }
 
     public long countTokensForUser(String username) {
         return refreshTokenRepository.countTokensByUsername(username);
     }
 
-    @Scheduled(fixedRate = 3600000) // 1時間ごと
+    /**
+     * Persist usage counts of refresh tokens (write-behind)
+     */
+    @Scheduled(fixedDelayString = "${mm.security.jwt.refresh-token.store.write-behind-interval-ms:5000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void flushTokenUsage() {
+        refreshTokenStore.flushUsage();
+    }
+
+    @PreDestroy
+    public void flushTokenUsageOnShutdown() {
+        refreshTokenStore.flushUsage();
+    }
+
+    @Scheduled(fixedRateString = "${mm.security.jwt.refresh-token.store.sweep-interval-ms:3600000}") // 1時間ごと
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void cleanupExpiredTokens() {
-        LocalDateTime cutoffTime = LocalDateTime.now();
-        int deletedCount = refreshTokenRepository.deleteExpiredTokens(cutoffTime);
+        // Pending uses are written first, so that no update targets a swept token
+        refreshTokenStore.flushUsage();
+        int deletedCount = refreshTokenStore.sweepExpired(LocalDateTime.now());
         if (deletedCount > 0) {
-            // ログ出力など（必要に応じて）
+            logger.info("Deleted {} expired refresh tokens", deletedCount);
         }
     }
 }
@@ -16,15 +16,20 @@
 package cherry.mastermeister.service;
 
 import cherry.mastermeister.entity.UserEntity;
+import cherry.mastermeister.enums.CacheChangeType;
 import cherry.mastermeister.enums.UserStatus;
 import cherry.mastermeister.repository.UserRepository;
 import cherry.mastermeister.security.CustomUserDetails;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.Collection;
 import java.util.Collections;
@@ -32,10 +37,20 @@ import java.util.Collections;
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
 
+    public static final String USER_DETAILS_CACHE = "userDetails";
+
     private final UserRepository userRepository;
+    private final CacheChangeLogService cacheChangeLogService;
+    private final Cache userDetailsCache;
 
-    public UserDetailsServiceImpl(UserRepository userRepository) {
+    public UserDetailsServiceImpl(
+            UserRepository userRepository,
+            CacheChangeLogService cacheChangeLogService,
+            CacheManager cacheManager
+    ) {
         this.userRepository = userRepository;
+        this.cacheChangeLogService = cacheChangeLogService;
+        this.userDetailsCache = cacheManager.getCache(USER_DETAILS_CACHE);
     }
 
     @Override
@@ -43,24 +58,67 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         UserEntity user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
 
-        return new CustomUserDetails(
-                user.getUserUuid(),
-                user.getEmail(), // username として email を使用
-                user.getPassword(),
-                user.getStatus() == UserStatus.APPROVED,
-                true, // accountNonExpired
-                true, // credentialsNonExpired
-                true, // accountNonLocked
-                getAuthorities(user)
-        );
+        return toUserDetails(user);
     }
 
+    /**
+     * Load user by UUID for request authentication, cached for a short time
+     */
     public UserDetails loadUserByUserUuid(String userUuid) throws UsernameNotFoundException {
+        if (userDetailsCache == null) {
+            return findUserByUserUuid(userUuid);
+        }
+        CustomUserDetails cached = userDetailsCache.get(userUuid, CustomUserDetails.class);
+        if (cached != null) {
+            return cached;
+        }
+        CustomUserDetails userDetails = findUserByUserUuid(userUuid);
+        userDetailsCache.put(userUuid, userDetails);
+        return userDetails;
+    }
+
+    /**
+     * Invalidate cached details of a user after the current transaction commits, on all nodes
+     */
+    public void invalidateUser(Long userId) {
+        cacheChangeLogService.record(CacheChangeType.USER_DETAILS, userId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evictUser(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evictUser(userId);
+            }
+        });
+    }
+
+    /**
+     * Evict cached details of a user immediately, for a change already committed
+     */
+    public void evictUser(Long userId) {
+        if (userDetailsCache == null) {
+            return;
+        }
+        userRepository.findById(userId)
+                .map(UserEntity::getUserUuid)
+                .ifPresent(userDetailsCache::evict);
+    }
+
+    private CustomUserDetails findUserByUserUuid(String userUuid) throws UsernameNotFoundException {
         UserEntity user = userRepository.findByUserUuid(userUuid)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with UUID: " + userUuid));
 
+        return toUserDetails(user);
+    }
+
+    private CustomUserDetails toUserDetails(UserEntity user) {
         return new CustomUserDetails(
+                user.getId(),
                 user.getUserUuid(),
+                user.getRole(),
+                user.getStatus(),
                 user.getEmail(), // username として email を使用
                 user.getPassword(),
                 user.getStatus() == UserStatus.APPROVED,
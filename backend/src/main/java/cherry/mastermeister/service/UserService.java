@@ -33,10 +33,16 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final EmailService emailService;
+    private final UserDetailsServiceImpl userDetailsService;
 
-    public UserService(UserRepository userRepository, EmailService emailService) {
+    public UserService(
+            UserRepository userRepository,
+            EmailService emailService,
+            UserDetailsServiceImpl userDetailsService
+    ) {
         this.userRepository = userRepository;
         this.emailService = emailService;
+        this.userDetailsService = userDetailsService;
     }
 
     /**
@@ -65,6 +71,7 @@ public class UserService {
 
         user.setStatus(UserStatus.APPROVED);
         userRepository.save(user);
+        userDetailsService.invalidateUser(userId);
 
         // 承認通知メール送信
         emailService.sendAccountApproved(
@@ -83,6 +90,7 @@ public class UserService {
 
         user.setStatus(UserStatus.REJECTED);
         userRepository.save(user);
+        userDetailsService.invalidateUser(userId);
 
         // 拒否通知メール送信
         emailService.sendAccountRejected(
@@ -30,6 +30,7 @@ import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
@@ -65,11 +66,14 @@ public class JwtUtil {
                 .map(auth -> auth.startsWith("ROLE_") ? auth.substring(5) : auth)
                 .toList();
 
-        Map<String, Object> claims = Map.of(
+        Map<String, Object> claims = new HashMap<>(Map.of(
                 "type", "access",
                 "role", roles,
                 "email", userDetails.getUsername() // username is actually email
-        );
+        ));
+        if (userDetails instanceof CustomUserDetails customUserDetails) {
+            claims.put("uid", customUserDetails.getUserId());
+        }
         String subject = userDetails instanceof CustomUserDetails ?
                 ((CustomUserDetails) userDetails).getUserUuid() :
                 userDetails.getUsername();
@@ -102,6 +106,10 @@ public class JwtUtil {
         return extractClaim(token, Claims::getSubject);
     }
 
+    public Long extractUserId(String token) {
+        return extractClaim(token, claims -> claims.get("uid", Long.class));
+    }
+
     public String extractTokenId(String token) {
         return extractClaim(token, claims -> claims.get("jti", String.class));
     }
@@ -115,6 +123,15 @@ public class JwtUtil {
         return expiration.toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime();
     }
 
+    /**
+     * Parse token and verify its signature and expiration
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is invalid or expired
+     */
+    public Claims parseClaims(String token) {
+        return extractAllClaims(token);
+    }
+
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
         final Claims claims = extractAllClaims(token);
         return claimsResolver.apply(claims);
@@ -134,8 +151,13 @@ public class JwtUtil {
 
     public Boolean validateToken(String token, UserDetails userDetails) {
         final String userUuid = extractUserUuid(token);
-        if (userDetails instanceof CustomUserDetails) {
-            return (userUuid.equals(((CustomUserDetails) userDetails).getUserUuid()) && !isTokenExpired(token));
+        if (userDetails instanceof CustomUserDetails customUserDetails) {
+            // Tokens carrying a user ID must match the loaded user
+            Long userId = extractUserId(token);
+            if (userId != null && !userId.equals(customUserDetails.getUserId())) {
+                return false;
+            }
+            return (userUuid.equals(customUserDetails.getUserUuid()) && !isTokenExpired(token));
         } else {
             // Fallback for non-custom UserDetails (shouldn't happen in normal flow)
             return (userUuid.equals(userDetails.getUsername()) && !isTokenExpired(token));
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2025 agwlvssainokuni
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cherry.mastermeister.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Utility class for encoding and decoding opaque keyset pagination cursors.
+ * A cursor carries the ordered key column names and the key values of the last row of a page.
+ * Each value is stored with a type tag so that it is bound back to the query with its original JDBC type.
+ */
+public class RecordCursorCodec {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    /**
+     * Encode key column names and values into an opaque cursor string
+     */
+    public static String encode(List<String> keyColumns, List<Object> keyValues) {
+        if (keyColumns.size() != keyValues.size()) {
+            throw new IllegalArgumentException("Key columns and values must have the same size");
+        }
+
+        List<List<String>> values = new ArrayList<>(keyValues.size());
+        for (Object value : keyValues) {
+            values.add(encodeValue(value));
+        }
+
+        try {
+            byte[] json = OBJECT_MAPPER.writeValueAsBytes(new CursorPayload(keyColumns, values));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode cursor", e);
+        }
+    }
+
+    /**
+     * Decode cursor string and return key values, verifying that it was issued for the same key columns
+     */
+    public static List<Object> decode(String cursor, List<String> expectedKeyColumns) {
+        CursorPayload payload;
+        try {
+            byte[] json = Base64.getUrlDecoder().decode(cursor);
+            payload = OBJECT_MAPPER.readValue(json, CursorPayload.class);
+        } catch (IllegalArgumentException | java.io.IOException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+
+        if (payload.k() == null || payload.v() == null
+                || !payload.k().equals(expectedKeyColumns) || payload.v().size() != payload.k().size()) {
+            throw new IllegalArgumentException("Cursor does not match the current sort order");
+        }
+
+        List<Object> values = new ArrayList<>(payload.v().size());
+        for (List<String> value : payload.v()) {
+            values.add(decodeValue(value));
+        }
+        return values;
+    }
+
+    /**
+     * Encode single value as [type tag, string representation]
+     */
+    private static List<String> encodeValue(Object value) {
+        if (value == null) {
+            return List.of("N", "");
+        }
+        if (value instanceof Long || value instanceof Integer || value instanceof Short
+                || value instanceof Byte || value instanceof BigInteger) {
+            return List.of("L", value.toString());
+        }
+        if (value instanceof BigDecimal decimal) {
+            return List.of("D", decimal.toPlainString());
+        }
+        if (value instanceof Double || value instanceof Float) {
+            return List.of("F", value.toString());
+        }
+        if (value instanceof Boolean) {
+            return List.of("B", value.toString());
+        }
+        if (value instanceof Timestamp timestamp) {
+            return List.of("T", timestamp.toLocalDateTime().toString());
+        }
+        if (value instanceof Date date) {
+            return List.of("d", date.toLocalDate().toString());
+        }
+        if (value instanceof Time time) {
+            // Time.toLocalTime() drops the milliseconds held by the instant
+            LocalTime localTime = time.toLocalTime().withNano((int) Math.floorMod(time.getTime(), 1000L) * 1_000_000);
+            return List.of("t", localTime.toString());
+        }
+        if (value instanceof LocalDateTime || value instanceof LocalDate || value instanceof LocalTime) {
+            return List.of(value instanceof LocalDateTime ? "T" : value instanceof LocalDate ? "d" : "t", value.toString());
+        }
+        if (value instanceof OffsetDateTime) {
+            return List.of("O", value.toString());
+        }
+        if (value instanceof UUID) {
+            return List.of("U", value.toString());
+        }
+        return List.of("S", value.toString());
+    }
+
+    /**
+     * Decode single [type tag, string representation] value
+     */
+    private static Object decodeValue(List<String> value) {
+        if (value == null || value.size() != 2) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+
+        String text = value.get(1);
+        try {
+            return switch (value.get(0)) {
+                case "N" -> null;
+                case "L" -> new BigInteger(text).bitLength() < 64 ? (Object) Long.valueOf(text) : new BigInteger(text);
+                case "D" -> new BigDecimal(text);
+                case "F" -> Double.valueOf(text);
+                case "B" -> Boolean.valueOf(text);
+                case "T" -> Timestamp.valueOf(LocalDateTime.parse(text));
+                case "d" -> Date.valueOf(LocalDate.parse(text));
+                // Bound as LocalTime, since java.sql.Time cannot carry fractional seconds
+                case "t" -> LocalTime.parse(text);
+                case "O" -> OffsetDateTime.parse(text);
+                case "U" -> UUID.fromString(text);
+                case "S" -> text;
+                default -> throw new IllegalArgumentException("Invalid cursor");
+            };
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Serialized cursor content: key column names and tagged key values
+     */
+    private record CursorPayload(
+            List<String> k,
+            List<List<String>> v
+    ) {
+    }
+}
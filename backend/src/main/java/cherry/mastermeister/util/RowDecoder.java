@@ -0,0 +1,236 @@
+/*
+ * Copyright 2025 agwlvssainokuni
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cherry.mastermeister.util;
+
+import cherry.mastermeister.model.AccessibleColumn;
+import cherry.mastermeister.model.TableRecord;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Row decoder compiled once per query from ResultSetMetaData and column permissions.
+ * Column positions, READ flags and a reader specialized for each JDBC type are resolved at compile time,
+ * so decoding a row only reads the readable columns by index.
+ */
+public final class RowDecoder {
+
+    private final List<String> columnNames;
+    private final int[] columnIndexes;
+    private final ColumnReader[] readers;
+    private final ColumnReader[] cursorReaders;
+    private final Map<String, String> columnTypes;
+    private final Map<String, Boolean> columnPermissions;
+
+    private RowDecoder(
+            List<String> columnNames,
+            int[] columnIndexes,
+            ColumnReader[] readers,
+            ColumnReader[] cursorReaders,
+            Map<String, String> columnTypes,
+            Map<String, Boolean> columnPermissions
+    ) {
+        this.columnNames = columnNames;
+        this.columnIndexes = columnIndexes;
+        this.readers = readers;
+        this.cursorReaders = cursorReaders;
+        this.columnTypes = columnTypes;
+        this.columnPermissions = columnPermissions;
+    }
+
+    /**
+     * Compile decoder for the columns of a result set.
+     * Result set columns without READ permission (or unknown to the given columns) are skipped.
+     */
+    public static RowDecoder compile(ResultSetMetaData metaData, List<AccessibleColumn> accessibleColumns)
+            throws SQLException {
+        Map<String, AccessibleColumn> columnMap = new HashMap<>();
+        for (AccessibleColumn column : accessibleColumns) {
+            columnMap.put(column.columnName(), column);
+        }
+
+        int columnCount = metaData.getColumnCount();
+        List<String> columnNames = new ArrayList<>(columnCount);
+        int[] columnIndexes = new int[columnCount];
+        ColumnReader[] readers = new ColumnReader[columnCount];
+        ColumnReader[] cursorReaders = new ColumnReader[columnCount];
+        Map<String, String> columnTypes = new HashMap<>();
+        Map<String, Boolean> columnPermissions = new HashMap<>();
+
+        for (int i = 1; i <= columnCount; i++) {
+            String columnName = metaData.getColumnName(i);
+            AccessibleColumn column = columnMap.get(columnName);
+            boolean canRead = column != null && column.canRead();
+            columnPermissions.put(columnName, canRead);
+
+            if (canRead) {
+                int position = columnNames.size();
+                columnNames.add(columnName);
+                columnIndexes[position] = i;
+                readers[position] = readerFor(metaData, i);
+                cursorReaders[position] = cursorReaderFor(metaData, i, readers[position]);
+                columnTypes.put(columnName, metaData.getColumnTypeName(i));
+            }
+        }
+
+        int readableCount = columnNames.size();
+        int[] readableIndexes = new int[readableCount];
+        ColumnReader[] readableReaders = new ColumnReader[readableCount];
+        ColumnReader[] readableCursorReaders = new ColumnReader[readableCount];
+        System.arraycopy(columnIndexes, 0, readableIndexes, 0, readableCount);
+        System.arraycopy(readers, 0, readableReaders, 0, readableCount);
+        System.arraycopy(cursorReaders, 0, readableCursorReaders, 0, readableCount);
+
+        return new RowDecoder(
+                Collections.unmodifiableList(columnNames),
+                readableIndexes,
+                readableReaders,
+                readableCursorReaders,
+                Collections.unmodifiableMap(columnTypes),
+                Collections.unmodifiableMap(columnPermissions)
+        );
+    }
+
+    /**
+     * Names of the readable columns, in the order of decoded row values
+     */
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    /**
+     * Decode current row into positional values of the readable columns
+     */
+    public Object[] decodeRow(ResultSet rs) throws SQLException {
+        Object[] row = new Object[readers.length];
+        for (int i = 0; i < readers.length; i++) {
+            row[i] = readers[i].read(rs, columnIndexes[i]);
+        }
+        return row;
+    }
+
+    /**
+     * Decode current row into TableRecord.
+     * Column types and permissions are the same for every row and are shared between records.
+     */
+    public TableRecord decodeRecord(ResultSet rs) throws SQLException {
+        Map<String, Object> data = new LinkedHashMap<>(readers.length * 4 / 3 + 1);
+        for (int i = 0; i < readers.length; i++) {
+            data.put(columnNames.get(i), readers[i].read(rs, columnIndexes[i]));
+        }
+        return new TableRecord(data, columnTypes, columnPermissions);
+    }
+
+    /**
+     * Read the values of key columns of the current row for a keyset cursor.
+     * Unlike the decoded row, TIME values keep their fractional seconds, so that the cursor seeks past the row.
+     */
+    public List<Object> readCursorValues(ResultSet rs, List<String> keyColumns) throws SQLException {
+        List<Object> values = new ArrayList<>(keyColumns.size());
+        for (String keyColumn : keyColumns) {
+            int position = columnNames.indexOf(keyColumn);
+            if (position < 0) {
+                throw new IllegalArgumentException("Key column is not readable: " + keyColumn);
+            }
+            values.add(cursorReaders[position].read(rs, columnIndexes[position]));
+        }
+        return values;
+    }
+
+    /**
+     * Select reader for the JDBC type of a column.
+     * Temporal types, whose getObject representation differs between drivers, keep using getObject.
+     */
+    private static ColumnReader readerFor(ResultSetMetaData metaData, int index) throws SQLException {
+        int sqlType = metaData.getColumnType(index);
+        boolean signed = metaData.isSigned(index);
+
+        return switch (sqlType) {
+            // Unsigned integers may exceed the Java type range; let the driver widen them
+            case Types.BIGINT -> signed ? RowDecoder::readLong : RowDecoder::readObject;
+            case Types.INTEGER, Types.SMALLINT, Types.TINYINT -> signed ? RowDecoder::readInt : RowDecoder::readObject;
+            case Types.DECIMAL, Types.NUMERIC -> ResultSet::getBigDecimal;
+            case Types.DOUBLE, Types.FLOAT -> RowDecoder::readDouble;
+            case Types.REAL -> RowDecoder::readFloat;
+            case Types.BOOLEAN -> RowDecoder::readBoolean;
+            // BIT(n) with n > 1 is a bit string, not a boolean
+            case Types.BIT -> metaData.getPrecision(index) <= 1 ? RowDecoder::readBoolean : RowDecoder::readObject;
+            case Types.CHAR, Types.VARCHAR, Types.LONGVARCHAR,
+                 Types.NCHAR, Types.NVARCHAR, Types.LONGNVARCHAR -> ResultSet::getString;
+            case Types.BINARY, Types.VARBINARY, Types.LONGVARBINARY -> ResultSet::getBytes;
+            default -> RowDecoder::readObject;
+        };
+    }
+
+    /**
+     * Select reader for cursor values: java.sql.Time drops fractional seconds, so TIME is read as LocalTime
+     */
+    private static ColumnReader cursorReaderFor(ResultSetMetaData metaData, int index, ColumnReader reader)
+            throws SQLException {
+        return metaData.getColumnType(index) == Types.TIME ? RowDecoder::readLocalTime : reader;
+    }
+
+    private static Object readLong(ResultSet rs, int index) throws SQLException {
+        long value = rs.getLong(index);
+        return rs.wasNull() ? null : value;
+    }
+
+    private static Object readInt(ResultSet rs, int index) throws SQLException {
+        int value = rs.getInt(index);
+        return rs.wasNull() ? null : value;
+    }
+
+    private static Object readDouble(ResultSet rs, int index) throws SQLException {
+        double value = rs.getDouble(index);
+        return rs.wasNull() ? null : value;
+    }
+
+    private static Object readFloat(ResultSet rs, int index) throws SQLException {
+        float value = rs.getFloat(index);
+        return rs.wasNull() ? null : value;
+    }
+
+    private static Object readBoolean(ResultSet rs, int index) throws SQLException {
+        boolean value = rs.getBoolean(index);
+        return rs.wasNull() ? null : value;
+    }
+
+    private static Object readLocalTime(ResultSet rs, int index) throws SQLException {
+        return rs.getObject(index, LocalTime.class);
+    }
+
+    private static Object readObject(ResultSet rs, int index) throws SQLException {
+        return rs.getObject(index);
+    }
+
+    /**
+     * Reads a single column value by index
+     */
+    @FunctionalInterface
+    private interface ColumnReader {
+        Object read(ResultSet rs, int index) throws SQLException;
+    }
+}
@@ -19,8 +19,6 @@ package cherry.mastermeister.util;
 import cherry.mastermeister.enums.PermissionType;
 import cherry.mastermeister.model.UserPermission;
 import cherry.mastermeister.service.PermissionService;
-import cherry.mastermeister.repository.UserRepository;
-import cherry.mastermeister.enums.UserRole;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -37,7 +35,6 @@ public class SqlPermissionFilter {
 
     private final Logger logger = LoggerFactory.getLogger(getClass());
     private final PermissionService permissionService;
-    private final UserRepository userRepository;
 
     private static final Pattern TABLE_PATTERN = Pattern.compile(
             "(?i)\\b(?:FROM|JOIN|UPDATE|INSERT\\s+INTO|DELETE\\s+FROM)\\s+(?:([\\w.]+)\\.)?(\\w+)",
@@ -49,9 +46,8 @@ public class SqlPermissionFilter {
             Pattern.CASE_INSENSITIVE
     );
 
-    public SqlPermissionFilter(PermissionService permissionService, UserRepository userRepository) {
+    public SqlPermissionFilter(PermissionService permissionService) {
         this.permissionService = permissionService;
-        this.userRepository = userRepository;
     }
 
     /**
@@ -61,7 +57,7 @@ public class SqlPermissionFilter {
         logger.debug("Validating SQL query for user: {}, connection: {}", userId, connectionId);
 
         // Check if user is admin (admin users have all permissions)
-        if (isUserAdmin(userId)) {
+        if (permissionService.isUserAdmin(userId)) {
             return SqlValidationResult.allowed("Administrator access");
         }
 
@@ -314,15 +310,6 @@ public class SqlPermissionFilter {
                 columnName.equals(permission.columnName());
     }
 
-    /**
-     * Check if user is admin
-     */
-    private boolean isUserAdmin(Long userId) {
-        return userRepository.findById(userId)
-                .map(user -> user.getRole() == UserRole.ADMIN)
-                .orElse(false);
-    }
-
     /**
      * Check if string is a SQL reserved keyword
      */
@@ -23,13 +23,23 @@ import cherry.mastermeister.enums.UserStatus;
 import cherry.mastermeister.repository.AuditLogRepository;
 import cherry.mastermeister.repository.RefreshTokenRepository;
 import cherry.mastermeister.repository.UserRepository;
+import cherry.mastermeister.security.JwtVerificationCache;
 import cherry.mastermeister.service.AuditLogService;
+import cherry.mastermeister.service.CacheChangeLogService;
+import cherry.mastermeister.service.LoginAdmissionService;
+import cherry.mastermeister.service.RefreshTokenStore;
 import cherry.mastermeister.service.TokenRefreshService;
 import cherry.mastermeister.service.UserDetailsServiceImpl;
 import cherry.mastermeister.util.JwtUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -50,9 +60,13 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 })
 @Import({
         SecurityConfig.class,
+        AuthenticationConfig.class,
         JwtUtil.class,
+        JwtVerificationCache.class,
         UserDetailsServiceImpl.class,
+        LoginAdmissionService.class,
         TokenRefreshService.class,
+        RefreshTokenStore.class,
         AuditLogService.class
 })
 class SecurityConfigTest {
@@ -72,6 +86,23 @@ class SecurityConfigTest {
     @MockitoBean
     private AuditLogRepository auditLogRepository;
 
+    @MockitoBean
+    private CacheChangeLogService cacheChangeLogService;
+
+    @TestConfiguration
+    static class TestConfig {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager();
+        }
+    }
+
     @Test
     void shouldAllowHealthEndpoint() throws Exception {
         mockMvc.perform(get("/api/health"))
@@ -19,6 +19,7 @@ package cherry.mastermeister.controller;
 import cherry.mastermeister.config.SecurityConfig;
 import cherry.mastermeister.enums.UserStatus;
 import cherry.mastermeister.model.UserSummary;
+import cherry.mastermeister.security.JwtVerificationCache;
 import cherry.mastermeister.service.UserDetailsServiceImpl;
 import cherry.mastermeister.service.UserService;
 import cherry.mastermeister.util.JwtUtil;
@@ -54,6 +55,9 @@ class AdminControllerTest {
     @MockitoBean
     private UserDetailsServiceImpl userDetailsService;
 
+    @MockitoBean
+    private JwtVerificationCache jwtVerificationCache;
+
     @Test
     void shouldRequireAdminRoleForPendingUsers() throws Exception {
         mockMvc.perform(get("/api/admin/users/pending"))
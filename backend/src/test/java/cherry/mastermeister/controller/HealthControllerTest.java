@@ -17,6 +17,7 @@
 package cherry.mastermeister.controller;
 
 import cherry.mastermeister.config.SecurityConfig;
+import cherry.mastermeister.security.JwtVerificationCache;
 import cherry.mastermeister.service.UserDetailsServiceImpl;
 import cherry.mastermeister.util.JwtUtil;
 import org.junit.jupiter.api.Test;
@@ -47,6 +48,9 @@ class HealthControllerTest {
     @MockitoBean
     private UserDetailsServiceImpl userDetailsService;
 
+    @MockitoBean
+    private JwtVerificationCache jwtVerificationCache;
+
     @Test
     void health_ShouldReturnSuccessResponse() throws Exception {
         mockMvc.perform(get("/api/health"))
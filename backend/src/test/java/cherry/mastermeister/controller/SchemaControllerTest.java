@@ -17,9 +17,14 @@
 package cherry.mastermeister.controller;
 
 import cherry.mastermeister.config.SecurityConfig;
+import cherry.mastermeister.enums.SchemaRefreshStatus;
 import cherry.mastermeister.model.ColumnMetadata;
 import cherry.mastermeister.model.SchemaMetadata;
+import cherry.mastermeister.model.SchemaRefreshJob;
 import cherry.mastermeister.model.TableMetadata;
+import cherry.mastermeister.security.JwtVerificationCache;
+import cherry.mastermeister.service.SchemaFingerprintService;
+import cherry.mastermeister.service.SchemaRefreshJobService;
 import cherry.mastermeister.service.SchemaUpdateService;
 import cherry.mastermeister.service.UserDetailsServiceImpl;
 import cherry.mastermeister.util.JwtUtil;
@@ -40,6 +45,7 @@ import java.util.Optional;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(SchemaController.class)
@@ -52,9 +58,18 @@ class SchemaControllerTest {
     @MockitoBean
     private SchemaUpdateService schemaUpdateService;
 
+    @MockitoBean
+    private SchemaRefreshJobService schemaRefreshJobService;
+
+    @MockitoBean
+    private SchemaFingerprintService schemaFingerprintService;
+
     @MockitoBean
     private UserDetailsServiceImpl userDetailsService;
 
+    @MockitoBean
+    private JwtVerificationCache jwtVerificationCache;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -72,7 +87,7 @@ class SchemaControllerTest {
         );
 
         SchemaMetadata schema = new SchemaMetadata(
-                1L, "testdb", List.of("PUBLIC"), List.of(table), LocalDateTime.now()
+                1L, "testdb", List.of("PUBLIC"), List.of(table), LocalDateTime.now(), null
         );
 
         when(schemaUpdateService.getSchema(1L)).thenReturn(Optional.of(schema));
@@ -116,6 +131,46 @@ class SchemaControllerTest {
                 .andExpect(status().isNoContent());
     }
 
+    @Test
+    @WithMockUser(username = "admin@example.com", roles = "ADMIN")
+    void testRefreshSchemaStartsJob() throws Exception {
+        SchemaRefreshJob job = new SchemaRefreshJob(
+                "job-1", 1L, "admin@example.com", SchemaRefreshStatus.PENDING,
+                0, 0, 0, null, LocalDateTime.now(), null
+        );
+
+        when(schemaRefreshJobService.startRefresh(1L, "admin@example.com")).thenReturn(job);
+
+        mockMvc.perform(post("/api/admin/schema/1/refresh")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.ok").value(true))
+                .andExpect(jsonPath("$.data.jobId").value("job-1"))
+                .andExpect(jsonPath("$.data.connectionId").value(1))
+                .andExpect(jsonPath("$.data.status").value("PENDING"));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testGetRefreshJob() throws Exception {
+        SchemaRefreshJob job = new SchemaRefreshJob(
+                "job-1", 1L, "admin@example.com", SchemaRefreshStatus.RUNNING,
+                3, 1, 42, null, LocalDateTime.now(), null
+        );
+
+        when(schemaRefreshJobService.getJob(1L, "job-1")).thenReturn(job);
+
+        mockMvc.perform(get("/api/admin/schema/1/refresh/job-1")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.status").value("RUNNING"))
+                .andExpect(jsonPath("$.data.schemasTotal").value(3))
+                .andExpect(jsonPath("$.data.schemasDone").value(1))
+                .andExpect(jsonPath("$.data.tablesDone").value(42));
+    }
+
     @Test
     void testReadSchemaUnauthorized() throws Exception {
         mockMvc.perform(get("/api/admin/schema/1")
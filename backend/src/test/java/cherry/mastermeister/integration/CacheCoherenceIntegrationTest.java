@@ -0,0 +1,126 @@
+/*
+ * Copyright 2025 agwlvssainokuni
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cherry.mastermeister.integration;
+
+import cherry.mastermeister.MasterMeisterApplication;
+import cherry.mastermeister.entity.DatabaseConnectionEntity;
+import cherry.mastermeister.entity.UserEntity;
+import cherry.mastermeister.enums.*;
+import cherry.mastermeister.repository.DatabaseConnectionRepository;
+import cherry.mastermeister.repository.UserRepository;
+import cherry.mastermeister.service.CacheCoherenceService;
+import cherry.mastermeister.service.PermissionService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Two application contexts sharing one internal database, as two nodes behind a load balancer
+ */
+public class CacheCoherenceIntegrationTest {
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startNodes() {
+        nodeA = startNode();
+        nodeB = startNode();
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        if (nodeB != null) {
+            nodeB.close();
+        }
+        if (nodeA != null) {
+            nodeA.close();
+        }
+    }
+
+    private static ConfigurableApplicationContext startNode() {
+        return new SpringApplicationBuilder(MasterMeisterApplication.class)
+                .profiles("test")
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:coherence;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        // The second node must not drop the tables of the first
+                        "spring.jpa.hibernate.ddl-auto=update",
+                        // Polled explicitly by the tests
+                        "mm.app.cache-coherence.poll-interval-ms=3600000"
+                )
+                .run();
+    }
+
+    @Test
+    void testPermissionGrantedOnOtherNodeEvictsCachedPermissions() {
+        UserEntity user = createUser();
+        DatabaseConnectionEntity connection = createConnection();
+        PermissionService permissionServiceA = nodeA.getBean(PermissionService.class);
+        PermissionService permissionServiceB = nodeB.getBean(PermissionService.class);
+        CacheCoherenceService cacheCoherenceServiceB = nodeB.getBean(CacheCoherenceService.class);
+        cacheCoherenceServiceB.poll();
+
+        assertEquals(Set.of(), permissionServiceB.getPermissionMatrix(user.getId(), connection.getId())
+                .getColumnPermissions("PUBLIC", "USERS", "ID"));
+
+        permissionServiceA.createPermission(user.getId(), connection.getId(), PermissionScope.CONNECTION,
+                PermissionType.READ, null, null, null, true, null, null);
+
+        // Node B answers from its cache until it polls the change log
+        assertEquals(Set.of(), permissionServiceB.getPermissionMatrix(user.getId(), connection.getId())
+                .getColumnPermissions("PUBLIC", "USERS", "ID"));
+
+        cacheCoherenceServiceB.poll();
+
+        assertEquals(Set.of(PermissionType.READ), permissionServiceB.getPermissionMatrix(user.getId(), connection.getId())
+                .getColumnPermissions("PUBLIC", "USERS", "ID"));
+        assertEquals(Set.of(PermissionType.READ), permissionServiceA.getPermissionMatrix(user.getId(), connection.getId())
+                .getColumnPermissions("PUBLIC", "USERS", "ID"));
+    }
+
+    private UserEntity createUser() {
+        UserEntity user = new UserEntity();
+        user.setEmail("coherence-" + System.nanoTime() + "@example.com");
+        user.setPassword("password123");
+        user.setStatus(UserStatus.APPROVED);
+        user.setRole(UserRole.USER);
+        user.setCreatedAt(LocalDateTime.now());
+        return nodeA.getBean(UserRepository.class).save(user);
+    }
+
+    private DatabaseConnectionEntity createConnection() {
+        DatabaseConnectionEntity connection = new DatabaseConnectionEntity();
+        connection.setName("Coherence Database");
+        connection.setDbType(DatabaseType.H2);
+        connection.setHost("mem");
+        connection.setPort(9092);
+        connection.setDatabaseName("testdb");
+        connection.setUsername("sa");
+        connection.setPassword("");
+        connection.setActive(true);
+        connection.setCreatedAt(LocalDateTime.now());
+        connection.setUpdatedAt(LocalDateTime.now());
+        return nodeA.getBean(DatabaseConnectionRepository.class).save(connection);
+    }
+}
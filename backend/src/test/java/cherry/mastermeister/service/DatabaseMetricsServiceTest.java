@@ -0,0 +1,77 @@
+/*
+ * Copyright 2025 agwlvssainokuni
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cherry.mastermeister.service;
+
+import cherry.mastermeister.enums.QueryOperation;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatabaseMetricsServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private DatabaseMetricsService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new DatabaseMetricsService(meterRegistry);
+    }
+
+    @Test
+    void testRecordQuery_RecordsDurationAndRows() {
+        List<String> result = service.recordQuery(1L, "PUBLIC", "USERS", QueryOperation.SELECT,
+                () -> List.of("a", "b", "c"), List::size);
+
+        assertEquals(3, result.size());
+
+        Timer timer = meterRegistry.get(DatabaseMetricsService.QUERY_DURATION)
+                .tag("connection", "1")
+                .tag("table", "PUBLIC.USERS")
+                .tag("operation", "select")
+                .tag("outcome", "success")
+                .timer();
+        assertEquals(1, timer.count());
+
+        DistributionSummary rows = meterRegistry.get(DatabaseMetricsService.QUERY_ROWS)
+                .tag("operation", "select")
+                .summary();
+        assertEquals(1, rows.count());
+        assertEquals(3.0, rows.totalAmount());
+    }
+
+    @Test
+    void testRecordQuery_RecordsFailure() {
+        assertThrows(IllegalStateException.class, () -> service.recordQuery(1L, "PUBLIC", "USERS",
+                QueryOperation.DELETE, () -> {
+                    throw new IllegalStateException("failed");
+                }, (Integer count) -> count));
+
+        Timer timer = meterRegistry.get(DatabaseMetricsService.QUERY_DURATION)
+                .tag("operation", "delete")
+                .tag("outcome", "error")
+                .timer();
+        assertEquals(1, timer.count());
+        assertNull(meterRegistry.find(DatabaseMetricsService.QUERY_ROWS).summary());
+    }
+}
@@ -18,7 +18,10 @@ package cherry.mastermeister.service;
 
 import cherry.mastermeister.entity.DatabaseConnectionEntity;
 import cherry.mastermeister.enums.DatabaseType;
+import cherry.mastermeister.model.ConnectionPoolSettings;
+import cherry.mastermeister.model.DatabaseConnection;
 import cherry.mastermeister.repository.DatabaseConnectionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -27,9 +30,11 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import javax.sql.DataSource;
 import java.time.LocalDateTime;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -39,11 +44,15 @@ class DatabaseServiceTest {
     @Mock
     private DatabaseConnectionRepository repository;
 
+    @Mock
+    private CacheChangeLogService cacheChangeLogService;
+
     private DatabaseService service;
 
     @BeforeEach
     void setUp() {
-        service = new DatabaseService(repository);
+        service = new DatabaseService(repository, new DatabaseMetricsService(new SimpleMeterRegistry()),
+                cacheChangeLogService);
     }
 
     @Test
@@ -114,6 +123,71 @@ class DatabaseServiceTest {
         verify(repository).findById(1L);
     }
 
+    @Test
+    void testGetQueryExecutor_ReusedUntilClosed() {
+        DatabaseConnectionEntity dbConnection = createTestDatabaseConnectionEntity();
+        dbConnection.setDbType(DatabaseType.H2);
+        dbConnection.setHost("mem");
+        dbConnection.setDatabaseName("testdb");
+        dbConnection.setConnectionParams("DB_CLOSE_DELAY=-1");
+        when(repository.findById(1L)).thenReturn(Optional.of(dbConnection));
+
+        QueryExecutor first = service.getQueryExecutor(1L);
+        QueryExecutor second = service.getQueryExecutor(1L);
+
+        assertSame(first, second);
+        assertSame(first.getDataSource(), service.getDataSource(1L));
+        assertEquals(DatabaseType.H2, first.getDbType());
+
+        service.closeDataSource(1L);
+
+        assertTrue(first.isClosed());
+        assertNotSame(first, service.getQueryExecutor(1L));
+        service.closeDataSource(1L);
+    }
+
+    @Test
+    void testUpdateConnection_PoolSettingsAppliedToRunningPool() {
+        DatabaseConnectionEntity dbConnection = createTestDatabaseConnectionEntity();
+        dbConnection.setHost("mem");
+        dbConnection.setDatabaseName("testdb");
+        dbConnection.setConnectionParams("DB_CLOSE_DELAY=-1");
+        when(repository.findById(1L)).thenReturn(Optional.of(dbConnection));
+        when(repository.save(any(DatabaseConnectionEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        QueryExecutor queryExecutor = service.getQueryExecutor(1L);
+        assertEquals(ConnectionPoolSettings.DEFAULT_MAXIMUM_POOL_SIZE, queryExecutor.getMaximumPoolSize());
+
+        ConnectionPoolSettings poolSettings = new ConnectionPoolSettings(4, 1, null, null, null, null, false);
+        service.updateConnection(1L, createTestDatabaseConnection(dbConnection, "DB_CLOSE_DELAY=-1", poolSettings));
+
+        assertSame(queryExecutor, service.getQueryExecutor(1L));
+        assertFalse(queryExecutor.isClosed());
+        assertEquals(4, queryExecutor.getMaximumPoolSize());
+        assertEquals(poolSettings, queryExecutor.getPoolSettings());
+        service.closeDataSource(1L);
+    }
+
+    @Test
+    void testUpdateConnection_TargetChangeRetiresPool() {
+        DatabaseConnectionEntity dbConnection = createTestDatabaseConnectionEntity();
+        dbConnection.setHost("mem");
+        dbConnection.setDatabaseName("testdb");
+        dbConnection.setConnectionParams("DB_CLOSE_DELAY=-1");
+        when(repository.findById(1L)).thenReturn(Optional.of(dbConnection));
+        when(repository.save(any(DatabaseConnectionEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        QueryExecutor queryExecutor = service.getQueryExecutor(1L);
+        service.updateConnection(1L, createTestDatabaseConnection(dbConnection, "DB_CLOSE_DELAY=10", null));
+
+        assertTrue(service.getOpenQueryExecutors().isEmpty());
+        assertNotEquals(0, queryExecutor.getRetiredAt());
+
+        service.closeDrainedExecutors(60000);
+
+        assertTrue(queryExecutor.isClosed());
+    }
+
     @Test
     void testCloseAllDataSources() {
         DatabaseConnectionEntity dbConnection1 = createTestDatabaseConnectionEntity();
@@ -140,6 +214,28 @@ class DatabaseServiceTest {
         verify(repository).findById(2L);
     }
 
+    @Test
+    void testGetStatementCacheProperties_SkipsPropertiesSetInUrl() {
+        Map<String, String> properties = DatabaseService.getStatementCacheProperties(
+                DatabaseType.MYSQL, "useSSL=false&useServerPrepStmts=false&PREPSTMTCACHESIZE=50");
+
+        assertEquals("true", properties.get("cachePrepStmts"));
+        assertEquals("2048", properties.get("prepStmtCacheSqlLimit"));
+        assertFalse(properties.containsKey("useServerPrepStmts"));
+        assertFalse(properties.containsKey("prepStmtCacheSize"));
+        assertEquals(4, DatabaseService.getStatementCacheProperties(DatabaseType.MYSQL, null).size());
+    }
+
+    private DatabaseConnection createTestDatabaseConnection(
+            DatabaseConnectionEntity entity, String connectionParams, ConnectionPoolSettings poolSettings
+    ) {
+        return new DatabaseConnection(
+                entity.getId(), entity.getName(), entity.getDbType(), entity.getHost(), entity.getPort(),
+                entity.getDatabaseName(), entity.getUsername(), "", connectionParams, true,
+                null, null, null, null, poolSettings
+        );
+    }
+
     private DatabaseConnectionEntity createTestDatabaseConnectionEntity() {
         DatabaseConnectionEntity dbConnection = new DatabaseConnectionEntity();
         dbConnection.setId(1L);
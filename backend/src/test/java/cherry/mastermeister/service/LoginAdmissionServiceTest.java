@@ -0,0 +1,169 @@
+/*
+ * Copyright 2025 agwlvssainokuni
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cherry.mastermeister.service;
+
+import cherry.mastermeister.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoginAdmissionServiceTest {
+
+    @Mock
+    private AuthenticationManager authenticationManager;
+
+    private ThreadPoolTaskExecutor executor;
+    private SimpleMeterRegistry meterRegistry;
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    void setUp() {
+        // One hashing thread without a queue: a second concurrent attempt is rejected
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(0);
+        executor.initialize();
+        meterRegistry = new SimpleMeterRegistry();
+        request = new MockHttpServletRequest();
+        request.setRemoteAddr("192.0.2.1");
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void testAuthenticate_AdmitsAttempt() {
+        Authentication authenticated = new UsernamePasswordAuthenticationToken("user@example.com", null, List.of());
+        when(authenticationManager.authenticate(any())).thenReturn(authenticated);
+        LoginAdmissionService service = createService(Duration.ofSeconds(10), 30, 5);
+
+        assertSame(authenticated, service.authenticate("user@example.com", "password", request));
+
+        assertEquals(1.0, loginCount("success"));
+    }
+
+    @Test
+    void testAuthenticate_ThrottlesUsernameAfterFailures() {
+        when(authenticationManager.authenticate(any())).thenThrow(new BadCredentialsException("Bad credentials"));
+        LoginAdmissionService service = createService(Duration.ofSeconds(10), 30, 2);
+
+        assertThrows(BadCredentialsException.class, () -> service.authenticate("user@example.com", "wrong", request));
+        assertThrows(BadCredentialsException.class, () -> service.authenticate("User@Example.com", "wrong", request));
+        assertThrows(TooManyRequestsException.class, () -> service.authenticate("user@example.com", "wrong", request));
+
+        verify(authenticationManager, times(2)).authenticate(any());
+        assertEquals(2.0, loginCount("failure"));
+        assertEquals(1.0, loginCount("throttled"));
+    }
+
+    @Test
+    void testAuthenticate_ThrottlesClientIp() {
+        when(authenticationManager.authenticate(any())).thenThrow(new BadCredentialsException("Bad credentials"));
+        LoginAdmissionService service = createService(Duration.ofSeconds(10), 2, 5);
+
+        assertThrows(BadCredentialsException.class, () -> service.authenticate("a@example.com", "wrong", request));
+        assertThrows(BadCredentialsException.class, () -> service.authenticate("b@example.com", "wrong", request));
+        assertThrows(TooManyRequestsException.class, () -> service.authenticate("c@example.com", "wrong", request));
+
+        verify(authenticationManager, times(2)).authenticate(any());
+        assertEquals(1.0, loginCount("throttled"));
+    }
+
+    @Test
+    void testAuthenticate_RejectsWhenExecutorIsFull() {
+        LoginAdmissionService service = createService(Duration.ofSeconds(10), 30, 5);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> awaitQuietly(release));
+
+        try {
+            assertThrows(TooManyRequestsException.class,
+                    () -> service.authenticate("user@example.com", "password", request));
+        } finally {
+            release.countDown();
+        }
+
+        verify(authenticationManager, never()).authenticate(any());
+        assertEquals(1.0, loginCount("rejected"));
+    }
+
+    @Test
+    void testAuthenticate_RejectsWhenVerificationTimesOut() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(authenticationManager.authenticate(any())).thenAnswer(invocation -> {
+            started.countDown();
+            awaitQuietly(release);
+            return invocation.getArgument(0);
+        });
+        LoginAdmissionService service = createService(Duration.ofMillis(100), 30, 5);
+
+        try {
+            assertThrows(TooManyRequestsException.class,
+                    () -> service.authenticate("user@example.com", "password", request));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            // The verification still holds the hashing thread
+            assertEquals(1, executor.getActiveCount());
+        } finally {
+            release.countDown();
+        }
+
+        assertEquals(1.0, loginCount("rejected"));
+        assertEquals(0.0, loginCount("success"));
+    }
+
+    private LoginAdmissionService createService(Duration timeout, int maxAttemptsPerIp, int maxFailuresPerUsername) {
+        return new LoginAdmissionService(authenticationManager, executor, meterRegistry, timeout,
+                maxAttemptsPerIp, Duration.ofMinutes(1), maxFailuresPerUsername, Duration.ofMinutes(5),
+                false, 1000);
+    }
+
+    private double loginCount(String outcome) {
+        return meterRegistry.get("mm.auth.login").tag("outcome", outcome).counter().count();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
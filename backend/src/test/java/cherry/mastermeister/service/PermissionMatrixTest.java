@@ -0,0 +1,123 @@
+/*
+ * Copyright 2025 agwlvssainokuni
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cherry.mastermeister.service;
+
+import cherry.mastermeister.entity.UserPermissionEntity;
+import cherry.mastermeister.enums.PermissionScope;
+import cherry.mastermeister.enums.PermissionType;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PermissionMatrixTest {
+
+    private static final List<String> COLUMNS = List.of("ID", "NAME", "EMAIL");
+
+    @Test
+    void testColumnSettingOverridesUpperLevels() {
+        PermissionMatrix matrix = PermissionMatrix.compile(List.of(
+                permission(PermissionScope.SCHEMA, PermissionType.READ, "PUBLIC", null, null, true),
+                permission(PermissionScope.TABLE, PermissionType.WRITE, "PUBLIC", "USERS", null, true),
+                permission(PermissionScope.COLUMN, PermissionType.READ, "PUBLIC", "USERS", "EMAIL", false)
+        ));
+
+        PermissionMatrix.TablePermissions table = matrix.getTable("PUBLIC", "USERS", () -> COLUMNS);
+
+        assertEquals(List.of("ID", "NAME"), table.getColumns(PermissionType.READ));
+        assertEquals(COLUMNS, table.getColumns(PermissionType.WRITE));
+        assertEquals(EnumSet.of(PermissionType.WRITE), table.getColumnPermissions("EMAIL"));
+        assertEquals(EnumSet.of(PermissionType.READ, PermissionType.WRITE), table.getTablePermissions());
+    }
+
+    @Test
+    void testDeleteRequiresAllColumns() {
+        PermissionMatrix matrix = PermissionMatrix.compile(List.of(
+                permission(PermissionScope.CONNECTION, PermissionType.DELETE, null, null, null, true),
+                permission(PermissionScope.COLUMN, PermissionType.DELETE, "PUBLIC", "USERS", "ID", false)
+        ));
+
+        assertFalse(matrix.getTable("PUBLIC", "USERS", () -> COLUMNS).hasAllColumns(PermissionType.DELETE));
+        assertTrue(matrix.getTable("PUBLIC", "ORDERS", () -> COLUMNS).hasAllColumns(PermissionType.DELETE));
+        assertFalse(matrix.getTable("PUBLIC", "EMPTY", List::of).hasAllColumns(PermissionType.DELETE));
+    }
+
+    @Test
+    void testUpperLevelDenialHasNoEffect() {
+        PermissionMatrix matrix = PermissionMatrix.compile(List.of(
+                permission(PermissionScope.CONNECTION, PermissionType.READ, null, null, null, true),
+                permission(PermissionScope.TABLE, PermissionType.READ, "PUBLIC", "USERS", null, false)
+        ));
+
+        assertTrue(matrix.getTable("PUBLIC", "USERS", () -> COLUMNS).hasAnyColumn(PermissionType.READ));
+    }
+
+    @Test
+    void testColumnOutsideMetadata() {
+        PermissionMatrix matrix = PermissionMatrix.compile(List.of(
+                permission(PermissionScope.COLUMN, PermissionType.READ, "PUBLIC", "USERS", "EXTRA", true)
+        ));
+
+        assertNull(matrix.getTable("PUBLIC", "USERS", () -> COLUMNS).getColumnPermissions("EXTRA"));
+        assertEquals(Set.of(PermissionType.READ), matrix.getColumnPermissions("PUBLIC", "USERS", "EXTRA"));
+    }
+
+    @Test
+    void testAdminHasAllPermissions() {
+        PermissionMatrix.TablePermissions table = PermissionMatrix.forAdmin().getTable("PUBLIC", "USERS", () -> COLUMNS);
+
+        assertEquals(EnumSet.allOf(PermissionType.class), table.getTablePermissions());
+        assertEquals(COLUMNS, table.getColumns(PermissionType.ADMIN));
+    }
+
+    @Test
+    void testExpiresAtIsEarliestExpiration() {
+        LocalDateTime earliest = LocalDateTime.of(2025, 10, 1, 9, 0);
+        UserPermissionEntity grant = permission(PermissionScope.TABLE, PermissionType.READ, "PUBLIC", "USERS", null, true);
+        grant.setExpiresAt(earliest.plusDays(1));
+        UserPermissionEntity denial = permission(PermissionScope.COLUMN, PermissionType.READ, "PUBLIC", "USERS", "EMAIL", false);
+        denial.setExpiresAt(earliest);
+
+        PermissionMatrix matrix = PermissionMatrix.compile(List.of(
+                grant, denial,
+                permission(PermissionScope.CONNECTION, PermissionType.WRITE, null, null, null, true)));
+
+        assertEquals(earliest, matrix.getExpiresAt());
+        assertNull(PermissionMatrix.compile(List.of(
+                permission(PermissionScope.CONNECTION, PermissionType.WRITE, null, null, null, true))).getExpiresAt());
+        assertNull(PermissionMatrix.forAdmin().getExpiresAt());
+    }
+
+    private UserPermissionEntity permission(
+            PermissionScope scope, PermissionType permissionType,
+            String schemaName, String tableName, String columnName,
+            boolean granted
+    ) {
+        UserPermissionEntity entity = new UserPermissionEntity();
+        entity.setScope(scope);
+        entity.setPermissionType(permissionType);
+        entity.setSchemaName(schemaName);
+        entity.setTableName(tableName);
+        entity.setColumnName(columnName);
+        entity.setGranted(granted);
+        return entity;
+    }
+}
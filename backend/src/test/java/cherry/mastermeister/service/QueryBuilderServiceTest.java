@@ -0,0 +1,130 @@
+/*
+ * Copyright 2025 agwlvssainokuni
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cherry.mastermeister.service;
+
+import cherry.mastermeister.enums.DatabaseType;
+import cherry.mastermeister.enums.PermissionType;
+import cherry.mastermeister.model.AccessibleColumn;
+import cherry.mastermeister.model.RecordReadCommand;
+import cherry.mastermeister.util.RecordCursorCodec;
+import cherry.mastermeister.util.RowDecoder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryBuilderServiceTest {
+
+    private static final List<String> KEY_COLUMNS = List.of("START_AT", "ID");
+
+    private final List<AccessibleColumn> columns = List.of(
+            column("ID", "BIGINT", 1),
+            column("START_AT", "TIME", 2)
+    );
+    private final List<RecordReadCommand.SortOrder> keyOrders = List.of(
+            new RecordReadCommand.SortOrder("START_AT", RecordReadCommand.SortDirection.ASC),
+            new RecordReadCommand.SortOrder("ID", RecordReadCommand.SortDirection.ASC)
+    );
+
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private QueryBuilderService service;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:querybuilder;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        jdbcTemplate.getJdbcTemplate().execute("CREATE TABLE PUBLIC.SHIFTS (ID BIGINT PRIMARY KEY, START_AT TIME(3))");
+        jdbcTemplate.getJdbcTemplate().execute("INSERT INTO PUBLIC.SHIFTS (ID, START_AT) VALUES "
+                + "(1, TIME '09:00:00.100'), (2, TIME '09:00:00.200'), (3, TIME '09:00:00.300')");
+
+        service = new QueryBuilderService(new ConcurrentMapCacheManager());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.getJdbcTemplate().execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void testBuildKeysetSelectQuery_SeekPredicate() {
+        List<RecordReadCommand.SortOrder> mixedOrders = List.of(
+                new RecordReadCommand.SortOrder("START_AT", RecordReadCommand.SortDirection.DESC),
+                new RecordReadCommand.SortOrder("ID", RecordReadCommand.SortDirection.ASC)
+        );
+
+        QueryBuilderService.QueryResult result = service.buildKeysetSelectQuery(
+                "PUBLIC", "SHIFTS", columns, RecordReadCommand.empty(), mixedOrders,
+                List.of(LocalTime.of(9, 0), 1L), 10, DatabaseType.H2);
+
+        assertEquals("SELECT \"ID\", \"START_AT\" FROM \"PUBLIC\".\"SHIFTS\""
+                + " WHERE ((\"START_AT\" < :cursor0) OR (\"START_AT\" = :cursor0 AND \"ID\" > :cursor1))"
+                + " ORDER BY \"START_AT\" DESC, \"ID\" ASC LIMIT :limit", result.query());
+        assertEquals(LocalTime.of(9, 0), result.parameters().get("cursor0"));
+        assertEquals(1L, result.parameters().get("cursor1"));
+    }
+
+    @Test
+    void testKeysetPage_SubSecondTimeKey() {
+        List<List<Object>> firstPage = fetchCursorValues(null, 2);
+        assertEquals(List.of(1L, 2L), ids(firstPage));
+
+        List<Object> last = firstPage.get(firstPage.size() - 1);
+        assertEquals(LocalTime.of(9, 0, 0, 200_000_000), last.get(0));
+        String cursor = RecordCursorCodec.encode(KEY_COLUMNS, last);
+
+        List<List<Object>> secondPage = fetchCursorValues(RecordCursorCodec.decode(cursor, KEY_COLUMNS), 2);
+        assertEquals(List.of(3L), ids(secondPage));
+    }
+
+    /**
+     * Key values of each row of a keyset page, as read for cursors
+     */
+    private List<List<Object>> fetchCursorValues(List<Object> afterValues, int limit) {
+        QueryBuilderService.QueryResult result = service.buildKeysetSelectQuery(
+                "PUBLIC", "SHIFTS", columns, RecordReadCommand.empty(), keyOrders, afterValues, limit, DatabaseType.H2);
+        return jdbcTemplate.query(result.query(), result.parameters(), (ResultSetExtractor<List<List<Object>>>) rs -> {
+            RowDecoder decoder = RowDecoder.compile(rs.getMetaData(), columns);
+            List<List<Object>> rows = new ArrayList<>();
+            while (rs.next()) {
+                rows.add(decoder.readCursorValues(rs, KEY_COLUMNS));
+            }
+            return rows;
+        });
+    }
+
+    private static List<Object> ids(List<List<Object>> rows) {
+        return rows.stream().map(row -> row.get(1)).toList();
+    }
+
+    private static AccessibleColumn column(String name, String dataType, int position) {
+        return new AccessibleColumn(name, dataType, null, null, true, null, null,
+                "ID".equals(name), false, position, Set.of(PermissionType.READ),
+                true, false, false, false);
+    }
+}
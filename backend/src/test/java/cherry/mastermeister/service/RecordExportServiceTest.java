@@ -0,0 +1,161 @@
+/*
+ * Copyright 2025 agwlvssainokuni
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cherry.mastermeister.service;
+
+import cherry.mastermeister.enums.DatabaseType;
+import cherry.mastermeister.enums.ExportFormat;
+import cherry.mastermeister.enums.PermissionType;
+import cherry.mastermeister.exception.PermissionDeniedException;
+import cherry.mastermeister.model.AccessibleColumn;
+import cherry.mastermeister.model.RecordReadCommand;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RecordExportServiceTest {
+
+    @Mock
+    private DatabaseService databaseService;
+
+    @Mock
+    private RecordReadService recordReadService;
+
+    @Mock
+    private PermissionService permissionService;
+
+    @Mock
+    private AuditLogService auditLogService;
+
+    @Mock
+    private QueryExecutor queryExecutor;
+
+    private DriverManagerDataSource dataSource;
+    private RecordExportService service;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:export;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE PUBLIC.ITEMS (ID BIGINT PRIMARY KEY, NAME VARCHAR(50), SECRET VARCHAR(50))");
+        jdbcTemplate.execute("INSERT INTO PUBLIC.ITEMS (ID, NAME, SECRET) VALUES "
+                + "(1, 'plain', 'x'), (2, 'with, comma', 'y'), (3, NULL, 'z')");
+
+        service = new RecordExportService(
+                databaseService, recordReadService, permissionService,
+                new QueryBuilderService(new ConcurrentMapCacheManager()), auditLogService,
+                new DatabaseMetricsService(new SimpleMeterRegistry()), new ObjectMapper(), 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        new JdbcTemplate(dataSource).execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void testCsvRowWriter_QuotesEscapesAndNulls() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        RecordExportService.CsvRowWriter writer = new RecordExportService.CsvRowWriter(
+                output, List.of("ID", "NOTE", "MEMO"));
+
+        writer.writeHeader();
+        writer.writeRow(new Object[]{1L, "say \"hi\", then\nleave", null});
+        writer.writeRow(new Object[]{2L, "plain", ""});
+
+        assertEquals(2L, writer.finish());
+        assertEquals("ID,NOTE,MEMO\r\n"
+                        + "1,\"say \"\"hi\"\", then\nleave\",\r\n"
+                        + "2,plain,\r\n",
+                output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testNdjsonRowWriter_WritesOneObjectPerLine() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        RecordExportService.NdjsonRowWriter writer = new RecordExportService.NdjsonRowWriter(
+                new ObjectMapper(), output, List.of("ID", "NOTE"));
+
+        writer.writeHeader();
+        writer.writeRow(new Object[]{1L, "a\"b"});
+        writer.writeRow(new Object[]{2L, null});
+
+        assertEquals(2L, writer.finish());
+        assertEquals("{\"ID\":1,\"NOTE\":\"a\\\"b\"}\n{\"ID\":2,\"NOTE\":null}\n",
+                output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testExport_OmitsUnreadableColumnsAndAppliesFilter() throws IOException {
+        when(permissionService.hasReadPermission(1L, 1L, "PUBLIC", "ITEMS")).thenReturn(true);
+        when(recordReadService.getAccessibleColumns(1L, 1L, "PUBLIC", "ITEMS")).thenReturn(List.of(
+                column("ID", 1, true), column("NAME", 2, true), column("SECRET", 3, false)));
+        when(databaseService.getQueryExecutor(1L)).thenReturn(queryExecutor);
+        when(queryExecutor.getDbType()).thenReturn(DatabaseType.H2);
+        when(databaseService.getDataSource(1L)).thenReturn(dataSource);
+
+        RecordReadCommand filter = new RecordReadCommand(
+                List.of(new RecordReadCommand.ColumnFilter("ID", RecordReadCommand.FilterOperator.GREATER_THAN, 1L, null)),
+                null,
+                List.of(new RecordReadCommand.SortOrder("ID", RecordReadCommand.SortDirection.ASC)));
+
+        RecordExportService.ExportPlan plan = service.prepareExport(1L, 1L, "PUBLIC", "ITEMS", filter, ExportFormat.CSV);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        long rowCount = service.streamExport(plan, output);
+
+        assertEquals(List.of("ID", "NAME"), plan.columnNames());
+        assertFalse(plan.queryResult().query().contains("SECRET"));
+        assertEquals(2L, rowCount);
+        assertEquals("ID,NAME\r\n2,\"with, comma\"\r\n3,\r\n", output.toString(StandardCharsets.UTF_8));
+        verify(auditLogService).logDataAccess(eq(1L), eq("PUBLIC"), eq("ITEMS"), eq(2), anyLong());
+    }
+
+    @Test
+    void testPrepareExport_RequiresReadPermission() {
+        when(permissionService.hasReadPermission(1L, 1L, "PUBLIC", "ITEMS")).thenReturn(false);
+
+        assertThrows(PermissionDeniedException.class, () -> service.prepareExport(
+                1L, 1L, "PUBLIC", "ITEMS", RecordReadCommand.empty(), ExportFormat.NDJSON));
+    }
+
+    private static AccessibleColumn column(String name, int position, boolean canRead) {
+        return new AccessibleColumn(name, "VARCHAR", null, null, true, null, null,
+                "ID".equals(name), false, position,
+                canRead ? Set.of(PermissionType.READ) : Set.of(),
+                canRead, false, false, false);
+    }
+}
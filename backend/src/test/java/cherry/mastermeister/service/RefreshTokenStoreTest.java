@@ -0,0 +1,120 @@
+/*
+ * Copyright 2025 agwlvssainokuni
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cherry.mastermeister.service;
+
+import cherry.mastermeister.entity.RefreshTokenEntity;
+import cherry.mastermeister.repository.RefreshTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenStoreTest {
+
+    @Mock
+    private RefreshTokenRepository repository;
+
+    private RefreshTokenStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new RefreshTokenStore(repository, 4, Duration.ofMinutes(1), 100);
+    }
+
+    @Test
+    void testCreatedTokenIsValidatedFromIndex() {
+        store.create("token-1", "user@example.com", LocalDateTime.now().plusHours(1));
+
+        Optional<RefreshTokenStore.TokenState> state = store.find("token-1");
+
+        assertTrue(state.isPresent());
+        assertEquals("user@example.com", state.get().getUsername());
+        verify(repository).save(any(RefreshTokenEntity.class));
+        verify(repository, never()).findByTokenId(anyString());
+    }
+
+    @Test
+    void testUnindexedTokenIsLoadedOnce() {
+        RefreshTokenEntity entity = new RefreshTokenEntity();
+        entity.setTokenId("token-2");
+        entity.setUsername("user@example.com");
+        entity.setExpiresAt(LocalDateTime.now().plusHours(1));
+        entity.setUsageCount(3);
+        when(repository.findByTokenId("token-2")).thenReturn(Optional.of(entity));
+
+        assertEquals(3, store.find("token-2").orElseThrow().getUsageCount());
+        assertEquals(3, store.find("token-2").orElseThrow().getUsageCount());
+
+        verify(repository, times(1)).findByTokenId("token-2");
+    }
+
+    @Test
+    void testUsesAreLimitedAndWrittenBehind() {
+        store.create("token-3", "user@example.com", LocalDateTime.now().plusHours(1));
+        RefreshTokenStore.TokenState state = store.find("token-3").orElseThrow();
+
+        assertTrue(store.use(state, 2));
+        assertTrue(store.use(state, 2));
+        assertFalse(store.use(state, 2));
+        verify(repository, never()).incrementUsage(anyString(), anyInt(), any(), any());
+
+        assertEquals(1, store.flushUsage());
+        verify(repository).incrementUsage(eq("token-3"), eq(2), any(), any());
+        assertEquals(0, store.flushUsage());
+    }
+
+    @Test
+    void testRevokedTokenIsRejectedImmediately() {
+        store.create("token-4", "user@example.com", LocalDateTime.now().plusHours(1));
+        RefreshTokenStore.TokenState state = store.find("token-4").orElseThrow();
+
+        store.revoke("token-4");
+
+        assertTrue(store.find("token-4").isEmpty());
+        assertFalse(store.use(state, 10));
+        verify(repository).deleteByTokenId("token-4");
+        verify(repository, never()).findByTokenId(anyString());
+    }
+
+    @Test
+    void testRevokeAllRejectsUnindexedTokenBeforeDeletionCommits() {
+        RefreshTokenEntity entity = new RefreshTokenEntity();
+        entity.setTokenId("token-5");
+        entity.setUsername("user@example.com");
+        entity.setExpiresAt(LocalDateTime.now().plusHours(1));
+        entity.setCreatedAt(LocalDateTime.now().minusMinutes(5));
+        // Not deleted yet as seen by another transaction
+        when(repository.findByTokenId("token-5")).thenReturn(Optional.of(entity));
+
+        store.revokeAll("user@example.com");
+
+        assertTrue(store.find("token-5").isEmpty());
+        verify(repository).deleteAllByUsername("user@example.com");
+    }
+}
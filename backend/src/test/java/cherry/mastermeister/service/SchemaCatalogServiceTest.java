@@ -0,0 +1,149 @@
+/*
+ * Copyright 2025 agwlvssainokuni
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cherry.mastermeister.service;
+
+import cherry.mastermeister.entity.ColumnMetadataEntity;
+import cherry.mastermeister.entity.SchemaMetadataEntity;
+import cherry.mastermeister.entity.TableMetadataEntity;
+import cherry.mastermeister.enums.CacheChangeType;
+import cherry.mastermeister.model.ColumnMetadata;
+import cherry.mastermeister.model.SchemaMetadata;
+import cherry.mastermeister.model.TableMetadata;
+import cherry.mastermeister.repository.SchemaMetadataRepository;
+import cherry.mastermeister.repository.TableMetadataRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SchemaCatalogServiceTest {
+
+    @Mock
+    private SchemaMetadataRepository schemaMetadataRepository;
+
+    @Mock
+    private TableMetadataRepository tableMetadataRepository;
+
+    @Mock
+    private CacheChangeLogService cacheChangeLogService;
+
+    private SchemaCatalogService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new SchemaCatalogService(schemaMetadataRepository, tableMetadataRepository, cacheChangeLogService);
+    }
+
+    @Test
+    void testFindCatalog_LoadsOnce() {
+        SchemaMetadataEntity schemaEntity = new SchemaMetadataEntity();
+        schemaEntity.setConnectionId(1L);
+        schemaEntity.setDatabaseName("testdb");
+        schemaEntity.setSchemas(new ArrayList<>(List.of("PUBLIC")));
+        schemaEntity.setLastUpdatedAt(LocalDateTime.now());
+        when(schemaMetadataRepository.findWithSchemasByConnectionId(1L)).thenReturn(Optional.of(schemaEntity));
+        when(tableMetadataRepository.findWithColumnsByConnectionId(1L)).thenReturn(List.of(
+                tableEntity("ORDERS", column("CODE", "VARCHAR", 2), column("ID", "BIGINT", 1))));
+
+        SchemaCatalog catalog = service.findCatalog(1L).orElseThrow();
+        SchemaCatalog.Table orders = catalog.findTable("PUBLIC", "ORDERS").orElseThrow();
+
+        assertEquals(List.of("ID", "CODE"), orders.columnNames());
+        assertEquals("VARCHAR", orders.findColumn("CODE").orElseThrow().dataType());
+        assertTrue(catalog.findTable("PUBLIC", "MISSING").isEmpty());
+        assertSame(catalog, service.findCatalog(1L).orElseThrow());
+        verify(schemaMetadataRepository, times(1)).findWithSchemasByConnectionId(1L);
+        verify(tableMetadataRepository, times(1)).findWithColumnsByConnectionId(1L);
+    }
+
+    @Test
+    void testFindCatalog_NoMetadata() {
+        when(schemaMetadataRepository.findWithSchemasByConnectionId(1L)).thenReturn(Optional.empty());
+
+        assertTrue(service.findCatalog(1L).isEmpty());
+        assertEquals(List.of(), service.getColumnNames(1L, "PUBLIC", "ORDERS"));
+        verifyNoInteractions(tableMetadataRepository);
+    }
+
+    @Test
+    void testReplace_InstallsSnapshotWithoutLoading() {
+        SchemaMetadata metadata = new SchemaMetadata(1L, "testdb", List.of("PUBLIC", "SALES"), List.of(
+                new TableMetadata("PUBLIC", "ORDERS", "TABLE", null, List.of(
+                        columnModel("ID", new String("BIGINT"), 1))),
+                new TableMetadata("SALES", "ORDERS", "TABLE", null, List.of(
+                        columnModel("ID", new String("BIGINT"), 1),
+                        columnModel("NOTE", "VARCHAR", 2)))
+        ), LocalDateTime.now(), "fingerprint");
+
+        service.replace(metadata);
+
+        SchemaCatalog catalog = service.findCatalog(1L).orElseThrow();
+        assertEquals(metadata, catalog.getMetadata());
+        assertEquals(List.of("ID", "NOTE"), service.getColumnNames(1L, "SALES", "ORDERS"));
+        // Equal type names are shared within the snapshot
+        assertSame(catalog.findTable("PUBLIC", "ORDERS").orElseThrow().columns().get(0).dataType(),
+                catalog.findTable("SALES", "ORDERS").orElseThrow().columns().get(0).dataType());
+        assertThrows(UnsupportedOperationException.class, () -> catalog.getMetadata().tables().clear());
+        verify(cacheChangeLogService).record(CacheChangeType.SCHEMA_METADATA, 1L);
+        verifyNoInteractions(schemaMetadataRepository, tableMetadataRepository);
+    }
+
+    @Test
+    void testEvict_ReloadsOnNextUse() {
+        service.replace(new SchemaMetadata(1L, "testdb", List.of("PUBLIC"), List.of(), LocalDateTime.now(), null));
+        when(schemaMetadataRepository.findWithSchemasByConnectionId(1L)).thenReturn(Optional.empty());
+
+        service.evict(1L);
+
+        assertTrue(service.findCatalog(1L).isEmpty());
+        verify(schemaMetadataRepository).findWithSchemasByConnectionId(1L);
+    }
+
+    private TableMetadataEntity tableEntity(String tableName, ColumnMetadataEntity... columns) {
+        TableMetadataEntity table = new TableMetadataEntity();
+        table.setSchema("PUBLIC");
+        table.setTableName(tableName);
+        table.setTableType("TABLE");
+        table.setColumns(new ArrayList<>(List.of(columns)));
+        return table;
+    }
+
+    private ColumnMetadataEntity column(String columnName, String dataType, int ordinalPosition) {
+        ColumnMetadataEntity column = new ColumnMetadataEntity();
+        column.setColumnName(columnName);
+        column.setDataType(dataType);
+        column.setNullable(true);
+        column.setPrimaryKey(false);
+        column.setAutoIncrement(false);
+        column.setOrdinalPosition(ordinalPosition);
+        return column;
+    }
+
+    private ColumnMetadata columnModel(String columnName, String dataType, int ordinalPosition) {
+        return new ColumnMetadata(columnName, dataType, null, null, true, null, null, false, false, ordinalPosition);
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2025 agwlvssainokuni
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cherry.mastermeister.service;
+
+import cherry.mastermeister.entity.SchemaMetadataEntity;
+import cherry.mastermeister.enums.DatabaseType;
+import cherry.mastermeister.model.DatabaseConnection;
+import cherry.mastermeister.model.SchemaChangeCheck;
+import cherry.mastermeister.repository.SchemaMetadataRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SchemaFingerprintServiceTest {
+
+    @Mock
+    private DatabaseService databaseService;
+
+    @Mock
+    private SchemaMetadataRepository schemaMetadataRepository;
+
+    private DriverManagerDataSource dataSource;
+    private SchemaFingerprintService service;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:fingerprint;DB_CLOSE_DELAY=-1", "sa", "");
+        execute("CREATE TABLE PUBLIC.ORDERS (ID BIGINT PRIMARY KEY, CODE VARCHAR(20) NOT NULL)");
+
+        DatabaseConnection connection = new DatabaseConnection(
+                1L, "fingerprint", DatabaseType.H2, "localhost", 9092, "FINGERPRINT", "sa", "",
+                null, true, null, null, null, null, null);
+        when(databaseService.getConnection(1L)).thenReturn(connection);
+        when(databaseService.getDataSource(1L)).thenReturn(dataSource);
+
+        service = new SchemaFingerprintService(databaseService, schemaMetadataRepository);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void testReadFingerprint_StableWithoutChanges() throws SQLException {
+        String first = service.readFingerprint(1L).orElseThrow();
+        execute("INSERT INTO PUBLIC.ORDERS (ID, CODE) VALUES (1, 'A')");
+
+        assertEquals(64, first.length());
+        assertEquals(first, service.readFingerprint(1L).orElseThrow());
+    }
+
+    @Test
+    void testReadFingerprint_ChangesWithSchema() throws SQLException {
+        String original = service.readFingerprint(1L).orElseThrow();
+
+        execute("ALTER TABLE PUBLIC.ORDERS ADD COLUMN AMOUNT DECIMAL(10, 2)");
+        String columnAdded = service.readFingerprint(1L).orElseThrow();
+        assertNotEquals(original, columnAdded);
+
+        execute("COMMENT ON COLUMN PUBLIC.ORDERS.AMOUNT IS 'Amount'");
+        String commented = service.readFingerprint(1L).orElseThrow();
+        assertNotEquals(columnAdded, commented);
+
+        execute("CREATE SCHEMA SALES");
+        assertNotEquals(commented, service.readFingerprint(1L).orElseThrow());
+    }
+
+    @Test
+    void testCheckForChanges() throws SQLException {
+        SchemaMetadataEntity entity = new SchemaMetadataEntity();
+        entity.setConnectionId(1L);
+        entity.setLastUpdatedAt(LocalDateTime.now());
+        entity.setFingerprint(service.readFingerprint(1L).orElseThrow());
+        when(schemaMetadataRepository.findByConnectionId(1L)).thenReturn(Optional.of(entity));
+
+        SchemaChangeCheck unchanged = service.checkForChanges(1L);
+        assertFalse(unchanged.changed());
+        assertEquals(entity.getLastUpdatedAt(), unchanged.lastUpdatedAt());
+
+        execute("DROP TABLE PUBLIC.ORDERS");
+        assertTrue(service.checkForChanges(1L).changed());
+    }
+
+    @Test
+    void testCheckForChanges_NoStoredMetadata() {
+        when(schemaMetadataRepository.findByConnectionId(1L)).thenReturn(Optional.empty());
+
+        SchemaChangeCheck check = service.checkForChanges(1L);
+
+        assertTrue(check.changed());
+        assertNull(check.storedFingerprint());
+        assertNotNull(check.currentFingerprint());
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Connection conn = dataSource.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+}
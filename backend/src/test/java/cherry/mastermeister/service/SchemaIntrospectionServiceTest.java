@@ -0,0 +1,237 @@
+/*
+ * Copyright 2025 agwlvssainokuni
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cherry.mastermeister.service;
+
+import cherry.mastermeister.enums.DatabaseType;
+import cherry.mastermeister.model.ColumnMetadata;
+import cherry.mastermeister.model.DatabaseConnection;
+import cherry.mastermeister.model.SchemaMetadata;
+import cherry.mastermeister.model.TableMetadata;
+import cherry.mastermeister.repository.SchemaMetadataRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SchemaIntrospectionServiceTest {
+
+    private static final String DATABASE_NAME = "INTROSPECTION";
+
+    @Mock
+    private DatabaseService databaseService;
+
+    @Mock
+    private SchemaMetadataRepository schemaMetadataRepository;
+
+    @Mock
+    private QueryExecutor queryExecutor;
+
+    private final AtomicInteger connectionCalls = new AtomicInteger();
+    private final AtomicInteger workerSubmissions = new AtomicInteger();
+    private volatile int failingConnectionCall = 0;
+    private volatile int maximumPoolSize = 10;
+
+    private DriverManagerDataSource dataSource;
+    private ExecutorService executor;
+    private SchemaIntrospectionService service;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + DATABASE_NAME.toLowerCase() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        try (Connection conn = dataSource.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE SCHEMA SALES");
+            stmt.execute("CREATE TABLE SALES.ORDERS (ID BIGINT AUTO_INCREMENT PRIMARY KEY,"
+                    + " CODE VARCHAR(20) NOT NULL DEFAULT 'NEW', AMOUNT DECIMAL(10, 2))");
+            stmt.execute("COMMENT ON TABLE SALES.ORDERS IS 'Orders'");
+            stmt.execute("CREATE TABLE SALES.ORDER_LINES (ORDER_ID BIGINT, LINE_NO INT, ITEM VARCHAR(50),"
+                    + " PRIMARY KEY (ORDER_ID, LINE_NO))");
+            // Matches ORDER_LINES as a LIKE pattern
+            stmt.execute("CREATE TABLE SALES.ORDERXLINES (NOTE VARCHAR(10))");
+            stmt.execute("CREATE VIEW SALES.ORDER_CODES AS SELECT ID, CODE FROM SALES.ORDERS");
+            stmt.execute("CREATE TABLE PUBLIC.SETTINGS (NAME VARCHAR(30) PRIMARY KEY, SETTING_VALUE CLOB)");
+        }
+
+        DatabaseConnection connection = new DatabaseConnection(
+                1L, "introspection", DatabaseType.H2, "localhost", 9092, DATABASE_NAME, "sa", "",
+                null, true, null, null, null, null, null);
+        when(databaseService.getConnection(1L)).thenReturn(connection);
+        when(databaseService.getQueryExecutor(1L)).thenReturn(queryExecutor);
+        when(queryExecutor.getDataSource()).thenReturn(new DelegatingDataSource(dataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                if (connectionCalls.incrementAndGet() == failingConnectionCall) {
+                    throw new SQLTransientConnectionException("Connection is not available, request timed out");
+                }
+                return super.getConnection();
+            }
+        });
+        when(queryExecutor.getMaximumPoolSize()).thenAnswer(invocation -> maximumPoolSize);
+
+        executor = Executors.newFixedThreadPool(2);
+        service = new SchemaIntrospectionService(databaseService,
+                new SchemaFingerprintService(databaseService, schemaMetadataRepository),
+                task -> {
+                    workerSubmissions.incrementAndGet();
+                    executor.execute(task);
+                }, 2, 2);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        executor.shutdownNow();
+        try (Connection conn = dataSource.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP ALL OBJECTS");
+        }
+    }
+
+    @Test
+    void testReadSchemaMetadata_MatchesPerTableCatalogCalls() throws SQLException {
+        SchemaMetadata metadata = service.readSchemaMetadata(1L);
+
+        assertEquals(DATABASE_NAME, metadata.databaseName());
+        assertEquals(List.of("PUBLIC", "SALES"), metadata.schemas());
+        assertEquals(List.of("SETTINGS", "ORDERS", "ORDERXLINES", "ORDER_LINES", "ORDER_CODES"),
+                metadata.tables().stream().map(TableMetadata::tableName).toList());
+
+        try (Connection conn = dataSource.getConnection()) {
+            DatabaseMetaData metaData = conn.getMetaData();
+            for (TableMetadata table : metadata.tables()) {
+                assertEquals(readColumnsPerTable(metaData, table.schema(), table.tableName()), table.columns(),
+                        table.schema() + "." + table.tableName());
+            }
+        }
+    }
+
+    @Test
+    void testReadSchemaMetadata_PrimaryKeysAndTypes() {
+        SchemaMetadata metadata = service.readSchemaMetadata(1L);
+
+        TableMetadata orders = findTable(metadata, "ORDERS");
+        assertEquals("TABLE", orders.tableType());
+        assertEquals("Orders", orders.comment());
+        assertEquals(List.of("ID", "CODE", "AMOUNT"),
+                orders.columns().stream().map(ColumnMetadata::columnName).toList());
+        assertTrue(orders.columns().get(0).primaryKey());
+        assertTrue(orders.columns().get(0).autoIncrement());
+        assertFalse(orders.columns().get(1).primaryKey());
+        assertFalse(orders.columns().get(1).nullable());
+
+        TableMetadata orderLines = findTable(metadata, "ORDER_LINES");
+        assertEquals(List.of(true, true, false),
+                orderLines.columns().stream().map(ColumnMetadata::primaryKey).toList());
+        assertEquals(List.of("ORDER_ID", "LINE_NO", "ITEM"),
+                orderLines.columns().stream().map(ColumnMetadata::columnName).toList());
+
+        TableMetadata orderCodes = findTable(metadata, "ORDER_CODES");
+        assertEquals("VIEW", orderCodes.tableType());
+        assertEquals(2, orderCodes.columns().size());
+    }
+
+    @Test
+    void testReadSchemaMetadata_WorkersLeavePoolHeadroom() {
+        maximumPoolSize = 3;
+
+        SchemaMetadata metadata = service.readSchemaMetadata(1L);
+
+        assertEquals(5, metadata.tables().size());
+        assertEquals(1, workerSubmissions.get());
+    }
+
+    @Test
+    void testReadSchemaMetadata_WorkerWithoutConnectionDoesNotFail() {
+        // The first connection reads the schema list; the next one, borrowed by a worker, times out
+        failingConnectionCall = 2;
+
+        SchemaMetadata metadata = service.readSchemaMetadata(1L);
+
+        assertEquals(2, workerSubmissions.get());
+        assertEquals(List.of("SETTINGS", "ORDERS", "ORDERXLINES", "ORDER_LINES", "ORDER_CODES"),
+                metadata.tables().stream().map(TableMetadata::tableName).toList());
+    }
+
+    private TableMetadata findTable(SchemaMetadata metadata, String tableName) {
+        return metadata.tables().stream()
+                .filter(table -> table.tableName().equals(tableName))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    /**
+     * Reference: columns read with one catalog call per table, restricted to the exact table
+     */
+    private List<ColumnMetadata> readColumnsPerTable(
+            DatabaseMetaData metaData, String schema, String tableName
+    ) throws SQLException {
+        Set<String> primaryKeys = new HashSet<>();
+        try (ResultSet rs = metaData.getPrimaryKeys(DATABASE_NAME, schema, tableName)) {
+            while (rs.next()) {
+                primaryKeys.add(rs.getString("COLUMN_NAME"));
+            }
+        }
+
+        List<ColumnMetadata> columns = new ArrayList<>();
+        try (ResultSet rs = metaData.getColumns(DATABASE_NAME, schema, tableName, null)) {
+            while (rs.next()) {
+                if (!tableName.equals(rs.getString("TABLE_NAME"))) {
+                    continue;
+                }
+                Integer columnSize = rs.getInt("COLUMN_SIZE");
+                if (rs.wasNull()) columnSize = null;
+                Integer decimalDigits = rs.getInt("DECIMAL_DIGITS");
+                if (rs.wasNull()) decimalDigits = null;
+                columns.add(new ColumnMetadata(
+                        rs.getString("COLUMN_NAME"),
+                        rs.getString("TYPE_NAME"),
+                        columnSize,
+                        decimalDigits,
+                        rs.getInt("NULLABLE") == DatabaseMetaData.columnNullable,
+                        rs.getString("COLUMN_DEF"),
+                        rs.getString("REMARKS"),
+                        primaryKeys.contains(rs.getString("COLUMN_NAME")),
+                        "YES".equalsIgnoreCase(rs.getString("IS_AUTOINCREMENT")),
+                        rs.getInt("ORDINAL_POSITION")
+                ));
+            }
+        }
+        return columns.stream()
+                .sorted((a, b) -> Integer.compare(a.ordinalPosition(), b.ordinalPosition()))
+                .toList();
+    }
+}
@@ -16,9 +16,13 @@
 
 package cherry.mastermeister.service;
 
+import cherry.mastermeister.entity.ColumnMetadataEntity;
 import cherry.mastermeister.entity.SchemaMetadataEntity;
+import cherry.mastermeister.entity.TableMetadataEntity;
 import cherry.mastermeister.model.ColumnMetadata;
+import cherry.mastermeister.model.SchemaDiff;
 import cherry.mastermeister.model.SchemaMetadata;
+import cherry.mastermeister.model.SchemaRefreshResult;
 import cherry.mastermeister.model.TableMetadata;
 import cherry.mastermeister.repository.SchemaMetadataRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -28,11 +32,13 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,20 +47,27 @@ class SchemaMetadataServiceTest {
     @Mock
     private SchemaMetadataRepository schemaMetadataRepository;
 
+    @Mock
+    private PermissionEpochService permissionEpochService;
+
+    @Mock
+    private SchemaCatalogService schemaCatalogService;
+
     private SchemaMetadataService service;
 
     @BeforeEach
     void setUp() {
         service = new SchemaMetadataService(
-                schemaMetadataRepository
+                schemaMetadataRepository,
+                permissionEpochService,
+                schemaCatalogService
         );
     }
 
     @Test
     void testSaveSchemaMetadata() {
         // Setup test data
-        SchemaMetadataEntity toBeDeleted = mock(SchemaMetadataEntity.class);
-        when(schemaMetadataRepository.findByConnectionId(1L)).thenReturn(Optional.of(toBeDeleted));
+        when(schemaMetadataRepository.findByConnectionId(1L)).thenReturn(Optional.empty());
 
         ColumnMetadata column = new ColumnMetadata(
                 "ID", "BIGINT", 19, null, false, null, "ID column",
@@ -66,7 +79,7 @@ class SchemaMetadataServiceTest {
         );
 
         SchemaMetadata metadata = new SchemaMetadata(
-                1L, "testdb", List.of("PUBLIC"), List.of(table), LocalDateTime.now()
+                1L, "testdb", List.of("PUBLIC"), List.of(table), LocalDateTime.now(), null
         );
 
         SchemaMetadataEntity savedEntity = new SchemaMetadataEntity();
@@ -80,16 +93,126 @@ class SchemaMetadataServiceTest {
         when(schemaMetadataRepository.save(any(SchemaMetadataEntity.class))).thenReturn(savedEntity);
 
         // Execute
-        SchemaMetadata result = service.saveSchemaMetadata(metadata);
+        SchemaRefreshResult result = service.saveSchemaMetadata(metadata);
 
         // Verify
         assertNotNull(result);
-        assertEquals(1L, result.connectionId());
-        assertEquals("testdb", result.databaseName());
+        assertEquals(1L, result.metadata().connectionId());
+        assertEquals("testdb", result.metadata().databaseName());
+        assertEquals(new SchemaDiff(1, 0, 0, 1, 0, 0), result.diff());
 
         verify(schemaMetadataRepository).findByConnectionId(1L);
-        verify(schemaMetadataRepository).delete(eq(toBeDeleted));
+        verify(schemaCatalogService).replace(result.metadata());
         verify(schemaMetadataRepository).save(any(SchemaMetadataEntity.class));
+        verify(permissionEpochService).invalidateConnection(1L);
+    }
+
+    @Test
+    void testSaveSchemaMetadataAppliesDiff() {
+        // Stored: ORDERS(ID, CODE, OBSOLETE), LEGACY(ID)
+        SchemaMetadataEntity entity = new SchemaMetadataEntity();
+        entity.setId(1L);
+        entity.setConnectionId(1L);
+        entity.setDatabaseName("testdb");
+        entity.setSchemas(new ArrayList<>(List.of("PUBLIC")));
+        entity.setTables(new ArrayList<>());
+        TableMetadataEntity orders = tableEntity(entity, "ORDERS", "Orders",
+                column("ID", "ID column", true, 1),
+                column("CODE", "Code", false, 2),
+                column("OBSOLETE", null, false, 3));
+        TableMetadataEntity legacy = tableEntity(entity, "LEGACY", null,
+                column("ID", null, true, 1));
+        ColumnMetadataEntity idColumn = orders.getColumns().get(0);
+        when(schemaMetadataRepository.findByConnectionId(1L)).thenReturn(Optional.of(entity));
+
+        // Read: ORDERS(ID, CODE with new comment, AMOUNT), ITEMS(ID, NAME)
+        SchemaMetadata metadata = new SchemaMetadata(1L, "testdb", List.of("PUBLIC"), List.of(
+                new TableMetadata("PUBLIC", "ORDERS", "TABLE", "Orders", List.of(
+                        columnModel("ID", "ID column", true, 1),
+                        columnModel("CODE", "Order code", false, 2),
+                        columnModel("AMOUNT", null, false, 3))),
+                new TableMetadata("PUBLIC", "ITEMS", "TABLE", "Items", List.of(
+                        columnModel("ID", null, true, 1),
+                        columnModel("NAME", null, false, 2)))
+        ), LocalDateTime.now(), null);
+
+        SchemaRefreshResult result = service.saveSchemaMetadata(metadata);
+
+        assertEquals(new SchemaDiff(1, 0, 1, 3, 1, 2), result.diff());
+        assertEquals(List.of("ORDERS", "ITEMS"),
+                entity.getTables().stream().map(TableMetadataEntity::getTableName).toList());
+        assertSame(orders, entity.getTables().get(0));
+        assertFalse(entity.getTables().contains(legacy));
+        assertEquals(List.of("ID", "CODE", "AMOUNT"),
+                orders.getColumns().stream().map(ColumnMetadataEntity::getColumnName).toList());
+        assertSame(idColumn, orders.getColumns().get(0));
+        assertEquals("Order code", orders.getColumns().get(1).getComment());
+        // Returned in the order of a reload: by schema and table name, not by insertion
+        assertEquals(List.of(metadata.tables().get(1), metadata.tables().get(0)), result.metadata().tables());
+
+        verify(schemaMetadataRepository, never()).save(any(SchemaMetadataEntity.class));
+        verify(schemaMetadataRepository, never()).delete(any(SchemaMetadataEntity.class));
+        verify(permissionEpochService).invalidateConnection(1L);
+    }
+
+    @Test
+    void testSaveSchemaMetadataUnchanged() {
+        SchemaMetadataEntity entity = new SchemaMetadataEntity();
+        entity.setId(1L);
+        entity.setConnectionId(1L);
+        entity.setDatabaseName("testdb");
+        entity.setSchemas(new ArrayList<>(List.of("PUBLIC")));
+        entity.setTables(new ArrayList<>());
+        tableEntity(entity, "ORDERS", "Orders", column("ID", "ID column", true, 1));
+        when(schemaMetadataRepository.findByConnectionId(1L)).thenReturn(Optional.of(entity));
+
+        SchemaMetadata metadata = new SchemaMetadata(1L, "testdb", List.of("PUBLIC"), List.of(
+                new TableMetadata("PUBLIC", "ORDERS", "TABLE", "Orders", List.of(
+                        columnModel("ID", "ID column", true, 1)))
+        ), LocalDateTime.now(), null);
+
+        SchemaRefreshResult result = service.saveSchemaMetadata(metadata);
+
+        assertTrue(result.diff().isEmpty());
+        verify(permissionEpochService, never()).invalidateConnection(anyLong());
+    }
+
+    private TableMetadataEntity tableEntity(
+            SchemaMetadataEntity schemaEntity, String tableName, String comment, ColumnMetadataEntity... columns
+    ) {
+        TableMetadataEntity table = new TableMetadataEntity();
+        table.setSchema("PUBLIC");
+        table.setTableName(tableName);
+        table.setTableType("TABLE");
+        table.setComment(comment);
+        table.setSchemaMetadata(schemaEntity);
+        table.setColumns(new ArrayList<>(List.of(columns)));
+        for (ColumnMetadataEntity column : columns) {
+            column.setTableMetadata(table);
+        }
+        schemaEntity.getTables().add(table);
+        return table;
+    }
+
+    private ColumnMetadataEntity column(String columnName, String comment, boolean primaryKey, int ordinalPosition) {
+        ColumnMetadata model = columnModel(columnName, comment, primaryKey, ordinalPosition);
+        ColumnMetadataEntity column = new ColumnMetadataEntity();
+        column.setColumnName(model.columnName());
+        column.setDataType(model.dataType());
+        column.setColumnSize(model.columnSize());
+        column.setDecimalDigits(model.decimalDigits());
+        column.setNullable(model.nullable());
+        column.setDefaultValue(model.defaultValue());
+        column.setComment(model.comment());
+        column.setPrimaryKey(model.primaryKey());
+        column.setAutoIncrement(model.autoIncrement());
+        column.setOrdinalPosition(model.ordinalPosition());
+        return column;
+    }
+
+    private ColumnMetadata columnModel(String columnName, String comment, boolean primaryKey, int ordinalPosition) {
+        return new ColumnMetadata(columnName, "VARCHAR", 50, null, !primaryKey, null, comment,
+                primaryKey, false, ordinalPosition);
     }
 
     @Test
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2025 agwlvssainokuni
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cherry.mastermeister.service;
+
+import cherry.mastermeister.enums.SchemaRefreshStatus;
+import cherry.mastermeister.enums.SchemaUpdateOperation;
+import cherry.mastermeister.exception.TooManyRequestsException;
+import cherry.mastermeister.model.SchemaRefreshJob;
+import cherry.mastermeister.model.SchemaUpdateLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SchemaRefreshJobServiceTest {
+
+    @Mock
+    private SchemaUpdateService schemaUpdateService;
+
+    @Mock
+    private DatabaseService databaseService;
+
+    @Mock
+    private CacheChangeLogService cacheChangeLogService;
+
+    @Test
+    void testStartRefresh_RunsClaimedJob() {
+        SchemaRefreshJobService service = createService(Runnable::run);
+        when(cacheChangeLogService.getNodeId()).thenReturn("node-1");
+        when(schemaUpdateService.claimRefresh(eq(1L), eq("admin@example.com"), anyString(), eq("node-1"), any()))
+                .thenReturn(Optional.empty());
+
+        SchemaRefreshJob job = service.startRefresh(1L, "admin@example.com");
+
+        assertEquals(SchemaRefreshStatus.COMPLETED, job.status());
+        verify(schemaUpdateService).refreshSchema(eq(1L), eq("admin@example.com"), eq(job.jobId()), any());
+    }
+
+    @Test
+    void testStartRefresh_ReturnsJobRunningOnAnotherNode() {
+        SchemaRefreshJobService service = createService(Runnable::run);
+        when(cacheChangeLogService.getNodeId()).thenReturn("node-1");
+        when(schemaUpdateService.claimRefresh(eq(1L), eq("system"), anyString(), eq("node-1"), any()))
+                .thenReturn(Optional.of(runningLog("job-on-node-2")));
+
+        SchemaRefreshJob job = service.startRefresh(1L, "system");
+
+        assertEquals("job-on-node-2", job.jobId());
+        assertEquals(SchemaRefreshStatus.RUNNING, job.status());
+        verify(schemaUpdateService, never()).refreshSchema(any(), any(), any(), any());
+    }
+
+    @Test
+    void testStartRefresh_ReleasesClaimWhenRejected() {
+        SchemaRefreshJobService service = createService(task -> {
+            throw new RejectedExecutionException("queue full");
+        });
+        when(cacheChangeLogService.getNodeId()).thenReturn("node-1");
+        when(schemaUpdateService.claimRefresh(eq(1L), eq("admin@example.com"), anyString(), eq("node-1"), any()))
+                .thenReturn(Optional.empty());
+
+        assertThrows(TooManyRequestsException.class, () -> service.startRefresh(1L, "admin@example.com"));
+
+        ArgumentCaptor<String> jobId = ArgumentCaptor.forClass(String.class);
+        verify(schemaUpdateService).claimRefresh(eq(1L), eq("admin@example.com"), jobId.capture(), eq("node-1"), any());
+        verify(schemaUpdateService).releaseClaim(jobId.getValue());
+    }
+
+    @Test
+    void testCancelJob_RequestsCancellationOfJobOnAnotherNode() {
+        SchemaRefreshJobService service = createService(Runnable::run);
+        when(schemaUpdateService.requestCancel(1L, "job-on-node-2")).thenReturn(true);
+        when(schemaUpdateService.getOperationByJobId("job-on-node-2"))
+                .thenReturn(Optional.of(runningLog("job-on-node-2")));
+
+        SchemaRefreshJob job = service.cancelJob(1L, "job-on-node-2");
+
+        assertEquals("job-on-node-2", job.jobId());
+        assertEquals(SchemaRefreshStatus.RUNNING, job.status());
+        assertEquals(1, job.schemasDone());
+        verify(schemaUpdateService).requestCancel(1L, "job-on-node-2");
+    }
+
+    @Test
+    void testRenewClaims_StopsJobCancelledOnAnotherNode() {
+        List<Runnable> queued = new ArrayList<>();
+        SchemaRefreshJobService service = createService(queued::add);
+        when(cacheChangeLogService.getNodeId()).thenReturn("node-1");
+        when(schemaUpdateService.claimRefresh(eq(1L), eq("admin@example.com"), anyString(), eq("node-1"), any()))
+                .thenReturn(Optional.empty());
+        when(schemaUpdateService.refreshSchema(eq(1L), eq("admin@example.com"), anyString(), any()))
+                .thenAnswer(invocation -> {
+                    SchemaRefreshProgress progress = invocation.getArgument(3);
+                    progress.checkCancelled();
+                    return null;
+                });
+
+        SchemaRefreshJob started = service.startRefresh(1L, "admin@example.com");
+        when(schemaUpdateService.renewClaims(anyMap())).thenReturn(Set.of(started.jobId()));
+        service.renewClaims();
+        queued.forEach(Runnable::run);
+
+        assertEquals(SchemaRefreshStatus.CANCELLED, service.getJob(1L, started.jobId()).status());
+        verify(schemaUpdateService).renewClaims(argThat(running -> running.containsKey(started.jobId())));
+        verify(schemaUpdateService).releaseStaleClaims(any());
+    }
+
+    private SchemaRefreshJobService createService(Executor executor) {
+        return new SchemaRefreshJobService(schemaUpdateService, databaseService, cacheChangeLogService,
+                executor, Duration.ofHours(1), Duration.ofMinutes(5));
+    }
+
+    private static SchemaUpdateLog runningLog(String jobId) {
+        return new SchemaUpdateLog(
+                10L, 1L, SchemaUpdateOperation.REFRESH_SCHEMA, "admin@example.com", jobId,
+                SchemaRefreshStatus.RUNNING, 3, 1, 20, null, false, null,
+                null, null, null, null, null, null, null, null, null, LocalDateTime.now());
+    }
+}
@@ -46,11 +46,14 @@ class UserServiceTest {
     @Mock
     private EmailService emailService;
 
+    @Mock
+    private UserDetailsServiceImpl userDetailsService;
+
     private UserService userService;
 
     @BeforeEach
     void setUp() {
-        userService = new UserService(userRepository, emailService);
+        userService = new UserService(userRepository, emailService, userDetailsService);
     }
 
     @Test
@@ -87,6 +90,7 @@ class UserServiceTest {
         assertThat(user.getStatus()).isEqualTo(UserStatus.APPROVED);
         verify(userRepository).findById(1L);
         verify(userRepository).save(user);
+        verify(userDetailsService).invalidateUser(1L);
         verify(emailService).sendAccountApproved(
                 eq("testuser@example.com"),
                 eq("en")
@@ -138,6 +142,7 @@ class UserServiceTest {
         assertThat(user.getStatus()).isEqualTo(UserStatus.REJECTED);
         verify(userRepository).findById(1L);
         verify(userRepository).save(user);
+        verify(userDetailsService).invalidateUser(1L);
         verify(emailService).sendAccountRejected(
                 eq("testuser@example.com"),
                 eq("en")
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2025 agwlvssainokuni
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cherry.mastermeister.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecordCursorCodecTest {
+
+    @Test
+    void testEncodeDecode_RoundTrip() {
+        Timestamp timestamp = Timestamp.valueOf(LocalDateTime.of(2025, 9, 1, 12, 30, 45));
+        List<String> keyColumns = List.of("CREATED_AT", "AMOUNT", "CODE", "ID");
+        List<Object> keyValues = Arrays.asList(timestamp, new BigDecimal("12.50"), "JPY", 42L);
+
+        String cursor = RecordCursorCodec.encode(keyColumns, keyValues);
+        List<Object> decoded = RecordCursorCodec.decode(cursor, keyColumns);
+
+        assertEquals(timestamp, decoded.get(0));
+        assertEquals(new BigDecimal("12.50"), decoded.get(1));
+        assertEquals("JPY", decoded.get(2));
+        assertEquals(42L, decoded.get(3));
+    }
+
+    @Test
+    void testEncodeDecode_TimeKeepsFractionalSeconds() {
+        LocalTime time = LocalTime.of(10, 15, 30, 123_456_789);
+        String cursor = RecordCursorCodec.encode(List.of("START_AT", "ID"), List.of(time, 1L));
+
+        assertEquals(List.of(time, 1L), RecordCursorCodec.decode(cursor, List.of("START_AT", "ID")));
+    }
+
+    @Test
+    void testEncodeDecode_SqlTimeKeepsMilliseconds() {
+        Time time = new Time(Time.valueOf(LocalTime.of(10, 15, 30)).getTime() + 250L);
+        String cursor = RecordCursorCodec.encode(List.of("START_AT"), List.of(time));
+
+        assertEquals(List.of(LocalTime.of(10, 15, 30, 250_000_000)), RecordCursorCodec.decode(cursor, List.of("START_AT")));
+    }
+
+    @Test
+    void testDecode_IntegerDecodedAsLong() {
+        String cursor = RecordCursorCodec.encode(List.of("ID"), List.of(7));
+
+        assertEquals(List.of(7L), RecordCursorCodec.decode(cursor, List.of("ID")));
+    }
+
+    @Test
+    void testDecode_RejectsDifferentKeyColumns() {
+        String cursor = RecordCursorCodec.encode(List.of("ID"), List.of(1L));
+
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> RecordCursorCodec.decode(cursor, List.of("NAME", "ID"))
+        );
+
+        assertEquals("Cursor does not match the current sort order", exception.getMessage());
+    }
+
+    @Test
+    void testDecode_RejectsMalformedCursor() {
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> RecordCursorCodec.decode("not-a-cursor!", List.of("ID"))
+        );
+
+        assertEquals("Invalid cursor", exception.getMessage());
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2025 agwlvssainokuni
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package cherry.mastermeister.util;
+
+import cherry.mastermeister.enums.PermissionType;
+import cherry.mastermeister.model.AccessibleColumn;
+import cherry.mastermeister.model.TableRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RowDecoderTest {
+
+    private static final String SELECT_ALL =
+            "SELECT ID, REF_ID, QTY, AMOUNT, CREATED_AT, START_AT, CODE, SECRET FROM PUBLIC.SAMPLES ORDER BY ID";
+
+    private DriverManagerDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:rowdecoder;DB_CLOSE_DELAY=-1", "sa", "");
+        execute("CREATE TABLE PUBLIC.SAMPLES (ID BIGINT PRIMARY KEY, REF_ID BIGINT, QTY INTEGER, "
+                + "AMOUNT DECIMAL(10, 2), CREATED_AT TIMESTAMP(3), START_AT TIME(3), CODE VARCHAR(10), SECRET VARCHAR(10))");
+        execute("INSERT INTO PUBLIC.SAMPLES VALUES "
+                + "(1, 10, 5, 12.50, TIMESTAMP '2025-09-01 12:30:45.123', TIME '09:15:30.250', 'A', 's1'), "
+                + "(2, NULL, NULL, NULL, NULL, NULL, NULL, 's2'), "
+                + "(3, 0, 0, 0.00, NULL, NULL, '', 's3')");
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void testDecodeRow_SpecializedReaders() throws SQLException {
+        List<Object[]> rows = decodeRows(readableColumns());
+        Object[] row = rows.get(0);
+
+        assertEquals(1L, row[0]);
+        assertEquals(10L, row[1]);
+        assertEquals(5, row[2]);
+        assertEquals(new BigDecimal("12.50"), row[3]);
+        assertEquals(Timestamp.valueOf(LocalDateTime.of(2025, 9, 1, 12, 30, 45, 123_000_000)), row[4]);
+        // TIME keeps the representation of the driver, rendered as before in JSON and CSV
+        assertInstanceOf(Time.class, row[5]);
+        assertEquals("09:15:30", row[5].toString());
+        assertEquals("A", row[6]);
+    }
+
+    @Test
+    void testReadCursorValues_KeepsFractionalSecondsOfTime() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(SELECT_ALL)) {
+            RowDecoder decoder = RowDecoder.compile(rs.getMetaData(), readableColumns());
+
+            assertTrue(rs.next());
+            assertEquals(List.of(LocalTime.of(9, 15, 30, 250_000_000), 1L),
+                    decoder.readCursorValues(rs, List.of("START_AT", "ID")));
+            assertThrows(IllegalArgumentException.class, () -> decoder.readCursorValues(rs, List.of("SECRET")));
+        }
+    }
+
+    @Test
+    void testDecodeRow_NullsAreDetectedWithWasNull() throws SQLException {
+        List<Object[]> rows = decodeRows(readableColumns());
+
+        assertArrayEquals(new Object[]{2L, null, null, null, null, null, null}, rows.get(1));
+        // Zero and empty values are not mistaken for null
+        assertArrayEquals(new Object[]{3L, 0L, 0, new BigDecimal("0.00"), null, null, ""}, rows.get(2));
+    }
+
+    @Test
+    void testCompile_SkipsColumnsWithoutReadPermission() throws SQLException {
+        // SECRET is denied and QTY is not among the accessible columns
+        List<AccessibleColumn> columns = List.of(
+                column("ID", true), column("AMOUNT", true), column("CODE", true), column("SECRET", false));
+
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(SELECT_ALL)) {
+            RowDecoder decoder = RowDecoder.compile(rs.getMetaData(), columns);
+            assertEquals(List.of("ID", "AMOUNT", "CODE"), decoder.getColumnNames());
+
+            assertTrue(rs.next());
+            assertArrayEquals(new Object[]{1L, new BigDecimal("12.50"), "A"}, decoder.decodeRow(rs));
+
+            assertTrue(rs.next());
+            TableRecord record = decoder.decodeRecord(rs);
+            assertEquals(List.of("ID", "AMOUNT", "CODE"), new ArrayList<>(record.data().keySet()));
+            assertFalse(record.canReadColumn("SECRET"));
+            assertFalse(record.canReadColumn("QTY"));
+            assertTrue(record.canReadColumn("ID"));
+            assertEquals(Set.of("ID", "AMOUNT", "CODE"), record.columnTypes().keySet());
+        }
+    }
+
+    private List<Object[]> decodeRows(List<AccessibleColumn> columns) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(SELECT_ALL)) {
+            RowDecoder decoder = RowDecoder.compile(rs.getMetaData(), columns);
+            List<Object[]> rows = new ArrayList<>();
+            while (rs.next()) {
+                rows.add(decoder.decodeRow(rs));
+            }
+            return rows;
+        }
+    }
+
+    private static List<AccessibleColumn> readableColumns() {
+        return List.of(
+                column("ID", true), column("REF_ID", true), column("QTY", true), column("AMOUNT", true),
+                column("CREATED_AT", true), column("START_AT", true), column("CODE", true), column("SECRET", false));
+    }
+
+    private static AccessibleColumn column(String name, boolean canRead) {
+        return new AccessibleColumn(name, null, null, null, true, null, null,
+                "ID".equals(name), false, null,
+                canRead ? Set.of(PermissionType.READ) : Set.of(),
+                canRead, false, false, false);
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
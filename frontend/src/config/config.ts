@@ -85,7 +85,9 @@ export const API_ENDPOINTS = {
   },
   SCHEMA: {
     GET: (connectionId: number) => `/admin/schema/${connectionId}`,
+    CHANGES: (connectionId: number) => `/admin/schema/${connectionId}/changes`,
     REFRESH: (connectionId: number) => `/admin/schema/${connectionId}/refresh`,
+    REFRESH_JOB: (connectionId: number, jobId: string) => `/admin/schema/${connectionId}/refresh/${jobId}`,
     HISTORY: (connectionId: number) => `/admin/schema/${connectionId}/history`,
     FAILURES: (connectionId: number) => `/admin/schema/${connectionId}/failures`
   },
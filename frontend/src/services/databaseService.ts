@@ -141,7 +141,8 @@ class DatabaseService {
       lastTestedAt: apiConnection.lastTestedAt ? new Date(apiConnection.lastTestedAt) : undefined,
       testResult: apiConnection.testResult,
       createdAt: new Date(apiConnection.createdAt),
-      updatedAt: new Date(apiConnection.updatedAt)
+      updatedAt: new Date(apiConnection.updatedAt),
+      poolSettings: apiConnection.poolSettings
     }
   }
 
@@ -165,7 +166,8 @@ class DatabaseService {
       username: connectionForm.username,
       password: connectionForm.password,
       connectionParams: connectionForm.connectionParams,
-      active: connectionForm.active
+      active: connectionForm.active,
+      poolSettings: connectionForm.poolSettings
     }
   }
 }
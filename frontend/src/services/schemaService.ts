@@ -19,12 +19,16 @@ import {API_ENDPOINTS} from '../config/config'
 import type {
   ApiResponse,
   ColumnMetadataResponse,
+  SchemaChangeCheckResponse,
   SchemaMetadataResponse,
+  SchemaRefreshJobResponse,
   SchemaUpdateLogResponse,
   TableMetadataResponse
 } from '../types/api'
 import type {ColumnMetadata, SchemaMetadata, SchemaUpdateLog, TableMetadata} from '../types/frontend'
 
+const REFRESH_POLL_INTERVAL_MS = 1000
+
 class SchemaService {
 
   async getSchema(connectionId: number): Promise<SchemaMetadata | null> {
@@ -52,8 +56,21 @@ class SchemaService {
     }
   }
 
+  async checkSchemaChanges(connectionId: number): Promise<SchemaChangeCheckResponse> {
+    const response = await apiClient.get<ApiResponse<SchemaChangeCheckResponse>>(
+      API_ENDPOINTS.SCHEMA.CHANGES(connectionId)
+    )
+
+    if (!response.data.ok || !response.data.data) {
+      throw new Error('Failed to check schema changes')
+    }
+
+    return response.data.data
+  }
+
   async refreshSchema(connectionId: number): Promise<SchemaMetadata> {
-    const response = await apiClient.post<ApiResponse<SchemaMetadataResponse>>(
+    // リフレッシュはバックグラウンドジョブとして実行されるため、完了までポーリングする
+    const response = await apiClient.post<ApiResponse<SchemaRefreshJobResponse>>(
       API_ENDPOINTS.SCHEMA.REFRESH(connectionId)
     )
 
@@ -61,7 +78,45 @@ class SchemaService {
       throw new Error('Failed to refresh schema metadata')
     }
 
-    return this.convertToFrontendSchema(response.data.data)
+    let job = response.data.data
+    while (job.status === 'PENDING' || job.status === 'RUNNING') {
+      await new Promise(resolve => setTimeout(resolve, REFRESH_POLL_INTERVAL_MS))
+      job = await this.getRefreshJob(connectionId, job.jobId)
+    }
+
+    if (job.status !== 'COMPLETED') {
+      throw new Error(job.errorMessage || `Schema refresh ${job.status.toLowerCase()}`)
+    }
+
+    const schema = await this.getSchema(connectionId)
+    if (!schema) {
+      throw new Error('Failed to refresh schema metadata')
+    }
+    return schema
+  }
+
+  async getRefreshJob(connectionId: number, jobId: string): Promise<SchemaRefreshJobResponse> {
+    const response = await apiClient.get<ApiResponse<SchemaRefreshJobResponse>>(
+      API_ENDPOINTS.SCHEMA.REFRESH_JOB(connectionId, jobId)
+    )
+
+    if (!response.data.ok || !response.data.data) {
+      throw new Error('Failed to get schema refresh job')
+    }
+
+    return response.data.data
+  }
+
+  async cancelRefreshJob(connectionId: number, jobId: string): Promise<SchemaRefreshJobResponse> {
+    const response = await apiClient.delete<ApiResponse<SchemaRefreshJobResponse>>(
+      API_ENDPOINTS.SCHEMA.REFRESH_JOB(connectionId, jobId)
+    )
+
+    if (!response.data.ok || !response.data.data) {
+      throw new Error('Failed to cancel schema refresh job')
+    }
+
+    return response.data.data
   }
 
   async getOperationHistory(connectionId: number): Promise<SchemaUpdateLog[]> {
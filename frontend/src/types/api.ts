@@ -162,6 +162,10 @@ export interface RecordQueryResponse {
   hasPreviousPage: boolean
   executionTimeMs: number
   query: string
+  nextCursor?: string
+  totalEstimated?: boolean
+  columns?: string[]
+  rows?: unknown[][]
 }
 
 export interface ColumnFilterRequest {
@@ -218,6 +222,16 @@ export interface RecordDeleteResponse {
 // Database Connection Types
 export type DatabaseType = 'MYSQL' | 'MARIADB' | 'POSTGRESQL' | 'H2'
 
+export interface ConnectionPoolSettings {
+  maximumPoolSize?: number
+  minimumIdle?: number
+  connectionTimeoutMs?: number
+  idleTimeoutMs?: number
+  maxLifetimeMs?: number
+  leakDetectionThresholdMs?: number
+  adaptive: boolean
+}
+
 export interface DatabaseRequest {
   name: string
   dbType: DatabaseType
@@ -228,6 +242,7 @@ export interface DatabaseRequest {
   password: string
   connectionParams?: string
   active: boolean
+  poolSettings?: ConnectionPoolSettings
 }
 
 export interface DatabaseResponse {
@@ -244,6 +259,7 @@ export interface DatabaseResponse {
   testResult?: boolean
   createdAt: string
   updatedAt: string
+  poolSettings?: ConnectionPoolSettings
 }
 
 export interface ConnectionTestResponse {
@@ -311,6 +327,29 @@ export interface BulkPermissionResponse {
   errors: string[]
 }
 
+export interface SchemaChangeCheckResponse {
+  connectionId: number
+  changed: boolean
+  storedFingerprint?: string
+  currentFingerprint?: string
+  lastUpdatedAt?: string
+}
+
+export type SchemaRefreshStatus = 'PENDING' | 'RUNNING' | 'COMPLETED' | 'FAILED' | 'CANCELLED'
+
+export interface SchemaRefreshJobResponse {
+  jobId: string
+  connectionId: number
+  userEmail: string
+  status: SchemaRefreshStatus
+  schemasTotal: number
+  schemasDone: number
+  tablesDone: number
+  errorMessage?: string
+  createdAt: string
+  finishedAt?: string
+}
+
 export interface SchemaUpdateLogResponse {
   id: number
   connectionId: number
@@ -255,6 +255,16 @@ export interface BulkPermissionResult {
   errors: string[]
 }
 
+export interface ConnectionPoolSettings {
+  maximumPoolSize?: number
+  minimumIdle?: number
+  connectionTimeoutMs?: number
+  idleTimeoutMs?: number
+  maxLifetimeMs?: number
+  leakDetectionThresholdMs?: number
+  adaptive: boolean
+}
+
 export interface DatabaseForm {
   name: string
   dbType: DatabaseType
@@ -265,6 +275,7 @@ export interface DatabaseForm {
   password: string
   connectionParams?: string
   active: boolean
+  poolSettings?: ConnectionPoolSettings
 }
 
 export interface Database {
@@ -281,6 +292,7 @@ export interface Database {
   testResult?: boolean
   createdAt: Date
   updatedAt: Date
+  poolSettings?: ConnectionPoolSettings
 }
 
 export interface ConnectionTestResult {